@@ -0,0 +1,152 @@
+/**
+ * @file CollisionBenchmark.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.benchmark;
+
+import ija.project.engine.Intersections;
+import javafx.scene.shape.Arc;
+import javafx.scene.shape.ArcType;
+import javafx.scene.shape.Ellipse;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.Shape;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the closed-form intersection tests with the JavaFX {@code Shape.intersect} path
+ * previously used by robots for collision and obstacle detection.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class CollisionBenchmark {
+
+    /**
+     * The number of shape pairs tested by a single benchmark invocation.
+     */
+    private static final int PAIRS = 1024;
+
+    private final double[] cx = new double[PAIRS], cy = new double[PAIRS], cr = new double[PAIRS];
+    private final double[] ox = new double[PAIRS], oy = new double[PAIRS], or = new double[PAIRS];
+    private final double[] rx = new double[PAIRS], ry = new double[PAIRS];
+    private final double[] rw = new double[PAIRS], rh = new double[PAIRS];
+    private final double[] sr = new double[PAIRS], start = new double[PAIRS], extent = new double[PAIRS];
+
+    private final Ellipse[] circles = new Ellipse[PAIRS], others = new Ellipse[PAIRS];
+    private final Rectangle[] rectangles = new Rectangle[PAIRS];
+    private final Arc[] arcs = new Arc[PAIRS];
+
+    /**
+     * Generates the same pseudo-random set of shape pairs for every benchmark.
+     */
+    @Setup
+    public void setup() {
+        var random = new Random(42);
+        for (int i = 0; i < PAIRS; i++) {
+            cx[i] = random.nextDouble() * 100;
+            cy[i] = random.nextDouble() * 100;
+            cr[i] = 2 + random.nextDouble() * 10;
+            ox[i] = random.nextDouble() * 100;
+            oy[i] = random.nextDouble() * 100;
+            or[i] = 2 + random.nextDouble() * 10;
+            rx[i] = random.nextDouble() * 100;
+            ry[i] = random.nextDouble() * 100;
+            rw[i] = 2 + random.nextDouble() * 20;
+            rh[i] = 2 + random.nextDouble() * 20;
+            sr[i] = 10 + random.nextDouble() * 30;
+            start[i] = random.nextDouble() * 360;
+            extent[i] = 30 + random.nextDouble() * 90;
+
+            circles[i] = new Ellipse(cx[i], cy[i], cr[i], cr[i]);
+            others[i] = new Ellipse(ox[i], oy[i], or[i], or[i]);
+            rectangles[i] = new Rectangle(rx[i], ry[i], rw[i], rh[i]);
+            arcs[i] = new Arc(cx[i], cy[i], sr[i], sr[i], start[i], extent[i]);
+            arcs[i].setType(ArcType.ROUND);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int circleCircleShapeIntersect() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) if (fxIntersects(circles[i], others[i])) hits++;
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int circleCircleAnalytic() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) if (Intersections.circleCircle(cx[i], cy[i], cr[i], ox[i], oy[i], or[i])) hits++;
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int circleRectShapeIntersect() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) if (fxIntersects(circles[i], rectangles[i])) hits++;
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int circleRectAnalytic() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) if (Intersections.circleRect(cx[i], cy[i], cr[i], rx[i], ry[i], rw[i], rh[i])) hits++;
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int sectorCircleShapeIntersect() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) if (fxIntersects(arcs[i], others[i])) hits++;
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int sectorCircleAnalytic() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            if (Intersections.sectorCircle(cx[i], cy[i], sr[i], start[i], extent[i], ox[i], oy[i], or[i])) hits++;
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int sectorRectShapeIntersect() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) if (fxIntersects(arcs[i], rectangles[i])) hits++;
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int sectorRectAnalytic() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            if (Intersections.sectorRect(cx[i], cy[i], sr[i], start[i], extent[i], rx[i], ry[i], rw[i], rh[i])) hits++;
+        }
+        return hits;
+    }
+
+    /**
+     * Reproduces the intersection check robots performed before the closed-form tests.
+     *
+     * @param a The first shape.
+     * @param b The second shape.
+     * @return True if the shapes intersect, false otherwise.
+     */
+    private static boolean fxIntersects(Shape a, Shape b) {
+        return !((Path) Shape.intersect(a, b)).getElements().isEmpty();
+    }
+}
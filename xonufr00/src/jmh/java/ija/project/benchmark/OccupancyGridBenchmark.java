@@ -0,0 +1,71 @@
+/**
+ * @file OccupancyGridBenchmark.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.benchmark;
+
+import ija.project.model.impl.Block;
+import ija.project.model.impl.Room;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the distance field of the blocks: a lookup of the clearance at a point, and the incremental
+ * update of the field after a single block is moved and moved back.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class OccupancyGridBenchmark {
+
+    /**
+     * The number of precomputed query points.
+     */
+    private static final int POINTS = 1024;
+
+    @Param({"100", "1000", "10000"})
+    public int blocks;
+
+    private Room room;
+
+    private Block[] edited;
+
+    private final double[] x = new double[POINTS], y = new double[POINTS];
+
+    private int next;
+
+    /**
+     * Builds the room and the query points.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        room = RoomFixture.build(0, blocks);
+        edited = room.getBlocks().toArray(new Block[0]);
+        var random = new Random(42);
+        for (int i = 0; i < POINTS; i++) {
+            x[i] = random.nextDouble() * room.getWidth();
+            y[i] = random.nextDouble() * room.getHeight();
+        }
+    }
+
+    @Benchmark
+    public double getBlockDistance() {
+        next = (next + 1) % POINTS;
+        return room.getBlockDistance(x[next], y[next]);
+    }
+
+    @Benchmark
+    public double editBlock() {
+        next = (next + 1) % POINTS;
+        var block = edited[next % edited.length];
+        var left = block.getLeftTopX();
+        block.setLeftTopX(left + 1);
+        var moved = room.getBlockDistance(left, block.getLeftTopY());
+        block.setLeftTopX(left);
+        return moved + room.getBlockDistance(left, block.getLeftTopY());
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * @file PathPlannerBenchmark.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.benchmark;
+
+import ija.project.engine.PathPlanner;
+import ija.project.model.impl.Room;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the route planning around the blocks: a query answered from the route cache, and a jump-point search
+ * between random points. The searched queries cycle through more routes than the cache holds, so each of them
+ * runs a search.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class PathPlannerBenchmark {
+
+    /**
+     * The number of precomputed queries answered from the cache.
+     */
+    private static final int CACHED = 1024;
+
+    /**
+     * The number of precomputed searched queries.
+     */
+    private static final int SEARCHED = 2 * PathPlanner.MAX_CACHED_ROUTES;
+
+    /**
+     * The radius of the planned robots.
+     */
+    private static final double RADIUS = 5;
+
+    @Param({"100", "1000", "10000"})
+    public int blocks;
+
+    private Room room;
+
+    private final double[] fromX = new double[SEARCHED], fromY = new double[SEARCHED];
+
+    private final double[] toX = new double[SEARCHED], toY = new double[SEARCHED];
+
+    private int nextCached, nextSearched;
+
+    /**
+     * Builds the room and the queries, and fills the cache with the cached ones.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        room = RoomFixture.build(0, blocks);
+        var random = new Random(42);
+        for (int i = 0; i < SEARCHED; i++) {
+            fromX[i] = random.nextDouble() * room.getWidth();
+            fromY[i] = random.nextDouble() * room.getHeight();
+            toX[i] = random.nextDouble() * room.getWidth();
+            toY[i] = random.nextDouble() * room.getHeight();
+        }
+        for (int i = 0; i < CACHED; i++) cached();
+    }
+
+    @Benchmark
+    public double[] cached() {
+        nextCached = (nextCached + 1) % CACHED;
+        return room.getPathPlanner().findRoute(fromX[nextCached], fromY[nextCached], toX[nextCached],
+                toY[nextCached], RADIUS);
+    }
+
+    @Benchmark
+    public double[] search() {
+        nextSearched = (nextSearched + 1) % SEARCHED;
+        if (nextSearched < CACHED) nextSearched = CACHED;
+        return room.getPathPlanner().findRoute(fromX[nextSearched], fromY[nextSearched], toX[nextSearched],
+                toY[nextSearched], RADIUS);
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * @file RobotQueryBenchmark.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.benchmark;
+
+import ija.project.model.impl.Robot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the collision, detection and sensor queries of a single robot against the rest of the room.
+ * Every invocation queries the next robot of the room, so all neighbourhoods are visited.
+ * The queries bypass the statuses the room caches after every update, so they measure the tests themselves.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class RobotQueryBenchmark {
+
+    /**
+     * The number of rays of an arc scan.
+     */
+    private static final int SCAN_RAYS = 9;
+
+    @Param({"100", "1000", "10000"})
+    public int robots;
+
+    @Param({"10", "100", "1000"})
+    public int blocks;
+
+    private Robot[] queried;
+
+    private int next;
+
+    /**
+     * The distances measured by an arc scan.
+     */
+    private final double[] scan = new double[SCAN_RAYS];
+
+    /**
+     * Builds the room and collects its robots.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        queried = RoomFixture.build(robots, blocks).getRobots().toArray(new Robot[0]);
+    }
+
+    /**
+     * Gets the next queried robot.
+     *
+     * @return The robot.
+     */
+    private Robot nextRobot() {
+        if (next == queried.length) next = 0;
+        return queried[next++];
+    }
+
+    @Benchmark
+    public boolean isCollidingAt() {
+        var robot = nextRobot();
+        return robot.isCollidingAt(robot.getCenterX(), robot.getCenterY());
+    }
+
+    @Benchmark
+    public boolean detectsObstacle() {
+        return nextRobot().detectsObstacle();
+    }
+
+    @Benchmark
+    public double getFreeDistance() {
+        return nextRobot().getFreeDistance();
+    }
+
+    @Benchmark
+    public double[] scanArc() {
+        nextRobot().scanArc(scan);
+        return scan;
+    }
+}
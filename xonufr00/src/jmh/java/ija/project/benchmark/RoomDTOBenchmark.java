@@ -0,0 +1,84 @@
+/**
+ * @file RoomDTOBenchmark.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.benchmark;
+
+import ija.project.dto.RoomDTO;
+import ija.project.model.impl.Room;
+import ija.project.util.json.RoomDTOSerializer;
+import ija.project.util.json.RoomJsonWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversions used by saving, loading and rewinding: taking a RoomDTO snapshot of a room,
+ * building a room from it and converting it to and from JSON, and streaming a room to JSON without a snapshot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class RoomDTOBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int robots;
+
+    @Param({"10", "100", "1000"})
+    public int blocks;
+
+    private Room room;
+
+    private RoomDTO dto;
+
+    private String json;
+
+    private RoomDTOSerializer serializer;
+
+    private RoomJsonWriter writer;
+
+    /**
+     * Builds the room and its serialized forms.
+     *
+     * @throws IOException If the room cannot be serialized.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        room = RoomFixture.build(robots, blocks);
+        dto = new RoomDTO(room);
+        serializer = new RoomDTOSerializer();
+        writer = new RoomJsonWriter();
+        json = serializer.serializeObject(dto);
+    }
+
+    @Benchmark
+    public RoomDTO createDto() {
+        return new RoomDTO(room);
+    }
+
+    @Benchmark
+    public Room buildEntity() {
+        return dto.buildEntity();
+    }
+
+    @Benchmark
+    public String serialize() throws IOException {
+        return serializer.serializeObject(dto);
+    }
+
+    @Benchmark
+    public Room writeStreaming() throws IOException {
+        writer.write(room, OutputStream.nullOutputStream(), (written, total) -> {
+        });
+        return room;
+    }
+
+    @Benchmark
+    public RoomDTO deserialize() throws IOException {
+        return serializer.deserilizeObject(json);
+    }
+}
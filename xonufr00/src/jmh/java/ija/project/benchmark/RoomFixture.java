@@ -0,0 +1,71 @@
+/**
+ * @file RoomFixture.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.benchmark;
+
+import ija.project.model.impl.Block;
+import ija.project.model.impl.Robot;
+import ija.project.model.impl.Room;
+
+import java.util.Random;
+
+/**
+ * Builds reproducible rooms for the benchmarks.
+ * The room grows with the number of entities, so every room has the same density of robots and blocks.
+ */
+final class RoomFixture {
+
+    /**
+     * The area of the room reserved for one entity.
+     */
+    private static final double AREA_PER_ENTITY = 40 * 40;
+
+    /**
+     * The seed of the generated layouts.
+     */
+    private static final long SEED = 42;
+
+    /**
+     * The maximal number of attempts to place a robot without collisions.
+     */
+    private static final int PLACEMENT_ATTEMPTS = 100;
+
+    /**
+     * Prevents instantiation.
+     */
+    private RoomFixture() {
+    }
+
+    /**
+     * Builds a running room with randomly placed blocks and non-colliding robots.
+     *
+     * @param robots The number of robots.
+     * @param blocks The number of blocks.
+     * @return The room.
+     */
+    static Room build(int robots, int blocks) {
+        var side = Math.sqrt((robots + blocks) * AREA_PER_ENTITY);
+        var room = new Room(side, side);
+        var random = new Random(SEED);
+
+        for (int i = 0; i < blocks; i++) {
+            var size = 10 + random.nextDouble() * 30;
+            room.addBlock(new Block(room, random.nextDouble() * (side - size), random.nextDouble() * (side - size),
+                    size, size));
+        }
+        for (int i = 0; i < robots; i++) {
+            for (int attempt = 0; attempt < PLACEMENT_ATTEMPTS; attempt++) {
+                var robot = new Robot(room,
+                        5 + random.nextDouble() * (side - 10), 5 + random.nextDouble() * (side - 10),
+                        5, random.nextDouble() * 360,
+                        15, 60, 12, 40, 180);
+                if (robot.isColliding()) continue;
+                room.addRobot(robot);
+                break;
+            }
+        }
+        room.resume();
+        return room;
+    }
+}
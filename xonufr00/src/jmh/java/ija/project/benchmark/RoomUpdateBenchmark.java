@@ -0,0 +1,48 @@
+/**
+ * @file RoomUpdateBenchmark.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.benchmark;
+
+import ija.project.model.impl.Room;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one simulation step of a whole room, including the notification of changed entities.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class RoomUpdateBenchmark {
+
+    /**
+     * The length of one simulation step, a frame at 60 frames per second.
+     */
+    private static final long STEP_NANOS = 16_666_667L;
+
+    @Param({"100", "1000", "10000"})
+    public int robots;
+
+    @Param({"10", "100", "1000"})
+    public int blocks;
+
+    private Room room;
+
+    /**
+     * Builds the benchmarked room.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        room = RoomFixture.build(robots, blocks);
+    }
+
+    @Benchmark
+    public Room update() {
+        room.update(STEP_NANOS);
+        return room;
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * @file SceneFormatBenchmark.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.benchmark;
+
+import ija.project.model.impl.Room;
+import ija.project.util.binary.RoomBinaryFormat;
+import ija.project.util.json.RoomDTOSerializer;
+import ija.project.util.json.RoomJsonWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares saving a room to a file and loading it back in the JSON format and in the binary scene format.
+ * Loading a JSON file reads it into a string and builds the room through a RoomDTO, like the application does;
+ * loading a scene file maps it into memory and builds the room directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class SceneFormatBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int robots;
+
+    @Param({"10", "100", "1000"})
+    public int blocks;
+
+    private Room room;
+
+    private RoomDTOSerializer serializer;
+
+    private RoomJsonWriter writer;
+
+    private Path jsonFile;
+
+    private Path sceneFile;
+
+    /**
+     * Builds the room and writes it to a temporary file in each format.
+     *
+     * @throws IOException If the files cannot be written.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        room = RoomFixture.build(robots, blocks);
+        serializer = new RoomDTOSerializer();
+        writer = new RoomJsonWriter();
+        jsonFile = Files.createTempFile("room", ".json");
+        sceneFile = Files.createTempFile("room", RoomBinaryFormat.EXTENSION);
+        writer.write(room, jsonFile, (written, total) -> {
+        });
+        RoomBinaryFormat.write(room, sceneFile, (written, total) -> {
+        });
+    }
+
+    /**
+     * Deletes the temporary files.
+     *
+     * @throws IOException If the files cannot be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(jsonFile);
+        Files.deleteIfExists(sceneFile);
+    }
+
+    @Benchmark
+    public Path saveJson() throws IOException {
+        writer.write(room, jsonFile, (written, total) -> {
+        });
+        return jsonFile;
+    }
+
+    @Benchmark
+    public Path saveBinary() throws IOException {
+        RoomBinaryFormat.write(room, sceneFile, (written, total) -> {
+        });
+        return sceneFile;
+    }
+
+    @Benchmark
+    public Room loadJson() throws IOException {
+        return serializer.deserilizeObject(Files.readString(jsonFile)).buildEntity();
+    }
+
+    @Benchmark
+    public Room loadBinary() throws IOException {
+        return RoomBinaryFormat.read(sceneFile);
+    }
+}
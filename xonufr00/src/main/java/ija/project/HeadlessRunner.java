@@ -0,0 +1,443 @@
+/**
+ * @file HeadlessRunner.java
+ * @author Ivan Onufriienko
+ */
+package ija.project;
+
+import ija.project.engine.FixedStepper;
+import ija.project.engine.Simulation;
+import ija.project.generator.ScenarioGenerator;
+import ija.project.generator.ScenarioLayout;
+import ija.project.journal.InputJournal;
+import ija.project.journal.JournalReplay;
+import ija.project.model.enums.RobotMode;
+import ija.project.model.enums.UpdateMode;
+import ija.project.model.impl.Robot;
+import ija.project.model.impl.Room;
+import ija.project.util.ProgressListener;
+import ija.project.util.binary.RoomBinaryFormat;
+import ija.project.util.json.RoomDTOSerializer;
+import ija.project.util.json.RoomJsonWriter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Runs a simulation from the command line without the JavaFX toolkit.
+ * The runner loads a room from a JSON or binary scene file, or generates one with the {@link ScenarioGenerator},
+ * advances it for a number of simulated
+ * seconds in fixed ticks and prints the throughput and a summary of the final state. With {@code --replay},
+ * it reproduces a session recorded in an input journal instead and checks that it ends in the recorded
+ * state. With {@code --goals}, every robot seeks a random goal and gets a new one whenever it arrives or
+ * cannot reach it, which measures the route planning. It is started by
+ * passing {@value #FLAG} as the first argument of {@link Main}, so it can be used on machines without
+ * a display, for example to measure or soak-test large scenarios.
+ */
+public final class HeadlessRunner {
+
+    /**
+     * The command-line argument selecting the headless mode.
+     */
+    public static final String FLAG = "--headless";
+
+    /**
+     * The default number of simulated seconds.
+     */
+    public static final long DEFAULT_SECONDS = 60;
+
+    /**
+     * The usage printed when the arguments are not valid.
+     */
+    private static final String USAGE = "Usage: " + FLAG + " <scene.json|scene" + RoomBinaryFormat.EXTENSION + ">"
+            + " | --generate RANDOM|MAZE|CORRIDORS|CLUSTERS --robots N --blocks M [--width W --height H] [--seed S]"
+            + " | --replay <session" + InputJournal.EXTENSION + ">"
+            + " [--seconds N] [--tps TICKS_PER_SECOND] [--mode SEQUENTIAL|TWO_PHASE|PARALLEL]"
+            + " [--goals] [--check] [--output FILE]";
+
+    /**
+     * The file the room is loaded from.
+     */
+    private Path scene;
+
+    /**
+     * The input journal to replay, or null.
+     */
+    private Path replay;
+
+    /**
+     * The layout of the generated room, or null if the room is loaded from a file.
+     */
+    private ScenarioLayout layout;
+
+    /**
+     * The number of robots of the generated room.
+     */
+    private long robots;
+
+    /**
+     * The number of blocks of the generated room.
+     */
+    private long blocks;
+
+    /**
+     * The width and height of the generated room, or zero to derive them from the number of entities.
+     */
+    private double width, height;
+
+    /**
+     * The seed of the generated room.
+     */
+    private long seed;
+
+    /**
+     * The number of simulated seconds.
+     */
+    private long seconds = DEFAULT_SECONDS;
+
+    /**
+     * The number of fixed ticks per simulated second.
+     */
+    private double ticksPerSecond = FixedStepper.DEFAULT_TICKS_PER_SECOND;
+
+    /**
+     * The update mode of the room.
+     */
+    @NonNull
+    private UpdateMode mode = UpdateMode.SEQUENTIAL;
+
+    /**
+     * Indicates whether all robots seek random goals, getting a new goal whenever they reach one.
+     */
+    private boolean goals;
+
+    /**
+     * Indicates whether the validity of the room is checked after every simulated second.
+     */
+    private boolean check;
+
+    /**
+     * The file the final state is written to, or null.
+     */
+    private Path output;
+
+    /**
+     * Prevents instantiation from outside the class.
+     */
+    private HeadlessRunner() {
+    }
+
+    /**
+     * Runs the simulation described by the command-line arguments.
+     *
+     * @param args The arguments following {@value #FLAG}.
+     * @return The exit code: 0 on success, 1 if the room got into an invalid state, 2 on bad arguments or I/O errors.
+     */
+    public static int run(@NonNull String[] args) {
+        HeadlessRunner runner;
+        try {
+            runner = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+        try {
+            return runner.run(System.out);
+        } catch (IOException e) {
+            System.err.println("Error happened: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    /**
+     * Parses the command-line arguments.
+     *
+     * @param args The arguments following {@value #FLAG}.
+     * @return The configured runner.
+     * @throws IllegalArgumentException If the arguments are not valid.
+     */
+    private static HeadlessRunner parse(String[] args) {
+        var runner = new HeadlessRunner();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--seconds" -> runner.seconds = parseLong(args, ++i);
+                case "--tps" -> runner.ticksPerSecond = parseDouble(args, ++i);
+                case "--mode" -> runner.mode = parseMode(args, ++i);
+                case "--check" -> runner.check = true;
+                case "--goals" -> runner.goals = true;
+                case "--output" -> runner.output = Path.of(value(args, ++i));
+                case "--generate" -> runner.layout = parseLayout(args, ++i);
+                case "--replay" -> runner.replay = Path.of(value(args, ++i));
+                case "--robots" -> runner.robots = parseLong(args, ++i);
+                case "--blocks" -> runner.blocks = parseLong(args, ++i);
+                case "--width" -> runner.width = parseDouble(args, ++i);
+                case "--height" -> runner.height = parseDouble(args, ++i);
+                case "--seed" -> runner.seed = parseLong(args, ++i);
+                default -> {
+                    if (args[i].startsWith("--") || runner.scene != null)
+                        throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                    runner.scene = Path.of(args[i]);
+                }
+            }
+        }
+        if ((runner.scene != null ? 1 : 0) + (runner.layout != null ? 1 : 0) + (runner.replay != null ? 1 : 0) != 1)
+            throw new IllegalArgumentException("Expected either a scene file, --generate or --replay");
+        if (runner.robots < 0 || runner.robots > Integer.MAX_VALUE
+                || runner.blocks < 0 || runner.blocks > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Invalid number of robots or blocks");
+        if ((runner.width == 0) != (runner.height == 0) || runner.width < 0 || runner.height < 0)
+            throw new IllegalArgumentException("Expected a positive width and height");
+        if (runner.seconds < 0) throw new IllegalArgumentException("Seconds must not be negative");
+        if (!(runner.ticksPerSecond > 0)) throw new IllegalArgumentException("Tick rate must be positive");
+        return runner;
+    }
+
+    /**
+     * Runs the simulation and prints the report.
+     *
+     * @param out The stream receiving the report.
+     * @return The exit code: 0 on success, 1 if the room got into an invalid state.
+     * @throws IOException If the room cannot be loaded or the final state cannot be written.
+     */
+    private int run(PrintStream out) throws IOException {
+        if (replay != null) return replay(out);
+        var loadStart = System.nanoTime();
+        Room room;
+        try {
+            room = scene != null ? load(scene) : generate();
+        } catch (IllegalStateException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        var loadNanos = System.nanoTime() - loadStart;
+        var robots = room.getRobots().size();
+        out.printf(Locale.ROOT, "%s %s: %d robots, %d blocks in %.1f ms%n",
+                scene != null ? "Loaded" : "Generated", scene != null ? scene : layout + " room",
+                robots, room.getBlocks().size(), loadNanos / 1e6);
+
+        room.setUpdateMode(mode);
+        room.resume();
+        var simulation = new Simulation(room);
+        var random = new Random(seed);
+        var reached = 0L;
+        if (goals) {
+            // Routes only pass through gaps a few cells wider than a robot, so the cells are made as small
+            // as the smallest robot.
+            room.getRobots().stream().mapToDouble(Robot::getRobotRadius).min()
+                    .ifPresent(room::setOccupancyCellSize);
+            for (var robot : room.getRobots()) {
+                robot.setMode(RobotMode.GOAL);
+                robot.setGoal(random.nextDouble() * room.getWidth(), random.nextDouble() * room.getHeight());
+            }
+        }
+        var tickNanos = Math.max(1, Math.round(1e9 / ticksPerSecond));
+        var ticks = Math.round(seconds * ticksPerSecond);
+        var ticksPerCheck = Math.max(1, Math.round(ticksPerSecond));
+
+        var start = System.nanoTime();
+        for (long tick = 1; tick <= ticks; tick++) {
+            simulation.step(tickNanos);
+            if (goals) {
+                for (var robot : room.getRobots()) {
+                    var arrived = robot.hasReachedGoal();
+                    if (arrived) reached++;
+                    if (arrived || !robot.hasRoute())
+                        robot.setGoal(random.nextDouble() * room.getWidth(), random.nextDouble() * room.getHeight());
+                }
+            }
+            if (check && tick % ticksPerCheck == 0 && !room.isInValidState()) {
+                out.printf(Locale.ROOT, "Invalid state after %.3f simulated seconds%n",
+                        simulation.getSimulatedNanos() / 1e9);
+                return 1;
+            }
+        }
+        var wallSeconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+
+        var steps = simulation.getSteps();
+        out.printf(Locale.ROOT, "Simulated %.3f s in %d ticks (%s mode) in %.3f s of wall time%n",
+                simulation.getSimulatedNanos() / 1e9, steps, mode, wallSeconds);
+        out.printf(Locale.ROOT, "Throughput: %.1f ticks/s, %.0f robot-steps/s, %.2fx real time%n",
+                steps / wallSeconds, steps * (double) robots / wallSeconds,
+                simulation.getSimulatedNanos() / 1e9 / wallSeconds);
+        if (goals) {
+            var planner = room.getPathPlanner();
+            out.printf(Locale.ROOT, "Routes: %d goals reached, %d searches, %d cache hits, %.0f routes/s%n",
+                    reached, planner.getSearchCount(), planner.getCacheHitCount(),
+                    (planner.getSearchCount() + planner.getCacheHitCount()) / wallSeconds);
+        }
+        var valid = room.isInValidState();
+        out.println("Final state: " + (valid ? "valid" : "invalid"));
+
+        if (output != null) {
+            save(room, output);
+            out.println("Final state written to " + output);
+        }
+        return valid ? 0 : 1;
+    }
+
+    /**
+     * Replays the input journal and prints the report.
+     * The tick length and update mode are taken from the journal, the simulated time is given by its commands.
+     *
+     * @param out The stream receiving the report.
+     * @return The exit code: 0 on success, 1 if the final state differs from the recorded one or is invalid.
+     * @throws IOException If the journal cannot be read or the final state cannot be written.
+     */
+    private int replay(PrintStream out) throws IOException {
+        var loadStart = System.nanoTime();
+        var journal = JournalReplay.open(replay);
+        var room = journal.getRoom();
+        out.printf(Locale.ROOT, "Loaded %s: %d robots, %d blocks, %d ticks in %.1f ms%n", replay,
+                room.getRobots().size(), room.getBlocks().size(), journal.getEndTick(),
+                (System.nanoTime() - loadStart) / 1e6);
+
+        var start = System.nanoTime();
+        journal.run();
+        var wallSeconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+
+        var simulation = journal.getSimulation();
+        out.printf(Locale.ROOT, "Replayed %d inputs over %.3f s in %d ticks (%s mode) in %.3f s of wall time%n",
+                journal.getAppliedCommands(), simulation.getSimulatedNanos() / 1e9, simulation.getSteps(),
+                room.getUpdateMode(), wallSeconds);
+
+        var matches = journal.matchesRecording();
+        if (!journal.isComplete()) {
+            out.println("Final state: not recorded, the session was interrupted");
+        } else {
+            out.println("Final state: " + (matches ? "matches the recording" : "differs from the recording"));
+        }
+
+        if (output != null) {
+            save(room, output);
+            out.println("Final state written to " + output);
+        }
+        return !journal.isComplete() || matches ? 0 : 1;
+    }
+
+    /**
+     * Loads a room from a JSON or binary scene file, depending on its extension.
+     *
+     * @param path The file.
+     * @return The loaded room.
+     * @throws IOException If the file cannot be read.
+     */
+    private static Room load(Path path) throws IOException {
+        if (RoomBinaryFormat.isSceneFile(path)) return RoomBinaryFormat.read(path);
+        return new RoomDTOSerializer().deserilizeObject(Files.readString(path)).buildEntity();
+    }
+
+    /**
+     * Generates the room described by the generator options.
+     *
+     * @return The generated room.
+     * @throws IllegalStateException If the entities do not fit into the room.
+     */
+    private Room generate() {
+        var generator = width > 0
+                ? new ScenarioGenerator(width, height, (int) robots, (int) blocks, layout, seed)
+                : new ScenarioGenerator((int) robots, (int) blocks, layout, seed);
+        return generator.nextRoom();
+    }
+
+    /**
+     * Writes a room to a JSON or binary scene file, depending on its extension.
+     *
+     * @param room The room to write.
+     * @param path The file.
+     * @throws IOException If the file cannot be written.
+     */
+    private static void save(Room room, Path path) throws IOException {
+        ProgressListener ignored = (done, total) -> {
+        };
+        if (RoomBinaryFormat.isSceneFile(path)) {
+            RoomBinaryFormat.write(room, path, ignored);
+        } else {
+            new RoomJsonWriter().write(room, path, ignored);
+        }
+    }
+
+    /**
+     * Gets the value of an option.
+     *
+     * @param args  The arguments.
+     * @param index The index of the value.
+     * @return The value.
+     * @throws IllegalArgumentException If the value is missing.
+     */
+    private static String value(String[] args, int index) {
+        if (index >= args.length) throw new IllegalArgumentException("Missing value of " + args[index - 1]);
+        return args[index];
+    }
+
+    /**
+     * Gets the integer value of an option.
+     *
+     * @param args  The arguments.
+     * @param index The index of the value.
+     * @return The value.
+     * @throws IllegalArgumentException If the value is missing or not an integer.
+     */
+    private static long parseLong(String[] args, int index) {
+        var value = value(args, index);
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not an integer: " + value);
+        }
+    }
+
+    /**
+     * Gets the numeric value of an option.
+     *
+     * @param args  The arguments.
+     * @param index The index of the value.
+     * @return The value.
+     * @throws IllegalArgumentException If the value is missing or not a number.
+     */
+    private static double parseDouble(String[] args, int index) {
+        var value = value(args, index);
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + value);
+        }
+    }
+
+    /**
+     * Gets the scenario layout named by an option.
+     *
+     * @param args  The arguments.
+     * @param index The index of the value.
+     * @return The layout.
+     * @throws IllegalArgumentException If the value is missing or not a layout.
+     */
+    private static ScenarioLayout parseLayout(String[] args, int index) {
+        var value = value(args, index);
+        try {
+            return ScenarioLayout.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown layout: " + value);
+        }
+    }
+
+    /**
+     * Gets the update mode named by an option.
+     *
+     * @param args  The arguments.
+     * @param index The index of the value.
+     * @return The update mode.
+     * @throws IllegalArgumentException If the value is missing or not an update mode.
+     */
+    private static UpdateMode parseMode(String[] args, int index) {
+        var value = value(args, index);
+        try {
+            return UpdateMode.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown update mode: " + value);
+        }
+    }
+}
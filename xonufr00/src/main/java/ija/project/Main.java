@@ -4,16 +4,22 @@
  */
 package ija.project;
 
+import java.util.Arrays;
+
 /**
  * Entry point for the application.
  * This class contains the main method which serves as the entry point for the application.
- * It delegates the start of the application to the MainApplication class.
+ * It delegates the start of the application to the MainApplication class, or to the HeadlessRunner
+ * if the first argument is {@value HeadlessRunner#FLAG}; the headless mode never loads the JavaFX toolkit.
  */
 public class Main {
     /**
      * @param args The command-line arguments passed to the application.
      */
     public static void main(String[] args) {
+        if (args.length > 0 && HeadlessRunner.FLAG.equals(args[0])) {
+            System.exit(HeadlessRunner.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
         MainApplication.main(args);
     }
 }
@@ -4,6 +4,7 @@
  */
 package ija.project;
 
+import ija.project.metrics.FrameMetrics;
 import ija.project.timer.RoomAnimationTimer;
 import ija.project.model.impl.Room;
 import ija.project.ui.controller.AppViewController;
@@ -15,6 +16,8 @@ import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.management.JMException;
+
 /**
  * Main class for the JavaFX application.
  * This class extends the Application class from JavaFX and serves as the main entry point for the application.
@@ -23,6 +26,11 @@ import lombok.extern.slf4j.Slf4j;
 public class MainApplication extends Application {
     private static final org.slf4j.Logger log
             = org.slf4j.LoggerFactory.getLogger(AppViewController.class);
+
+    /**
+     * The controller of the main view.
+     */
+    private AppViewController controller;
     /**
      * Starts the primary stage of the application.
      * This method is called after the application has been initialized and is ready to start.
@@ -38,11 +46,25 @@ public class MainApplication extends Application {
         log.info("Path: {}", View.class.getResource("robot-info-view.fxml"));
         FXMLLoader fxmlLoader = new FXMLLoader(MainApplication.class.getResource("app-view.fxml"));
         Scene scene = new Scene(fxmlLoader.load());
+        controller = fxmlLoader.getController();
 
         stage.setScene(scene);
         stage.show();
+
+        try {
+            FrameMetrics.registerMBeans();
+        } catch (JMException e) {
+            log.warn("Could not register the frame metrics MBeans: {}", e.getMessage());
+        }
     }
 
+    /**
+     * Stops the application, ending the input journal of the current room.
+     */
+    @Override
+    public void stop() {
+        if (controller != null) controller.dispose();
+    }
 
     /**
      * The main entry point for all JavaFX applications.
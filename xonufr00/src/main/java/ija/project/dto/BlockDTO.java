@@ -32,15 +32,30 @@ public class BlockDTO {
         this.height = 0;
     }
 
+    /**
+     * Constructor initializing the BlockDTO with the given coordinates and dimensions.
+     *
+     * @param x      The X coordinate of the top-left corner of the Block.
+     * @param y      The Y coordinate of the top-left corner of the Block.
+     * @param width  The width of the Block.
+     * @param height The height of the Block.
+     */
+    public BlockDTO(double x, double y, double width, double height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
     /**
      * Constructor initializing the BlockDTO with the given Block.
      * @param block The Block to initialize the BlockDTO with.
      */
     public BlockDTO(@NonNull Block block) {
-        this.width = block.getBlockFrame().getWidth();
-        this.height = block.getBlockFrame().getHeight();
-        this.x = block.getBlockFrame().getX();
-        this.y = block.getBlockFrame().getY();
+        this.width = block.getWidth();
+        this.height = block.getHeight();
+        this.x = block.getLeftTopX();
+        this.y = block.getLeftTopY();
     }
 
     /**
@@ -72,6 +72,58 @@ public class RobotDTO {
         detectionArcRadius = robot.getArcRadius();
     }
 
+    /**
+     * Constructs a RobotDTO with the given properties.
+     *
+     * @param robotCenterX                 The X coordinate of the Robot.
+     * @param robotCenterY                 The Y coordinate of the Robot.
+     * @param robotRadius                  The radius of the Robot.
+     * @param speedPerSecond               The speed of the Robot.
+     * @param rotationSpeedPerSecInDegrees The rotation speed of the Robot.
+     * @param rotationDegreeSample         The degree increment for each rotation sample.
+     * @param robotCurrentAngle            The current angle of the Robot.
+     * @param detectionArcRadius           The radius of the detection arc of the Robot.
+     * @param detectionArcExtent           The extent of the detection arc of the Robot.
+     */
+    public RobotDTO(double robotCenterX, double robotCenterY, double robotRadius,
+                    double speedPerSecond, double rotationSpeedPerSecInDegrees,
+                    double rotationDegreeSample, double robotCurrentAngle,
+                    double detectionArcRadius, double detectionArcExtent) {
+        this.robotCenterX = robotCenterX;
+        this.robotCenterY = robotCenterY;
+        this.robotRadius = robotRadius;
+
+        this.speedPerSecond = speedPerSecond;
+        this.rotationSpeedPerSecInDegrees = rotationSpeedPerSecInDegrees;
+        this.rotationDegreeSample = rotationDegreeSample;
+        this.robotCurrentAngle = robotCurrentAngle;
+
+        this.detectionArcExtent = detectionArcExtent;
+        this.detectionArcRadius = detectionArcRadius;
+    }
+
+    /**
+     * Constructs a RobotDTO that copies a given RobotDTO with a different pose.
+     *
+     * @param base              The RobotDTO whose remaining properties are copied. Must not be null.
+     * @param robotCenterX      The X coordinate of the Robot.
+     * @param robotCenterY      The Y coordinate of the Robot.
+     * @param robotCurrentAngle The current angle of the Robot.
+     */
+    public RobotDTO(@NonNull RobotDTO base, double robotCenterX, double robotCenterY, double robotCurrentAngle) {
+        this.robotCenterX = robotCenterX;
+        this.robotCenterY = robotCenterY;
+        this.robotRadius = base.robotRadius;
+
+        this.speedPerSecond = base.speedPerSecond;
+        this.rotationSpeedPerSecInDegrees = base.rotationSpeedPerSecInDegrees;
+        this.rotationDegreeSample = base.rotationDegreeSample;
+        this.robotCurrentAngle = robotCurrentAngle;
+
+        this.detectionArcExtent = base.detectionArcExtent;
+        this.detectionArcRadius = base.detectionArcRadius;
+    }
+
     /**
      * Gets the X coordinate of the Robot.
      *
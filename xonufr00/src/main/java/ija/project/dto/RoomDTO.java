@@ -60,6 +60,22 @@ public class RoomDTO implements DtoToEntityBuilder<Room> {
         this.robots = room.getRobots().stream().map(RobotDTO::new).collect(Collectors.toList());
     }
 
+    /**
+     * Constructs a RoomDTO from its dimensions and lists of Blocks and Robots.
+     * The lists are used directly, without copying.
+     *
+     * @param width  The width of the Room.
+     * @param height The height of the Room.
+     * @param blocks The list of Blocks in the Room. Must not be null.
+     * @param robots The list of Robots in the Room. Must not be null.
+     */
+    public RoomDTO(double width, double height, @NonNull List<BlockDTO> blocks, @NonNull List<RobotDTO> robots) {
+        this.width = width;
+        this.height = height;
+        this.blocks = blocks;
+        this.robots = robots;
+    }
+
     /**
      * Gets the width of the Room.
      *
@@ -0,0 +1,332 @@
+/**
+ * @file BoundingVolumeHierarchy.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.engine;
+
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Represents an immutable bounding volume hierarchy of items described by their axis-aligned bounding boxes.
+ * The hierarchy is a binary tree built once by splitting the items at the median of their centers along
+ * the longer axis, so it is balanced and a query visits a logarithmic number of nodes in the number of items.
+ * Nodes are stored in flat arrays in depth-first order; the left child of a node directly follows it.
+ * As the tree never changes after construction, it can be queried from several threads at once.
+ *
+ * @param <T> The type of the indexed items.
+ */
+public final class BoundingVolumeHierarchy<T> {
+
+    /**
+     * The maximal number of items stored in a leaf.
+     */
+    private static final int LEAF_SIZE = 4;
+
+    /**
+     * The indexed items, in the order of the leaves.
+     */
+    @NonNull
+    private final Object[] items;
+
+    /**
+     * The bounding boxes of the items, four values per item: minX, minY, maxX, maxY.
+     */
+    @NonNull
+    private final double[] itemBounds;
+
+    /**
+     * The bounding boxes of the nodes, four values per node: minX, minY, maxX, maxY.
+     */
+    @NonNull
+    private final double[] nodeBounds;
+
+    /**
+     * The index of the first item of a leaf, or the index of the right child of an inner node.
+     */
+    @NonNull
+    private final int[] nodeFirst;
+
+    /**
+     * The number of items of a leaf, zero for an inner node.
+     */
+    @NonNull
+    private final int[] nodeCount;
+
+    /**
+     * The number of nodes in use.
+     */
+    private int nodes;
+
+    /**
+     * Builds a hierarchy of the specified items.
+     *
+     * @param items  The items to index.
+     * @param bounds The bounding boxes of the items, four values per item in the order of the items:
+     *               minX, minY, maxX, maxY.
+     * @throws IllegalArgumentException If the number of bounds does not match the number of items.
+     */
+    public BoundingVolumeHierarchy(@NonNull List<? extends T> items, @NonNull double[] bounds) {
+        var n = items.size();
+        if (bounds.length != 4 * n) throw new IllegalArgumentException("Expected four bounds per item");
+
+        var order = new int[n];
+        var centers = new double[2 * n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            centers[2 * i] = (bounds[4 * i] + bounds[4 * i + 2]) / 2;
+            centers[2 * i + 1] = (bounds[4 * i + 1] + bounds[4 * i + 3]) / 2;
+        }
+
+        var maxNodes = Math.max(1, 2 * n - 1);
+        this.nodeBounds = new double[4 * maxNodes];
+        this.nodeFirst = new int[maxNodes];
+        this.nodeCount = new int[maxNodes];
+        if (n > 0) build(order, centers, bounds, 0, n);
+
+        this.items = new Object[n];
+        this.itemBounds = new double[4 * n];
+        for (int i = 0; i < n; i++) {
+            this.items[i] = items.get(order[i]);
+            System.arraycopy(bounds, 4 * order[i], itemBounds, 4 * i, 4);
+        }
+    }
+
+    /**
+     * Builds the subtree of a range of items and returns the index of its root.
+     *
+     * @param order   The indices of the items, reordered so that every leaf covers a contiguous range.
+     * @param centers The centers of the items, two values per item.
+     * @param bounds  The bounding boxes of the items, four values per item.
+     * @param from    The index of the first item of the range.
+     * @param to      The index after the last item of the range.
+     * @return The index of the subtree's root.
+     */
+    private int build(int[] order, double[] centers, double[] bounds, int from, int to) {
+        var node = nodes++;
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        double minCX = Double.POSITIVE_INFINITY, minCY = Double.POSITIVE_INFINITY;
+        double maxCX = Double.NEGATIVE_INFINITY, maxCY = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            var item = order[i];
+            minX = Math.min(minX, bounds[4 * item]);
+            minY = Math.min(minY, bounds[4 * item + 1]);
+            maxX = Math.max(maxX, bounds[4 * item + 2]);
+            maxY = Math.max(maxY, bounds[4 * item + 3]);
+            minCX = Math.min(minCX, centers[2 * item]);
+            minCY = Math.min(minCY, centers[2 * item + 1]);
+            maxCX = Math.max(maxCX, centers[2 * item]);
+            maxCY = Math.max(maxCY, centers[2 * item + 1]);
+        }
+        nodeBounds[4 * node] = minX;
+        nodeBounds[4 * node + 1] = minY;
+        nodeBounds[4 * node + 2] = maxX;
+        nodeBounds[4 * node + 3] = maxY;
+
+        if (to - from <= LEAF_SIZE) {
+            nodeFirst[node] = from;
+            nodeCount[node] = to - from;
+            return node;
+        }
+
+        var axis = maxCX - minCX >= maxCY - minCY ? 0 : 1;
+        var mid = (from + to) >>> 1;
+        select(order, centers, axis, from, to - 1, mid);
+        build(order, centers, bounds, from, mid);
+        nodeFirst[node] = build(order, centers, bounds, mid, to);
+        return node;
+    }
+
+    /**
+     * Partially sorts a range of items, so the item at the specified position has the center it would have
+     * in a sorted range, all items before it have smaller or equal centers and all items after it larger
+     * or equal ones.
+     *
+     * @param order   The indices of the items.
+     * @param centers The centers of the items, two values per item.
+     * @param axis    The compared coordinate of the centers, 0 for X and 1 for Y.
+     * @param left    The index of the first item of the range.
+     * @param right   The index of the last item of the range.
+     * @param k       The position to select.
+     */
+    private static void select(int[] order, double[] centers, int axis, int left, int right, int k) {
+        while (left < right) {
+            var pivot = centers[2 * order[(left + right) >>> 1] + axis];
+            int i = left, j = right;
+            while (i <= j) {
+                while (centers[2 * order[i] + axis] < pivot) i++;
+                while (centers[2 * order[j] + axis] > pivot) j--;
+                if (i <= j) {
+                    var tmp = order[i];
+                    order[i++] = order[j];
+                    order[j--] = tmp;
+                }
+            }
+            if (k <= j) right = j;
+            else if (k >= i) left = i;
+            else return;
+        }
+    }
+
+    /**
+     * Checks if any item whose bounding box overlaps the specified box satisfies the predicate.
+     * The search stops at the first matching item.
+     *
+     * @param minX      The minimal X coordinate of the query box.
+     * @param minY      The minimal Y coordinate of the query box.
+     * @param maxX      The maximal X coordinate of the query box.
+     * @param maxY      The maximal Y coordinate of the query box.
+     * @param predicate The predicate tested on the candidate items. Must not be null.
+     * @return True if a candidate satisfied the predicate, false otherwise.
+     */
+    public boolean anyMatch(double minX, double minY, double maxX, double maxY,
+                            @NonNull Predicate<? super T> predicate) {
+        return items.length > 0 && anyMatch(0, minX, minY, maxX, maxY, predicate);
+    }
+
+    /**
+     * Passes every item whose bounding box overlaps the specified box to the consumer, each item exactly once.
+     *
+     * @param minX     The minimal X coordinate of the query box.
+     * @param minY     The minimal Y coordinate of the query box.
+     * @param maxX     The maximal X coordinate of the query box.
+     * @param maxY     The maximal Y coordinate of the query box.
+     * @param consumer The consumer of the candidate items. Must not be null.
+     */
+    public void forEach(double minX, double minY, double maxX, double maxY,
+                        @NonNull Consumer<? super T> consumer) {
+        anyMatch(minX, minY, maxX, maxY, item -> {
+            consumer.accept(item);
+            return false;
+        });
+    }
+
+    /**
+     * Passes every item whose bounding box is crossed by the specified line segment to the consumer,
+     * each item exactly once. Only the subtrees whose boxes the segment crosses are visited.
+     *
+     * @param ax       The X coordinate of the segment's start.
+     * @param ay       The Y coordinate of the segment's start.
+     * @param bx       The X coordinate of the segment's end.
+     * @param by       The Y coordinate of the segment's end.
+     * @param consumer The consumer of the candidate items. Must not be null.
+     */
+    public void forEachOnSegment(double ax, double ay, double bx, double by,
+                                 @NonNull Consumer<? super T> consumer) {
+        if (items.length > 0) forEachOnSegment(0, ax, ay, bx - ax, by - ay, consumer);
+    }
+
+    /**
+     * Passes every item of a subtree whose bounding box is crossed by the segment to the consumer.
+     *
+     * @param node     The index of the subtree's root.
+     * @param ax       The X coordinate of the segment's start.
+     * @param ay       The Y coordinate of the segment's start.
+     * @param dx       The X component of the segment.
+     * @param dy       The Y component of the segment.
+     * @param consumer The consumer of the candidate items.
+     */
+    @SuppressWarnings("unchecked")
+    private void forEachOnSegment(int node, double ax, double ay, double dx, double dy,
+                                  Consumer<? super T> consumer) {
+        if (!crosses(nodeBounds, node, ax, ay, dx, dy)) return;
+        var count = nodeCount[node];
+        if (count == 0) {
+            forEachOnSegment(node + 1, ax, ay, dx, dy, consumer);
+            forEachOnSegment(nodeFirst[node], ax, ay, dx, dy, consumer);
+            return;
+        }
+        for (int i = nodeFirst[node], end = i + count; i < end; i++) {
+            if (crosses(itemBounds, i, ax, ay, dx, dy)) consumer.accept((T) items[i]);
+        }
+    }
+
+    /**
+     * Checks if a segment crosses or touches a box stored in a flat array, using the slab method.
+     *
+     * @param boxes The boxes, four values per box.
+     * @param index The index of the tested box.
+     * @param ax    The X coordinate of the segment's start.
+     * @param ay    The Y coordinate of the segment's start.
+     * @param dx    The X component of the segment.
+     * @param dy    The Y component of the segment.
+     * @return True if the segment and the box share a point, false otherwise.
+     */
+    private static boolean crosses(double[] boxes, int index, double ax, double ay, double dx, double dy) {
+        var b = 4 * index;
+        var tMin = 0.0;
+        var tMax = 1.0;
+        if (dx == 0) {
+            if (ax < boxes[b] || ax > boxes[b + 2]) return false;
+        } else {
+            var t1 = (boxes[b] - ax) / dx;
+            var t2 = (boxes[b + 2] - ax) / dx;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        if (dy == 0) {
+            if (ay < boxes[b + 1] || ay > boxes[b + 3]) return false;
+        } else {
+            var t1 = (boxes[b + 1] - ay) / dy;
+            var t2 = (boxes[b + 3] - ay) / dy;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        return tMin <= tMax;
+    }
+
+    /**
+     * Checks if any item of a subtree whose bounding box overlaps the specified box satisfies the predicate.
+     *
+     * @param node      The index of the subtree's root.
+     * @param minX      The minimal X coordinate of the query box.
+     * @param minY      The minimal Y coordinate of the query box.
+     * @param maxX      The maximal X coordinate of the query box.
+     * @param maxY      The maximal Y coordinate of the query box.
+     * @param predicate The predicate tested on the candidate items.
+     * @return True if a candidate satisfied the predicate, false otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean anyMatch(int node, double minX, double minY, double maxX, double maxY,
+                             Predicate<? super T> predicate) {
+        if (!overlaps(nodeBounds, node, minX, minY, maxX, maxY)) return false;
+        var count = nodeCount[node];
+        if (count == 0) {
+            return anyMatch(node + 1, minX, minY, maxX, maxY, predicate)
+                    || anyMatch(nodeFirst[node], minX, minY, maxX, maxY, predicate);
+        }
+        for (int i = nodeFirst[node], end = i + count; i < end; i++) {
+            if (overlaps(itemBounds, i, minX, minY, maxX, maxY) && predicate.test((T) items[i])) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a box stored in a flat array overlaps the query box. Touching boxes overlap.
+     *
+     * @param boxes The boxes, four values per box.
+     * @param index The index of the tested box.
+     * @param minX  The minimal X coordinate of the query box.
+     * @param minY  The minimal Y coordinate of the query box.
+     * @param maxX  The maximal X coordinate of the query box.
+     * @param maxY  The maximal Y coordinate of the query box.
+     * @return True if the boxes overlap, false otherwise.
+     */
+    private static boolean overlaps(double[] boxes, int index, double minX, double minY, double maxX, double maxY) {
+        var b = 4 * index;
+        return boxes[b] <= maxX && boxes[b + 2] >= minX && boxes[b + 1] <= maxY && boxes[b + 3] >= minY;
+    }
+
+    /**
+     * Gets the number of indexed items.
+     *
+     * @return The number of items.
+     */
+    public int size() {
+        return items.length;
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * @file FixedStepper.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.engine;
+
+import lombok.NonNull;
+
+/**
+ * Advances a Simulation in ticks of constant length, independent of how often it is driven.
+ * Elapsed wall-clock time is collected in an accumulator and converted into whole ticks; the remainder
+ * carries over to the next call. The number of ticks performed per call is capped, so a long pause
+ * (e.g. a slow frame or a GC pause) does not turn into a burst of catch-up work. Time that exceeds the
+ * cap is dropped and the simulation runs slower than wall-clock time instead.
+ */
+public class FixedStepper {
+    private static final org.slf4j.Logger log
+            = org.slf4j.LoggerFactory.getLogger(FixedStepper.class);
+
+    /**
+     * The default number of ticks per simulated second.
+     */
+    public static final double DEFAULT_TICKS_PER_SECOND = 60;
+
+    /**
+     * The default maximal number of ticks performed by a single call to {@link #advance(long)}.
+     */
+    public static final int DEFAULT_MAX_CATCH_UP_STEPS = 5;
+
+    /**
+     * The simulation advanced by this stepper.
+     */
+    @NonNull
+    private final Simulation simulation;
+
+    /**
+     * The length of one tick in nanoseconds.
+     */
+    private final long tickNanos;
+
+    /**
+     * The maximal number of ticks performed by a single call to {@link #advance(long)}.
+     */
+    private final int maxCatchUpSteps;
+
+    /**
+     * The elapsed time not yet converted into ticks, in nanoseconds.
+     */
+    private long accumulatorNanos;
+
+    /**
+     * The total time dropped because of the catch-up cap, in nanoseconds.
+     */
+    private long droppedNanos;
+
+    /**
+     * Constructs a new FixedStepper with the default tick rate and catch-up cap.
+     *
+     * @param simulation The simulation to advance. Must not be null.
+     */
+    public FixedStepper(@NonNull Simulation simulation) {
+        this(simulation, DEFAULT_TICKS_PER_SECOND, DEFAULT_MAX_CATCH_UP_STEPS);
+    }
+
+    /**
+     * Constructs a new FixedStepper.
+     *
+     * @param simulation      The simulation to advance. Must not be null.
+     * @param ticksPerSecond  The number of ticks per simulated second. Must be positive.
+     * @param maxCatchUpSteps The maximal number of ticks per call. Must be positive.
+     */
+    public FixedStepper(@NonNull Simulation simulation, double ticksPerSecond, int maxCatchUpSteps) {
+        if (!(ticksPerSecond > 0)) throw new IllegalArgumentException("Tick rate must be positive");
+        if (maxCatchUpSteps <= 0) throw new IllegalArgumentException("Catch-up cap must be positive");
+        this.simulation = simulation;
+        this.tickNanos = Math.max(1, Math.round(1e9 / ticksPerSecond));
+        this.maxCatchUpSteps = maxCatchUpSteps;
+    }
+
+    /**
+     * Adds elapsed time to the accumulator and performs as many whole ticks as it covers, up to the cap.
+     *
+     * @param elapsedNanos The elapsed time in nanoseconds since the previous call.
+     * @return The number of ticks performed.
+     */
+    public int advance(long elapsedNanos) {
+        if (elapsedNanos > 0) accumulatorNanos += elapsedNanos;
+
+        int steps = 0;
+        while (accumulatorNanos >= tickNanos && steps < maxCatchUpSteps) {
+            simulation.step(tickNanos);
+            accumulatorNanos -= tickNanos;
+            steps++;
+        }
+
+        if (accumulatorNanos >= tickNanos) {
+            var dropped = accumulatorNanos - accumulatorNanos % tickNanos;
+            droppedNanos += dropped;
+            accumulatorNanos -= dropped;
+            log.debug("Dropped {} ms of simulation time after {} catch-up ticks", dropped / 1e6, steps);
+        }
+        return steps;
+    }
+
+    /**
+     * Discards the time collected in the accumulator.
+     */
+    public void reset() {
+        accumulatorNanos = 0;
+    }
+
+    /**
+     * Gets the fraction of a tick collected in the accumulator, usable for interpolating rendered state.
+     *
+     * @return A value from 0 (inclusive) to 1 (exclusive).
+     */
+    public double getAlpha() {
+        return (double) accumulatorNanos / tickNanos;
+    }
+
+    /**
+     * Gets the simulation advanced by this stepper.
+     *
+     * @return The simulation.
+     */
+    public Simulation getSimulation() {
+        return simulation;
+    }
+
+    /**
+     * Gets the length of one tick in nanoseconds.
+     *
+     * @return The tick length.
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Gets the maximal number of ticks performed by a single call to {@link #advance(long)}.
+     *
+     * @return The catch-up cap.
+     */
+    public int getMaxCatchUpSteps() {
+        return maxCatchUpSteps;
+    }
+
+    /**
+     * Gets the total time dropped because of the catch-up cap.
+     *
+     * @return The dropped time in nanoseconds.
+     */
+    public long getDroppedNanos() {
+        return droppedNanos;
+    }
+}
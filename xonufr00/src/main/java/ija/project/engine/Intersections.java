@@ -0,0 +1,523 @@
+/**
+ * @file Intersections.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.engine;
+
+/**
+ * Provides exact closed-form intersection tests between the primitive shapes used by the simulation.
+ * Circles describe robot frames, axis-aligned rectangles describe blocks and circular sectors describe
+ * detection arcs. Angles follow the JavaFX convention: degrees, counterclockwise on screen, with the
+ * Y axis pointing down. Shapes that only touch each other do not intersect, as they share no area: circles
+ * at the distance of the sum of their radii, a circle or a sector touching an edge or a corner of a rectangle,
+ * and a shape touching only a bounding radius or the arc of a sector. JavaFX {@code Shape.intersect}, which the
+ * tests replace, works on Bézier approximations of the curves and may report such touching shapes, and shapes
+ * a few ten-thousandths of the radius apart, as intersecting; the tests agree with it on all other pairs.
+ * Swept tests report the time of impact of a circle moving along a vector as the fraction of the motion
+ * done before the first contact. None of the methods allocate.
+ */
+public final class Intersections {
+
+    /**
+     * The time of impact reported by swept tests when the shapes do not touch during the motion.
+     */
+    public static final double NO_IMPACT = Double.POSITIVE_INFINITY;
+
+    /**
+     * Private constructor to prevent instantiation of the utility class.
+     */
+    private Intersections() {
+    }
+
+    /**
+     * Checks if two circles overlap.
+     *
+     * @param ax The X coordinate of the first circle's center.
+     * @param ay The Y coordinate of the first circle's center.
+     * @param ar The radius of the first circle.
+     * @param bx The X coordinate of the second circle's center.
+     * @param by The Y coordinate of the second circle's center.
+     * @param br The radius of the second circle.
+     * @return True if the circles share some area, false otherwise.
+     */
+    public static boolean circleCircle(double ax, double ay, double ar,
+                                       double bx, double by, double br) {
+        if (ar <= 0 || br <= 0) return false;
+        var dx = bx - ax;
+        var dy = by - ay;
+        var r = ar + br;
+        return dx * dx + dy * dy < r * r;
+    }
+
+    /**
+     * Checks if a circle overlaps an axis-aligned rectangle.
+     *
+     * @param cx The X coordinate of the circle's center.
+     * @param cy The Y coordinate of the circle's center.
+     * @param r  The radius of the circle.
+     * @param x  The X coordinate of the rectangle's top-left corner.
+     * @param y  The Y coordinate of the rectangle's top-left corner.
+     * @param w  The width of the rectangle.
+     * @param h  The height of the rectangle.
+     * @return True if the shapes share some area, false otherwise.
+     */
+    public static boolean circleRect(double cx, double cy, double r,
+                                     double x, double y, double w, double h) {
+        if (r <= 0 || w <= 0 || h <= 0) return false;
+        var dx = cx - clamp(cx, x, x + w);
+        var dy = cy - clamp(cy, y, y + h);
+        return dx * dx + dy * dy < r * r;
+    }
+
+    /**
+     * Checks if a circular sector overlaps a circle.
+     *
+     * @param sx     The X coordinate of the sector's center.
+     * @param sy     The Y coordinate of the sector's center.
+     * @param sr     The radius of the sector.
+     * @param start  The start angle of the sector in degrees.
+     * @param extent The angular extent of the sector in degrees.
+     * @param cx     The X coordinate of the circle's center.
+     * @param cy     The Y coordinate of the circle's center.
+     * @param cr     The radius of the circle.
+     * @return True if the shapes share some area, false otherwise.
+     */
+    public static boolean sectorCircle(double sx, double sy, double sr, double start, double extent,
+                                       double cx, double cy, double cr) {
+        if (sr <= 0 || extent == 0 || cr <= 0) return false;
+        if (extent < 0) {
+            start += extent;
+            extent = -extent;
+        }
+        if (extent >= 360) return circleCircle(sx, sy, sr, cx, cy, cr);
+
+        var dx = cx - sx;
+        var dy = cy - sy;
+        var dist = Math.sqrt(dx * dx + dy * dy);
+        if (dist >= sr + cr) return false;
+
+        // The distance to the arc is only relevant when the circle center lies within the angular range,
+        // otherwise the nearest point of the sector is on one of its bounding radii.
+        if (isAngleInSector(dx, dy, start, extent)) {
+            return dist < sr + cr;
+        }
+
+        var crSq = cr * cr;
+        var a1 = Math.toRadians(start);
+        var a2 = Math.toRadians(start + extent);
+        return segmentDistanceSq(cx, cy, sx, sy, sx + sr * Math.cos(a1), sy - sr * Math.sin(a1)) < crSq
+                || segmentDistanceSq(cx, cy, sx, sy, sx + sr * Math.cos(a2), sy - sr * Math.sin(a2)) < crSq;
+    }
+
+    /**
+     * Checks if a circular sector overlaps an axis-aligned rectangle.
+     *
+     * @param sx     The X coordinate of the sector's center.
+     * @param sy     The Y coordinate of the sector's center.
+     * @param sr     The radius of the sector.
+     * @param start  The start angle of the sector in degrees.
+     * @param extent The angular extent of the sector in degrees.
+     * @param x      The X coordinate of the rectangle's top-left corner.
+     * @param y      The Y coordinate of the rectangle's top-left corner.
+     * @param w      The width of the rectangle.
+     * @param h      The height of the rectangle.
+     * @return True if the shapes share some area, false otherwise.
+     */
+    public static boolean sectorRect(double sx, double sy, double sr, double start, double extent,
+                                     double x, double y, double w, double h) {
+        if (sr <= 0 || extent == 0 || w <= 0 || h <= 0) return false;
+        if (extent < 0) {
+            start += extent;
+            extent = -extent;
+        }
+        if (!circleRect(sx, sy, sr, x, y, w, h)) return false;
+        if (extent >= 360) return true;
+
+        var x2 = x + w;
+        var y2 = y + h;
+
+        // The apex of the sector lies inside the rectangle.
+        if (sx > x && sx < x2 && sy > y && sy < y2) return true;
+
+        // A corner of the rectangle lies inside the sector.
+        if (isPointInSector(sx, sy, sr, start, extent, x, y)
+                || isPointInSector(sx, sy, sr, start, extent, x2, y)
+                || isPointInSector(sx, sy, sr, start, extent, x, y2)
+                || isPointInSector(sx, sy, sr, start, extent, x2, y2)) {
+            return true;
+        }
+
+        // One of the bounding radii crosses the rectangle.
+        var a1 = Math.toRadians(start);
+        var a2 = Math.toRadians(start + extent);
+        if (segmentIntersectsRect(sx, sy, sx + sr * Math.cos(a1), sy - sr * Math.sin(a1), x, y, x2, y2)
+                || segmentIntersectsRect(sx, sy, sx + sr * Math.cos(a2), sy - sr * Math.sin(a2), x, y, x2, y2)) {
+            return true;
+        }
+
+        // The arc crosses one of the rectangle's edges.
+        return arcCrossesVerticalEdge(sx, sy, sr, start, extent, x, y, y2)
+                || arcCrossesVerticalEdge(sx, sy, sr, start, extent, x2, y, y2)
+                || arcCrossesHorizontalEdge(sx, sy, sr, start, extent, y, x, x2)
+                || arcCrossesHorizontalEdge(sx, sy, sr, start, extent, y2, x, x2);
+    }
+
+    /**
+     * Computes the time of impact of a circle moving along a vector with a static circle.
+     * A circle that already touches or overlaps the static one hits it immediately, unless it moves away.
+     *
+     * @param cx The X coordinate of the moving circle's center at the start of the motion.
+     * @param cy The Y coordinate of the moving circle's center at the start of the motion.
+     * @param cr The radius of the moving circle.
+     * @param dx The X component of the motion.
+     * @param dy The Y component of the motion.
+     * @param ox The X coordinate of the static circle's center.
+     * @param oy The Y coordinate of the static circle's center.
+     * @param or The radius of the static circle.
+     * @return The fraction of the motion in [0, 1] done before the circles touch, or {@link #NO_IMPACT}.
+     */
+    public static double sweptCircleCircle(double cx, double cy, double cr, double dx, double dy,
+                                           double ox, double oy, double or) {
+        if (cr <= 0 || or <= 0) return NO_IMPACT;
+        return sweptPoint(cx, cy, cr + or, dx, dy, ox, oy);
+    }
+
+    /**
+     * Computes the time of impact of a circle moving along a vector with a static axis-aligned rectangle.
+     * The motion is tested against the rectangle expanded by the radius: the entry into the expanded box is
+     * exact on the faces, and in the corner regions the circle is tested against the rectangle's corner.
+     * A circle that already touches or overlaps the rectangle hits it immediately, unless it moves away.
+     *
+     * @param cx The X coordinate of the moving circle's center at the start of the motion.
+     * @param cy The Y coordinate of the moving circle's center at the start of the motion.
+     * @param r  The radius of the moving circle.
+     * @param dx The X component of the motion.
+     * @param dy The Y component of the motion.
+     * @param x  The X coordinate of the rectangle's top-left corner.
+     * @param y  The Y coordinate of the rectangle's top-left corner.
+     * @param w  The width of the rectangle.
+     * @param h  The height of the rectangle.
+     * @return The fraction of the motion in [0, 1] done before the shapes touch, or {@link #NO_IMPACT}.
+     */
+    public static double sweptCircleRect(double cx, double cy, double r, double dx, double dy,
+                                         double x, double y, double w, double h) {
+        if (r <= 0 || w <= 0 || h <= 0) return NO_IMPACT;
+        var x2 = x + w;
+        var y2 = y + h;
+
+        var nx = cx - clamp(cx, x, x2);
+        var ny = cy - clamp(cy, y, y2);
+        var distSq = nx * nx + ny * ny;
+        if (distSq <= r * r) {
+            return distSq == 0 || nx * dx + ny * dy < 0 ? 0 : NO_IMPACT;
+        }
+
+        var tMin = 0.0;
+        var tMax = 1.0;
+        if (dx == 0) {
+            if (cx <= x - r || cx >= x2 + r) return NO_IMPACT;
+        } else {
+            var t1 = (x - r - cx) / dx;
+            var t2 = (x2 + r - cx) / dx;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        if (dy == 0) {
+            if (cy <= y - r || cy >= y2 + r) return NO_IMPACT;
+        } else {
+            var t1 = (y - r - cy) / dy;
+            var t2 = (y2 + r - cy) / dy;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        if (tMin > tMax) return NO_IMPACT;
+
+        // Entering the expanded box beside a corner of the rectangle only touches the rounded corner.
+        // A motion missing the corner leaves the corner region without crossing the rest of the shape.
+        var ex = cx + tMin * dx;
+        var ey = cy + tMin * dy;
+        var cornerX = ex < x ? x : ex > x2 ? x2 : Double.NaN;
+        var cornerY = ey < y ? y : ey > y2 ? y2 : Double.NaN;
+        if (Double.isNaN(cornerX) || Double.isNaN(cornerY)) return tMin;
+        return sweptPoint(cx, cy, r, dx, dy, cornerX, cornerY);
+    }
+
+    /**
+     * Computes the time of impact of a circle moving along a vector with a static point.
+     *
+     * @param cx The X coordinate of the circle's center at the start of the motion.
+     * @param cy The Y coordinate of the circle's center at the start of the motion.
+     * @param r  The radius of the circle.
+     * @param dx The X component of the motion.
+     * @param dy The Y component of the motion.
+     * @param px The X coordinate of the point.
+     * @param py The Y coordinate of the point.
+     * @return The fraction of the motion in [0, 1] done before the circle touches the point, or {@link #NO_IMPACT}.
+     */
+    private static double sweptPoint(double cx, double cy, double r, double dx, double dy, double px, double py) {
+        var ox = cx - px;
+        var oy = cy - py;
+        var b = ox * dx + oy * dy;
+        var c = ox * ox + oy * oy - r * r;
+        if (c <= 0) return b < 0 ? 0 : NO_IMPACT;
+        if (b >= 0) return NO_IMPACT;
+        var a = dx * dx + dy * dy;
+        var discriminant = b * b - a * c;
+        if (discriminant < 0) return NO_IMPACT;
+        var t = (-b - Math.sqrt(discriminant)) / a;
+        return t <= 1 ? t : NO_IMPACT;
+    }
+
+    /**
+     * Computes the distance along a ray to the first point of a circle.
+     *
+     * @param ox   The X coordinate of the ray's origin.
+     * @param oy   The Y coordinate of the ray's origin.
+     * @param dirX The X component of the ray's unit direction.
+     * @param dirY The Y component of the ray's unit direction.
+     * @param cx   The X coordinate of the circle's center.
+     * @param cy   The Y coordinate of the circle's center.
+     * @param r    The radius of the circle.
+     * @return The distance, zero if the origin lies inside the circle, or {@link #NO_IMPACT} if the ray misses it.
+     */
+    public static double rayCircle(double ox, double oy, double dirX, double dirY,
+                                   double cx, double cy, double r) {
+        if (r <= 0) return NO_IMPACT;
+        var px = ox - cx;
+        var py = oy - cy;
+        var c = px * px + py * py - r * r;
+        if (c < 0) return 0;
+        var b = px * dirX + py * dirY;
+        if (b >= 0) return NO_IMPACT;
+        var discriminant = b * b - c;
+        return discriminant < 0 ? NO_IMPACT : -b - Math.sqrt(discriminant);
+    }
+
+    /**
+     * Computes the distance along a ray to the first point of an axis-aligned rectangle.
+     * Uses the slab method on the parametric form of the ray.
+     *
+     * @param ox   The X coordinate of the ray's origin.
+     * @param oy   The Y coordinate of the ray's origin.
+     * @param dirX The X component of the ray's unit direction.
+     * @param dirY The Y component of the ray's unit direction.
+     * @param x    The X coordinate of the rectangle's top-left corner.
+     * @param y    The Y coordinate of the rectangle's top-left corner.
+     * @param w    The width of the rectangle.
+     * @param h    The height of the rectangle.
+     * @return The distance, zero if the origin lies inside the rectangle, or {@link #NO_IMPACT} if the ray
+     *         misses it.
+     */
+    public static double rayRect(double ox, double oy, double dirX, double dirY,
+                                 double x, double y, double w, double h) {
+        if (w <= 0 || h <= 0) return NO_IMPACT;
+        var tMin = 0.0;
+        var tMax = Double.POSITIVE_INFINITY;
+        if (dirX == 0) {
+            if (ox < x || ox > x + w) return NO_IMPACT;
+        } else {
+            var t1 = (x - ox) / dirX;
+            var t2 = (x + w - ox) / dirX;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        if (dirY == 0) {
+            if (oy < y || oy > y + h) return NO_IMPACT;
+        } else {
+            var t1 = (y - oy) / dirY;
+            var t2 = (y + h - oy) / dirY;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        return tMin <= tMax ? tMin : NO_IMPACT;
+    }
+
+    /**
+     * Computes the distance from a point to an axis-aligned rectangle.
+     *
+     * @param px The X coordinate of the point.
+     * @param py The Y coordinate of the point.
+     * @param x  The X coordinate of the rectangle's top-left corner.
+     * @param y  The Y coordinate of the rectangle's top-left corner.
+     * @param w  The width of the rectangle.
+     * @param h  The height of the rectangle.
+     * @return The distance, zero if the point lies inside the rectangle.
+     */
+    public static double pointRectDistance(double px, double py, double x, double y, double w, double h) {
+        return Math.hypot(px - clamp(px, x, x + w), py - clamp(py, y, y + h));
+    }
+
+    /**
+     * Checks if a point lies strictly inside a circular sector. Points on the arc or on one of the bounding
+     * radii, including the center, are not inside.
+     *
+     * @param sx     The X coordinate of the sector's center.
+     * @param sy     The Y coordinate of the sector's center.
+     * @param sr     The radius of the sector.
+     * @param start  The start angle of the sector in degrees.
+     * @param extent The non-negative angular extent of the sector in degrees.
+     * @param px     The X coordinate of the point.
+     * @param py     The Y coordinate of the point.
+     * @return True if the point is inside the sector, false otherwise.
+     */
+    public static boolean isPointInSector(double sx, double sy, double sr, double start, double extent,
+                                          double px, double py) {
+        var dx = px - sx;
+        var dy = py - sy;
+        var distSq = dx * dx + dy * dy;
+        if (distSq == 0 || distSq >= sr * sr) return false;
+        if (extent >= 360) return true;
+        var offset = angleOffset(dx, dy, start);
+        return offset > 0 && offset < extent;
+    }
+
+    /**
+     * Checks if the direction of a vector lies within the angular range of a sector.
+     *
+     * @param dx     The X component of the vector.
+     * @param dy     The Y component of the vector (screen coordinates, pointing down).
+     * @param start  The start angle of the sector in degrees.
+     * @param extent The non-negative angular extent of the sector in degrees.
+     * @return True if the direction lies within the range, false otherwise.
+     */
+    public static boolean isAngleInSector(double dx, double dy, double start, double extent) {
+        if (extent >= 360) return true;
+        return angleOffset(dx, dy, start) <= extent;
+    }
+
+    /**
+     * Computes the angle of the direction of a vector counterclockwise from the start angle of a sector.
+     *
+     * @param dx    The X component of the vector.
+     * @param dy    The Y component of the vector (screen coordinates, pointing down).
+     * @param start The start angle of the sector in degrees.
+     * @return The angle in degrees, in [0, 360).
+     */
+    private static double angleOffset(double dx, double dy, double start) {
+        var angle = Math.toDegrees(Math.atan2(-dy, dx));
+        var offset = (angle - start) % 360;
+        if (offset < 0) offset += 360;
+        return offset;
+    }
+
+    /**
+     * Computes the squared distance from a point to a line segment.
+     *
+     * @param px The X coordinate of the point.
+     * @param py The Y coordinate of the point.
+     * @param ax The X coordinate of the segment's start.
+     * @param ay The Y coordinate of the segment's start.
+     * @param bx The X coordinate of the segment's end.
+     * @param by The Y coordinate of the segment's end.
+     * @return The squared distance.
+     */
+    public static double segmentDistanceSq(double px, double py,
+                                           double ax, double ay, double bx, double by) {
+        var abx = bx - ax;
+        var aby = by - ay;
+        var lenSq = abx * abx + aby * aby;
+        var t = lenSq == 0 ? 0 : clamp(((px - ax) * abx + (py - ay) * aby) / lenSq, 0, 1);
+        var dx = px - (ax + t * abx);
+        var dy = py - (ay + t * aby);
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Checks if a line segment passes through the interior of an axis-aligned rectangle.
+     * Uses the slab method on the parametric form of the segment.
+     *
+     * @param ax The X coordinate of the segment's start.
+     * @param ay The Y coordinate of the segment's start.
+     * @param bx The X coordinate of the segment's end.
+     * @param by The Y coordinate of the segment's end.
+     * @param x1 The minimal X coordinate of the rectangle.
+     * @param y1 The minimal Y coordinate of the rectangle.
+     * @param x2 The maximal X coordinate of the rectangle.
+     * @param y2 The maximal Y coordinate of the rectangle.
+     * @return True if the segment crosses the rectangle, false otherwise.
+     */
+    public static boolean segmentIntersectsRect(double ax, double ay, double bx, double by,
+                                                double x1, double y1, double x2, double y2) {
+        var tMin = 0.0;
+        var tMax = 1.0;
+        var dx = bx - ax;
+        var dy = by - ay;
+
+        if (dx == 0) {
+            if (ax <= x1 || ax >= x2) return false;
+        } else {
+            var t1 = (x1 - ax) / dx;
+            var t2 = (x2 - ax) / dx;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+
+        if (dy == 0) {
+            if (ay <= y1 || ay >= y2) return false;
+        } else {
+            var t1 = (y1 - ay) / dy;
+            var t2 = (y2 - ay) / dy;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        return tMin < tMax;
+    }
+
+    /**
+     * Checks if the arc of a sector crosses a vertical edge {@code x = ex, y1 <= y <= y2}.
+     *
+     * @param sx     The X coordinate of the sector's center.
+     * @param sy     The Y coordinate of the sector's center.
+     * @param sr     The radius of the sector.
+     * @param start  The start angle of the sector in degrees.
+     * @param extent The non-negative angular extent of the sector in degrees.
+     * @param ex     The X coordinate of the edge.
+     * @param y1     The minimal Y coordinate of the edge.
+     * @param y2     The maximal Y coordinate of the edge.
+     * @return True if the arc crosses the edge, false otherwise.
+     */
+    private static boolean arcCrossesVerticalEdge(double sx, double sy, double sr, double start, double extent,
+                                                  double ex, double y1, double y2) {
+        var dx = ex - sx;
+        var rest = sr * sr - dx * dx;
+        if (rest <= 0) return false;
+        var dy = Math.sqrt(rest);
+        return (sy + dy > y1 && sy + dy < y2 && isAngleInSector(dx, dy, start, extent))
+                || (sy - dy > y1 && sy - dy < y2 && isAngleInSector(dx, -dy, start, extent));
+    }
+
+    /**
+     * Checks if the arc of a sector crosses a horizontal edge {@code y = ey, x1 <= x <= x2}.
+     *
+     * @param sx     The X coordinate of the sector's center.
+     * @param sy     The Y coordinate of the sector's center.
+     * @param sr     The radius of the sector.
+     * @param start  The start angle of the sector in degrees.
+     * @param extent The non-negative angular extent of the sector in degrees.
+     * @param ey     The Y coordinate of the edge.
+     * @param x1     The minimal X coordinate of the edge.
+     * @param x2     The maximal X coordinate of the edge.
+     * @return True if the arc crosses the edge, false otherwise.
+     */
+    private static boolean arcCrossesHorizontalEdge(double sx, double sy, double sr, double start, double extent,
+                                                    double ey, double x1, double x2) {
+        var dy = ey - sy;
+        var rest = sr * sr - dy * dy;
+        if (rest <= 0) return false;
+        var dx = Math.sqrt(rest);
+        return (sx + dx > x1 && sx + dx < x2 && isAngleInSector(dx, dy, start, extent))
+                || (sx - dx > x1 && sx - dx < x2 && isAngleInSector(-dx, dy, start, extent));
+    }
+
+    /**
+     * Clamps a value into the specified range.
+     *
+     * @param value The value to clamp.
+     * @param min   The lower bound of the range.
+     * @param max   The upper bound of the range.
+     * @return The clamped value.
+     */
+    private static double clamp(double value, double min, double max) {
+        return value < min ? min : Math.min(value, max);
+    }
+}
@@ -0,0 +1,488 @@
+/**
+ * @file OccupancyGrid.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.engine;
+
+import lombok.NonNull;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Represents an occupancy grid of static axis-aligned rectangles together with a signed distance field.
+ *
+ * The grid covers a fixed area starting at the origin with square cells. Every rectangle is rasterized into
+ * the cells it touches and the cells it fully covers, and for every cell the field stores a conservative
+ * bound of the distance from any point of the cell to the rectangles:
+ * <ul>
+ *     <li>a positive value is a clearance: no rectangle is closer than that to any point of the cell;</li>
+ *     <li>a negative value means the cell lies inside a rectangle, at least that deep below its surface;</li>
+ *     <li>zero means the cell is too close to a rectangle's edge to tell, or lies outside the grid.</li>
+ * </ul>
+ * Rectangles outside the grid are clamped to its border cells, so the bounds stay valid for every point
+ * of the grid. Distances are computed by an exact Euclidean distance transform of the cells and capped at
+ * {@link #CAP_CELLS} cells, so a change of one rectangle only recomputes the field around it.
+ *
+ * The bounds are slightly pessimistic on purpose, so a test that trusts them gives exactly the same result
+ * as the exact test against the rectangles, including rounding.
+ *
+ * @param <T> The type of the rasterized items.
+ */
+public class OccupancyGrid<T> {
+
+    /**
+     * The largest number of cells of a grid; larger areas use larger cells.
+     */
+    public static final int MAX_CELLS = 1 << 20;
+
+    /**
+     * The largest distance in cells the field measures; farther rectangles are reported at this distance.
+     */
+    public static final int CAP_CELLS = 32;
+
+    /**
+     * The squared distance standing for "no rectangle in range" in the distance transform.
+     */
+    private static final double FAR = 1e12;
+
+    /**
+     * The length of the side of a cell.
+     */
+    private final double cellSize;
+
+    /**
+     * The number of columns and rows of the grid.
+     */
+    private final int columns, rows;
+
+    /**
+     * The margin by which rasterized rectangles are expanded (for touched cells) or shrunk (for covered cells),
+     * absorbing the rounding of the coordinates.
+     */
+    private final double epsilon;
+
+    /**
+     * The number of rectangles touching each cell.
+     */
+    @NonNull
+    private final int[] touching;
+
+    /**
+     * The number of rectangles fully covering each cell.
+     */
+    @NonNull
+    private final int[] covering;
+
+    /**
+     * The signed distance bound of each cell.
+     */
+    @NonNull
+    private final float[] field;
+
+    /**
+     * The rasterized cell ranges of every item: the touched and the covered inclusive range,
+     * each as minimal column, minimal row, maximal column and maximal row.
+     */
+    @NonNull
+    private final Map<T, int[]> ranges = new IdentityHashMap<>();
+
+    /**
+     * The number of items whose coordinates are not finite. While there is any, the field is unknown.
+     */
+    private int unbounded;
+
+    /**
+     * The inclusive range of cells whose occupancy changed since the last {@link #update()}.
+     */
+    private int dirtyMinX = Integer.MAX_VALUE, dirtyMinY = Integer.MAX_VALUE, dirtyMaxX = -1, dirtyMaxY = -1;
+
+    /**
+     * The version of the field, increased by every {@link #update()} that recomputed it.
+     */
+    private int version;
+
+    /**
+     * Constructs a new empty OccupancyGrid covering the specified area.
+     * If the area would need more than {@link #MAX_CELLS} cells, the cells are enlarged.
+     *
+     * @param width    The width of the covered area.
+     * @param height   The height of the covered area.
+     * @param cellSize The preferred length of the side of a cell.
+     * @throws IllegalArgumentException If the cell size is not positive or the area is not finite.
+     */
+    public OccupancyGrid(double width, double height, double cellSize) {
+        if (!(cellSize > 0)) throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        if (!Double.isFinite(width) || !Double.isFinite(height))
+            throw new IllegalArgumentException("Grid area must be finite");
+        width = Math.max(width, 0);
+        height = Math.max(height, 0);
+        while ((Math.floor(width / cellSize) + 1) * (Math.floor(height / cellSize) + 1) > MAX_CELLS) cellSize *= 2;
+        this.cellSize = cellSize;
+        this.columns = (int) Math.floor(width / cellSize) + 1;
+        this.rows = (int) Math.floor(height / cellSize) + 1;
+        this.epsilon = cellSize * 1e-6;
+        this.touching = new int[columns * rows];
+        this.covering = new int[columns * rows];
+        this.field = new float[columns * rows];
+        markDirty(0, 0, columns - 1, rows - 1);
+    }
+
+    /**
+     * Rasterizes an item, replacing its previous rectangle. Rectangles with a non-positive size only
+     * touch cells and never cover any.
+     *
+     * @param item The item.
+     * @param minX The minimal X coordinate of the item's rectangle.
+     * @param minY The minimal Y coordinate of the item's rectangle.
+     * @param maxX The maximal X coordinate of the item's rectangle.
+     * @param maxY The maximal Y coordinate of the item's rectangle.
+     */
+    public void put(@NonNull T item, double minX, double minY, double maxX, double maxY) {
+        remove(item);
+        if (!Double.isFinite(minX) || !Double.isFinite(minY) || !Double.isFinite(maxX) || !Double.isFinite(maxY)) {
+            ranges.put(item, null);
+            unbounded++;
+            return;
+        }
+        var range = new int[8];
+        range[0] = clampColumn(Math.floor((Math.min(minX, maxX) - epsilon) / cellSize));
+        range[1] = clampRow(Math.floor((Math.min(minY, maxY) - epsilon) / cellSize));
+        range[2] = clampColumn(Math.floor((Math.max(minX, maxX) + epsilon) / cellSize));
+        range[3] = clampRow(Math.floor((Math.max(minY, maxY) + epsilon) / cellSize));
+        if (maxX > minX && maxY > minY) {
+            // The border cells are never covered, so the depth inside a rectangle reaching out of the grid
+            // is measured to the border at most.
+            range[4] = (int) Math.max(1, Math.ceil((minX + epsilon) / cellSize));
+            range[5] = (int) Math.max(1, Math.ceil((minY + epsilon) / cellSize));
+            range[6] = (int) Math.min(columns - 2, Math.floor((maxX - epsilon) / cellSize) - 1);
+            range[7] = (int) Math.min(rows - 2, Math.floor((maxY - epsilon) / cellSize) - 1);
+        } else {
+            range[4] = range[5] = 0;
+            range[6] = range[7] = -1;
+        }
+        ranges.put(item, range);
+        rasterize(range, 1);
+    }
+
+    /**
+     * Removes an item from the grid. Unknown items are ignored.
+     *
+     * @param item The item.
+     */
+    public void remove(@NonNull T item) {
+        if (!ranges.containsKey(item)) return;
+        var range = ranges.remove(item);
+        if (range == null) unbounded--;
+        else rasterize(range, -1);
+    }
+
+    /**
+     * Adds a value to the counters of the cells of a rasterized item.
+     *
+     * @param range The rasterized ranges of the item.
+     * @param delta The value added, 1 when the item is inserted and -1 when it is removed.
+     */
+    private void rasterize(int[] range, int delta) {
+        for (int y = range[1]; y <= range[3]; y++) {
+            for (int x = range[0]; x <= range[2]; x++) touching[y * columns + x] += delta;
+        }
+        for (int y = range[5]; y <= range[7]; y++) {
+            for (int x = range[4]; x <= range[6]; x++) covering[y * columns + x] += delta;
+        }
+        markDirty(range[0], range[1], range[2], range[3]);
+    }
+
+    /**
+     * Extends the range of cells whose occupancy changed.
+     *
+     * @param minX The minimal column.
+     * @param minY The minimal row.
+     * @param maxX The maximal column.
+     * @param maxY The maximal row.
+     */
+    private void markDirty(int minX, int minY, int maxX, int maxY) {
+        dirtyMinX = Math.min(dirtyMinX, minX);
+        dirtyMinY = Math.min(dirtyMinY, minY);
+        dirtyMaxX = Math.max(dirtyMaxX, maxX);
+        dirtyMaxY = Math.max(dirtyMaxY, maxY);
+    }
+
+    /**
+     * Checks if the field has to be recomputed before it is read.
+     *
+     * @return True if an item changed since the last {@link #update()}.
+     */
+    public boolean isStale() {
+        return dirtyMaxX >= 0;
+    }
+
+    /**
+     * Recomputes the distance field around the cells changed since the last update.
+     * Only the cells within {@link #CAP_CELLS} of a change are recomputed.
+     */
+    public void update() {
+        if (!isStale()) return;
+        var minX = Math.max(0, dirtyMinX - CAP_CELLS);
+        var minY = Math.max(0, dirtyMinY - CAP_CELLS);
+        var maxX = Math.min(columns - 1, dirtyMaxX + CAP_CELLS);
+        var maxY = Math.min(rows - 1, dirtyMaxY + CAP_CELLS);
+        dirtyMinX = dirtyMinY = Integer.MAX_VALUE;
+        dirtyMaxX = dirtyMaxY = -1;
+        version++;
+
+        var clearance = transform(touching, true, minX, minY, maxX, maxY);
+        var depth = transform(covering, false, minX, minY, maxX, maxY);
+        var width = maxX - minX + 1;
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                var local = (y - minY) * width + x - minX;
+                var cell = y * columns + x;
+                if (covering[cell] > 0) field[cell] = -Math.max(bound(depth[local]), Float.MIN_VALUE);
+                else if (touching[cell] > 0) field[cell] = 0;
+                else field[cell] = bound(clearance[local]);
+            }
+        }
+    }
+
+    /**
+     * Computes the squared distances in cells from every cell of a window to the nearest feature cell,
+     * capped at {@link #CAP_CELLS}. The transform reads the cells up to {@link #CAP_CELLS} around the window.
+     *
+     * @param counts      The per-cell counters defining the features.
+     * @param occupied    If true, the features are the cells with a positive counter, otherwise those with zero.
+     * @param windowMinX  The minimal column of the window.
+     * @param windowMinY  The minimal row of the window.
+     * @param windowMaxX  The maximal column of the window.
+     * @param windowMaxY  The maximal row of the window.
+     * @return The squared distances of the window's cells in row-major order.
+     */
+    private double[] transform(int[] counts, boolean occupied,
+                               int windowMinX, int windowMinY, int windowMaxX, int windowMaxY) {
+        var minX = Math.max(0, windowMinX - CAP_CELLS);
+        var minY = Math.max(0, windowMinY - CAP_CELLS);
+        var maxX = Math.min(columns - 1, windowMaxX + CAP_CELLS);
+        var maxY = Math.min(rows - 1, windowMaxY + CAP_CELLS);
+        var width = maxX - minX + 1;
+        var height = maxY - minY + 1;
+
+        // Distances along the columns of the extended window, then along the rows of the window itself.
+        var length = Math.max(width, height);
+        var f = new double[length];
+        var d = new double[length];
+        var v = new int[length];
+        var z = new double[length + 1];
+        var columnsPass = new double[width * height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                f[y] = (counts[(minY + y) * columns + minX + x] > 0) == occupied ? 0 : FAR;
+            }
+            distance1D(f, height, d, v, z);
+            for (int y = 0; y < height; y++) columnsPass[y * width + x] = d[y];
+        }
+
+        var windowWidth = windowMaxX - windowMinX + 1;
+        var result = new double[windowWidth * (windowMaxY - windowMinY + 1)];
+        for (int y = windowMinY; y <= windowMaxY; y++) {
+            System.arraycopy(columnsPass, (y - minY) * width, f, 0, width);
+            distance1D(f, width, d, v, z);
+            System.arraycopy(d, windowMinX - minX, result, (y - windowMinY) * windowWidth, windowWidth);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the one-dimensional squared distance transform of a sampled function
+     * by the lower envelope of parabolas (Felzenszwalb and Huttenlocher).
+     *
+     * @param f The sampled function, zero at the features.
+     * @param n The number of samples.
+     * @param d The array receiving the transform.
+     * @param v The scratch array of parabola positions.
+     * @param z The scratch array of envelope boundaries.
+     */
+    private static void distance1D(double[] f, int n, double[] d, int[] v, double[] z) {
+        int k = 0;
+        v[0] = 0;
+        z[0] = Double.NEGATIVE_INFINITY;
+        z[1] = Double.POSITIVE_INFINITY;
+        for (int q = 1; q < n; q++) {
+            var s = intersection(f, v[k], q);
+            while (s <= z[k]) s = intersection(f, v[--k], q);
+            k++;
+            v[k] = q;
+            z[k] = s;
+            z[k + 1] = Double.POSITIVE_INFINITY;
+        }
+        k = 0;
+        for (int q = 0; q < n; q++) {
+            while (z[k + 1] < q) k++;
+            var p = v[k];
+            d[q] = (double) (q - p) * (q - p) + f[p];
+        }
+    }
+
+    /**
+     * Computes the position where the parabolas rooted at two samples intersect.
+     *
+     * @param f The sampled function.
+     * @param p The first sample.
+     * @param q The second sample, greater than the first one.
+     * @return The position of the intersection.
+     */
+    private static double intersection(double[] f, int p, int q) {
+        return ((f[q] + (double) q * q) - (f[p] + (double) p * p)) / (2.0 * (q - p));
+    }
+
+    /**
+     * Converts a squared distance in cells to a distance bound valid for every point of the cell,
+     * rounded down to a float.
+     *
+     * @param squaredCells The squared distance in cells between the cell and the nearest feature cell.
+     * @return The bound, zero if the cells are too close to tell.
+     */
+    private float bound(double squaredCells) {
+        var cells = Math.min(Math.sqrt(squaredCells), CAP_CELLS);
+        var distance = (cells - Math.sqrt(2)) * cellSize - epsilon;
+        if (!(distance > 0)) return 0;
+        var rounded = (float) distance;
+        return rounded > distance ? Math.nextDown(rounded) : rounded;
+    }
+
+    /**
+     * Gets the signed distance bound at a point: the clearance to the nearest item if positive,
+     * the depth inside an item if negative, zero if unknown.
+     *
+     * @param x The X coordinate of the point.
+     * @param y The Y coordinate of the point.
+     * @return The signed distance bound.
+     * @throws IllegalStateException If the grid changed since the last {@link #update()}.
+     */
+    public double getDistance(double x, double y) {
+        if (isStale()) throw new IllegalStateException("Occupancy grid is not up to date");
+        if (unbounded > 0 || !(x >= 0) || !(y >= 0)) return 0;
+        var column = x / cellSize;
+        var row = y / cellSize;
+        if (column >= columns || row >= rows) return 0;
+        return field[(int) row * columns + (int) column];
+    }
+
+    /**
+     * Gets the signed distance bound of a cell, valid for every point of the cell.
+     *
+     * @param column The column of the cell.
+     * @param row    The row of the cell.
+     * @return The signed distance bound; zero for cells outside the grid.
+     * @throws IllegalStateException If the grid changed since the last {@link #update()}.
+     */
+    public double getCellDistance(int column, int row) {
+        if (isStale()) throw new IllegalStateException("Occupancy grid is not up to date");
+        if (unbounded > 0 || column < 0 || row < 0 || column >= columns || row >= rows) return 0;
+        return field[row * columns + column];
+    }
+
+    /**
+     * Gets the column of the cell containing an X coordinate, clamped into the grid.
+     *
+     * @param x The X coordinate.
+     * @return The column.
+     */
+    public int columnOf(double x) {
+        return clampColumn(Math.floor(x / cellSize));
+    }
+
+    /**
+     * Gets the row of the cell containing a Y coordinate, clamped into the grid.
+     *
+     * @param y The Y coordinate.
+     * @return The row.
+     */
+    public int rowOf(double y) {
+        return clampRow(Math.floor(y / cellSize));
+    }
+
+    /**
+     * Gets the version of the field. The version changes whenever an update recomputes the field,
+     * so anything derived from the grid, such as planned routes, can be invalidated by comparing versions.
+     *
+     * @return The version.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks if a point lies in a cell touched by any item, or outside the grid.
+     * This is the plain occupancy test, coarser than {@link #getDistance(double, double)}.
+     *
+     * @param x The X coordinate of the point.
+     * @param y The Y coordinate of the point.
+     * @return True if the cell of the point may be occupied.
+     */
+    public boolean isOccupied(double x, double y) {
+        if (unbounded > 0 || !(x >= 0) || !(y >= 0)) return true;
+        var column = x / cellSize;
+        var row = y / cellSize;
+        if (column >= columns || row >= rows) return true;
+        return touching[(int) row * columns + (int) column] > 0;
+    }
+
+    /**
+     * Checks if a cell is touched by any item.
+     *
+     * @param column The column of the cell.
+     * @param row    The row of the cell.
+     * @return True if the cell may be occupied; cells outside the grid are occupied.
+     */
+    public boolean isOccupiedCell(int column, int row) {
+        if (column < 0 || row < 0 || column >= columns || row >= rows) return true;
+        return unbounded > 0 || touching[row * columns + column] > 0;
+    }
+
+    /**
+     * Clamps a column coordinate into the grid.
+     *
+     * @param column The column, possibly out of range.
+     * @return The nearest column of the grid.
+     */
+    private int clampColumn(double column) {
+        return (int) Math.max(0, Math.min(columns - 1, column));
+    }
+
+    /**
+     * Clamps a row coordinate into the grid.
+     *
+     * @param row The row, possibly out of range.
+     * @return The nearest row of the grid.
+     */
+    private int clampRow(double row) {
+        return (int) Math.max(0, Math.min(rows - 1, row));
+    }
+
+    /**
+     * Gets the length of the side of a cell, which may be larger than requested for large areas.
+     *
+     * @return The cell size.
+     */
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Gets the number of columns of the grid.
+     *
+     * @return The number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the number of rows of the grid.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,582 @@
+/**
+ * @file PathPlanner.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.engine;
+
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Plans routes through the free cells of an {@link OccupancyGrid} by jump-point search.
+ *
+ * A cell is walkable for a circle of some radius if its distance bound is greater than the radius, so a circle
+ * anywhere in a walkable cell does not overlap any item. The search moves between walkable cells in the eight
+ * directions without cutting corners, so every straight segment of a route lies in walkable cells. Jump-point
+ * search finds the same shortest routes as A* on that graph, but only expands the cells where the route can
+ * turn, which makes a search cheap enough to run for many robots per frame.
+ *
+ * Routes are cached by their start cell, goal cell and radius, and the cache is dropped only when the grid
+ * changes. The walkable cells for each radius are cached in the same way as a bitmap with a blocked border,
+ * so the search reads one array entry per cell instead of querying the grid. The planner is safe to use from
+ * several threads as long as the grid is not updated at the same time, and it always returns the same route
+ * for the same query, so parallel planning stays reproducible.
+ */
+public class PathPlanner {
+
+    /**
+     * The largest number of cached routes; the cache is cleared when it grows over this.
+     */
+    public static final int MAX_CACHED_ROUTES = 1 << 16;
+
+    /**
+     * The largest distance in cells a start or goal in a blocked cell is moved to the nearest walkable cell.
+     */
+    public static final int SNAP_CELLS = 8;
+
+    /**
+     * The cached result of a search that found no route.
+     */
+    private static final int[] NO_ROUTE = new int[0];
+
+    /**
+     * The cost of a diagonal step in cells.
+     */
+    private static final double DIAGONAL = Math.sqrt(2);
+
+    /**
+     * Identifies a cached route.
+     *
+     * @param from   The start cell.
+     * @param to     The goal cell.
+     * @param radius The radius of the circle following the route.
+     */
+    private record RouteKey(int from, int to, double radius) {
+    }
+
+    /**
+     * The grid the routes are planned in.
+     */
+    @NonNull
+    private final OccupancyGrid<?> grid;
+
+    /**
+     * The cached routes, as the cells of their turning points from the start cell to the goal cell.
+     */
+    @NonNull
+    private final Map<RouteKey, int[]> routes = new ConcurrentHashMap<>();
+
+    /**
+     * The walkable cells for each radius, row by row with a blocked border one cell wide around the grid.
+     */
+    @NonNull
+    private final Map<Double, boolean[]> walkableCells = new ConcurrentHashMap<>();
+
+    /**
+     * The version of the grid the cached routes were planned for.
+     */
+    private int routesVersion;
+
+    /**
+     * The per-thread state of the searches.
+     */
+    @NonNull
+    private final ThreadLocal<Search> searches;
+
+    /**
+     * The number of searches run and the number of queries answered from the cache.
+     */
+    private final LongAdder searchCount = new LongAdder(), hitCount = new LongAdder();
+
+    /**
+     * Constructs a new PathPlanner for a grid.
+     *
+     * @param grid The grid the routes are planned in.
+     */
+    public PathPlanner(@NonNull OccupancyGrid<?> grid) {
+        this.grid = grid;
+        this.routesVersion = grid.getVersion();
+        this.searches = ThreadLocal.withInitial(() -> new Search(grid.getColumns() * grid.getRows()));
+    }
+
+    /**
+     * Finds a route for a circle from a start point to a goal point.
+     * The route starts at the center of the start cell and ends at the goal point, or at the center of the
+     * nearest walkable cell if the goal lies in a blocked cell. Start and goal points in blocked cells are
+     * moved to the nearest walkable cell within {@link #SNAP_CELLS}.
+     *
+     * @param fromX  The X coordinate of the start point.
+     * @param fromY  The Y coordinate of the start point.
+     * @param toX    The X coordinate of the goal point.
+     * @param toY    The Y coordinate of the goal point.
+     * @param radius The radius of the circle.
+     * @return The waypoints of the route as consecutive X and Y coordinates, or null if there is no route.
+     */
+    public double[] findRoute(double fromX, double fromY, double toX, double toY, double radius) {
+        validate();
+        var columns = grid.getColumns();
+        var goalColumn = grid.columnOf(toX);
+        var goalRow = grid.rowOf(toY);
+        var key = new RouteKey(grid.rowOf(fromY) * columns + grid.columnOf(fromX), goalRow * columns + goalColumn,
+                radius);
+
+        var cells = routes.get(key);
+        if (cells != null) {
+            hitCount.increment();
+        } else {
+            cells = searches.get().run(key.from(), key.to(), radius);
+            searchCount.increment();
+            if (routes.size() >= MAX_CACHED_ROUTES) routes.clear();
+            routes.put(key, cells);
+        }
+        if (cells.length == 0) return null;
+
+        var exactGoal = cells[cells.length - 1] == key.to();
+        var route = new double[2 * cells.length + (exactGoal ? 2 : 0)];
+        var size = grid.getCellSize();
+        for (int i = 0; i < cells.length; i++) {
+            route[2 * i] = (cells[i] % columns + 0.5) * size;
+            route[2 * i + 1] = (cells[i] / columns + 0.5) * size;
+        }
+        if (exactGoal) {
+            route[route.length - 2] = toX;
+            route[route.length - 1] = toY;
+        }
+        return route;
+    }
+
+    /**
+     * Drops the cached routes if the grid changed since they were planned.
+     */
+    private synchronized void validate() {
+        if (routesVersion == grid.getVersion()) return;
+        routes.clear();
+        walkableCells.clear();
+        routesVersion = grid.getVersion();
+    }
+
+    /**
+     * Checks if a circle anywhere in a cell is clear of all items.
+     *
+     * @param column The column of the cell.
+     * @param row    The row of the cell.
+     * @param radius The radius of the circle.
+     * @return True if the cell is walkable; cells outside the grid are not.
+     */
+    public boolean isWalkable(int column, int row, double radius) {
+        return grid.getCellDistance(column, row) > radius;
+    }
+
+    /**
+     * Gets the walkable cells for a radius, computing them if they are not cached.
+     *
+     * @param radius The radius of the circle.
+     * @return The walkable cells, row by row with a blocked border around the grid.
+     */
+    private boolean[] getWalkableCells(double radius) {
+        return walkableCells.computeIfAbsent(radius, r -> {
+            var columns = grid.getColumns();
+            var rows = grid.getRows();
+            var cells = new boolean[(columns + 2) * (rows + 2)];
+            for (int y = 0; y < rows; y++) {
+                for (int x = 0; x < columns; x++) cells[(y + 1) * (columns + 2) + x + 1] = isWalkable(x, y, r);
+            }
+            return cells;
+        });
+    }
+
+    /**
+     * Gets the version of the grid, which changes whenever the routes planned so far may be invalid.
+     *
+     * @return The version.
+     */
+    public int getVersion() {
+        return grid.getVersion();
+    }
+
+    /**
+     * Gets the number of searches run since the planner was created.
+     *
+     * @return The number of searches.
+     */
+    public long getSearchCount() {
+        return searchCount.sum();
+    }
+
+    /**
+     * Gets the number of queries answered from the cache since the planner was created.
+     *
+     * @return The number of cache hits.
+     */
+    public long getCacheHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Holds the state of a jump-point search. The arrays span the whole grid and are reused by the searches
+     * of one thread; a search stamp tells which entries belong to the current search.
+     */
+    private final class Search {
+
+        /**
+         * The cost of the best known route to each cell.
+         */
+        private final double[] cost;
+
+        /**
+         * The cell each cell was reached from.
+         */
+        private final int[] parent;
+
+        /**
+         * The stamp of the search that reached each cell; older stamps mean the cell was not reached.
+         */
+        private final int[] reached;
+
+        /**
+         * The stamp of the search that expanded each cell.
+         */
+        private final int[] expanded;
+
+        /**
+         * The binary heap of open cells with their estimated total costs.
+         */
+        private int[] heapCells = new int[64];
+
+        /**
+         * The estimated total costs of the cells in the heap.
+         */
+        private double[] heapCosts = new double[64];
+
+        /**
+         * The number of entries in the heap.
+         */
+        private int heapSize;
+
+        /**
+         * The stamp of the current search.
+         */
+        private int stamp;
+
+        /**
+         * The walkable cells for the circle of the current search, with a blocked border around the grid.
+         */
+        private boolean[] open;
+
+        /**
+         * The length of a row of {@link #open}.
+         */
+        private int stride;
+
+        /**
+         * The goal cell of the current search.
+         */
+        private int goalColumn, goalRow;
+
+        /**
+         * Constructs the state for a grid with the specified number of cells.
+         *
+         * @param cells The number of cells.
+         */
+        private Search(int cells) {
+            cost = new double[cells];
+            parent = new int[cells];
+            reached = new int[cells];
+            expanded = new int[cells];
+        }
+
+        /**
+         * Searches for a route between two cells.
+         *
+         * @param from   The start cell.
+         * @param to     The goal cell.
+         * @param radius The radius of the circle following the route.
+         * @return The cells of the turning points from the start cell to the goal cell,
+         *         or {@link #NO_ROUTE} if the goal cannot be reached.
+         */
+        private int[] run(int from, int to, double radius) {
+            var columns = grid.getColumns();
+            open = getWalkableCells(radius);
+            stride = columns + 2;
+            var start = snap(from % columns, from / columns);
+            var goal = snap(to % columns, to / columns);
+            if (start < 0 || goal < 0) return NO_ROUTE;
+            goalColumn = goal % columns;
+            goalRow = goal / columns;
+
+            if (++stamp == 0) {
+                Arrays.fill(reached, 0);
+                Arrays.fill(expanded, 0);
+                stamp = 1;
+            }
+            heapSize = 0;
+            reach(start, start, 0);
+            while (heapSize > 0) {
+                var cell = pop();
+                if (expanded[cell] == stamp) continue;
+                expanded[cell] = stamp;
+                if (cell == goal) return trace(goal);
+                expand(cell % columns, cell / columns);
+            }
+            return NO_ROUTE;
+        }
+
+        /**
+         * Finds the walkable cell nearest to a cell, within {@link #SNAP_CELLS}.
+         * Of equally distant cells, the first in row-major order is chosen.
+         *
+         * @param column The column of the cell.
+         * @param row    The row of the cell.
+         * @return The walkable cell, or -1 if there is none near.
+         */
+        private int snap(int column, int row) {
+            if (inside(column, row) && walkable(column, row)) return row * grid.getColumns() + column;
+            var best = -1;
+            var bestDistance = Integer.MAX_VALUE;
+            for (int y = row - SNAP_CELLS; y <= row + SNAP_CELLS; y++) {
+                for (int x = column - SNAP_CELLS; x <= column + SNAP_CELLS; x++) {
+                    var distance = (x - column) * (x - column) + (y - row) * (y - row);
+                    if (distance < bestDistance && inside(x, y) && walkable(x, y)) {
+                        best = y * grid.getColumns() + x;
+                        bestDistance = distance;
+                    }
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Expands a cell: jumps from it in every direction its parent leaves open and records the jump points.
+         *
+         * @param x The column of the cell.
+         * @param y The row of the cell.
+         */
+        private void expand(int x, int y) {
+            var columns = grid.getColumns();
+            var cell = y * columns + x;
+            var from = parent[cell];
+            if (from == cell) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        if (dx != 0 || dy != 0) follow(x, y, dx, dy);
+                    }
+                }
+                return;
+            }
+
+            var dx = Integer.signum(x - from % columns);
+            var dy = Integer.signum(y - from / columns);
+            if (dx != 0 && dy != 0) {
+                var vertical = walkable(x, y + dy);
+                var horizontal = walkable(x + dx, y);
+                if (vertical) follow(x, y, 0, dy);
+                if (horizontal) follow(x, y, dx, 0);
+                if (vertical && horizontal) follow(x, y, dx, dy);
+            } else if (dx != 0) {
+                var next = walkable(x + dx, y);
+                var up = walkable(x, y - 1);
+                var down = walkable(x, y + 1);
+                if (next) {
+                    follow(x, y, dx, 0);
+                    if (up) follow(x, y, dx, -1);
+                    if (down) follow(x, y, dx, 1);
+                }
+                if (up) follow(x, y, 0, -1);
+                if (down) follow(x, y, 0, 1);
+            } else {
+                var next = walkable(x, y + dy);
+                var left = walkable(x - 1, y);
+                var right = walkable(x + 1, y);
+                if (next) {
+                    follow(x, y, 0, dy);
+                    if (left) follow(x, y, -1, dy);
+                    if (right) follow(x, y, 1, dy);
+                }
+                if (left) follow(x, y, -1, 0);
+                if (right) follow(x, y, 1, 0);
+            }
+        }
+
+        /**
+         * Jumps from a cell in a direction and records the jump point found, if any.
+         *
+         * @param x  The column of the cell.
+         * @param y  The row of the cell.
+         * @param dx The column step of the direction.
+         * @param dy The row step of the direction.
+         */
+        private void follow(int x, int y, int dx, int dy) {
+            if (!canStep(x, y, dx, dy)) return;
+            var jumpPoint = jump(x + dx, y + dy, dx, dy);
+            if (jumpPoint < 0) return;
+            var columns = grid.getColumns();
+            var cell = y * columns + x;
+            var stepsX = Math.abs(jumpPoint % columns - x);
+            var stepsY = Math.abs(jumpPoint / columns - y);
+            reach(jumpPoint, cell, cost[cell] + Math.max(stepsX, stepsY) * (dx != 0 && dy != 0 ? DIAGONAL : 1));
+        }
+
+        /**
+         * Moves from a cell in a direction until a jump point is found: the goal, or a cell where a shortest
+         * route may turn.
+         *
+         * @param x  The column of the first cell.
+         * @param y  The row of the first cell.
+         * @param dx The column step of the direction.
+         * @param dy The row step of the direction.
+         * @return The jump point, or -1 if the move runs into a blocked cell first.
+         */
+        private int jump(int x, int y, int dx, int dy) {
+            while (true) {
+                if (!walkable(x, y)) return -1;
+                if (x == goalColumn && y == goalRow) return y * grid.getColumns() + x;
+                if (dx != 0 && dy != 0) {
+                    if (jump(x + dx, y, dx, 0) >= 0 || jump(x, y + dy, 0, dy) >= 0) return y * grid.getColumns() + x;
+                } else if (dx != 0) {
+                    if (walkable(x, y - 1) && !walkable(x - dx, y - 1)
+                            || walkable(x, y + 1) && !walkable(x - dx, y + 1)) return y * grid.getColumns() + x;
+                } else {
+                    if (walkable(x - 1, y) && !walkable(x - 1, y - dy)
+                            || walkable(x + 1, y) && !walkable(x + 1, y - dy)) return y * grid.getColumns() + x;
+                }
+                if (!canStep(x, y, dx, dy)) return -1;
+                x += dx;
+                y += dy;
+            }
+        }
+
+        /**
+         * Checks if a step from a cell in a direction is allowed: a diagonal step must not cut a blocked corner.
+         *
+         * @param x  The column of the cell.
+         * @param y  The row of the cell.
+         * @param dx The column step.
+         * @param dy The row step.
+         * @return True if the target cell and, for diagonal steps, both cells beside the step are walkable.
+         */
+        private boolean canStep(int x, int y, int dx, int dy) {
+            if (!walkable(x + dx, y + dy)) return false;
+            return dx == 0 || dy == 0 || walkable(x + dx, y) && walkable(x, y + dy);
+        }
+
+        /**
+         * Checks if a cell is walkable for the circle of the current search.
+         *
+         * @param x The column of the cell, at most one cell outside the grid.
+         * @param y The row of the cell, at most one cell outside the grid.
+         * @return True if the cell is walkable.
+         */
+        private boolean walkable(int x, int y) {
+            return open[(y + 1) * stride + x + 1];
+        }
+
+        /**
+         * Checks if a cell lies in the grid.
+         *
+         * @param x The column of the cell.
+         * @param y The row of the cell.
+         * @return True if the cell is in the grid.
+         */
+        private boolean inside(int x, int y) {
+            return x >= 0 && y >= 0 && x < grid.getColumns() && y < grid.getRows();
+        }
+
+        /**
+         * Records a route to a cell if it is cheaper than the best known one.
+         *
+         * @param cell The reached cell.
+         * @param from The cell it is reached from.
+         * @param g    The cost of the route to the cell.
+         */
+        private void reach(int cell, int from, double g) {
+            if (reached[cell] == stamp && cost[cell] <= g) return;
+            reached[cell] = stamp;
+            cost[cell] = g;
+            parent[cell] = from;
+            var columns = grid.getColumns();
+            var hx = Math.abs(cell % columns - goalColumn);
+            var hy = Math.abs(cell / columns - goalRow);
+            push(cell, g + Math.max(hx, hy) + (DIAGONAL - 1) * Math.min(hx, hy));
+        }
+
+        /**
+         * Collects the turning points of the route to a cell.
+         *
+         * @param goal The last cell of the route.
+         * @return The cells from the start cell to the goal cell.
+         */
+        private int[] trace(int goal) {
+            var length = 1;
+            for (int cell = goal; parent[cell] != cell; cell = parent[cell]) length++;
+            var route = new int[length];
+            for (int cell = goal, i = length - 1; i >= 0; cell = parent[cell], i--) route[i] = cell;
+            return route;
+        }
+
+        /**
+         * Adds a cell to the heap of open cells.
+         *
+         * @param cell      The cell.
+         * @param totalCost The estimated total cost of a route through the cell.
+         */
+        private void push(int cell, double totalCost) {
+            if (heapSize == heapCells.length) {
+                heapCells = Arrays.copyOf(heapCells, 2 * heapSize);
+                heapCosts = Arrays.copyOf(heapCosts, 2 * heapSize);
+            }
+            var i = heapSize++;
+            while (i > 0) {
+                var up = (i - 1) / 2;
+                if (!before(totalCost, cell, heapCosts[up], heapCells[up])) break;
+                heapCells[i] = heapCells[up];
+                heapCosts[i] = heapCosts[up];
+                i = up;
+            }
+            heapCells[i] = cell;
+            heapCosts[i] = totalCost;
+        }
+
+        /**
+         * Removes the open cell with the lowest estimated total cost from the heap.
+         *
+         * @return The cell.
+         */
+        private int pop() {
+            var top = heapCells[0];
+            var cell = heapCells[--heapSize];
+            var totalCost = heapCosts[heapSize];
+            var i = 0;
+            while (true) {
+                var child = 2 * i + 1;
+                if (child >= heapSize) break;
+                if (child + 1 < heapSize
+                        && before(heapCosts[child + 1], heapCells[child + 1], heapCosts[child], heapCells[child]))
+                    child++;
+                if (!before(heapCosts[child], heapCells[child], totalCost, cell)) break;
+                heapCells[i] = heapCells[child];
+                heapCosts[i] = heapCosts[child];
+                i = child;
+            }
+            heapCells[i] = cell;
+            heapCosts[i] = totalCost;
+            return top;
+        }
+
+        /**
+         * Orders the heap entries by their estimated total cost, then by their cell, so searches are reproducible.
+         *
+         * @param costA The cost of the first entry.
+         * @param cellA The cell of the first entry.
+         * @param costB The cost of the second entry.
+         * @param cellB The cell of the second entry.
+         * @return True if the first entry goes first.
+         */
+        private static boolean before(double costA, int cellA, double costB, int cellB) {
+            return costA < costB || costA == costB && cellA < cellB;
+        }
+    }
+}
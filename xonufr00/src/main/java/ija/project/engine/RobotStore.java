@@ -0,0 +1,813 @@
+/**
+ * @file RobotStore.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.engine;
+
+import lombok.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Stores the numeric state of many robots in a structure of arrays.
+ * Every robot owns one slot, identified by its index, and each property is kept in its own primitive
+ * array. Stepping and collision kernels that visit many robots therefore read contiguous memory instead
+ * of chasing references to individual objects. Each slot also keeps a reference to the handle object
+ * representing the robot in the rest of the application.
+ *
+ * @param <T> The type of the robot handles.
+ */
+public class RobotStore<T> {
+
+    /**
+     * The number of slots allocated by a new store.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The flag of a robot whose movement is stopped.
+     */
+    public static final byte FLAG_STOPPED = 1;
+
+    /**
+     * The flag of a robot that was added to its room and takes part in the simulation.
+     */
+    public static final byte FLAG_ACTIVE = 2;
+
+    /**
+     * The flag of a robot whose planned step is free motion that cannot touch anything.
+     */
+    public static final byte FLAG_FREE = 4;
+
+    /**
+     * The flag of a robot whose route is planned by the room in the current update.
+     */
+    public static final byte FLAG_ROUTE_REQUESTED = 8;
+
+    /**
+     * The status bit set for a robot that collides with another collider.
+     */
+    public static final byte STATUS_COLLIDING = 1;
+
+    /**
+     * The status bit set for a robot whose detection arc intersects another collider.
+     */
+    public static final byte STATUS_DETECTED = 2;
+
+    /**
+     * The status bit set for a robot that reaches out of the room.
+     */
+    public static final byte STATUS_OUT_OF_ROOM = 4;
+
+    /**
+     * The shift of the bits recording which status bits are known.
+     */
+    private static final int STATUS_KNOWN_SHIFT = 4;
+
+    /**
+     * The number of allocated slots.
+     */
+    private int size;
+
+    /**
+     * The X coordinates of the robots' centers.
+     */
+    private double[] x;
+
+    /**
+     * The Y coordinates of the robots' centers.
+     */
+    private double[] y;
+
+    /**
+     * The radii of the robots' frames.
+     */
+    private double[] radius;
+
+    /**
+     * The current angles of the robots in degrees.
+     */
+    private double[] angle;
+
+    /**
+     * The radii of the robots' detection arcs.
+     */
+    private double[] arcRadius;
+
+    /**
+     * The extents of the robots' detection arcs in degrees.
+     */
+    private double[] arcExtent;
+
+    /**
+     * The speeds of the robots in units per second.
+     */
+    private double[] speed;
+
+    /**
+     * The rotation speeds of the robots in degrees per second.
+     */
+    private double[] rotationSpeed;
+
+    /**
+     * The rotation degree samples of the robots.
+     */
+    private double[] rotationSample;
+
+    /**
+     * The remaining degrees the robots have to rotate.
+     */
+    private double[] leftToRotate;
+
+    /**
+     * The X coordinates planned for the next step.
+     */
+    private double[] nextX;
+
+    /**
+     * The Y coordinates planned for the next step.
+     */
+    private double[] nextY;
+
+    /**
+     * The angles planned for the next step.
+     */
+    private double[] nextAngle;
+
+    /**
+     * The remaining rotations planned for the next step.
+     */
+    private double[] nextLeftToRotate;
+
+    /**
+     * The times in nanoseconds the robots can still move before they can touch or detect anything,
+     * that is the times left until their next events.
+     */
+    private long[] freeTime;
+
+    /**
+     * The versions of the room's schedule the free times were computed for.
+     */
+    private int[] freeVersion;
+
+    /**
+     * The cached statuses of the robots. The lower bits are {@code STATUS_*} values, the upper bits
+     * record which of them have been computed.
+     */
+    private byte[] status;
+
+    /**
+     * The status versions of the room the cached statuses were computed for.
+     */
+    private int[] statusVersion;
+
+    /**
+     * The X coordinates of the goal points of the robots.
+     */
+    private double[] goalX;
+
+    /**
+     * The Y coordinates of the goal points of the robots.
+     */
+    private double[] goalY;
+
+    /**
+     * The operation modes of the robots, as ordinals of the mode enumeration.
+     */
+    private byte[] modes;
+
+    /**
+     * The flags of the robots, a combination of the {@code FLAG_*} constants.
+     */
+    private byte[] flags;
+
+    /**
+     * The handles representing the robots.
+     */
+    private Object[] handles;
+
+    /**
+     * Constructs a new empty RobotStore.
+     */
+    public RobotStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new empty RobotStore with room for the specified number of robots before it grows.
+     *
+     * @param capacity The initial number of slots, at least one.
+     */
+    public RobotStore(int capacity) {
+        resize(Math.max(1, capacity));
+    }
+
+    /**
+     * Allocates a slot for a new robot. All numeric properties of the slot start at zero.
+     *
+     * @param handle The handle representing the robot. Must not be null.
+     * @return The index of the allocated slot.
+     */
+    public int allocate(@NonNull T handle) {
+        if (size == handles.length) resize(2 * size);
+        handles[size] = handle;
+        return size++;
+    }
+
+    /**
+     * Moves the robot in a slot to a new slot of another store, with all its properties.
+     * The slot of this store is left to the handle's old index and must not be used afterwards.
+     *
+     * @param i      The index of the slot in this store.
+     * @param target The store to move the robot to.
+     * @return The index of the robot's slot in the target store.
+     */
+    public int transfer(int i, @NonNull RobotStore<T> target) {
+        var j = target.allocate(getHandle(i));
+        target.x[j] = x[i];
+        target.y[j] = y[i];
+        target.radius[j] = radius[i];
+        target.angle[j] = angle[i];
+        target.arcRadius[j] = arcRadius[i];
+        target.arcExtent[j] = arcExtent[i];
+        target.speed[j] = speed[i];
+        target.rotationSpeed[j] = rotationSpeed[i];
+        target.rotationSample[j] = rotationSample[i];
+        target.leftToRotate[j] = leftToRotate[i];
+        target.nextX[j] = nextX[i];
+        target.nextY[j] = nextY[i];
+        target.nextAngle[j] = nextAngle[i];
+        target.nextLeftToRotate[j] = nextLeftToRotate[i];
+        target.freeTime[j] = freeTime[i];
+        target.freeVersion[j] = freeVersion[i];
+        target.status[j] = status[i];
+        target.statusVersion[j] = statusVersion[i];
+        target.goalX[j] = goalX[i];
+        target.goalY[j] = goalY[i];
+        target.modes[j] = modes[i];
+        target.flags[j] = flags[i];
+        return j;
+    }
+
+    /**
+     * Gets the number of allocated slots.
+     *
+     * @return The number of slots.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the handle of the robot in a slot.
+     *
+     * @param i The index of the slot.
+     * @return The handle.
+     */
+    @SuppressWarnings("unchecked")
+    public T getHandle(int i) {
+        return (T) handles[i];
+    }
+
+    /**
+     * Checks if the robot in a slot overlaps a circle.
+     *
+     * @param i  The index of the slot.
+     * @param cx The X coordinate of the circle's center.
+     * @param cy The Y coordinate of the circle's center.
+     * @param cr The radius of the circle.
+     * @return True if the robot's frame and the circle share some area, false otherwise.
+     */
+    public boolean overlapsCircle(int i, double cx, double cy, double cr) {
+        return Intersections.circleCircle(x[i], y[i], radius[i], cx, cy, cr);
+    }
+
+    /**
+     * Checks if the robot in a slot overlaps a circular sector.
+     *
+     * @param i      The index of the slot.
+     * @param sx     The X coordinate of the sector's center.
+     * @param sy     The Y coordinate of the sector's center.
+     * @param sr     The radius of the sector.
+     * @param start  The start angle of the sector in degrees.
+     * @param extent The angular extent of the sector in degrees.
+     * @return True if the robot's frame and the sector share some area, false otherwise.
+     */
+    public boolean overlapsSector(int i, double sx, double sy, double sr, double start, double extent) {
+        return Intersections.sectorCircle(sx, sy, sr, start, extent, x[i], y[i], radius[i]);
+    }
+
+    /**
+     * Computes the time of impact of a circle moving along a vector with the robot in a slot.
+     *
+     * @param i  The index of the slot.
+     * @param cx The X coordinate of the circle's center at the start of the motion.
+     * @param cy The Y coordinate of the circle's center at the start of the motion.
+     * @param cr The radius of the circle.
+     * @param dx The X component of the motion.
+     * @param dy The Y component of the motion.
+     * @return The fraction of the motion done before the circle touches the robot, or {@link Intersections#NO_IMPACT}.
+     */
+    public double sweepCircle(int i, double cx, double cy, double cr, double dx, double dy) {
+        return Intersections.sweptCircleCircle(cx, cy, cr, dx, dy, x[i], y[i], radius[i]);
+    }
+
+    /**
+     * Computes the distance from a point to the frame of the robot in a slot.
+     *
+     * @param i  The index of the slot.
+     * @param px The X coordinate of the point.
+     * @param py The Y coordinate of the point.
+     * @return The distance, zero if the point lies inside the frame.
+     */
+    public double distanceTo(int i, double px, double py) {
+        return Math.max(0, Math.hypot(px - x[i], py - y[i]) - radius[i]);
+    }
+
+    /**
+     * Computes the distance along a ray to the frame of the robot in a slot.
+     *
+     * @param i    The index of the slot.
+     * @param ox   The X coordinate of the ray's origin.
+     * @param oy   The Y coordinate of the ray's origin.
+     * @param dirX The X component of the ray's unit direction.
+     * @param dirY The Y component of the ray's unit direction.
+     * @return The distance, or {@link Intersections#NO_IMPACT} if the ray misses the robot.
+     */
+    public double castRay(int i, double ox, double oy, double dirX, double dirY) {
+        return Intersections.rayCircle(ox, oy, dirX, dirY, x[i], y[i], radius[i]);
+    }
+
+    /**
+     * Gets the operation mode of the robot in a slot.
+     *
+     * @param i The index of the slot.
+     * @return The ordinal of the mode.
+     */
+    public int getMode(int i) {
+        return modes[i];
+    }
+
+    /**
+     * Sets the operation mode of the robot in a slot.
+     *
+     * @param i    The index of the slot.
+     * @param mode The ordinal of the mode.
+     */
+    public void setMode(int i, int mode) {
+        modes[i] = (byte) mode;
+    }
+
+    /**
+     * Checks if the robot in a slot has a flag set.
+     *
+     * @param i    The index of the slot.
+     * @param flag One of the {@code FLAG_*} constants.
+     * @return True if the flag is set, false otherwise.
+     */
+    public boolean hasFlag(int i, byte flag) {
+        return (flags[i] & flag) != 0;
+    }
+
+    /**
+     * Sets or clears a flag of the robot in a slot.
+     *
+     * @param i     The index of the slot.
+     * @param flag  One of the {@code FLAG_*} constants.
+     * @param value True to set the flag, false to clear it.
+     */
+    public void setFlag(int i, byte flag, boolean value) {
+        flags[i] = (byte) (value ? flags[i] | flag : flags[i] & ~flag);
+    }
+
+    /**
+     * Gets the X coordinate of the robot's center.
+     *
+     * @param i The index of the slot.
+     * @return The value.
+     */
+    public double getX(int i) {
+        return x[i];
+    }
+
+    /**
+     * Sets the X coordinate of the robot's center.
+     *
+     * @param i     The index of the slot.
+     * @param value The new value.
+     */
+    public void setX(int i, double value) {
+        x[i] = value;
+    }
+
+    /**
+     * Gets the Y coordinate of the robot's center.
+     *
+     * @param i The index of the slot.
+     * @return The value.
+     */
+    public double getY(int i) {
+        return y[i];
+    }
+
+    /**
+     * Sets the Y coordinate of the robot's center.
+     *
+     * @param i     The index of the slot.
+     * @param value The new value.
+     */
+    public void setY(int i, double value) {
+        y[i] = value;
+    }
+
+    /**
+     * Gets the radius of the robot's frame.
+     *
+     * @param i The index of the slot.
+     * @return The value.
+     */
+    public double getRadius(int i) {
+        return radius[i];
+    }
+
+    /**
+     * Sets the radius of the robot's frame.
+     *
+     * @param i     The index of the slot.
+     * @param value The new value.
+     */
+    public void setRadius(int i, double value) {
+        radius[i] = value;
+    }
+
+    /**
+     * Gets the current angle of the robot in degrees.
+     *
+     * @param i The index of the slot.
+     * @return The value.
+     */
+    public double getAngle(int i) {
+        return angle[i];
+    }
+
+    /**
+     * Sets the current angle of the robot in degrees.
+     *
+     * @param i     The index of the slot.
+     * @param value The new value.
+     */
+    public void setAngle(int i, double value) {
+        angle[i] = value;
+    }
+
+    /**
+     * Gets the radius of the robot's detection arc.
+     *
+     * @param i The index of the slot.
+     * @return The value.
+     */
+    public double getArcRadius(int i) {
+        return arcRadius[i];
+    }
+
+    /**
+     * Sets the radius of the robot's detection arc.
+     *
+     * @param i     The index of the slot.
+     * @param value The new value.
+     */
+    public void setArcRadius(int i, double value) {
+        arcRadius[i] = value;
+    }
+
+    /**
+     * Gets the extent of the robot's detection arc in degrees.
+     *
+     * @param i The index of the slot.
+     * @return The value.
+     */
+    public double getArcExtent(int i) {
+        return arcExtent[i];
+    }
+
+    /**
+     * Sets the extent of the robot's detection arc in degrees.
+     *
+     * @param i     The index of the slot.
+     * @param value The new value.
+     */
+    public void setArcExtent(int i, double value) {
+        arcExtent[i] = value;
+    }
+
+    /**
+     * Gets the speed of the robot in units per second.
+     *
+     * @param i The index of the slot.
+     * @return The value.
+     */
+    public double getSpeed(int i) {
+        return speed[i];
+    }
+
+    /**
+     * Sets the speed of the robot in units per second.
+     *
+     * @param i     The index of the slot.
+     * @param value The new value.
+     */
+    public void setSpeed(int i, double value) {
+        speed[i] = value;
+    }
+
+    /**
+     * Gets the rotation speed of the robot in degrees per second.
+     *
+     * @param i The index of the slot.
+     * @return The value.
+     */
+    public double getRotationSpeed(int i) {
+        return rotationSpeed[i];
+    }
+
+    /**
+     * Sets the rotation speed of the robot in degrees per second.
+     *
+     * @param i     The index of the slot.
+     * @param value The new value.
+     */
+    public void setRotationSpeed(int i, double value) {
+        rotationSpeed[i] = value;
+    }
+
+    /**
+     * Gets the rotation degree sample of the robot.
+     *
+     * @param i The index of the slot.
+     * @return The value.
+     */
+    public double getRotationSample(int i) {
+        return rotationSample[i];
+    }
+
+    /**
+     * Sets the rotation degree sample of the robot.
+     *
+     * @param i     The index of the slot.
+     * @param value The new value.
+     */
+    public void setRotationSample(int i, double value) {
+        rotationSample[i] = value;
+    }
+
+    /**
+     * Gets the remaining degrees the robot has to rotate.
+     *
+     * @param i The index of the slot.
+     * @return The value.
+     */
+    public double getLeftToRotate(int i) {
+        return leftToRotate[i];
+    }
+
+    /**
+     * Sets the remaining degrees the robot has to rotate.
+     *
+     * @param i     The index of the slot.
+     * @param value The new value.
+     */
+    public void setLeftToRotate(int i, double value) {
+        leftToRotate[i] = value;
+    }
+
+    /**
+     * Gets the X coordinate planned for the next step.
+     *
+     * @param i The index of the slot.
+     * @return The value.
+     */
+    public double getNextX(int i) {
+        return nextX[i];
+    }
+
+    /**
+     * Sets the X coordinate planned for the next step.
+     *
+     * @param i     The index of the slot.
+     * @param value The new value.
+     */
+    public void setNextX(int i, double value) {
+        nextX[i] = value;
+    }
+
+    /**
+     * Gets the Y coordinate planned for the next step.
+     *
+     * @param i The index of the slot.
+     * @return The value.
+     */
+    public double getNextY(int i) {
+        return nextY[i];
+    }
+
+    /**
+     * Sets the Y coordinate planned for the next step.
+     *
+     * @param i     The index of the slot.
+     * @param value The new value.
+     */
+    public void setNextY(int i, double value) {
+        nextY[i] = value;
+    }
+
+    /**
+     * Gets the angle planned for the next step.
+     *
+     * @param i The index of the slot.
+     * @return The value.
+     */
+    public double getNextAngle(int i) {
+        return nextAngle[i];
+    }
+
+    /**
+     * Sets the angle planned for the next step.
+     *
+     * @param i     The index of the slot.
+     * @param value The new value.
+     */
+    public void setNextAngle(int i, double value) {
+        nextAngle[i] = value;
+    }
+
+    /**
+     * Gets the remaining rotation planned for the next step.
+     *
+     * @param i The index of the slot.
+     * @return The value.
+     */
+    public double getNextLeftToRotate(int i) {
+        return nextLeftToRotate[i];
+    }
+
+    /**
+     * Sets the remaining rotation planned for the next step.
+     *
+     * @param i     The index of the slot.
+     * @param value The new value.
+     */
+    public void setNextLeftToRotate(int i, double value) {
+        nextLeftToRotate[i] = value;
+    }
+
+    /**
+     * Gets the X coordinate of the robot's goal point.
+     *
+     * @param i The index of the slot.
+     * @return The coordinate.
+     */
+    public double getGoalX(int i) {
+        return goalX[i];
+    }
+
+    /**
+     * Gets the Y coordinate of the robot's goal point.
+     *
+     * @param i The index of the slot.
+     * @return The coordinate.
+     */
+    public double getGoalY(int i) {
+        return goalY[i];
+    }
+
+    /**
+     * Sets the robot's goal point.
+     *
+     * @param i The index of the slot.
+     * @param x The X coordinate of the goal point.
+     * @param y The Y coordinate of the goal point.
+     */
+    public void setGoal(int i, double x, double y) {
+        goalX[i] = x;
+        goalY[i] = y;
+    }
+
+    /**
+     * Gets the time the robot can still move before it can touch or detect anything.
+     *
+     * @param i The index of the slot.
+     * @return The time in nanoseconds.
+     */
+    public long getFreeTime(int i) {
+        return freeTime[i];
+    }
+
+    /**
+     * Gets the version of the room's schedule the robot's free time was computed for.
+     *
+     * @param i The index of the slot.
+     * @return The version.
+     */
+    public int getFreeVersion(int i) {
+        return freeVersion[i];
+    }
+
+    /**
+     * Sets the time the robot can still move before it can touch or detect anything.
+     *
+     * @param i       The index of the slot.
+     * @param nanos   The time in nanoseconds.
+     * @param version The version of the room's schedule the time was computed for.
+     */
+    public void setFreeTime(int i, long nanos, int version) {
+        freeTime[i] = nanos;
+        freeVersion[i] = version;
+    }
+
+    /**
+     * Checks if a status bit of the robot has been computed for a status version of the room.
+     *
+     * @param i       The index of the slot.
+     * @param bit     One of the {@code STATUS_*} constants.
+     * @param version The current status version of the room.
+     * @return True if the cached value of the bit is up to date, false otherwise.
+     */
+    public boolean isStatusKnown(int i, byte bit, int version) {
+        return statusVersion[i] == version && (status[i] & bit << STATUS_KNOWN_SHIFT) != 0;
+    }
+
+    /**
+     * Gets the cached value of a status bit of the robot.
+     *
+     * @param i   The index of the slot.
+     * @param bit One of the {@code STATUS_*} constants.
+     * @return True if the bit is set, false otherwise.
+     */
+    public boolean hasStatus(int i, byte bit) {
+        return (status[i] & bit) != 0;
+    }
+
+    /**
+     * Caches the value of a status bit of the robot. Bits cached for an older status version of the room
+     * are discarded.
+     *
+     * @param i       The index of the slot.
+     * @param bit     One of the {@code STATUS_*} constants.
+     * @param value   The value of the bit.
+     * @param version The status version of the room the value was computed for.
+     */
+    public void setStatus(int i, byte bit, boolean value, int version) {
+        int bits = statusVersion[i] == version ? status[i] : 0;
+        bits |= bit << STATUS_KNOWN_SHIFT;
+        bits = value ? bits | bit : bits & ~bit;
+        status[i] = (byte) bits;
+        statusVersion[i] = version;
+    }
+
+    /**
+     * Carries the cached statuses of the robot over to a newer status version of the room,
+     * if all of them are known for the older one.
+     *
+     * @param i    The index of the slot.
+     * @param from The status version the statuses must be known for.
+     * @param to   The new status version.
+     * @return True if the statuses were carried over, false if they must be computed.
+     */
+    public boolean renewStatus(int i, int from, int to) {
+        var known = (STATUS_COLLIDING | STATUS_DETECTED | STATUS_OUT_OF_ROOM) << STATUS_KNOWN_SHIFT;
+        if (statusVersion[i] != from || (status[i] & known) != known) return false;
+        statusVersion[i] = to;
+        return true;
+    }
+
+    /**
+     * Changes the capacity of all arrays, keeping the content of the allocated slots.
+     *
+     * @param capacity The new capacity.
+     */
+    private void resize(int capacity) {
+        x = x == null ? new double[capacity] : Arrays.copyOf(x, capacity);
+        y = y == null ? new double[capacity] : Arrays.copyOf(y, capacity);
+        radius = radius == null ? new double[capacity] : Arrays.copyOf(radius, capacity);
+        angle = angle == null ? new double[capacity] : Arrays.copyOf(angle, capacity);
+        arcRadius = arcRadius == null ? new double[capacity] : Arrays.copyOf(arcRadius, capacity);
+        arcExtent = arcExtent == null ? new double[capacity] : Arrays.copyOf(arcExtent, capacity);
+        speed = speed == null ? new double[capacity] : Arrays.copyOf(speed, capacity);
+        rotationSpeed = rotationSpeed == null ? new double[capacity] : Arrays.copyOf(rotationSpeed, capacity);
+        rotationSample = rotationSample == null ? new double[capacity] : Arrays.copyOf(rotationSample, capacity);
+        leftToRotate = leftToRotate == null ? new double[capacity] : Arrays.copyOf(leftToRotate, capacity);
+        nextX = nextX == null ? new double[capacity] : Arrays.copyOf(nextX, capacity);
+        nextY = nextY == null ? new double[capacity] : Arrays.copyOf(nextY, capacity);
+        nextAngle = nextAngle == null ? new double[capacity] : Arrays.copyOf(nextAngle, capacity);
+        nextLeftToRotate = nextLeftToRotate == null ? new double[capacity] : Arrays.copyOf(nextLeftToRotate, capacity);
+        freeTime = freeTime == null ? new long[capacity] : Arrays.copyOf(freeTime, capacity);
+        freeVersion = freeVersion == null ? new int[capacity] : Arrays.copyOf(freeVersion, capacity);
+        status = status == null ? new byte[capacity] : Arrays.copyOf(status, capacity);
+        statusVersion = statusVersion == null ? new int[capacity] : Arrays.copyOf(statusVersion, capacity);
+        goalX = goalX == null ? new double[capacity] : Arrays.copyOf(goalX, capacity);
+        goalY = goalY == null ? new double[capacity] : Arrays.copyOf(goalY, capacity);
+        modes = modes == null ? new byte[capacity] : Arrays.copyOf(modes, capacity);
+        flags = flags == null ? new byte[capacity] : Arrays.copyOf(flags, capacity);
+        handles = handles == null ? new Object[capacity] : Arrays.copyOf(handles, capacity);
+    }
+}
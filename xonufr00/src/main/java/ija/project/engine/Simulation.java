@@ -0,0 +1,93 @@
+/**
+ * @file Simulation.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.engine;
+
+import ija.project.model.impl.Room;
+import lombok.NonNull;
+
+/**
+ * Drives the simulation of a Room without any dependency on the JavaFX toolkit.
+ * The simulation only advances the numeric state of the room and its entities, so it can be
+ * stepped from any thread. Views observing the entities are synchronized by their own adapters.
+ */
+public class Simulation {
+
+    /**
+     * The room being simulated.
+     */
+    @NonNull
+    private final Room room;
+
+    /**
+     * The total simulated time in nanoseconds.
+     */
+    private long simulatedNanos;
+
+    /**
+     * The number of steps performed so far.
+     */
+    private long steps;
+
+    /**
+     * Constructs a new Simulation for the specified room.
+     *
+     * @param room The room to simulate. Must not be null.
+     */
+    public Simulation(@NonNull Room room) {
+        this.room = room;
+    }
+
+    /**
+     * Advances the simulation by the specified amount of time.
+     *
+     * @param deltaNanos The time to advance in nanoseconds.
+     */
+    public void step(long deltaNanos) {
+        room.update(deltaNanos);
+        simulatedNanos += deltaNanos;
+        steps++;
+    }
+
+    /**
+     * Advances the simulation by the specified duration using steps of equal length.
+     * The last step is shortened if the duration is not a multiple of the step length.
+     *
+     * @param durationNanos The total time to advance in nanoseconds.
+     * @param stepNanos     The length of a single step in nanoseconds.
+     */
+    public void run(long durationNanos, long stepNanos) {
+        if (stepNanos <= 0) throw new IllegalArgumentException("Step length must be positive");
+        for (long done = 0; done < durationNanos; done += stepNanos) {
+            step(Math.min(stepNanos, durationNanos - done));
+        }
+    }
+
+    /**
+     * Gets the room being simulated.
+     *
+     * @return The room.
+     */
+    public Room getRoom() {
+        return room;
+    }
+
+    /**
+     * Gets the total simulated time in nanoseconds.
+     *
+     * @return The simulated time.
+     */
+    public long getSimulatedNanos() {
+        return simulatedNanos;
+    }
+
+    /**
+     * Gets the number of steps performed so far.
+     *
+     * @return The number of steps.
+     */
+    public long getSteps() {
+        return steps;
+    }
+}
@@ -0,0 +1,339 @@
+/**
+ * @file SpatialHash.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.engine;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Represents a uniform-grid spatial hash of items described by their axis-aligned bounding boxes.
+ * Space is divided into square cells of a fixed size and every item is registered in all cells its
+ * bounding box overlaps. Cells are hashed into a table of buckets, so the grid is unbounded and its
+ * memory depends only on the number of items. Queries visit only the cells overlapping the query box
+ * and report each item at most once.
+ *
+ * @param <T> The type of the indexed items.
+ */
+public class SpatialHash<T> {
+
+    /**
+     * The minimal number of buckets in the table.
+     */
+    private static final int MIN_BUCKETS = 256;
+
+    /**
+     * Represents an item registered in the hash together with the range of cells it covers.
+     *
+     * @param <T> The type of the indexed item.
+     */
+    private static final class Entry<T> {
+        /**
+         * The indexed item.
+         */
+        private final T item;
+
+        /**
+         * The inclusive range of cells covered by the item.
+         */
+        private int minCellX, minCellY, maxCellX, maxCellY;
+
+        /**
+         * Constructs a new Entry for the specified item.
+         *
+         * @param item The indexed item.
+         */
+        private Entry(T item) {
+            this.item = item;
+        }
+
+        /**
+         * Checks if the entry covers the specified cell.
+         *
+         * @param cellX The X index of the cell.
+         * @param cellY The Y index of the cell.
+         * @return True if the cell is covered, false otherwise.
+         */
+        private boolean coversCell(int cellX, int cellY) {
+            return cellX >= minCellX && cellX <= maxCellX && cellY >= minCellY && cellY <= maxCellY;
+        }
+    }
+
+    /**
+     * The length of the side of a cell.
+     */
+    private final double cellSize;
+
+    /**
+     * The entries of all items, used to locate an item's cells when it moves.
+     */
+    @NonNull
+    private final Map<T, Entry<T>> entries = new IdentityHashMap<>();
+
+    /**
+     * The table of buckets. A bucket holds the entries of all cells hashed into it.
+     */
+    @NonNull
+    private List<Entry<T>>[] buckets;
+
+    /**
+     * The total number of cell registrations in the table.
+     */
+    private int registrations;
+
+    /**
+     * Constructs a new empty SpatialHash with the specified cell size.
+     *
+     * @param cellSize The length of the side of a cell. Must be positive.
+     */
+    public SpatialHash(double cellSize) {
+        if (!(cellSize > 0)) throw new IllegalArgumentException("Cell size must be positive");
+        this.cellSize = cellSize;
+        this.buckets = newBuckets(MIN_BUCKETS);
+    }
+
+    /**
+     * Inserts an item or updates the bounding box of an already indexed item.
+     * Nothing is done if the item still covers the same cells.
+     *
+     * @param item The item to index. Must not be null.
+     * @param minX The minimal X coordinate of the item's bounding box.
+     * @param minY The minimal Y coordinate of the item's bounding box.
+     * @param maxX The maximal X coordinate of the item's bounding box.
+     * @param maxY The maximal Y coordinate of the item's bounding box.
+     */
+    public void put(@NonNull T item, double minX, double minY, double maxX, double maxY) {
+        int minCellX = cell(minX), minCellY = cell(minY), maxCellX = cell(maxX), maxCellY = cell(maxY);
+
+        var entry = entries.get(item);
+        if (entry == null) {
+            entry = new Entry<>(item);
+            entries.put(item, entry);
+        } else if (entry.minCellX == minCellX && entry.minCellY == minCellY
+                && entry.maxCellX == maxCellX && entry.maxCellY == maxCellY) {
+            return;
+        } else {
+            unregister(entry);
+        }
+
+        entry.minCellX = minCellX;
+        entry.minCellY = minCellY;
+        entry.maxCellX = maxCellX;
+        entry.maxCellY = maxCellY;
+        register(entry);
+    }
+
+    /**
+     * Removes an item from the hash.
+     *
+     * @param item The item to remove.
+     */
+    public void remove(T item) {
+        var entry = entries.remove(item);
+        if (entry != null) unregister(entry);
+    }
+
+    /**
+     * Checks if an item is indexed in the hash.
+     *
+     * @param item The item to check.
+     * @return True if the item is indexed, false otherwise.
+     */
+    public boolean contains(T item) {
+        return entries.containsKey(item);
+    }
+
+    /**
+     * Gets the number of indexed items.
+     *
+     * @return The number of items.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all items from the hash.
+     */
+    public void clear() {
+        entries.clear();
+        buckets = newBuckets(MIN_BUCKETS);
+        registrations = 0;
+    }
+
+    /**
+     * Checks if any item whose cells overlap the specified box satisfies the predicate.
+     * The search stops at the first matching item.
+     *
+     * @param minX      The minimal X coordinate of the query box.
+     * @param minY      The minimal Y coordinate of the query box.
+     * @param maxX      The maximal X coordinate of the query box.
+     * @param maxY      The maximal Y coordinate of the query box.
+     * @param predicate The predicate tested on the candidate items. Must not be null.
+     * @return True if a candidate satisfied the predicate, false otherwise.
+     */
+    public boolean anyMatch(double minX, double minY, double maxX, double maxY,
+                            @NonNull Predicate<? super T> predicate) {
+        int minCellX = cell(minX), minCellY = cell(minY), maxCellX = cell(maxX), maxCellY = cell(maxY);
+
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cy = minCellY; cy <= maxCellY; cy++) {
+                var bucket = buckets[bucketIndex(cx, cy, buckets.length)];
+                for (int i = 0, n = bucket.size(); i < n; i++) {
+                    var entry = bucket.get(i);
+                    if (isReportedIn(entry, cx, cy, minCellX, minCellY) && predicate.test(entry.item)) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Passes every item whose cells overlap the specified box to the consumer, each item exactly once.
+     *
+     * @param minX     The minimal X coordinate of the query box.
+     * @param minY     The minimal Y coordinate of the query box.
+     * @param maxX     The maximal X coordinate of the query box.
+     * @param maxY     The maximal Y coordinate of the query box.
+     * @param consumer The consumer of the candidate items. Must not be null.
+     */
+    public void forEach(double minX, double minY, double maxX, double maxY,
+                        @NonNull Consumer<? super T> consumer) {
+        anyMatch(minX, minY, maxX, maxY, item -> {
+            consumer.accept(item);
+            return false;
+        });
+    }
+
+    /**
+     * Decides whether an entry found in a bucket is reported for the visited cell.
+     * Entries from other cells sharing the bucket are skipped, and an entry covering several visited
+     * cells is only reported in the first of them, so no bookkeeping is needed to avoid duplicates.
+     *
+     * @param entry    The entry found in the bucket.
+     * @param cellX    The X index of the visited cell.
+     * @param cellY    The Y index of the visited cell.
+     * @param minCellX The minimal X index of the visited cells.
+     * @param minCellY The minimal Y index of the visited cells.
+     * @return True if the entry should be reported, false otherwise.
+     */
+    private static boolean isReportedIn(Entry<?> entry, int cellX, int cellY, int minCellX, int minCellY) {
+        return entry.coversCell(cellX, cellY)
+                && cellX == Math.max(entry.minCellX, minCellX)
+                && cellY == Math.max(entry.minCellY, minCellY);
+    }
+
+    /**
+     * Adds an entry to the buckets of all cells it covers, growing the table when it gets crowded.
+     *
+     * @param entry The entry to register.
+     */
+    private void register(Entry<T> entry) {
+        addToBuckets(entry, buckets);
+        if (registrations > 2 * buckets.length) rehash(2 * buckets.length);
+    }
+
+    /**
+     * Removes an entry from the buckets of all cells it covers.
+     *
+     * @param entry The entry to unregister.
+     */
+    private void unregister(Entry<T> entry) {
+        for (int cx = entry.minCellX; cx <= entry.maxCellX; cx++) {
+            for (int cy = entry.minCellY; cy <= entry.maxCellY; cy++) {
+                var bucket = buckets[bucketIndex(cx, cy, buckets.length)];
+                for (int i = bucket.size() - 1; i >= 0; i--) {
+                    if (bucket.get(i) == entry) {
+                        bucket.set(i, bucket.get(bucket.size() - 1));
+                        bucket.remove(bucket.size() - 1);
+                        registrations--;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the table with the specified number of buckets.
+     *
+     * @param size The new number of buckets, a power of two.
+     */
+    private void rehash(int size) {
+        buckets = newBuckets(size);
+        registrations = 0;
+        for (var entry : entries.values()) {
+            addToBuckets(entry, buckets);
+        }
+    }
+
+    /**
+     * Adds an entry to the buckets of all cells it covers.
+     * An entry is stored at most once per bucket, even if several of its cells share the bucket.
+     *
+     * @param entry The entry to add.
+     * @param table The table of buckets.
+     */
+    private void addToBuckets(Entry<T> entry, List<Entry<T>>[] table) {
+        for (int cx = entry.minCellX; cx <= entry.maxCellX; cx++) {
+            for (int cy = entry.minCellY; cy <= entry.maxCellY; cy++) {
+                var bucket = table[bucketIndex(cx, cy, table.length)];
+                if (bucket.contains(entry)) continue;
+                bucket.add(entry);
+                registrations++;
+            }
+        }
+    }
+
+    /**
+     * Computes the cell index of a coordinate.
+     *
+     * @param coordinate The coordinate.
+     * @return The index of the cell containing the coordinate.
+     */
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    /**
+     * Computes the bucket of a cell.
+     *
+     * @param cellX The X index of the cell.
+     * @param cellY The Y index of the cell.
+     * @param size  The number of buckets, a power of two.
+     * @return The index of the bucket.
+     */
+    private static int bucketIndex(int cellX, int cellY, int size) {
+        int h = cellX * 0x9E3779B1 ^ cellY * 0x85EBCA77;
+        return (h ^ (h >>> 16)) & (size - 1);
+    }
+
+    /**
+     * Allocates a table of empty buckets.
+     *
+     * @param size The number of buckets.
+     * @return The new table.
+     */
+    private static <T> List<Entry<T>>[] newBuckets(int size) {
+        @SuppressWarnings("unchecked")
+        var table = (List<Entry<T>>[]) new List<?>[size];
+        for (int i = 0; i < size; i++) table[i] = new ArrayList<>(2);
+        return table;
+    }
+
+    /**
+     * Gets the length of the side of a cell.
+     *
+     * @return The cell size.
+     */
+    public double getCellSize() {
+        return cellSize;
+    }
+}
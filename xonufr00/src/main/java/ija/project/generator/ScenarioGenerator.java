@@ -0,0 +1,495 @@
+/**
+ * @file ScenarioGenerator.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.generator;
+
+import ija.project.dto.BlockDTO;
+import ija.project.dto.RobotDTO;
+import ija.project.dto.RoomDTO;
+import ija.project.engine.Intersections;
+import ija.project.engine.SpatialHash;
+import ija.project.model.impl.Room;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates rooms of a given size with a given number of robots and blocks arranged in a {@link ScenarioLayout}.
+ * The generator is seeded, so the same arguments always produce the same sequence of rooms, which makes
+ * large workloads reproducible for benchmarks and soak tests. No two entities of a generated room overlap
+ * and every robot lies inside the room; the robots start with the properties used by the benchmarks.
+ */
+public class ScenarioGenerator implements Generator<RoomDTO> {
+
+    /**
+     * The area of a room reserved for one entity when the size of the room is derived from the entity count.
+     */
+    public static final double AREA_PER_ENTITY = 40 * 40;
+
+    /**
+     * The radius of a generated robot.
+     */
+    public static final double ROBOT_RADIUS = 5;
+
+    /**
+     * The radius of the detection arc of a generated robot.
+     */
+    public static final double ARC_RADIUS = 15;
+
+    /**
+     * The extent of the detection arc of a generated robot in degrees.
+     */
+    public static final double ARC_EXTENT = 60;
+
+    /**
+     * The rotation degree sample of a generated robot.
+     */
+    public static final double ROTATION_SAMPLE = 12;
+
+    /**
+     * The speed of a generated robot in units per second.
+     */
+    public static final double SPEED = 40;
+
+    /**
+     * The rotation speed of a generated robot in degrees per second.
+     */
+    public static final double ROTATION_SPEED = 180;
+
+    /**
+     * The smallest side of a free-standing block.
+     */
+    private static final double MIN_BLOCK_SIZE = 10;
+
+    /**
+     * The largest side of a free-standing block.
+     */
+    private static final double MAX_BLOCK_SIZE = 40;
+
+    /**
+     * The smallest gap kept between two generated entities.
+     */
+    private static final double CLEARANCE = 1;
+
+    /**
+     * The thickness of maze and corridor walls relative to the width of a passage.
+     */
+    private static final double WALL_RATIO = 0.1;
+
+    /**
+     * The part of a corridor wall segment left open as a door.
+     */
+    private static final double DOOR_RATIO = 0.2;
+
+    /**
+     * The number of entities per cluster.
+     */
+    private static final int ENTITIES_PER_CLUSTER = 64;
+
+    /**
+     * The maximal number of attempts to place an entity.
+     */
+    private static final int PLACEMENT_ATTEMPTS = 1000;
+
+    /**
+     * The width of the generated rooms.
+     */
+    private final double width;
+
+    /**
+     * The height of the generated rooms.
+     */
+    private final double height;
+
+    /**
+     * The number of robots in a generated room.
+     */
+    private final int robots;
+
+    /**
+     * The number of blocks in a generated room.
+     */
+    private final int blocks;
+
+    /**
+     * The layout of the generated rooms.
+     */
+    @NonNull
+    private final ScenarioLayout layout;
+
+    /**
+     * The source of randomness, seeded at construction.
+     */
+    @NonNull
+    private final Random random;
+
+    /**
+     * The blocks of the room being generated.
+     */
+    private List<BlockDTO> placedBlocks;
+
+    /**
+     * The robots of the room being generated.
+     */
+    private List<RobotDTO> placedRobots;
+
+    /**
+     * The index of the entities of the room being generated, used to reject overlapping placements.
+     */
+    private SpatialHash<Object> index;
+
+    /**
+     * Constructs a new ScenarioGenerator.
+     *
+     * @param width  The width of the generated rooms. Must be positive.
+     * @param height The height of the generated rooms. Must be positive.
+     * @param robots The number of robots in a generated room. Must not be negative.
+     * @param blocks The number of blocks in a generated room. Must not be negative.
+     * @param layout The layout of the generated rooms.
+     * @param seed   The seed of the generator.
+     */
+    public ScenarioGenerator(double width, double height, int robots, int blocks,
+                             @NonNull ScenarioLayout layout, long seed) {
+        if (!(width > 0) || !(height > 0))
+            throw new IllegalArgumentException("Room size must be positive: " + width + "x" + height);
+        if (robots < 0 || blocks < 0)
+            throw new IllegalArgumentException("Entity counts must not be negative: " + robots + ", " + blocks);
+        this.width = width;
+        this.height = height;
+        this.robots = robots;
+        this.blocks = blocks;
+        this.layout = layout;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Constructs a new ScenarioGenerator of square rooms large enough to give every entity
+     * {@link #AREA_PER_ENTITY} of space.
+     *
+     * @param robots The number of robots in a generated room. Must not be negative.
+     * @param blocks The number of blocks in a generated room. Must not be negative.
+     * @param layout The layout of the generated rooms.
+     * @param seed   The seed of the generator.
+     */
+    public ScenarioGenerator(int robots, int blocks, @NonNull ScenarioLayout layout, long seed) {
+        this(sideFor(robots, blocks), sideFor(robots, blocks), robots, blocks, layout, seed);
+    }
+
+    /**
+     * Generates the next room of the sequence.
+     *
+     * @return The description of the generated room.
+     * @throws IllegalStateException If the entities do not fit into the room.
+     */
+    @Override
+    @NonNull
+    public RoomDTO nextValue() {
+        placedBlocks = new ArrayList<>(blocks);
+        placedRobots = new ArrayList<>(robots);
+        index = new SpatialHash<>(Math.max(MAX_BLOCK_SIZE, 4 * ROBOT_RADIUS));
+        try {
+            switch (layout) {
+                case RANDOM -> placeRandom();
+                case MAZE -> placeMaze();
+                case CORRIDORS -> placeCorridors();
+                case CLUSTERS -> placeClusters();
+            }
+            return new RoomDTO(width, height, placedBlocks, placedRobots);
+        } finally {
+            placedBlocks = null;
+            placedRobots = null;
+            index = null;
+        }
+    }
+
+    /**
+     * Generates the next room of the sequence and builds it.
+     *
+     * @return The generated room.
+     * @throws IllegalStateException If the entities do not fit into the room.
+     */
+    @NonNull
+    public Room nextRoom() {
+        return nextValue().buildEntity();
+    }
+
+    /**
+     * Spreads blocks and robots uniformly over the room.
+     */
+    private void placeRandom() {
+        for (int i = 0; i < blocks; i++) {
+            placeBlock(() -> random.nextDouble() * width, () -> random.nextDouble() * height);
+        }
+        placeRobotsUniformly();
+    }
+
+    /**
+     * Builds a maze whose walls are the blocks and places the robots into its passages.
+     * The maze is a random spanning tree of a grid of cells with about as many inner walls as blocks;
+     * surplus walls are opened, which only adds loops to the maze.
+     */
+    private void placeMaze() {
+        if (blocks > 0) {
+            var cols = (int) Math.max(1, Math.round(Math.sqrt(blocks * width / height))) + 1;
+            var rows = (blocks + cols - 2) / (cols - 1) + 1;
+            var cellW = width / cols;
+            var cellH = height / rows;
+            var wall = Math.min(cellW, cellH) * WALL_RATIO;
+            requirePassage(Math.min(cellW, cellH) - wall);
+
+            var walls = buildMaze(cols, rows);
+            Collections.shuffle(walls, random);
+            for (var w : walls.subList(0, blocks)) {
+                var c = w[1];
+                var r = w[2];
+                // Neighbouring walls are separated by a joint narrower than any robot, so they never overlap.
+                if (w[0] == 0) {
+                    addBlock(new BlockDTO(c * cellW + CLEARANCE / 2, r * cellH - wall / 2,
+                            cellW - CLEARANCE, wall));
+                } else {
+                    addBlock(new BlockDTO(c * cellW - wall / 2, r * cellH + (wall + CLEARANCE) / 2,
+                            wall, cellH - wall - CLEARANCE));
+                }
+            }
+        }
+        placeRobotsUniformly();
+    }
+
+    /**
+     * Carves a maze out of a grid of cells by a randomized depth-first search.
+     *
+     * @param cols The number of columns of cells.
+     * @param rows The number of rows of cells.
+     * @return The inner walls left standing, each as {@code {0, column, row}} for the horizontal wall above
+     *         a cell or {@code {1, column, row}} for the vertical wall left of a cell.
+     */
+    private List<int[]> buildMaze(int cols, int rows) {
+        var visited = new boolean[cols * rows];
+        var openTop = new boolean[cols * rows];
+        var openLeft = new boolean[cols * rows];
+        var stack = new int[cols * rows];
+        var neighbours = new int[4];
+        var top = 0;
+        stack[top++] = 0;
+        visited[0] = true;
+        while (top > 0) {
+            var cell = stack[top - 1];
+            int c = cell % cols, r = cell / cols, count = 0;
+            if (c > 0 && !visited[cell - 1]) neighbours[count++] = cell - 1;
+            if (c < cols - 1 && !visited[cell + 1]) neighbours[count++] = cell + 1;
+            if (r > 0 && !visited[cell - cols]) neighbours[count++] = cell - cols;
+            if (r < rows - 1 && !visited[cell + cols]) neighbours[count++] = cell + cols;
+            if (count == 0) {
+                top--;
+                continue;
+            }
+            var next = neighbours[random.nextInt(count)];
+            if (next == cell - 1) openLeft[cell] = true;
+            else if (next == cell + 1) openLeft[next] = true;
+            else if (next == cell - cols) openTop[cell] = true;
+            else openTop[next] = true;
+            visited[next] = true;
+            stack[top++] = next;
+        }
+
+        var walls = new ArrayList<int[]>();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                var cell = r * cols + c;
+                if (r > 0 && !openTop[cell]) walls.add(new int[]{0, c, r});
+                if (c > 0 && !openLeft[cell]) walls.add(new int[]{1, c, r});
+            }
+        }
+        return walls;
+    }
+
+    /**
+     * Divides the room by horizontal walls into corridors. Every wall consists of segments separated
+     * by doors, one segment per block, and the robots are spread over the corridors.
+     */
+    private void placeCorridors() {
+        if (blocks > 0) {
+            var walls = (int) Math.max(1, Math.ceil(Math.sqrt(blocks / 4.0)));
+            var corridor = height / (walls + 1);
+            var thickness = corridor * WALL_RATIO;
+            requirePassage(corridor - thickness);
+
+            for (int j = 0; j < walls; j++) {
+                var segments = blocks / walls + (j < blocks % walls ? 1 : 0);
+                if (segments == 0) continue;
+                var slot = width / segments;
+                requirePassage(slot * DOOR_RATIO);
+                var y = corridor * (j + 1) - thickness / 2;
+                var offset = random.nextDouble() * slot * DOOR_RATIO;
+                for (int s = 0; s < segments; s++) {
+                    addBlock(new BlockDTO(s * slot + offset, y, slot * (1 - DOOR_RATIO), thickness));
+                }
+            }
+        }
+        placeRobotsUniformly();
+    }
+
+    /**
+     * Crowds blocks and robots around a few random centers, with normally distributed distances.
+     */
+    private void placeClusters() {
+        var clusters = Math.max(1, (robots + blocks) / ENTITIES_PER_CLUSTER);
+        var centers = new double[clusters * 2];
+        for (int k = 0; k < clusters; k++) {
+            centers[2 * k] = random.nextDouble() * width;
+            centers[2 * k + 1] = random.nextDouble() * height;
+        }
+        var spread = Math.min(width, height) / (4 * Math.sqrt(clusters));
+
+        for (int i = 0; i < blocks; i++) {
+            var k = random.nextInt(clusters);
+            placeBlock(() -> centers[2 * k] + random.nextGaussian() * spread,
+                    () -> centers[2 * k + 1] + random.nextGaussian() * spread);
+        }
+        for (int i = 0; i < robots; i++) {
+            var k = random.nextInt(clusters);
+            placeRobot(() -> centers[2 * k] + random.nextGaussian() * spread,
+                    () -> centers[2 * k + 1] + random.nextGaussian() * spread);
+        }
+    }
+
+    /**
+     * Places all robots at uniformly distributed positions.
+     */
+    private void placeRobotsUniformly() {
+        for (int i = 0; i < robots; i++) {
+            placeRobot(() -> random.nextDouble() * width, () -> random.nextDouble() * height);
+        }
+    }
+
+    /**
+     * Places a block of random size centered near a sampled position, retrying until it overlaps nothing.
+     *
+     * @param x The sampler of the X coordinate of the block's center.
+     * @param y The sampler of the Y coordinate of the block's center.
+     * @throws IllegalStateException If no free position was found.
+     */
+    private void placeBlock(Sampler x, Sampler y) {
+        var maxSize = Math.min(MAX_BLOCK_SIZE, Math.min(width, height) / 2);
+        var minSize = Math.min(MIN_BLOCK_SIZE, maxSize);
+        for (int attempt = 0; attempt < PLACEMENT_ATTEMPTS; attempt++) {
+            var w = minSize + random.nextDouble() * (maxSize - minSize);
+            var h = minSize + random.nextDouble() * (maxSize - minSize);
+            var block = new BlockDTO(x.next() - w / 2, y.next() - h / 2, w, h);
+            if (isFree(block)) {
+                addBlock(block);
+                return;
+            }
+        }
+        throw new IllegalStateException("Could not place block " + placedBlocks.size() + ": the room is too crowded");
+    }
+
+    /**
+     * Places a robot with a random heading at a sampled position, retrying until it overlaps nothing.
+     *
+     * @param x The sampler of the X coordinate of the robot's center.
+     * @param y The sampler of the Y coordinate of the robot's center.
+     * @throws IllegalStateException If no free position was found.
+     */
+    private void placeRobot(Sampler x, Sampler y) {
+        for (int attempt = 0; attempt < PLACEMENT_ATTEMPTS; attempt++) {
+            var robot = new RobotDTO(x.next(), y.next(), ROBOT_RADIUS, SPEED, ROTATION_SPEED, ROTATION_SAMPLE,
+                    random.nextDouble() * 360, ARC_RADIUS, ARC_EXTENT);
+            if (isFree(robot)) {
+                placedRobots.add(robot);
+                index.put(robot, robot.getRobotCenterX() - ROBOT_RADIUS, robot.getRobotCenterY() - ROBOT_RADIUS,
+                        robot.getRobotCenterX() + ROBOT_RADIUS, robot.getRobotCenterY() + ROBOT_RADIUS);
+                return;
+            }
+        }
+        throw new IllegalStateException("Could not place robot " + placedRobots.size() + ": the room is too crowded");
+    }
+
+    /**
+     * Adds a block to the generated room without any checks.
+     *
+     * @param block The block.
+     */
+    private void addBlock(BlockDTO block) {
+        placedBlocks.add(block);
+        index.put(block, block.getX(), block.getY(), block.getX() + block.getWidth(), block.getY() + block.getHeight());
+    }
+
+    /**
+     * Checks if a block lies inside the room and keeps a clearance from all placed entities.
+     *
+     * @param b The block.
+     * @return True if the block can be placed, false otherwise.
+     */
+    private boolean isFree(BlockDTO b) {
+        double minX = b.getX(), minY = b.getY(), maxX = minX + b.getWidth(), maxY = minY + b.getHeight();
+        if (minX < 0 || minY < 0 || maxX > width || maxY > height) return false;
+        return !index.anyMatch(minX - CLEARANCE, minY - CLEARANCE, maxX + CLEARANCE, maxY + CLEARANCE, o -> {
+            if (o instanceof RobotDTO r) {
+                return Intersections.circleRect(r.getRobotCenterX(), r.getRobotCenterY(),
+                        r.getRobotRadius() + CLEARANCE, minX, minY, b.getWidth(), b.getHeight());
+            }
+            var other = (BlockDTO) o;
+            return other.getX() < maxX + CLEARANCE && minX - CLEARANCE < other.getX() + other.getWidth()
+                    && other.getY() < maxY + CLEARANCE && minY - CLEARANCE < other.getY() + other.getHeight();
+        });
+    }
+
+    /**
+     * Checks if a robot lies inside the room and keeps a clearance from all placed entities.
+     *
+     * @param r The robot.
+     * @return True if the robot can be placed, false otherwise.
+     */
+    private boolean isFree(RobotDTO r) {
+        double x = r.getRobotCenterX(), y = r.getRobotCenterY(), radius = r.getRobotRadius() + CLEARANCE;
+        if (x - radius < 0 || y - radius < 0 || x + radius > width || y + radius > height) return false;
+        return !index.anyMatch(x - radius, y - radius, x + radius, y + radius, o -> {
+            if (o instanceof RobotDTO other) {
+                return Intersections.circleCircle(x, y, radius,
+                        other.getRobotCenterX(), other.getRobotCenterY(), other.getRobotRadius());
+            }
+            var b = (BlockDTO) o;
+            return Intersections.circleRect(x, y, radius, b.getX(), b.getY(), b.getWidth(), b.getHeight());
+        });
+    }
+
+    /**
+     * Checks that a passage of a maze or corridor layout is wide enough for a robot.
+     *
+     * @param passage The width of the passage.
+     * @throws IllegalStateException If a robot cannot pass.
+     */
+    private static void requirePassage(double passage) {
+        if (passage < 2 * (ROBOT_RADIUS + CLEARANCE))
+            throw new IllegalStateException("The room is too small for the requested number of blocks");
+    }
+
+    /**
+     * Computes the side of a square room giving every entity {@link #AREA_PER_ENTITY} of space.
+     *
+     * @param robots The number of robots.
+     * @param blocks The number of blocks.
+     * @return The side of the room.
+     */
+    private static double sideFor(int robots, int blocks) {
+        return Math.sqrt(Math.max(1, robots + blocks) * AREA_PER_ENTITY);
+    }
+
+    /**
+     * Samples a coordinate.
+     */
+    @FunctionalInterface
+    private interface Sampler {
+        /**
+         * Draws the next coordinate.
+         *
+         * @return The coordinate.
+         */
+        double next();
+    }
+}
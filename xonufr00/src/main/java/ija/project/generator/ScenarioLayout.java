@@ -0,0 +1,30 @@
+/**
+ * @file ScenarioLayout.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.generator;
+
+/**
+ * Enumerates the layouts of the rooms produced by the {@link ScenarioGenerator}.
+ */
+public enum ScenarioLayout {
+    /**
+     * Blocks of random sizes and robots are spread uniformly over the room.
+     */
+    RANDOM,
+
+    /**
+     * The blocks are the walls of a maze covering the room and the robots wander its passages.
+     */
+    MAZE,
+
+    /**
+     * The blocks form horizontal walls with doors, dividing the room into long corridors.
+     */
+    CORRIDORS,
+
+    /**
+     * Blocks and robots are crowded into a few dense clusters.
+     */
+    CLUSTERS
+}
@@ -0,0 +1,306 @@
+/**
+ * @file InputJournal.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.journal;
+
+import ija.project.model.GameEntity;
+import ija.project.model.enums.RobotMode;
+import ija.project.model.impl.Room;
+import ija.project.util.binary.RoomBinaryFormat;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Records the inputs of a session into an append-only journal file.
+ *
+ * Because the room is advanced in fixed ticks and the simulation is deterministic, the state of a session
+ * is fully described by its initial room, the length of a tick and the commands applied between the ticks.
+ * The journal stores exactly that, so a whole session takes a few kilobytes and is reproduced bit-exactly
+ * by a {@link JournalReplay}.
+ *
+ * A journal file is little-endian and consists of:
+ * <ul>
+ *     <li>header: magic {@code "IJAJ"}, format version, tick length in nanoseconds and update mode ordinal;</li>
+ *     <li>the initial room in the scene format of {@link RoomBinaryFormat};</li>
+ *     <li>one record per command: the tick it was applied before, the command ordinal, the position of
+ *     the targeted robot or block (or -1) and the values of the command;</li>
+ *     <li>an optional {@link JournalCommand#END} record with the final tick and the digest of the final state.</li>
+ * </ul>
+ * Every record is written to the file as soon as it is recorded, so a journal of an interrupted session
+ * can still be replayed up to its last command.
+ */
+public class InputJournal implements AutoCloseable {
+
+    /**
+     * The extension of journal files.
+     */
+    public static final String EXTENSION = ".journal";
+
+    /**
+     * The first four bytes of every journal file, {@code "IJAJ"} in ASCII.
+     */
+    public static final int MAGIC = 0x4A414A49;
+
+    /**
+     * The version of the format written by this class.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The size of the header in bytes.
+     */
+    static final int HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    /**
+     * The size of a record without its values in bytes.
+     */
+    static final int RECORD_HEADER_BYTES = Long.BYTES + Byte.BYTES + Integer.BYTES;
+
+    /**
+     * The largest number of values carried by a command.
+     */
+    private static final int MAX_VALUES = 9;
+
+    /**
+     * The channel of the journal file.
+     */
+    @NonNull
+    private final FileChannel channel;
+
+    /**
+     * The room whose inputs are recorded.
+     */
+    @NonNull
+    private final Room room;
+
+    /**
+     * The buffer a record is encoded into before it is written.
+     */
+    @NonNull
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + MAX_VALUES * Double.BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * The path of the journal file.
+     */
+    @NonNull
+    private final Path path;
+
+    /**
+     * The number of recorded commands.
+     */
+    private long commands;
+
+    /**
+     * Creates a journal file and writes its header and the current state of the room.
+     * The room must not be modified before the snapshot is written, and must be modified only through
+     * {@link #record} afterwards.
+     *
+     * @param path      The path of the journal file, replaced if it exists.
+     * @param room      The room whose inputs are recorded.
+     * @param tickNanos The length of a fixed tick in nanoseconds.
+     * @return The journal.
+     * @throws IOException If the file cannot be written.
+     */
+    public static InputJournal create(@NonNull Path path, @NonNull Room room, long tickNanos) throws IOException {
+        var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            var header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(tickNanos).putInt(room.getUpdateMode().ordinal()).flip();
+            while (header.hasRemaining()) channel.write(header);
+            RoomBinaryFormat.write(room, channel, (done, total) -> {
+            });
+            return new InputJournal(channel, room, path);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a journal in a new uniquely named file of a directory, which is created if needed.
+     *
+     * @param directory The directory of the journal file.
+     * @param room      The room whose inputs are recorded.
+     * @param tickNanos The length of a fixed tick in nanoseconds.
+     * @return The journal.
+     * @throws IOException If the file cannot be created.
+     */
+    public static InputJournal createIn(@NonNull Path directory, @NonNull Room room, long tickNanos)
+            throws IOException {
+        Files.createDirectories(directory);
+        return create(Files.createTempFile(directory, "session-", EXTENSION), room, tickNanos);
+    }
+
+    /**
+     * Constructs a journal writing to an open channel.
+     *
+     * @param channel The channel of the journal file, positioned after the snapshot.
+     * @param room    The room whose inputs are recorded.
+     * @param path    The path of the journal file.
+     */
+    private InputJournal(FileChannel channel, Room room, Path path) {
+        this.channel = channel;
+        this.room = room;
+        this.path = path;
+    }
+
+    /**
+     * Appends a command to the journal. The command is not applied.
+     *
+     * @param tick    The number of ticks the simulation performed before the command.
+     * @param command The command.
+     * @param entity  The targeted robot or block of the room, or null if the command targets the room.
+     * @param values  The values of the command.
+     * @throws IOException              If the journal cannot be written.
+     * @throws IllegalArgumentException If the command does not match its target or values, or the entity
+     *                                  is not in the room.
+     */
+    public void record(long tick, @NonNull JournalCommand command, GameEntity entity, @NonNull double... values)
+            throws IOException {
+        if (command == JournalCommand.END) throw new IllegalArgumentException("END is recorded by close()");
+        if (values.length != command.getValueCount())
+            throw new IllegalArgumentException(command + " expects " + command.getValueCount() + " values");
+
+        record.clear();
+        record.putLong(tick).put((byte) command.ordinal()).putInt(indexOf(command, entity));
+        for (var value : values) record.putDouble(value);
+        write();
+        commands++;
+    }
+
+    /**
+     * Appends the {@link JournalCommand#END} record with the digest of the current state of the room,
+     * and closes the journal.
+     *
+     * @param tick The number of ticks the simulation performed in total.
+     * @throws IOException If the journal cannot be written.
+     */
+    public void close(long tick) throws IOException {
+        try {
+            record.clear();
+            record.putLong(tick).put((byte) JournalCommand.END.ordinal()).putInt(-1).putLong(digest(room));
+            write();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Closes the journal without an end record, as if the session was interrupted.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Gets the path of the journal file.
+     *
+     * @return The path.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the number of recorded commands.
+     *
+     * @return The number of commands.
+     */
+    public long getCommandCount() {
+        return commands;
+    }
+
+    /**
+     * Computes a digest of the state of a room, covering the properties and motion state of every robot,
+     * the goal of every robot in GOAL mode and the geometry of every block in the order of the room.
+     * Two rooms with the same digest are identical with overwhelming probability.
+     *
+     * @param room The room.
+     * @return The digest.
+     */
+    public static long digest(@NonNull Room room) {
+        long hash = 0xCBF29CE484222325L;
+        for (var robot : room.getRobots()) {
+            hash = mix(hash, robot.getCenterX());
+            hash = mix(hash, robot.getCenterY());
+            hash = mix(hash, robot.getRobotCurrentAngle());
+            hash = mix(hash, robot.getRobotRadius());
+            hash = mix(hash, robot.getArcRadius());
+            hash = mix(hash, robot.getArcExtent());
+            hash = mix(hash, robot.getSpeedPerSecond());
+            hash = mix(hash, robot.getRotationSpeedPerSecInDegrees());
+            hash = mix(hash, robot.getRotationDegreeSample());
+            hash = mix(hash, robot.getMode().ordinal());
+            hash = mix(hash, robot.isRotating() ? 1 : 0);
+            if (robot.getMode() == RobotMode.GOAL) {
+                hash = mix(hash, robot.getGoalX());
+                hash = mix(hash, robot.getGoalY());
+            }
+        }
+        for (var block : room.getBlocks()) {
+            hash = mix(hash, block.getLeftTopX());
+            hash = mix(hash, block.getLeftTopY());
+            hash = mix(hash, block.getWidth());
+            hash = mix(hash, block.getHeight());
+        }
+        return hash;
+    }
+
+    /**
+     * Mixes the exact bits of a value into a hash.
+     *
+     * @param hash  The hash.
+     * @param value The value.
+     * @return The new hash.
+     */
+    private static long mix(long hash, double value) {
+        return (hash ^ Double.doubleToRawLongBits(value)) * 0x100000001B3L;
+    }
+
+    /**
+     * Gets the position of the targeted entity in the robots or blocks of the room.
+     *
+     * @param command The command.
+     * @param entity  The targeted entity, or null.
+     * @return The position, or -1 if the command targets the room.
+     * @throws IllegalArgumentException If the entity does not match the command or is not in the room.
+     */
+    private int indexOf(JournalCommand command, GameEntity entity) {
+        var entities = switch (command.getTarget()) {
+            case ROOM -> null;
+            case ROBOT -> room.getRobots();
+            case BLOCK -> room.getBlocks();
+        };
+        if (entities == null) return -1;
+
+        int index = 0;
+        for (var candidate : entities) {
+            if (candidate == entity) return index;
+            index++;
+        }
+        throw new IllegalArgumentException(command + " targets an entity that is not in the room");
+    }
+
+    /**
+     * Writes the encoded record to the file.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    private void write() throws IOException {
+        record.flip();
+        while (record.hasRemaining()) channel.write(record);
+    }
+}
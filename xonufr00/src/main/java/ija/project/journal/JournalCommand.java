@@ -0,0 +1,254 @@
+/**
+ * @file JournalCommand.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.journal;
+
+import ija.project.model.GameEntity;
+import ija.project.model.enums.RobotMode;
+import ija.project.model.impl.Block;
+import ija.project.model.impl.Robot;
+import ija.project.model.impl.Room;
+import lombok.NonNull;
+
+/**
+ * Enumerates the inputs that change the state of a room outside of its simulation steps.
+ * Every user command and every edit is performed through one of these commands, so it can be written
+ * to an {@link InputJournal} and applied again by a {@link JournalReplay}.
+ *
+ * A command targets the room itself, a robot or a block, and carries a fixed number of double values.
+ * Values are always absolute, for example the new angle of a robot rather than its change, so applying
+ * a command gives bit-exactly the same result as when it was recorded.
+ */
+public enum JournalCommand {
+    /**
+     * Turns a robot by its rotation sample; the value is 1 to turn in the reverse direction, 0 otherwise.
+     */
+    TURN(Target.ROBOT, 1),
+
+    /**
+     * Stops a moving robot or starts a stopped one.
+     */
+    TOGGLE_MOVEMENT(Target.ROBOT, 0),
+
+    /**
+     * Sets the mode of a robot; the value is the ordinal of the {@link RobotMode}.
+     */
+    SET_MODE(Target.ROBOT, 1),
+
+    /**
+     * Sets the X coordinate of the center of a robot.
+     */
+    SET_CENTER_X(Target.ROBOT, 1),
+
+    /**
+     * Sets the Y coordinate of the center of a robot.
+     */
+    SET_CENTER_Y(Target.ROBOT, 1),
+
+    /**
+     * Sets the radius of a robot.
+     */
+    SET_ROBOT_RADIUS(Target.ROBOT, 1),
+
+    /**
+     * Sets the current angle of a robot in degrees.
+     */
+    SET_ROBOT_ANGLE(Target.ROBOT, 1),
+
+    /**
+     * Sets the radius of the detection arc of a robot.
+     */
+    SET_ARC_RADIUS(Target.ROBOT, 1),
+
+    /**
+     * Sets the extent of the detection arc of a robot in degrees.
+     */
+    SET_ARC_EXTENT(Target.ROBOT, 1),
+
+    /**
+     * Sets the speed of a robot per second.
+     */
+    SET_SPEED(Target.ROBOT, 1),
+
+    /**
+     * Sets the rotation speed of a robot in degrees per second.
+     */
+    SET_ROTATION_SPEED(Target.ROBOT, 1),
+
+    /**
+     * Sets the rotation sample of a robot in degrees.
+     */
+    SET_ROTATION_SAMPLE(Target.ROBOT, 1),
+
+    /**
+     * Sets the X coordinate of the top-left corner of a block.
+     */
+    SET_LEFT_TOP_X(Target.BLOCK, 1),
+
+    /**
+     * Sets the Y coordinate of the top-left corner of a block.
+     */
+    SET_LEFT_TOP_Y(Target.BLOCK, 1),
+
+    /**
+     * Sets the width of a block.
+     */
+    SET_WIDTH(Target.BLOCK, 1),
+
+    /**
+     * Sets the height of a block.
+     */
+    SET_HEIGHT(Target.BLOCK, 1),
+
+    /**
+     * Adds a robot to the room; the values are the properties of a RobotDTO in the order of its JSON form.
+     */
+    ADD_ROBOT(Target.ROOM, 9),
+
+    /**
+     * Adds a block to the room; the values are the top-left corner, the width and the height of the block.
+     */
+    ADD_BLOCK(Target.ROOM, 4),
+
+    /**
+     * Pauses the room.
+     */
+    PAUSE(Target.ROOM, 0),
+
+    /**
+     * Resumes the room.
+     */
+    RESUME(Target.ROOM, 0),
+
+    /**
+     * Changes the length of the following fixed ticks; the value is the length in nanoseconds.
+     */
+    SET_TICK_NANOS(Target.ROOM, 1),
+
+    /**
+     * Marks the end of a recording; its single value holds the {@link InputJournal#digest(Room) digest}
+     * of the final state instead of a double.
+     */
+    END(Target.ROOM, 1),
+
+    /**
+     * Sets the goal point of a robot; the values are its X and Y coordinates.
+     * Placed after {@link #END} so the ordinals of the older commands do not change.
+     */
+    SET_GOAL(Target.ROBOT, 2);
+
+    /**
+     * Enumerates the kinds of entities a command can target.
+     */
+    public enum Target {
+        /**
+         * The command targets the room itself.
+         */
+        ROOM,
+
+        /**
+         * The command targets a robot, identified by its position in the robots of the room.
+         */
+        ROBOT,
+
+        /**
+         * The command targets a block, identified by its position in the blocks of the room.
+         */
+        BLOCK
+    }
+
+    /**
+     * The kind of entity the command targets.
+     */
+    private final Target target;
+
+    /**
+     * The number of values carried by the command.
+     */
+    private final int valueCount;
+
+    /**
+     * Constructs a command.
+     *
+     * @param target     The kind of entity the command targets.
+     * @param valueCount The number of values carried by the command.
+     */
+    JournalCommand(Target target, int valueCount) {
+        this.target = target;
+        this.valueCount = valueCount;
+    }
+
+    /**
+     * Gets the kind of entity the command targets.
+     *
+     * @return The target kind.
+     */
+    public Target getTarget() {
+        return target;
+    }
+
+    /**
+     * Gets the number of values carried by the command.
+     *
+     * @return The number of values.
+     */
+    public int getValueCount() {
+        return valueCount;
+    }
+
+    /**
+     * Applies the command to a room.
+     * Commands that do not change the room, such as {@link #SET_TICK_NANOS} and {@link #END}, are ignored.
+     *
+     * @param room   The room.
+     * @param entity The targeted robot or block of the room, or null if the command targets the room.
+     * @param values The values of the command; there must be {@link #getValueCount()} of them.
+     * @return The targeted entity, the added entity for {@link #ADD_ROBOT} and {@link #ADD_BLOCK},
+     *         or the room.
+     * @throws IllegalArgumentException If the entity or the number of values does not match the command.
+     */
+    public GameEntity apply(@NonNull Room room, GameEntity entity, @NonNull double... values) {
+        if (values.length != valueCount)
+            throw new IllegalArgumentException(this + " expects " + valueCount + " values, got " + values.length);
+        if (target == Target.ROBOT && !(entity instanceof Robot)
+                || target == Target.BLOCK && !(entity instanceof Block))
+            throw new IllegalArgumentException(this + " expects a " + target.name().toLowerCase() + " target");
+
+        switch (this) {
+            case TURN -> ((Robot) entity).turn(values[0] != 0);
+            case TOGGLE_MOVEMENT -> ((Robot) entity).toggleMovement();
+            case SET_MODE -> ((Robot) entity).setMode(RobotMode.values()[(int) values[0]]);
+            case SET_CENTER_X -> ((Robot) entity).setCenterX(values[0]);
+            case SET_CENTER_Y -> ((Robot) entity).setCenterY(values[0]);
+            case SET_ROBOT_RADIUS -> ((Robot) entity).setRobotRadius(values[0]);
+            case SET_ROBOT_ANGLE -> ((Robot) entity).setRobotCurrentAngle(values[0]);
+            case SET_ARC_RADIUS -> ((Robot) entity).setArcRadius(values[0]);
+            case SET_ARC_EXTENT -> ((Robot) entity).setArcExtent(values[0]);
+            case SET_SPEED -> ((Robot) entity).setSpeedPerSecond(values[0]);
+            case SET_ROTATION_SPEED -> ((Robot) entity).setRotationSpeedPerSecInDegrees(values[0]);
+            case SET_ROTATION_SAMPLE -> ((Robot) entity).setRotationDegreeSample(values[0]);
+            case SET_GOAL -> ((Robot) entity).setGoal(values[0], values[1]);
+            case SET_LEFT_TOP_X -> ((Block) entity).setLeftTopX(values[0]);
+            case SET_LEFT_TOP_Y -> ((Block) entity).setLeftTopY(values[0]);
+            case SET_WIDTH -> ((Block) entity).setWidth(values[0]);
+            case SET_HEIGHT -> ((Block) entity).setHeight(values[0]);
+            case ADD_ROBOT -> {
+                var robot = new Robot(room, values[0], values[1], values[2], values[6], values[7], values[8],
+                        values[5], values[3], values[4]);
+                room.addRobot(robot);
+                return robot;
+            }
+            case ADD_BLOCK -> {
+                var block = new Block(room, values[0], values[1], values[2], values[3]);
+                room.addBlock(block);
+                return block;
+            }
+            case PAUSE -> room.pause();
+            case RESUME -> room.resume();
+            case SET_TICK_NANOS, END -> {
+            }
+        }
+        return entity != null ? entity : room;
+    }
+}
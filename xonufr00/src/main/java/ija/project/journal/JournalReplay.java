@@ -0,0 +1,282 @@
+/**
+ * @file JournalReplay.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.journal;
+
+import ija.project.engine.Simulation;
+import ija.project.model.GameEntity;
+import ija.project.model.enums.UpdateMode;
+import ija.project.model.impl.Block;
+import ija.project.model.impl.Robot;
+import ija.project.model.impl.Room;
+import ija.project.util.binary.RoomBinaryFormat;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reproduces a session recorded by an {@link InputJournal}.
+ *
+ * The replay rebuilds the initial room of the journal and re-drives a {@link Simulation} with the recorded
+ * tick length, applying every command just before the tick it was recorded at. Since this is exactly what
+ * happened during the recording, the room goes through bit-exactly the same states; if the journal was
+ * closed properly, {@link #matchesRecording()} verifies that against the digest of the final state.
+ */
+public class JournalReplay {
+
+    /**
+     * The recorded commands, positioned at the next command to apply.
+     */
+    @NonNull
+    private final ByteBuffer records;
+
+    /**
+     * The room being replayed.
+     */
+    @NonNull
+    private final Room room;
+
+    /**
+     * The simulation advancing the room.
+     */
+    @NonNull
+    private final Simulation simulation;
+
+    /**
+     * The robots of the room in their order, for resolving the targets of the commands.
+     */
+    @NonNull
+    private final List<Robot> robots;
+
+    /**
+     * The blocks of the room in their order, for resolving the targets of the commands.
+     */
+    @NonNull
+    private final List<Block> blocks;
+
+    /**
+     * The tick the replay ends at.
+     */
+    private final long endTick;
+
+    /**
+     * Indicates whether the journal ends with an end record.
+     */
+    private final boolean complete;
+
+    /**
+     * The digest of the final state stored in the end record.
+     */
+    private final long recordedDigest;
+
+    /**
+     * The length of the next tick in nanoseconds.
+     */
+    private long tickNanos;
+
+    /**
+     * The number of applied commands.
+     */
+    private long appliedCommands;
+
+    /**
+     * Reads a journal file by mapping it into memory.
+     *
+     * @param path The path of the journal file.
+     * @return The replay, positioned before the first tick.
+     * @throws IOException If the file cannot be read or is not a valid journal.
+     */
+    public static JournalReplay open(@NonNull Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("Journal file is too large to be mapped: " + size);
+            return new JournalReplay(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * Constructs a replay of a journal held in a buffer.
+     *
+     * @param buffer The buffer holding the journal, from its current position.
+     * @throws IOException If the buffer does not hold a valid journal.
+     */
+    public JournalReplay(@NonNull ByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < InputJournal.HEADER_BYTES || buffer.getInt() != InputJournal.MAGIC)
+            throw new IOException("Not a journal file");
+        int version = buffer.getInt();
+        if (version != InputJournal.VERSION) throw new IOException("Unsupported journal file version: " + version);
+        this.tickNanos = buffer.getLong();
+        int mode = buffer.getInt();
+        if (tickNanos <= 0 || mode < 0 || mode >= UpdateMode.values().length)
+            throw new IOException("Corrupted journal header");
+
+        this.room = RoomBinaryFormat.read(buffer);
+        this.room.setUpdateMode(UpdateMode.values()[mode]);
+        this.simulation = new Simulation(room);
+        this.robots = new ArrayList<>(room.getRobots());
+        this.blocks = new ArrayList<>(room.getBlocks());
+        this.records = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+
+        long lastTick = 0;
+        long digest = 0;
+        boolean ended = false;
+        var scan = records.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        while (!ended && scan.remaining() >= InputJournal.RECORD_HEADER_BYTES) {
+            long tick = scan.getLong();
+            int ordinal = scan.get();
+            if (tick < lastTick || ordinal < 0 || ordinal >= JournalCommand.values().length)
+                throw new IOException("Corrupted journal record at " + (scan.position() - Long.BYTES - 1));
+            var command = JournalCommand.values()[ordinal];
+            if (scan.remaining() < Integer.BYTES + command.getValueCount() * Double.BYTES) break;
+            scan.getInt();
+            if (command == JournalCommand.END) {
+                digest = scan.getLong();
+                ended = true;
+            } else {
+                scan.position(scan.position() + command.getValueCount() * Double.BYTES);
+            }
+            lastTick = tick;
+        }
+        this.endTick = lastTick;
+        this.complete = ended;
+        this.recordedDigest = digest;
+    }
+
+    /**
+     * Applies the commands recorded before the next tick and performs the tick.
+     *
+     * @return False if the replay has already reached its end tick, true otherwise.
+     * @throws IOException If a command does not match the room.
+     */
+    public boolean step() throws IOException {
+        applyDueCommands();
+        if (simulation.getSteps() >= endTick) return false;
+        simulation.step(tickNanos);
+        return true;
+    }
+
+    /**
+     * Replays the rest of the journal.
+     *
+     * @throws IOException If a command does not match the room.
+     */
+    public void run() throws IOException {
+        while (step()) {
+        }
+    }
+
+    /**
+     * Applies the recorded commands whose tick has been reached.
+     *
+     * @throws IOException If a command does not match the room.
+     */
+    private void applyDueCommands() throws IOException {
+        var steps = simulation.getSteps();
+        while (records.remaining() >= InputJournal.RECORD_HEADER_BYTES
+                && records.getLong(records.position()) == steps) {
+            var command = JournalCommand.values()[records.get(records.position() + Long.BYTES)];
+            if (command == JournalCommand.END
+                    || records.remaining() < InputJournal.RECORD_HEADER_BYTES + command.getValueCount() * Double.BYTES)
+                return;
+
+            records.position(records.position() + Long.BYTES + Byte.BYTES);
+            int index = records.getInt();
+            var values = new double[command.getValueCount()];
+            for (int i = 0; i < values.length; i++) values[i] = records.getDouble();
+            apply(command, index, values);
+        }
+    }
+
+    /**
+     * Applies a recorded command to the room.
+     *
+     * @param command The command.
+     * @param index   The position of the targeted robot or block, or -1.
+     * @param values  The values of the command.
+     * @throws IOException If the target does not exist or the command fails.
+     */
+    private void apply(JournalCommand command, int index, double[] values) throws IOException {
+        List<? extends GameEntity> entities = switch (command.getTarget()) {
+            case ROOM -> List.of();
+            case ROBOT -> robots;
+            case BLOCK -> blocks;
+        };
+        if (command.getTarget() != JournalCommand.Target.ROOM && (index < 0 || index >= entities.size()))
+            throw new IOException(command + " targets a missing entity " + index);
+
+        try {
+            var entity = command.apply(room, index < 0 ? null : entities.get(index), values);
+            if (command == JournalCommand.ADD_ROBOT) robots.add((Robot) entity);
+            if (command == JournalCommand.ADD_BLOCK) blocks.add((Block) entity);
+            if (command == JournalCommand.SET_TICK_NANOS) tickNanos = (long) values[0];
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to apply " + command + ": " + e.getMessage(), e);
+        }
+        appliedCommands++;
+    }
+
+    /**
+     * Checks whether the state of the room matches the digest recorded at the end of the journal.
+     * The result is meaningful only once the replay has reached its end tick.
+     *
+     * @return True if the journal was closed properly and the digests match, false otherwise.
+     */
+    public boolean matchesRecording() {
+        return complete && InputJournal.digest(room) == recordedDigest;
+    }
+
+    /**
+     * Checks whether the journal ends with an end record, i.e. the recorded session was closed properly.
+     *
+     * @return True if the journal is complete.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Gets the tick the replay ends at: the final tick of the session, or the tick of the last command
+     * if the journal is not complete.
+     *
+     * @return The end tick.
+     */
+    public long getEndTick() {
+        return endTick;
+    }
+
+    /**
+     * Gets the number of commands applied so far.
+     *
+     * @return The number of commands.
+     */
+    public long getAppliedCommands() {
+        return appliedCommands;
+    }
+
+    /**
+     * Gets the room being replayed.
+     *
+     * @return The room.
+     */
+    public Room getRoom() {
+        return room;
+    }
+
+    /**
+     * Gets the simulation advancing the room.
+     *
+     * @return The simulation.
+     */
+    public Simulation getSimulation() {
+        return simulation;
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * @file FrameCounter.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.metrics;
+
+import lombok.NonNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts events, such as intersection tests, and keeps statistics of their number per frame.
+ * Events can be counted from several threads; the frame is closed by {@link #endFrame()}.
+ */
+public class FrameCounter implements FrameCounterMBean {
+
+    /**
+     * The name of the counted events.
+     */
+    @NonNull
+    private final String name;
+
+    /**
+     * The number of events counted in the current frame.
+     */
+    @NonNull
+    private final LongAdder current;
+
+    /**
+     * The number of events counted in the last finished frame.
+     */
+    private volatile long lastFrame;
+
+    /**
+     * The largest number of events counted in a single frame.
+     */
+    private volatile long maxPerFrame;
+
+    /**
+     * The number of events counted in all finished frames.
+     */
+    private volatile long total;
+
+    /**
+     * The number of finished frames.
+     */
+    private volatile long frames;
+
+    /**
+     * Constructs a new FrameCounter.
+     *
+     * @param name The name of the counted events.
+     */
+    public FrameCounter(@NonNull String name) {
+        this.name = name;
+        this.current = new LongAdder();
+    }
+
+    /**
+     * Counts one event in the current frame.
+     */
+    public void increment() {
+        current.increment();
+    }
+
+    /**
+     * Counts several events in the current frame.
+     *
+     * @param events The number of events.
+     */
+    public void add(long events) {
+        current.add(events);
+    }
+
+    /**
+     * Finishes the current frame, adding its count to the statistics.
+     * Must be called from a single thread.
+     */
+    public void endFrame() {
+        var events = current.sumThenReset();
+        lastFrame = events;
+        maxPerFrame = Math.max(maxPerFrame, events);
+        total += events;
+        frames++;
+    }
+
+    /**
+     * Gets the name of the counted events.
+     *
+     * @return The name.
+     */
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of events counted in the last finished frame.
+     *
+     * @return The number of events.
+     */
+    @Override
+    public long getLastFrame() {
+        return lastFrame;
+    }
+
+    /**
+     * Gets the largest number of events counted in a single frame.
+     *
+     * @return The number of events.
+     */
+    @Override
+    public long getMaxPerFrame() {
+        return maxPerFrame;
+    }
+
+    /**
+     * Gets the mean number of events per finished frame.
+     *
+     * @return The mean number of events.
+     */
+    @Override
+    public double getMeanPerFrame() {
+        var n = frames;
+        return n == 0 ? 0 : (double) total / n;
+    }
+
+    /**
+     * Gets the number of events counted in all finished frames.
+     *
+     * @return The number of events.
+     */
+    @Override
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Discards all counted events.
+     */
+    @Override
+    public void reset() {
+        current.reset();
+        lastFrame = 0;
+        maxPerFrame = 0;
+        total = 0;
+        frames = 0;
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * @file FrameCounterMBean.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.metrics;
+
+/**
+ * The management interface of a {@link FrameCounter}.
+ */
+public interface FrameCounterMBean {
+
+    /**
+     * Gets the number of events counted in the last finished frame.
+     *
+     * @return The number of events.
+     */
+    long getLastFrame();
+
+    /**
+     * Gets the largest number of events counted in a single frame.
+     *
+     * @return The number of events.
+     */
+    long getMaxPerFrame();
+
+    /**
+     * Gets the mean number of events per finished frame.
+     *
+     * @return The mean number of events.
+     */
+    double getMeanPerFrame();
+
+    /**
+     * Gets the number of events counted in all finished frames.
+     *
+     * @return The number of events.
+     */
+    long getTotal();
+
+    /**
+     * Discards all counted events.
+     */
+    void reset();
+}
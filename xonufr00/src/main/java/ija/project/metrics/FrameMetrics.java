@@ -0,0 +1,220 @@
+/**
+ * @file FrameMetrics.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.metrics;
+
+import lombok.NonNull;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * The registry of the metrics describing where the time of a frame goes.
+ * It holds latency histograms of the main phases of a frame and counters of the work done per frame,
+ * and exposes them as JMX MBeans under the {@value #DOMAIN} domain, so a running session can be
+ * watched with standard tools such as JConsole or VisualVM.
+ *
+ * The metrics are disabled by default and can be enabled through the {@code Enabled} attribute of the
+ * {@code ija.project:type=FrameMetrics} MBean or by the {@value #ENABLED_PROPERTY} system property.
+ * While disabled, an instrumented operation only reads a single flag.
+ */
+public final class FrameMetrics implements FrameMetricsMBean {
+
+    /**
+     * The JMX domain of the metrics.
+     */
+    public static final String DOMAIN = "ija.project";
+
+    /**
+     * The system property enabling the metrics at startup.
+     */
+    public static final String ENABLED_PROPERTY = "ija.metrics";
+
+    /**
+     * The duration of a whole animation frame.
+     */
+    public static final LatencyHistogram FRAME = new LatencyHistogram("Frame");
+
+    /**
+     * The duration of {@code Room.update}, including the notification of the observers.
+     */
+    public static final LatencyHistogram ROOM_UPDATE = new LatencyHistogram("RoomUpdate");
+
+    /**
+     * The duration of a single collision query of the room.
+     */
+    public static final LatencyHistogram COLLISION_QUERY = new LatencyHistogram("CollisionQuery");
+
+    /**
+     * The duration of notifying the observers of an entity.
+     */
+    public static final LatencyHistogram NOTIFY_OBSERVERS = new LatencyHistogram("NotifyObservers");
+
+    /**
+     * The duration of saving the state of the room for rewinding.
+     */
+    public static final LatencyHistogram SAVE_STATE = new LatencyHistogram("SaveState");
+
+    /**
+     * The duration of drawing the room onto the canvas.
+     */
+    public static final LatencyHistogram RENDER = new LatencyHistogram("Render");
+
+    /**
+     * The number of colliders tested by the collision queries.
+     */
+    public static final FrameCounter INTERSECTIONS = new FrameCounter("Intersections");
+
+    /**
+     * The number of observers notified of a change.
+     */
+    public static final FrameCounter NOTIFICATIONS = new FrameCounter("Notifications");
+
+    /**
+     * All latency histograms.
+     */
+    private static final List<LatencyHistogram> HISTOGRAMS =
+            List.of(FRAME, ROOM_UPDATE, COLLISION_QUERY, NOTIFY_OBSERVERS, SAVE_STATE, RENDER);
+
+    /**
+     * All per-frame counters.
+     */
+    private static final List<FrameCounter> COUNTERS = List.of(INTERSECTIONS, NOTIFICATIONS);
+
+    /**
+     * The only instance, the MBean controlling the metrics.
+     */
+    private static final FrameMetrics INSTANCE = new FrameMetrics();
+
+    /**
+     * Indicates whether the metrics are recorded.
+     */
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    /**
+     * Indicates whether the MBeans have been registered.
+     */
+    private static boolean registered;
+
+    /**
+     * The number of frames finished while the metrics were enabled.
+     */
+    private static volatile long frameCount;
+
+    /**
+     * Prevents instantiation from outside the class.
+     */
+    private FrameMetrics() {
+    }
+
+    /**
+     * Gets the MBean controlling the metrics.
+     *
+     * @return The instance.
+     */
+    public static FrameMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Checks whether the metrics are recorded.
+     *
+     * @return True if the metrics are enabled, false otherwise.
+     */
+    public static boolean isRecording() {
+        return enabled;
+    }
+
+    /**
+     * Takes the start time of an instrumented operation.
+     *
+     * @return The current time in nanoseconds rounded up to an odd value, so it is never zero,
+     *         or zero if the metrics are disabled.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() | 1 : 0;
+    }
+
+    /**
+     * Finishes a frame, closing the per-frame counters.
+     * Must be called once per frame from the thread that drives the animation.
+     */
+    public static void endFrame() {
+        if (!enabled) return;
+        for (var counter : COUNTERS) counter.endFrame();
+        frameCount++;
+    }
+
+    /**
+     * Registers the MBeans of the metrics with the platform MBean server. Repeated calls do nothing.
+     *
+     * @throws JMException If the MBeans cannot be registered.
+     */
+    public static synchronized void registerMBeans() throws JMException {
+        if (registered) return;
+        var server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(INSTANCE, new ObjectName(DOMAIN + ":type=FrameMetrics"));
+        for (var histogram : HISTOGRAMS) {
+            server.registerMBean(histogram, objectName("Latency", histogram.getName()));
+        }
+        for (var counter : COUNTERS) {
+            server.registerMBean(counter, objectName("Counter", counter.getName()));
+        }
+        registered = true;
+    }
+
+    /**
+     * Builds the name of a metric's MBean.
+     *
+     * @param type The type of the metric.
+     * @param name The name of the metric.
+     * @return The object name.
+     * @throws JMException If the name is not valid.
+     */
+    private static ObjectName objectName(@NonNull String type, @NonNull String name) throws JMException {
+        return new ObjectName(DOMAIN + ":type=" + type + ",name=" + name);
+    }
+
+    /**
+     * Checks whether the metrics are recorded.
+     *
+     * @return True if the metrics are enabled, false otherwise.
+     */
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables recording of the metrics.
+     *
+     * @param enabled True to record the metrics.
+     */
+    @Override
+    public void setEnabled(boolean enabled) {
+        FrameMetrics.enabled = enabled;
+    }
+
+    /**
+     * Gets the number of frames finished while the metrics were enabled.
+     *
+     * @return The number of frames.
+     */
+    @Override
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Discards all recorded samples and counted events.
+     */
+    @Override
+    public void reset() {
+        for (var histogram : HISTOGRAMS) histogram.reset();
+        for (var counter : COUNTERS) counter.reset();
+        frameCount = 0;
+    }
+}
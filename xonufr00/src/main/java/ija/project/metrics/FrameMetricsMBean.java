@@ -0,0 +1,37 @@
+/**
+ * @file FrameMetricsMBean.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.metrics;
+
+/**
+ * The management interface switching the frame metrics on and off.
+ */
+public interface FrameMetricsMBean {
+
+    /**
+     * Checks whether the metrics are recorded.
+     *
+     * @return True if the metrics are enabled, false otherwise.
+     */
+    boolean isEnabled();
+
+    /**
+     * Enables or disables recording of the metrics.
+     *
+     * @param enabled True to record the metrics.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Gets the number of frames finished while the metrics were enabled.
+     *
+     * @return The number of frames.
+     */
+    long getFrameCount();
+
+    /**
+     * Discards all recorded samples and counted events.
+     */
+    void reset();
+}
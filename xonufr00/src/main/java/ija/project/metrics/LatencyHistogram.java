@@ -0,0 +1,222 @@
+/**
+ * @file LatencyHistogram.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.metrics;
+
+import lombok.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records the distribution of the durations of an operation.
+ * Samples are counted in buckets growing exponentially: every power of two is split into
+ * {@value #SUB_BUCKETS} equal buckets, so a percentile is known within a quarter of its value while
+ * recording a sample is a few atomic increments. Samples can be recorded from several threads.
+ */
+public class LatencyHistogram implements LatencyHistogramMBean {
+
+    /**
+     * The number of buckets per power of two, a power of two itself.
+     */
+    private static final int SUB_BUCKETS = 4;
+
+    /**
+     * The base-2 logarithm of {@link #SUB_BUCKETS}.
+     */
+    private static final int SUB_BUCKET_BITS = 2;
+
+    /**
+     * The name of the measured operation.
+     */
+    @NonNull
+    private final String name;
+
+    /**
+     * The number of samples in every bucket.
+     */
+    @NonNull
+    private final AtomicLongArray buckets;
+
+    /**
+     * The number of recorded samples.
+     */
+    @NonNull
+    private final AtomicLong count;
+
+    /**
+     * The sum of the recorded samples in nanoseconds.
+     */
+    @NonNull
+    private final AtomicLong sum;
+
+    /**
+     * The largest recorded sample in nanoseconds.
+     */
+    @NonNull
+    private final AtomicLong max;
+
+    /**
+     * Constructs a new empty LatencyHistogram.
+     *
+     * @param name The name of the measured operation.
+     */
+    public LatencyHistogram(@NonNull String name) {
+        this.name = name;
+        this.buckets = new AtomicLongArray(Long.SIZE * SUB_BUCKETS);
+        this.count = new AtomicLong();
+        this.sum = new AtomicLong();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Records the duration of an operation started at the specified time, if the time was taken
+     * while the metrics were enabled.
+     *
+     * @param startNanos The value returned by {@link FrameMetrics#start()} when the operation started.
+     */
+    public void stop(long startNanos) {
+        if (startNanos != 0) record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records a sample.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        nanos = Math.max(nanos, 0);
+        buckets.incrementAndGet(bucketOf(nanos));
+        count.incrementAndGet();
+        sum.addAndGet(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Gets the name of the measured operation.
+     *
+     * @return The name.
+     */
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of recorded samples.
+     *
+     * @return The number of samples.
+     */
+    @Override
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Gets the mean of the recorded samples.
+     *
+     * @return The mean latency in microseconds.
+     */
+    @Override
+    public double getMeanMicros() {
+        var n = count.get();
+        return n == 0 ? 0 : sum.get() / 1e3 / n;
+    }
+
+    /**
+     * Gets the largest recorded sample.
+     *
+     * @return The maximal latency in microseconds.
+     */
+    @Override
+    public double getMaxMicros() {
+        return max.get() / 1e3;
+    }
+
+    /**
+     * Gets the median of the recorded samples.
+     *
+     * @return The upper bound of the median latency in microseconds.
+     */
+    @Override
+    public double getP50Micros() {
+        return getPercentileNanos(0.5) / 1e3;
+    }
+
+    /**
+     * Gets the 90th percentile of the recorded samples.
+     *
+     * @return The upper bound of the 90th percentile latency in microseconds.
+     */
+    @Override
+    public double getP90Micros() {
+        return getPercentileNanos(0.9) / 1e3;
+    }
+
+    /**
+     * Gets the 99th percentile of the recorded samples.
+     *
+     * @return The upper bound of the 99th percentile latency in microseconds.
+     */
+    @Override
+    public double getP99Micros() {
+        return getPercentileNanos(0.99) / 1e3;
+    }
+
+    /**
+     * Estimates a percentile of the recorded samples.
+     *
+     * @param fraction The fraction of the samples at or below the percentile, in (0, 1].
+     * @return The upper bound of the bucket holding the percentile in nanoseconds, zero if there are no samples.
+     */
+    public long getPercentileNanos(double fraction) {
+        var n = count.get();
+        if (n == 0) return 0;
+        var rank = (long) Math.ceil(fraction * n);
+        long seen = 0;
+        for (int b = 0; b < buckets.length(); b++) {
+            seen += buckets.get(b);
+            if (seen >= rank) return Math.min(upperBoundOf(b), max.get());
+        }
+        return max.get();
+    }
+
+    /**
+     * Discards all recorded samples.
+     */
+    @Override
+    public void reset() {
+        for (int b = 0; b < buckets.length(); b++) buckets.set(b, 0);
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /**
+     * Finds the bucket of a sample.
+     *
+     * @param nanos The non-negative sample.
+     * @return The index of the bucket.
+     */
+    private static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) return (int) nanos;
+        var exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        var sub = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Computes the largest sample counted in a bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The upper bound in nanoseconds.
+     */
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        var exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        var sub = bucket % SUB_BUCKETS;
+        var width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (sub + 1) * width - 1;
+    }
+}
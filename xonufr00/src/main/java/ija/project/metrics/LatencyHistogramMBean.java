@@ -0,0 +1,58 @@
+/**
+ * @file LatencyHistogramMBean.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.metrics;
+
+/**
+ * The management interface of a {@link LatencyHistogram}.
+ */
+public interface LatencyHistogramMBean {
+
+    /**
+     * Gets the number of recorded samples.
+     *
+     * @return The number of samples.
+     */
+    long getCount();
+
+    /**
+     * Gets the mean of the recorded samples.
+     *
+     * @return The mean latency in microseconds.
+     */
+    double getMeanMicros();
+
+    /**
+     * Gets the largest recorded sample.
+     *
+     * @return The maximal latency in microseconds.
+     */
+    double getMaxMicros();
+
+    /**
+     * Gets the median of the recorded samples.
+     *
+     * @return The upper bound of the median latency in microseconds.
+     */
+    double getP50Micros();
+
+    /**
+     * Gets the 90th percentile of the recorded samples.
+     *
+     * @return The upper bound of the 90th percentile latency in microseconds.
+     */
+    double getP90Micros();
+
+    /**
+     * Gets the 99th percentile of the recorded samples.
+     *
+     * @return The upper bound of the 99th percentile latency in microseconds.
+     */
+    double getP99Micros();
+
+    /**
+     * Discards all recorded samples.
+     */
+    void reset();
+}
@@ -0,0 +1,71 @@
+/**
+ * @file Collider.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.model;
+
+/**
+ * Represents an entity that occupies space in the room and can be hit by robots.
+ * Robots query colliders with the primitives they are built from: a circle for the robot frame
+ * and a circular sector for the detection arc, and sweep the robot frame along its motion to find
+ * the first contact. Distances to colliders tell how long a robot can move before it may touch one,
+ * and rays cast at colliders measure how far a robot sees along a direction.
+ * Implementations answer with exact closed-form tests that do not allocate.
+ */
+public interface Collider {
+    /**
+     * Checks if the collider overlaps a circle.
+     *
+     * @param centerX The X coordinate of the circle's center.
+     * @param centerY The Y coordinate of the circle's center.
+     * @param radius  The radius of the circle.
+     * @return True if the collider and the circle share some area, false otherwise.
+     */
+    boolean intersectsCircle(double centerX, double centerY, double radius);
+
+    /**
+     * Checks if the collider overlaps a circular sector.
+     *
+     * @param centerX    The X coordinate of the sector's center.
+     * @param centerY    The Y coordinate of the sector's center.
+     * @param radius     The radius of the sector.
+     * @param startAngle The start angle of the sector in degrees.
+     * @param extent     The angular extent of the sector in degrees.
+     * @return True if the collider and the sector share some area, false otherwise.
+     */
+    boolean intersectsSector(double centerX, double centerY, double radius, double startAngle, double extent);
+
+    /**
+     * Computes the time of impact of a circle moving along a vector with the collider.
+     *
+     * @param centerX The X coordinate of the circle's center at the start of the motion.
+     * @param centerY The Y coordinate of the circle's center at the start of the motion.
+     * @param radius  The radius of the circle.
+     * @param dx      The X component of the motion.
+     * @param dy      The Y component of the motion.
+     * @return The fraction of the motion in [0, 1] done before the circle touches the collider,
+     *         or {@link ija.project.engine.Intersections#NO_IMPACT} if it does not touch it.
+     */
+    double sweepCircle(double centerX, double centerY, double radius, double dx, double dy);
+
+    /**
+     * Computes the distance from a point to the collider.
+     *
+     * @param x The X coordinate of the point.
+     * @param y The Y coordinate of the point.
+     * @return The distance, zero if the point lies inside the collider.
+     */
+    double distanceTo(double x, double y);
+
+    /**
+     * Computes the distance along a ray to the first point of the collider.
+     *
+     * @param x    The X coordinate of the ray's origin.
+     * @param y    The Y coordinate of the ray's origin.
+     * @param dirX The X component of the ray's unit direction.
+     * @param dirY The Y component of the ray's unit direction.
+     * @return The distance, zero if the origin lies inside the collider,
+     *         or {@link ija.project.engine.Intersections#NO_IMPACT} if the ray misses it.
+     */
+    double castRay(double x, double y, double dirX, double dirY);
+}
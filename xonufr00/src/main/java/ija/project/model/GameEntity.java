@@ -4,6 +4,7 @@
  */
 package ija.project.model;
 
+import ija.project.metrics.FrameMetrics;
 import ija.project.observer.Observable;
 import ija.project.observer.Observer;
 import lombok.NonNull;
@@ -55,9 +56,12 @@ public abstract class GameEntity implements Observable, UpdatableEntity, Pausabl
      */
     @Override
     public void notifyObservers() {
+        var start = FrameMetrics.start();
         for (var o : observers) {
             o.update(this);
         }
+        if (start != 0) FrameMetrics.NOTIFICATIONS.add(observers.size());
+        FrameMetrics.NOTIFY_OBSERVERS.stop(start);
     }
 
     /**
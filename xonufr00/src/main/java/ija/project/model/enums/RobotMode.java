@@ -6,7 +6,8 @@ package ija.project.model.enums;
 
 /**
  * Enumerates the possible modes of operation for a robot.
- * Robots can operate autonomously (AI) or be controlled by a user (USER).
+ * Robots can operate autonomously (AI), be controlled by a user (USER) or head for a goal point (GOAL).
+ * The ordinals are recorded in input journals, so new modes are only appended.
  */
 public enum RobotMode {
     /**
@@ -19,5 +20,12 @@ public enum RobotMode {
      * Represents the user-controlled operation mode of the robot.
      * In this mode, the robot's movements and actions are directly controlled by the user.
      */
-    USER
+    USER,
+
+    /**
+     * Represents the goal-seeking operation mode of the robot.
+     * In this mode, the robot follows a route planned around the blocks of the room to its goal point
+     * and stops there.
+     */
+    GOAL
 }
@@ -0,0 +1,27 @@
+/**
+ * @file UpdateMode.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.model.enums;
+
+/**
+ * Enumerates the strategies a room can use to update its robots in one step.
+ */
+public enum UpdateMode {
+    /**
+     * Robots are updated one after another and each robot sees the moves of the robots updated before it.
+     */
+    SEQUENTIAL,
+
+    /**
+     * All robots plan their next pose from the same snapshot of the room, then the plans are committed
+     * one after another in the room's robot order. Conflicting moves are resolved during the commit.
+     */
+    TWO_PHASE,
+
+    /**
+     * Same as {@link #TWO_PHASE}, but the planning phase runs in parallel on a ForkJoinPool.
+     * Produces exactly the same results as {@link #TWO_PHASE}.
+     */
+    PARALLEL
+}
@@ -4,22 +4,19 @@
  */
 package ija.project.model.impl;
 
-import ija.project.ui.view.Drawable;
+import ija.project.engine.Intersections;
+import ija.project.model.Collider;
 import ija.project.model.GameEntity;
-import javafx.scene.shape.Rectangle;
-import javafx.scene.shape.Shape;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.List;
-
 /**
  * Represents a block within a room in the game environment.
- * Blocks are static obstacles that can be placed in a room. They are drawable entities
- * and can be interacted with by other game entities.
+ * Blocks are static obstacles that can be placed in a room. They are axis-aligned rectangles
+ * kept as plain numeric state and can be interacted with by other game entities.
  */
 @Slf4j
-public class Block extends GameEntity implements Drawable {
+public class Block extends GameEntity implements Collider {
     /**
      * The room in which the block is placed.
      */
@@ -27,10 +24,14 @@ public class Block extends GameEntity implements Drawable {
     private final Room room;
     
     /**
-     * The dimensions and position of the block.
+     * The coordinates of the block's top-left corner.
      */
-    @NonNull
-    private final Rectangle blockFrame;
+    private double leftTopX, leftTopY;
+
+    /**
+     * The dimensions of the block.
+     */
+    private double width, height;
 
     /**
      * Constructs a new Block within a specified room with given dimensions and position.
@@ -46,14 +47,12 @@ public class Block extends GameEntity implements Drawable {
                     double width, double height
                  ) {
         this.room = room;
-        this.blockFrame = new Rectangle();
 
         setLeftTopX(x);
         setLeftTopY(y);
         setHeight(height);
         setWidth(width);
 
-        this.room.notifyObservers();
         pause();
     }
 
@@ -68,31 +67,81 @@ public class Block extends GameEntity implements Drawable {
     }
 
     /**
-     * Gets the list of shapes that represent the block.
+     * Checks if the block overlaps a circle.
      *
-     * @return The list of shapes.
+     * @param x      The X coordinate of the circle's center.
+     * @param y      The Y coordinate of the circle's center.
+     * @param radius The radius of the circle.
+     * @return True if the block and the circle share some area, false otherwise.
      */
     @Override
-    public List<Shape> getDrawableShapes() {
-        return List.of(blockFrame);
+    public boolean intersectsCircle(double x, double y, double radius) {
+        return Intersections.circleRect(x, y, radius, leftTopX, leftTopY, width, height);
     }
 
     /**
-     * Gets the room in which the block is placed.
+     * Checks if the block overlaps a circular sector.
      *
-     * @return The room.
+     * @param x          The X coordinate of the sector's center.
+     * @param y          The Y coordinate of the sector's center.
+     * @param radius     The radius of the sector.
+     * @param startAngle The start angle of the sector in degrees.
+     * @param extent     The angular extent of the sector in degrees.
+     * @return True if the block and the sector share some area, false otherwise.
      */
-    public Room getRoom() {
-        return room;
+    @Override
+    public boolean intersectsSector(double x, double y, double radius, double startAngle, double extent) {
+        return Intersections.sectorRect(x, y, radius, startAngle, extent, leftTopX, leftTopY, width, height);
+    }
+
+    /**
+     * Computes the time of impact of a circle moving along a vector with the block.
+     *
+     * @param x      The X coordinate of the circle's center at the start of the motion.
+     * @param y      The Y coordinate of the circle's center at the start of the motion.
+     * @param radius The radius of the circle.
+     * @param dx     The X component of the motion.
+     * @param dy     The Y component of the motion.
+     * @return The fraction of the motion done before the circle touches the block, or {@link Intersections#NO_IMPACT}.
+     */
+    @Override
+    public double sweepCircle(double x, double y, double radius, double dx, double dy) {
+        return Intersections.sweptCircleRect(x, y, radius, dx, dy, leftTopX, leftTopY, width, height);
     }
 
     /**
-     * Gets the frame of the block.
+     * Computes the distance from a point to the block.
      *
-     * @return The frame.
+     * @param x The X coordinate of the point.
+     * @param y The Y coordinate of the point.
+     * @return The distance, zero if the point lies inside the block.
      */
-    public Rectangle getBlockFrame() {
-        return blockFrame;
+    @Override
+    public double distanceTo(double x, double y) {
+        return Intersections.pointRectDistance(x, y, leftTopX, leftTopY, width, height);
+    }
+
+    /**
+     * Computes the distance along a ray to the first point of the block.
+     *
+     * @param x    The X coordinate of the ray's origin.
+     * @param y    The Y coordinate of the ray's origin.
+     * @param dirX The X component of the ray's unit direction.
+     * @param dirY The Y component of the ray's unit direction.
+     * @return The distance, or {@link Intersections#NO_IMPACT} if the ray misses the block.
+     */
+    @Override
+    public double castRay(double x, double y, double dirX, double dirY) {
+        return Intersections.rayRect(x, y, dirX, dirY, leftTopX, leftTopY, width, height);
+    }
+
+    /**
+     * Gets the room in which the block is placed.
+     *
+     * @return The room.
+     */
+    public Room getRoom() {
+        return room;
     }
 
     /**
@@ -101,7 +150,7 @@ public class Block extends GameEntity implements Drawable {
      * @return The X coordinate.
      */
     public double getLeftTopX() {
-        return this.blockFrame.getX();
+        return leftTopX;
     }
 
     /**
@@ -111,8 +160,9 @@ public class Block extends GameEntity implements Drawable {
      */
     public void setLeftTopX(double x) {
         if (getLeftTopX() == x) return;
-        this.blockFrame.setX(x);
-        notifyObservers();
+        this.room.markChanged(this);
+        this.leftTopX = x;
+        this.room.reindexBlock(this);
     }
 
     /**
@@ -121,7 +171,7 @@ public class Block extends GameEntity implements Drawable {
      * @return The Y coordinate.
      */
     public double getLeftTopY() {
-        return this.blockFrame.getY();
+        return leftTopY;
     }
 
     /**
@@ -131,8 +181,9 @@ public class Block extends GameEntity implements Drawable {
      */
     public void setLeftTopY(double y) {
         if (getLeftTopY() == y) return;
-        this.blockFrame.setY(y);
-        notifyObservers();
+        this.room.markChanged(this);
+        this.leftTopY = y;
+        this.room.reindexBlock(this);
     }
 
     /**
@@ -141,7 +192,7 @@ public class Block extends GameEntity implements Drawable {
      * @return The width.
      */
     public double getWidth() {
-        return this.blockFrame.getWidth();
+        return width;
     }
 
     /**
@@ -151,8 +202,9 @@ public class Block extends GameEntity implements Drawable {
      */
     public void setWidth(double width) {
         if (getWidth() == width) return;
-        this.blockFrame.setWidth(width);
-        notifyObservers();
+        this.room.markChanged(this);
+        this.width = width;
+        this.room.reindexBlock(this);
     }
 
     /**
@@ -161,7 +213,7 @@ public class Block extends GameEntity implements Drawable {
      * @return The height.
      */
     public double getHeight() {
-        return this.blockFrame.getHeight();
+        return height;
     }
 
     /**
@@ -171,7 +223,8 @@ public class Block extends GameEntity implements Drawable {
      */
     public void setHeight(double height) {
         if (getHeight() == height) return;
-        this.blockFrame.setHeight(height);
-        notifyObservers();
+        this.room.markChanged(this);
+        this.height = height;
+        this.room.reindexBlock(this);
     }
 }
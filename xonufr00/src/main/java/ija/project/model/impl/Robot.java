@@ -4,79 +4,128 @@
  */
 package ija.project.model.impl;
 
-import ija.project.ui.view.Drawable;
+import ija.project.engine.Intersections;
+import ija.project.engine.PathPlanner;
+import ija.project.engine.RobotStore;
+import ija.project.model.Collider;
 import ija.project.model.GameEntity;
 import ija.project.model.enums.RobotMode;
-import javafx.scene.shape.*;
-import javafx.scene.transform.Rotate;
-import javafx.scene.transform.Transform;
-import javafx.scene.transform.Translate;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Represents a robot entity within a room environment. This class encapsulates the robot's
  * behavior, including movement, rotation, and obstacle detection.
+ * The robot keeps its geometry as plain numeric state, so it can be simulated without the JavaFX toolkit.
+ * The state itself lives in a slot of the room's {@link RobotStore}; the robot is a handle to that slot.
+ * Until the robot is added to its room, the state lives in a store of its own, so robots that are only
+ * created, for example to test a placement, do not take slots of the room.
+ *
+ * Collision work is event-driven. After checking its surroundings, the robot computes how long it can
+ * move before it could touch or detect anything, assuming other robots approach at the room's highest
+ * speed. Until that time runs out, the robot advances without any collision queries.
+ *
+ * In {@link RobotMode#GOAL} mode the robot follows a route to its goal point planned by the room's
+ * {@link PathPlanner}. The route is kept until the robot's goal, position or size is edited, or the blocks
+ * of the room change, so most steps only turn towards the next waypoint and move. The room searches
+ * a bounded number of routes per update; until its turn comes, the robot keeps following its outdated route,
+ * or stays where it is if it has none.
  */
 @Slf4j
-public class Robot extends GameEntity implements Drawable {
+public class Robot extends GameEntity implements Collider {
     
     /**
-     * The mode of operation for the robot, either AI (autonomous) or USER (manual control).
+     * The operation modes indexed by their ordinals, as stored in the robot store.
      */
-    @NonNull
-    private RobotMode mode = RobotMode.AI;
+    private static final RobotMode[] MODES = RobotMode.values();
 
     /**
-     * The room environment in which the robot is placed.
+     * The gap left between a robot stopped at the first contact and the obstacle, so rounding errors
+     * do not make the robot overlap the obstacle it touches.
      */
-    @NonNull
-    private final Room room;
+    private static final double CONTACT_SKIN = 1e-6;
 
     /**
-     * The graphical representation of the robot.
+     * The longest distance a robot is scheduled ahead, in multiples of its reach.
+     * Bounds the area searched for obstacles when the robot checks its surroundings.
      */
-    @NonNull
-    private final Ellipse robotFrame;
+    private static final double LOOKAHEAD_REACHES = 2;
+
+    /**
+     * The number of steps a robot waits before it checks again whether it can move freely, after it found
+     * itself close to an obstacle. Until then it checks for collisions and detections in every step.
+     */
+    private static final int RETRY_STEPS = 8;
 
     /**
-     * The graphical representation of the robot's detection arc.
+     * The distance at which a robot in GOAL mode has reached a waypoint of its route.
+     */
+    private static final double WAYPOINT_TOLERANCE = 1e-3;
+
+    /**
+     * The largest difference between the heading of a robot in GOAL mode and the direction to its next
+     * waypoint in degrees that is corrected at once; larger differences are turned at the rotation speed.
+     */
+    private static final double ALIGNMENT_DEGREES = 1;
+
+    /**
+     * The route of a robot that has no route to its goal.
+     */
+    private static final double[] NO_ROUTE = new double[0];
+
+    /**
+     * The distance a robot in GOAL mode drives aside after it is blocked, in multiples of its radius.
+     */
+    private static final double DETOUR_RADII = 2;
+
+    /**
+     * The number of rays a robot in AI mode casts across its detection arc to choose the direction of a turn.
+     * An odd number, so one ray follows the heading.
+     */
+    private static final int TURN_SCAN_RAYS = 7;
+
+    /**
+     * The room environment in which the robot is placed.
      */
     @NonNull
-    private final Arc detectionArc;
+    private final Room room;
 
     /**
-     * The speed of the robot in units per second.
+     * The store holding the numeric state of the robot: a store of its own until the robot is added to
+     * its room, then the room's store.
      */
-    private double speedPerSecond;
+    @NonNull
+    private RobotStore<Robot> store;
 
     /**
-     * The speed of the robot's rotation in degrees per second.
+     * The index of the robot's slot in the store.
      */
-    private double rotationSpeedPerSecInDegrees;
+    private int index;
 
     /**
-     * The degree increment for each rotation sample.
+     * The waypoints of the route to the goal in GOAL mode as consecutive X and Y coordinates,
+     * or null if the route has not been planned yet.
      */
-    private double rotationDegreeSample;
+    private double[] route;
 
     /**
-     * The current angle of the robot in degrees.
+     * The index of the next waypoint of the route.
      */
-    private double robotCurrentAngle;
+    private int routeStep;
 
     /**
-     * The remaining degrees the robot has to rotate to reach its target angle.
+     * The version of the room's planner the route was planned for.
      */
-    private double leftToRotate;
-    
+    private int routeVersion;
+
     /**
-     * Flag indicating whether the robot should stop moving.
+     * The distance left to drive aside in GOAL mode before the route is planned again, zero if the robot
+     * follows its route.
      */
-    private boolean stopMovement;
+    private double detour;
 
     /**
      * Constructs a new Robot within a specified room environment with given parameters.
@@ -98,11 +147,9 @@ public class Robot extends GameEntity implements Drawable {
                  double detectionArcRadius, double detectionArcExtent,
                  double rotationDegreeSample, double speedPerSecond, double rotationSpeedPerSecInDegrees) {
         this.room = environment;
-
-        this.robotFrame = new Ellipse();
-        this.detectionArc = new Arc();
-        this.detectionArc.setType(ArcType.ROUND);
-        this.leftToRotate = 0;
+        this.store = new RobotStore<>(1);
+        this.index = store.allocate(this);
+        store.setMode(index, RobotMode.AI.ordinal());
 
         setSpeedPerSecond(speedPerSecond);
         setRotationSpeedPerSecInDegrees(rotationSpeedPerSecInDegrees);
@@ -119,60 +166,403 @@ public class Robot extends GameEntity implements Drawable {
 
         stopMovement();
         pause();
-
-        this.room.notifyObservers();
     }
 
     /**
      * Updates the robot's state based on the elapsed time since the last update.
+     * Equivalent to planning the next step and committing it immediately.
      *
      * @param deltaNanos The elapsed time since the last update in nanoseconds.
      */
     @Override
     public void update(long deltaNanos) {
+        planStep(deltaNanos, false);
+        commitStep(deltaNanos, false);
+    }
+
+    /**
+     * Computes the robot's pose after the elapsed time without changing the robot.
+     * The plan is based on the current state of the room only, so the planning of different robots
+     * can run concurrently as long as no entity of the room is modified at the same time. Only the route
+     * and the detour of a robot in GOAL mode are updated, which no other robot reads.
+     * The planned pose is applied by {@link #commitStep(long)}.
+     *
+     * @param deltaNanos The elapsed time since the last update in nanoseconds.
+     */
+    public void planStep(long deltaNanos) {
+        planStep(deltaNanos, true);
+    }
+
+    /**
+     * Computes the robot's pose after the elapsed time without changing the robot.
+     *
+     * @param deltaNanos The elapsed time since the last update in nanoseconds.
+     * @param cached     If true, the cached detection status is used, which is only up to date while no robot
+     *                   has moved since the last update of the room.
+     */
+    private void planStep(long deltaNanos, boolean cached) {
+        var store = this.store;
+        var i = index;
+        var centerX = store.getX(i);
+        var centerY = store.getY(i);
+        var angle = store.getAngle(i);
+        store.setNextX(i, centerX);
+        store.setNextY(i, centerY);
+        store.setNextAngle(i, angle);
+        store.setNextLeftToRotate(i, store.getLeftToRotate(i));
+
         if (isPaused()) return;
 
         if (isRotating()) {
-            var frameDegree = Math.abs(rotationSpeedPerSecInDegrees * deltaNanos / 1e9);
-            frameDegree = Math.min(Math.abs(leftToRotate), frameDegree);
-            if (leftToRotate < 0) frameDegree *= -1;
-            rotateOnAngle(frameDegree);
-            leftToRotate -= frameDegree;
+            planRotation(deltaNanos);
+            return;
+        }
+
+        var mode = getMode();
+        if (mode == RobotMode.GOAL) {
+            planGoalStep(deltaNanos);
+            return;
+        }
+
+        var stopped = store.hasFlag(i, RobotStore.FLAG_STOPPED);
+        var speed = stopped && mode == RobotMode.USER ? 0 : store.getSpeed(i);
+        var distance = speed * deltaNanos / 1e9;
+        var radians = Math.toRadians(-angle);
+        var dx = distance * Math.cos(radians);
+        var dy = distance * Math.sin(radians);
+
+        // The robot only checks its surroundings when its free time runs out, that is at its next event.
+        // A negative free time counts the steps until a robot close to an obstacle checks them again.
+        var freeTime = store.getFreeVersion(i) == room.getScheduleVersion() ? store.getFreeTime(i) : 0;
+        if (freeTime >= 0 && freeTime < deltaNanos) freeTime = scheduleNextEvent(centerX, centerY, speed, deltaNanos);
+        var free = freeTime >= deltaNanos;
+        store.setFlag(i, RobotStore.FLAG_FREE, free);
+        store.setFreeTime(i, free ? freeTime - deltaNanos : Math.min(0, freeTime + deltaNanos),
+                room.getScheduleVersion());
+        if (free) {
+            store.setNextX(i, centerX + dx);
+            store.setNextY(i, centerY + dy);
+            return;
+        }
+
+        if (cached ? hasDetected() : detectsObstacle()) {
+            if (mode == RobotMode.AI) planTurn(deltaNanos);
+            return;
+        }
+
+        var t = timeOfImpact(centerX, centerY, dx, dy);
+        var fraction = reachableFraction(t, distance);
+        store.setNextX(i, centerX + fraction * dx);
+        store.setNextY(i, centerY + fraction * dy);
+        if (t < 1 && mode == RobotMode.AI) planTurn(deltaNanos);
+    }
+
+    /**
+     * Plans a step along the route to the goal: turns towards the next waypoint, then moves to it, up to the first
+     * contact with an obstacle. The robot does not use its free time in this mode, its moves are always swept.
+     * A robot without a route to its goal stays where it is. A blocked robot gives way: it turns by its rotation
+     * sample and drives aside for a while, then waits for a new route from where it is.
+     *
+     * @param deltaNanos The elapsed time since the last update in nanoseconds.
+     */
+    private void planGoalStep(long deltaNanos) {
+        var store = this.store;
+        var i = index;
+        store.setFlag(i, RobotStore.FLAG_FREE, false);
+        if (detour > 0) {
+            planDetourStep(deltaNanos);
             return;
         }
+        var x = store.getX(i);
+        var y = store.getY(i);
+        var waypoint = nextWaypoint(x, y);
+        if (waypoint < 0) return;
 
-        var distance = speedPerSecond * deltaNanos / 1e9;
-        if (hasDetected() || !moveOnDistance(stopMovement && mode == RobotMode.USER ? 0 : distance)) {
-            if (mode == RobotMode.AI) {
-                turn();
-                update(deltaNanos);
+        var toX = route[2 * waypoint] - x;
+        var toY = route[2 * waypoint + 1] - y;
+        var angle = store.getAngle(i);
+        var turn = Math.IEEEremainder(-Math.toDegrees(Math.atan2(toY, toX)) - angle, 360);
+        if (Math.abs(turn) > ALIGNMENT_DEGREES) {
+            store.setNextLeftToRotate(i, turn);
+            planRotation(deltaNanos);
+            return;
+        }
+        store.setNextAngle(i, angle + turn);
+
+        var remaining = Math.hypot(toX, toY);
+        var distance = Math.min(Math.abs(store.getSpeed(i)) * deltaNanos / 1e9, remaining);
+        if (!(distance > 0)) return;
+        var dx = toX * (distance / remaining);
+        var dy = toY * (distance / remaining);
+        var t = timeOfImpact(x, y, dx, dy);
+        var fraction = reachableFraction(t, distance);
+        store.setNextX(i, x + fraction * dx);
+        store.setNextY(i, y + fraction * dy);
+        if (t < 1) {
+            detour = DETOUR_RADII * store.getRadius(i);
+            planTurn(deltaNanos);
+        }
+    }
+
+    /**
+     * Plans a step of the detour of a blocked robot in GOAL mode: moves straight ahead up to the first contact
+     * and turns again if blocked. The route is dropped once the detour is driven, so it is planned again.
+     *
+     * @param deltaNanos The elapsed time since the last update in nanoseconds.
+     */
+    private void planDetourStep(long deltaNanos) {
+        var store = this.store;
+        var i = index;
+        var x = store.getX(i);
+        var y = store.getY(i);
+        var distance = Math.min(Math.abs(store.getSpeed(i)) * deltaNanos / 1e9, detour);
+        var radians = Math.toRadians(-store.getAngle(i));
+        var dx = distance * Math.cos(radians);
+        var dy = distance * Math.sin(radians);
+        var t = timeOfImpact(x, y, dx, dy);
+        var fraction = reachableFraction(t, distance);
+        store.setNextX(i, x + fraction * dx);
+        store.setNextY(i, y + fraction * dy);
+        if (t < 1) {
+            planTurn(deltaNanos);
+        } else if (!((detour -= distance) > 0)) {
+            resetRoute();
+        }
+    }
+
+    /**
+     * Drops the route to the goal and the detour, so the room plans the route again.
+     */
+    private void resetRoute() {
+        route = null;
+        detour = 0;
+    }
+
+    /**
+     * Checks if the robot in GOAL mode is missing its route or follows one planned before the blocks of the
+     * room changed. A paused robot or one driving a detour does not need a route, as it drops its route
+     * after the detour.
+     *
+     * @return True if the room should plan the route of the robot, false otherwise.
+     */
+    boolean needsRoute() {
+        if (getMode() != RobotMode.GOAL || isPaused() || detour > 0) return false;
+        return route == null || routeVersion != room.getPathPlanner().getVersion();
+    }
+
+    /**
+     * Plans the route to the goal in GOAL mode if the robot {@link #needsRoute() needs} one. Called by the room
+     * before the robots plan their steps, so the searches are bounded per update. Robots plan their routes
+     * independently of each other, so the room may plan several routes in parallel.
+     */
+    void planRoute() {
+        if (!needsRoute()) return;
+        var planner = room.getPathPlanner();
+        var planned = planner.findRoute(store.getX(index), store.getY(index), store.getGoalX(index),
+                store.getGoalY(index), store.getRadius(index));
+        route = planned != null ? planned : NO_ROUTE;
+        routeStep = 0;
+        routeVersion = planner.getVersion();
+    }
+
+    /**
+     * Finds the next waypoint of the route to the goal. Waypoints the robot has reached are skipped.
+     * An outdated route is followed until the room plans a new one.
+     *
+     * @param x The X coordinate of the robot's center.
+     * @param y The Y coordinate of the robot's center.
+     * @return The index of the next waypoint, or -1 if the goal is reached, cannot be reached or the route
+     *         has not been planned yet.
+     */
+    private int nextWaypoint(double x, double y) {
+        if (route == null) return -1;
+        while (2 * routeStep < route.length
+                && Math.hypot(route[2 * routeStep] - x, route[2 * routeStep + 1] - y) <= WAYPOINT_TOLERANCE) {
+            routeStep++;
+        }
+        return 2 * routeStep < route.length ? routeStep : -1;
+    }
+
+    /**
+     * Applies the pose computed by the last {@link #planStep(long)}.
+     * Robots committed earlier in the same step may have moved into the planned path; in that case
+     * the robot only moves up to the first contact and, in AI mode, starts turning as if it was blocked
+     * while planning.
+     *
+     * @param deltaNanos The elapsed time since the last update in nanoseconds.
+     */
+    public void commitStep(long deltaNanos) {
+        commitStep(deltaNanos, true);
+    }
+
+    /**
+     * Applies the pose computed by the last {@link #planStep(long)}.
+     *
+     * @param deltaNanos       The elapsed time since the last update in nanoseconds.
+     * @param resolveConflicts If true, the planned position is checked against the current state of the room.
+     */
+    private void commitStep(long deltaNanos, boolean resolveConflicts) {
+        var store = this.store;
+        var i = index;
+        var nextX = store.getNextX(i);
+        var nextY = store.getNextY(i);
+        if (nextX != store.getX(i) || nextY != store.getY(i)) {
+            if (resolveConflicts && !store.hasFlag(i, RobotStore.FLAG_FREE)) {
+                var x = store.getX(i);
+                var y = store.getY(i);
+                var dx = nextX - x;
+                var dy = nextY - y;
+                var t = timeOfImpact(x, y, dx, dy);
+                if (t < 1) {
+                    var fraction = reachableFraction(t, Math.hypot(dx, dy));
+                    nextX = x + fraction * dx;
+                    nextY = y + fraction * dy;
+                    store.setNextX(i, nextX);
+                    store.setNextY(i, nextY);
+                    if (getMode() == RobotMode.AI) planTurn(deltaNanos);
+                }
             }
+            moveTo(nextX, nextY);
+        }
+        if (store.getNextAngle(i) != store.getAngle(i)) {
+            setRobotCurrentAngle(store.getNextAngle(i));
+        }
+        if (store.getNextLeftToRotate(i) != store.getLeftToRotate(i)) {
+            this.room.markChanged(this);
+            store.setLeftToRotate(i, store.getNextLeftToRotate(i));
         }
     }
 
+    /**
+     * Plans the start of a turn towards the clearest direction of the detection arc, followed by the rotation
+     * for this step. The robot turns by the rotation degree sample instead if no direction is clear or
+     * the heading itself is the clearest, as the detected obstacle is then beside the rays.
+     *
+     * @param deltaNanos The elapsed time since the last update in nanoseconds.
+     */
+    private void planTurn(long deltaNanos) {
+        var turn = findClearestHeading(TURN_SCAN_RAYS) - store.getAngle(index);
+        if (Double.isNaN(turn) || Math.abs(turn) <= 0.1) turn = store.getRotationSample(index);
+        store.setNextLeftToRotate(index, turn);
+        if (Math.abs(turn) > 0.1) planRotation(deltaNanos);
+    }
+
+    /**
+     * Plans the rotation towards the target angle for the elapsed time.
+     *
+     * @param deltaNanos The elapsed time since the last update in nanoseconds.
+     */
+    private void planRotation(long deltaNanos) {
+        var nextLeftToRotate = store.getNextLeftToRotate(index);
+        var frameDegree = Math.abs(store.getRotationSpeed(index) * deltaNanos / 1e9);
+        frameDegree = Math.min(Math.abs(nextLeftToRotate), frameDegree);
+        if (nextLeftToRotate < 0) frameDegree *= -1;
+        store.setNextAngle(index, store.getAngle(index) + frameDegree);
+        store.setNextLeftToRotate(index, nextLeftToRotate - frameDegree);
+    }
+
     /**
      * Moves the robot a specified distance in the direction it is currently facing.
+     * If an obstacle or a wall is in the way, the robot moves up to the first contact with it.
      *
      * @param distance The distance to move the robot.
-     * @return True if the robot moved successfully, false if it collided with an obstacle.
+     * @return True if the robot moved the whole distance, false if it was stopped by an obstacle.
      */
     public boolean moveOnDistance(double distance) {
+        var radians = Math.toRadians(-store.getAngle(index));
+        var x = store.getX(index);
+        var y = store.getY(index);
+        var dx = distance * Math.cos(radians);
+        var dy = distance * Math.sin(radians);
 
-        var radians = Math.toRadians(-robotCurrentAngle);
-        var incrementX = distance * Math.cos(radians);
-        var incrementY = distance * Math.sin(radians);
+        var t = timeOfImpact(x, y, dx, dy);
+        var fraction = reachableFraction(t, Math.abs(distance));
+        if (fraction > 0) {
+            setCenterX(x + fraction * dx);
+            setCenterY(y + fraction * dy);
+        }
+        return t >= 1;
+    }
 
-        setCenterX(getCenterX() + incrementX);
-        setCenterY(getCenterY() + incrementY);
+    /**
+     * Computes how far the robot gets along a motion before it touches a wall or an obstacle.
+     * The whole path is swept at once, so fast robots cannot pass through thin obstacles. If the distance
+     * field proves the swept path is clear of blocks, only the robots around it are tested.
+     *
+     * @param x  The X coordinate of the robot's center at the start of the motion.
+     * @param y  The Y coordinate of the robot's center at the start of the motion.
+     * @param dx The X component of the motion.
+     * @param dy The Y component of the motion.
+     * @return The fraction of the motion in [0, 1] done before the first contact, 1 if there is none.
+     */
+    public double timeOfImpact(double x, double y, double dx, double dy) {
+        var r = store.getRadius(index);
+        var impact = new double[]{room.wallImpact(x, y, r, dx, dy)};
+        Consumer<Collider> sweep = c -> {
+            if (c != this) impact[0] = Math.min(impact[0], c.sweepCircle(x, y, r, dx, dy));
+        };
+        var minX = Math.min(x, x + dx) - r;
+        var minY = Math.min(y, y + dy) - r;
+        var maxX = Math.max(x, x + dx) + r;
+        var maxY = Math.max(y, y + dy) + r;
+        if (room.getBlockDistance(x, y) > r + Math.hypot(dx, dy)) room.forEachRobot(minX, minY, maxX, maxY, sweep);
+        else room.forEachCollider(minX, minY, maxX, maxY, sweep);
+        return impact[0];
+    }
 
-        if (isOutOfRoom() || isColliding()) {
-            setCenterX(getCenterX() - incrementX);
-            setCenterY(getCenterY() - incrementY);
-            this.room.notifyObservers();
-            return false;
+    /**
+     * Computes how long the robot can move from the specified position before it could touch or detect
+     * anything, that is the time of its next event. Blocks and walls are static, so the robot closes
+     * the gap to them at its own speed; the gap to another robot closes at most at the robot's speed plus
+     * the highest speed in the room.
+     *
+     * @param x          The X coordinate of the robot's center.
+     * @param y          The Y coordinate of the robot's center.
+     * @param speed      The speed the robot moves at in units per second.
+     * @param deltaNanos The length of the current step in nanoseconds.
+     * @return The free time in nanoseconds, or the negative time to wait before the next check
+     *         if the robot cannot move freely in the current step.
+     */
+    private long scheduleNextEvent(double x, double y, double speed, long deltaNanos) {
+        var reach = Math.max(store.getRadius(index), store.getArcRadius(index)) + CONTACT_SKIN;
+        var closing = speed + room.getMaxSpeed();
+        var lookahead = reach * LOOKAHEAD_REACHES;
+        var search = reach + lookahead;
+        var walls = Math.min(Math.min(x, room.getWidth() - x), Math.min(y, room.getHeight() - y));
+
+        // The smallest gaps to a static collider and to a robot. Colliders beyond the searched area
+        // are farther than the lookahead.
+        var gaps = new double[]{Math.min(walls - reach, lookahead), lookahead};
+        Consumer<Collider> measure = c -> {
+            if (c == this) return;
+            var gap = c.distanceTo(x, y) - reach;
+            if (c instanceof Robot) gaps[1] = Math.min(gaps[1], gap);
+            else gaps[0] = Math.min(gaps[0], gap);
+        };
+        // Blocks beyond the clearance of the position are farther than the lookahead.
+        if (room.getBlockDistance(x, y) > search) {
+            room.forEachRobot(x - search, y - search, x + search, y + search, measure);
+        } else {
+            room.forEachCollider(x - search, y - search, x + search, y + search, measure);
         }
-        this.room.notifyObservers();
-        return true;
+
+        var seconds = Math.min(gaps[0] / speed, gaps[1] / closing);
+        var nanos = seconds > 0 ? (long) Math.min(seconds * 1e9, Long.MAX_VALUE) : 0;
+        return nanos >= deltaNanos ? nanos : -RETRY_STEPS * deltaNanos;
+    }
+
+    /**
+     * Computes the fraction of a motion the robot actually travels, keeping it
+     * {@link #CONTACT_SKIN} away from the obstacle it hits.
+     *
+     * @param t        The time of impact of the motion.
+     * @param distance The length of the motion.
+     * @return The travelled fraction of the motion.
+     */
+    private static double reachableFraction(double t, double distance) {
+        if (t >= 1) return 1;
+        if (distance == 0) return 0;
+        return Math.max(0, t - CONTACT_SKIN / distance);
     }
 
     /**
@@ -182,8 +572,9 @@ public class Robot extends GameEntity implements Drawable {
      */
     public void turn(boolean reverseSample) {
         if (isRotating()) return;
-        leftToRotate = this.rotationDegreeSample;
-        if (reverseSample) leftToRotate *= -1;
+        this.room.markChanged(this);
+        var sample = store.getRotationSample(index);
+        store.setLeftToRotate(index, reverseSample ? -sample : sample);
     }
 
     /**
@@ -194,70 +585,186 @@ public class Robot extends GameEntity implements Drawable {
     }
 
     /**
-     * Rotates the robot on a specified angle in degrees.
+     * Checks if the robot is colliding with any obstacles in the room.
+     * The result is computed by the room after every update and is only recomputed here after an edit.
      *
-     * @param rotationAngleInDegrees The angle in degrees to rotate the robot.
+     * @return True if the robot is colliding, false otherwise.
      */
-    private void rotateOnAngle(double rotationAngleInDegrees) {
-        setRobotCurrentAngle(getRobotCurrentAngle() + rotationAngleInDegrees);
-        //applyTransform(new Rotate(rotationAngleInDegrees, getCenterX(), getCenterY()));
-        this.room.notifyObservers();
+    public boolean isColliding() {
+        var version = room.getStatusVersion();
+        if (store.isStatusKnown(index, RobotStore.STATUS_COLLIDING, version))
+            return store.hasStatus(index, RobotStore.STATUS_COLLIDING);
+        var colliding = isCollidingAt(store.getX(index), store.getY(index));
+        store.setStatus(index, RobotStore.STATUS_COLLIDING, colliding, version);
+        return colliding;
     }
 
     /**
-     * Applies a transformation to the robot's graphical representation.
+     * Checks if the robot would collide with any obstacle if its center was at the specified position.
+     * The distance field of the room answers the test against blocks in constant time unless the robot
+     * is close to the edge of a block.
      *
-     * @param transform The transformation to apply.
+     * @param x The X coordinate of the tested center.
+     * @param y The Y coordinate of the tested center.
+     * @return True if the robot would collide, false otherwise.
      */
-    private void applyTransform(@NonNull Transform transform) {
-        this.robotFrame.getTransforms().add(transform);
-        this.detectionArc.getTransforms().add(transform);
+    public boolean isCollidingAt(double x, double y) {
+        var r = store.getRadius(index);
+        var blockDistance = room.getBlockDistance(x, y);
+        if (blockDistance < 0 && r > 0) return true;
+        Predicate<Collider> overlaps = c -> c != this && c.intersectsCircle(x, y, r);
+        if (blockDistance > r) return room.anyRobot(x - r, y - r, x + r, y + r, overlaps);
+        return room.anyCollider(x - r, y - r, x + r, y + r, overlaps);
     }
 
     /**
-     * Checks if the robot is colliding with any obstacles in the room.
+     * Checks if the robot can be placed at the specified position, inside the room and without collisions.
      *
-     * @return True if the robot is colliding, false otherwise.
+     * @param x The X coordinate of the tested center.
+     * @param y The Y coordinate of the tested center.
+     * @return True if the position is free, false otherwise.
      */
-    public boolean isColliding() {
-        var shapes = room.getColliders();
-
-        for (var s : shapes) {
-            if (s == this.getRobotFrame()) continue;
-            var res = (Path) Shape.intersect(s, this.getRobotFrame());
-            if (!res.getElements().isEmpty()) return true;
-        }
-        return false;
+    public boolean canMoveTo(double x, double y) {
+        return !isOutOfRoomAt(x, y) && !isCollidingAt(x, y);
     }
 
     /**
      * Checks if the robot's detection arc intersects with any obstacles in the room.
+     * The result is computed by the room after every update and is only recomputed here after an edit.
      *
      * @return True if an obstacle is detected, false otherwise.
      */
     public boolean hasDetected() {
-        var shapes = room.getColliders();
+        var version = room.getStatusVersion();
+        if (store.isStatusKnown(index, RobotStore.STATUS_DETECTED, version))
+            return store.hasStatus(index, RobotStore.STATUS_DETECTED);
+        var detected = detectsObstacle();
+        store.setStatus(index, RobotStore.STATUS_DETECTED, detected, version);
+        return detected;
+    }
+
+    /**
+     * Computes the collision, detection and out of room statuses of the robot for the current version.
+     * Called by the room once the robots of an update have moved.
+     */
+    void refreshStatus() {
+        var version = room.getStatusVersion();
+        var x = store.getX(index);
+        var y = store.getY(index);
+        store.setStatus(index, RobotStore.STATUS_COLLIDING, isCollidingAt(x, y), version);
+        store.setStatus(index, RobotStore.STATUS_DETECTED, detectsObstacle(), version);
+        store.setStatus(index, RobotStore.STATUS_OUT_OF_ROOM, isOutOfRoomAt(x, y), version);
+    }
+
+    /**
+     * Tests the detection arc against the colliders of the room, without the cache of {@link #hasDetected()}.
+     *
+     * @return True if an obstacle is detected, false otherwise.
+     */
+    public boolean detectsObstacle() {
+        var x = store.getX(index);
+        var y = store.getY(index);
+        var r = store.getArcRadius(index);
+        var startAngle = getArcStartAngle();
+        var extent = store.getArcExtent(index);
+        Predicate<Collider> detects = c -> c != this && c.intersectsSector(x, y, r, startAngle, extent);
+        if (room.getBlockDistance(x, y) > r) return room.anyRobot(x - r, y - r, x + r, y + r, detects);
+        return room.anyCollider(x - r, y - r, x + r, y + r, detects);
+    }
+
+    /**
+     * Measures the distance from the robot's center to the nearest obstacle or wall in a direction.
+     * The sensor casts a ray as far as the detection arc reaches, so the cost depends only on the
+     * colliders near the ray.
+     *
+     * @param angle The direction of the ray in degrees.
+     * @return The distance to the nearest obstacle, or the radius of the detection arc if none is in reach.
+     */
+    public double senseDistance(double angle) {
+        var radians = Math.toRadians(-angle);
+        return room.castRay(store.getX(index), store.getY(index), Math.cos(radians), Math.sin(radians),
+                store.getArcRadius(index), c -> c != this);
+    }
+
+    /**
+     * Measures the distance from the robot's center to the nearest obstacle or wall along its heading.
+     *
+     * @return The distance to the nearest obstacle, or the radius of the detection arc if none is in reach.
+     */
+    public double getFreeDistance() {
+        return senseDistance(store.getAngle(index));
+    }
 
-        for (var s : shapes) {
-            if (s == this.getRobotFrame()) continue;
-            var res = (Path) Shape.intersect(s, this.getDetectionArc());
-            if (!res.getElements().isEmpty()) return true;
+    /**
+     * Scans the detection arc with rays spread evenly across its extent, from its start angle to its end.
+     * A single ray is cast along the heading.
+     *
+     * @param distances The array receiving the measured distances, one per ray. Its length sets the number of rays.
+     */
+    public void scanArc(@NonNull double[] distances) {
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = senseDistance(scanAngle(i, distances.length));
         }
-        return false;
+    }
+
+    /**
+     * Finds the direction within the detection arc in which no obstacle or wall is in reach of the arc.
+     * Of the clear directions, the one closest to the heading is chosen.
+     *
+     * @param rays The number of rays spread across the detection arc.
+     * @return The clearest direction in degrees, or NaN if every ray hits an obstacle within the arc.
+     */
+    public double findClearestHeading(int rays) {
+        var heading = store.getAngle(index);
+        var reach = store.getArcRadius(index);
+        var best = Double.NaN;
+        for (int i = 0; i < rays; i++) {
+            var angle = scanAngle(i, rays);
+            if (Double.isNaN(best) || Math.abs(angle - heading) < Math.abs(best - heading)) {
+                if (senseDistance(angle) >= reach) best = angle;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Computes the direction of a ray of an arc scan.
+     *
+     * @param ray  The index of the ray.
+     * @param rays The number of rays.
+     * @return The direction of the ray in degrees.
+     */
+    private double scanAngle(int ray, int rays) {
+        if (rays == 1) return store.getAngle(index);
+        return getArcStartAngle() + store.getArcExtent(index) * ray / (rays - 1);
     }
 
     /**
      * Checks if the robot is outside the boundaries of the room.
+     * The result is computed by the room after every update and is only recomputed here after an edit.
      *
      * @return True if the robot is out of the room, false otherwise.
      */
     public boolean isOutOfRoom() {
-        return !room.isPointInRoom(
-                getCenterX() + getRobotRadius(),
-                getCenterY() + getRobotRadius()) ||
-                !room.isPointInRoom(
-                        getCenterX() - getRobotRadius(),
-                        getCenterY() - getRobotRadius());
+        var version = room.getStatusVersion();
+        if (store.isStatusKnown(index, RobotStore.STATUS_OUT_OF_ROOM, version))
+            return store.hasStatus(index, RobotStore.STATUS_OUT_OF_ROOM);
+        var out = isOutOfRoomAt(store.getX(index), store.getY(index));
+        store.setStatus(index, RobotStore.STATUS_OUT_OF_ROOM, out, version);
+        return out;
+    }
+
+    /**
+     * Checks if the robot would be outside the boundaries of the room if its center was at the specified position.
+     *
+     * @param x The X coordinate of the tested center.
+     * @param y The Y coordinate of the tested center.
+     * @return True if the robot would be out of the room, false otherwise.
+     */
+    public boolean isOutOfRoomAt(double x, double y) {
+        var r = store.getRadius(index);
+        return !room.isPointInRoom(x + r, y + r) ||
+                !room.isPointInRoom(x - r, y - r);
     }
 
     /**
@@ -266,7 +773,7 @@ public class Robot extends GameEntity implements Drawable {
      * @return True if the robot is rotating, false otherwise.
      */
     public boolean isRotating() {
-        return Math.abs(leftToRotate) > 0.1;
+        return Math.abs(store.getLeftToRotate(index)) > 0.1;
     }
 
     /**
@@ -275,7 +782,7 @@ public class Robot extends GameEntity implements Drawable {
      * @return The X coordinate of the robot's center.
      */
     public double getCenterX() {
-        return this.robotFrame.getCenterX() + this.robotFrame.getTranslateX();
+        return store.getX(index);
     }
 
     /**
@@ -284,7 +791,7 @@ public class Robot extends GameEntity implements Drawable {
      * @return The Y coordinate of the robot's center.
      */
     public double getCenterY() {
-        return this.robotFrame.getCenterY() + this.robotFrame.getTranslateY();
+        return store.getY(index);
     }
 
     /**
@@ -293,7 +800,7 @@ public class Robot extends GameEntity implements Drawable {
      * @return The radius of the robot.
      */
     public double getRobotRadius() {
-        return this.robotFrame.getRadiusX();
+        return store.getRadius(index);
     }
 
     /**
@@ -302,7 +809,7 @@ public class Robot extends GameEntity implements Drawable {
      * @return The radius of the detection arc.
      */
     public double getArcRadius() {
-        return this.detectionArc.getRadiusX();
+        return store.getArcRadius(index);
     }
 
     /**
@@ -311,7 +818,7 @@ public class Robot extends GameEntity implements Drawable {
      * @return The extent of the detection arc in degrees.
      */
     public double getArcExtent() {
-        return this.detectionArc.getLength();
+        return store.getArcExtent(index);
     }
 
     /**
@@ -320,9 +827,9 @@ public class Robot extends GameEntity implements Drawable {
      * @param x The new X coordinate of the robot's center.
      */
     public void setCenterX(double x) {
-        this.robotFrame.setCenterX(x);
-        this.detectionArc.setCenterX(x);
-        this.room.notifyObservers();
+        moveTo(x, store.getY(index));
+        this.room.invalidateSchedule();
+        resetRoute();
     }
 
     /**
@@ -331,9 +838,22 @@ public class Robot extends GameEntity implements Drawable {
      * @param y The new Y coordinate of the robot's center.
      */
     public void setCenterY(double y) {
-        this.robotFrame.setCenterY(y);
-        this.detectionArc.setCenterY(y);
-        this.room.notifyObservers();
+        moveTo(store.getX(index), y);
+        this.room.invalidateSchedule();
+        resetRoute();
+    }
+
+    /**
+     * Moves the center of the robot as a part of a simulation step, keeping the schedule of the room.
+     *
+     * @param x The new X coordinate of the robot's center.
+     * @param y The new Y coordinate of the robot's center.
+     */
+    private void moveTo(double x, double y) {
+        this.room.markChanged(this);
+        store.setX(index, x);
+        store.setY(index, y);
+        this.room.reindexRobot(this);
     }
 
     /**
@@ -342,9 +862,11 @@ public class Robot extends GameEntity implements Drawable {
      * @param radius The new radius of the robot.
      */
     public void setRobotRadius(double radius) {
-        this.robotFrame.setRadiusX(radius);
-        this.robotFrame.setRadiusY(radius);
-        this.room.notifyObservers();
+        this.room.markChanged(this);
+        store.setRadius(index, radius);
+        this.room.reindexRobot(this);
+        this.room.invalidateSchedule();
+        resetRoute();
     }
 
     /**
@@ -353,9 +875,10 @@ public class Robot extends GameEntity implements Drawable {
      * @param radius The new radius of the detection arc.
      */
     public void setArcRadius(double radius) {
-        this.detectionArc.setRadiusX(radius);
-        this.detectionArc.setRadiusY(radius);
-        this.room.notifyObservers();
+        this.room.markChanged(this);
+        store.setArcRadius(index, radius);
+        this.room.reindexRobot(this);
+        this.room.invalidateSchedule();
     }
 
     /**
@@ -364,9 +887,8 @@ public class Robot extends GameEntity implements Drawable {
      * @param extent The new extent of the detection arc in degrees.
      */
     public void setArcExtent(double extent) {
-        this.detectionArc.setLength(extent);
-        this.detectionArc.setStartAngle(getRobotCurrentAngle() - extent / 2);
-        this.room.notifyObservers();
+        this.room.markChanged(this);
+        store.setArcExtent(index, extent);
     }
 
     /**
@@ -375,9 +897,8 @@ public class Robot extends GameEntity implements Drawable {
      * @param angle The new angle of the robot in degrees.
      */
     public void setRobotCurrentAngle(double angle) {
-        this.robotCurrentAngle = angle;
-        setArcExtent(getArcExtent());
-        this.room.notifyObservers();
+        this.room.markChanged(this);
+        store.setAngle(index, angle);
     }
 
     /**
@@ -385,7 +906,8 @@ public class Robot extends GameEntity implements Drawable {
      * This method sets the flag to stop the robot from moving further.
      */
     public void stopMovement() {
-        this.stopMovement = true;
+        store.setFlag(index, RobotStore.FLAG_STOPPED, true);
+        clearFreeTime();
     }
 
     /**
@@ -393,7 +915,8 @@ public class Robot extends GameEntity implements Drawable {
      * This method clears the flag that stops the robot, allowing it to move again.
      */
     public void startMovement() {
-        this.stopMovement = false;
+        store.setFlag(index, RobotStore.FLAG_STOPPED, false);
+        clearFreeTime();
     }
 
     /**
@@ -401,36 +924,94 @@ public class Robot extends GameEntity implements Drawable {
      * If the robot is currently moving, it will stop; if it is stopped, it will start moving.
      */
     public void toggleMovement() {
-        this.stopMovement = !this.stopMovement;
+        store.setFlag(index, RobotStore.FLAG_STOPPED, !store.hasFlag(index, RobotStore.FLAG_STOPPED));
+        clearFreeTime();
+    }
+
+    /**
+     * Makes the robot check its surroundings in its next step, after a change of its own motion.
+     */
+    private void clearFreeTime() {
+        store.setFreeTime(index, 0, store.getFreeVersion(index));
+    }
+
+    /**
+     * Gets the start angle of the robot's detection arc in degrees.
+     * The arc is centered on the robot's current heading.
+     *
+     * @return The start angle of the detection arc in degrees.
+     */
+    public double getArcStartAngle() {
+        return store.getAngle(index) - store.getArcExtent(index) / 2;
     }
 
     /**
-     * Returns a list of shapes representing the robot and its detection arc.
-     * This method is used for drawing the robot on the UI.
+     * Checks if the robot's frame overlaps a circle.
      *
-     * @return A list of shapes representing the robot and its detection arc.
+     * @param x      The X coordinate of the circle's center.
+     * @param y      The Y coordinate of the circle's center.
+     * @param radius The radius of the circle.
+     * @return True if the robot's frame and the circle share some area, false otherwise.
      */
     @Override
-    public List<Shape> getDrawableShapes() {
-        return new ArrayList<>(List.of(getRobotFrame(), getDetectionArc()));
+    public boolean intersectsCircle(double x, double y, double radius) {
+        return store.overlapsCircle(index, x, y, radius);
     }
 
     /**
-     * Gets the graphical representation of the robot.
+     * Checks if the robot's frame overlaps a circular sector.
      *
-     * @return The Ellipse shape representing the robot.
+     * @param x          The X coordinate of the sector's center.
+     * @param y          The Y coordinate of the sector's center.
+     * @param radius     The radius of the sector.
+     * @param startAngle The start angle of the sector in degrees.
+     * @param extent     The angular extent of the sector in degrees.
+     * @return True if the robot's frame and the sector share some area, false otherwise.
      */
-    public Ellipse getRobotFrame() {
-        return robotFrame;
+    @Override
+    public boolean intersectsSector(double x, double y, double radius, double startAngle, double extent) {
+        return store.overlapsSector(index, x, y, radius, startAngle, extent);
     }
 
     /**
-     * Gets the graphical representation of the robot's detection arc.
+     * Computes the time of impact of a circle moving along a vector with the robot's frame.
      *
-     * @return The Arc shape representing the robot's detection arc.
+     * @param x      The X coordinate of the circle's center at the start of the motion.
+     * @param y      The Y coordinate of the circle's center at the start of the motion.
+     * @param radius The radius of the circle.
+     * @param dx     The X component of the motion.
+     * @param dy     The Y component of the motion.
+     * @return The fraction of the motion done before the circle touches the robot, or {@link Intersections#NO_IMPACT}.
      */
-    public Arc getDetectionArc() {
-        return detectionArc;
+    @Override
+    public double sweepCircle(double x, double y, double radius, double dx, double dy) {
+        return store.sweepCircle(index, x, y, radius, dx, dy);
+    }
+
+    /**
+     * Computes the distance from a point to the robot's frame.
+     *
+     * @param x The X coordinate of the point.
+     * @param y The Y coordinate of the point.
+     * @return The distance, zero if the point lies inside the frame.
+     */
+    @Override
+    public double distanceTo(double x, double y) {
+        return store.distanceTo(index, x, y);
+    }
+
+    /**
+     * Computes the distance along a ray to the robot's frame.
+     *
+     * @param x    The X coordinate of the ray's origin.
+     * @param y    The Y coordinate of the ray's origin.
+     * @param dirX The X component of the ray's unit direction.
+     * @param dirY The Y component of the ray's unit direction.
+     * @return The distance, or {@link Intersections#NO_IMPACT} if the ray misses the robot.
+     */
+    @Override
+    public double castRay(double x, double y, double dirX, double dirY) {
+        return store.castRay(index, x, y, dirX, dirY);
     }
 
     /**
@@ -439,7 +1020,27 @@ public class Robot extends GameEntity implements Drawable {
      * @return The mode of operation, either AI (autonomous) or USER (manual control).
      */
     public RobotMode getMode() {
-        return mode;
+        return MODES[store.getMode(index)];
+    }
+
+    /**
+     * Gets the index of the robot's slot in the room's {@link RobotStore}.
+     *
+     * @return The index of the slot; meaningless until the robot is added to the room.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Moves the state of the robot into a slot of the room's store. Called when the robot is added to the room.
+     *
+     * @param target The room's store.
+     */
+    void attach(@NonNull RobotStore<Robot> target) {
+        if (store == target) return;
+        index = store.transfer(index, target);
+        store = target;
     }
 
     /**
@@ -457,7 +1058,7 @@ public class Robot extends GameEntity implements Drawable {
      * @return The speed of the robot.
      */
     public double getSpeedPerSecond() {
-        return speedPerSecond;
+        return store.getSpeed(index);
     }
 
     /**
@@ -466,7 +1067,7 @@ public class Robot extends GameEntity implements Drawable {
      * @return The rotation speed of the robot.
      */
     public double getRotationSpeedPerSecInDegrees() {
-        return rotationSpeedPerSecInDegrees;
+        return store.getRotationSpeed(index);
     }
 
     /**
@@ -475,7 +1076,7 @@ public class Robot extends GameEntity implements Drawable {
      * @return The rotation degree sample.
      */
     public double getRotationDegreeSample() {
-        return rotationDegreeSample;
+        return store.getRotationSample(index);
     }
 
     /**
@@ -484,7 +1085,7 @@ public class Robot extends GameEntity implements Drawable {
      * @return The current angle of the robot.
      */
     public double getRobotCurrentAngle() {
-        return robotCurrentAngle;
+        return store.getAngle(index);
     }
 
     /**
@@ -492,9 +1093,65 @@ public class Robot extends GameEntity implements Drawable {
      *
      * @param mode The new mode of operation.
      */
-    public void setMode(RobotMode mode) {
-        this.mode = mode;
-        this.room.notifyObservers();
+    public void setMode(@NonNull RobotMode mode) {
+        this.room.markChanged(this);
+        store.setMode(index, mode.ordinal());
+        clearFreeTime();
+        resetRoute();
+    }
+
+    /**
+     * Gets the X coordinate of the goal point the robot heads for in GOAL mode.
+     *
+     * @return The X coordinate of the goal.
+     */
+    public double getGoalX() {
+        return store.getGoalX(index);
+    }
+
+    /**
+     * Gets the Y coordinate of the goal point the robot heads for in GOAL mode.
+     *
+     * @return The Y coordinate of the goal.
+     */
+    public double getGoalY() {
+        return store.getGoalY(index);
+    }
+
+    /**
+     * Sets the goal point the robot heads for in GOAL mode.
+     * The route to it is planned by the room in one of the next updates.
+     *
+     * @param x The X coordinate of the goal.
+     * @param y The Y coordinate of the goal.
+     */
+    public void setGoal(double x, double y) {
+        this.room.markChanged(this);
+        store.setGoal(index, x, y);
+        resetRoute();
+    }
+
+    /**
+     * Checks if the robot has reached the end of its route to the goal: the goal itself, or the nearest
+     * reachable point if the goal lies in or next to a block. A robot with no route to its goal, or whose
+     * route has not been planned yet, has not reached it.
+     *
+     * @return True if the robot is at the end of its route.
+     */
+    public boolean hasReachedGoal() {
+        var x = store.getX(index);
+        var y = store.getY(index);
+        return route != null && route.length > 0 && nextWaypoint(x, y) < 0;
+    }
+
+    /**
+     * Checks if the robot may have a route to its goal, which is false once a search found that the goal or
+     * the robot is enclosed by blocks. A route that has not been planned yet counts as one.
+     *
+     * @return True if the robot has or waits for a route, even if it has already reached its end.
+     */
+    public boolean hasRoute() {
+        return route == null || route.length > 0;
     }
 
     /**
@@ -503,7 +1160,9 @@ public class Robot extends GameEntity implements Drawable {
      * @param speedPerSecond The new speed of the robot.
      */
     public void setSpeedPerSecond(double speedPerSecond) {
-        this.speedPerSecond = speedPerSecond;
+        store.setSpeed(index, speedPerSecond);
+        this.room.noteSpeed(Math.abs(speedPerSecond));
+        clearFreeTime();
     }
 
     /**
@@ -512,7 +1171,7 @@ public class Robot extends GameEntity implements Drawable {
      * @param rotationSpeedPerSecInDegrees The new rotation speed of the robot.
      */
     public void setRotationSpeedPerSecInDegrees(double rotationSpeedPerSecInDegrees) {
-        this.rotationSpeedPerSecInDegrees = rotationSpeedPerSecInDegrees;
+        store.setRotationSpeed(index, rotationSpeedPerSecInDegrees);
     }
 
     /**
@@ -521,6 +1180,6 @@ public class Robot extends GameEntity implements Drawable {
      * @param rotationDegreeSample The new rotation degree sample.
      */
     public void setRotationDegreeSample(double rotationDegreeSample) {
-        this.rotationDegreeSample = rotationDegreeSample;
+        store.setRotationSample(index, rotationDegreeSample);
     }
 }
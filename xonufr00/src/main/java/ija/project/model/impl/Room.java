@@ -4,15 +4,26 @@
  */
 package ija.project.model.impl;
 
+import ija.project.engine.BoundingVolumeHierarchy;
+import ija.project.engine.OccupancyGrid;
+import ija.project.engine.PathPlanner;
+import ija.project.engine.RobotStore;
+import ija.project.engine.SpatialHash;
+import ija.project.metrics.FrameMetrics;
+import ija.project.model.Collider;
 import ija.project.model.GameEntity;
-import javafx.scene.shape.Shape;
+import ija.project.model.enums.UpdateMode;
+import ija.project.observer.ChangeTracker;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashSet;
-import java.util.List;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.stream.Stream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Represents a room environment in a simulation. This class encapsulates the properties and behaviors
@@ -20,28 +31,163 @@ import java.util.stream.Stream;
  * 
  * The room is responsible for managing the state of its contained entities (blocks and robots),
  * including updating their states, adding new entities, and checking for collisions or entities
- * being out of bounds.
+ * being out of bounds. Robots are indexed in a spatial hash, so collision and detection queries only
+ * visit the neighbourhood of the querying robot. Blocks do not move while the simulation runs, so they
+ * form a separate static layer compiled into a bounding volume hierarchy, which is rebuilt only when
+ * a block is added or edited. The blocks are also rasterized into an occupancy grid with a distance field,
+ * so a robot far from every block skips the block layer in constant time; editing a block only updates
+ * the grid around it.
+ *
+ * The routes of robots in GOAL mode are searched by the room before the robots plan their steps, taking the
+ * robots in turns. The number of searches per update grows with the number of robots, so every robot gets its
+ * route within {@link #ROUTE_PLANNING_UPDATES} updates, yet a burst of re-plans, for example after a block is
+ * edited, is spread over several updates instead of stalling one of them.
+ *
+ * Robots in free motion are scheduled: a robot far from everything moves without collision queries until
+ * the time of its next event, the earliest time it could touch or detect anything. Adding or editing
+ * entities outside of the simulation step invalidates the schedule of all robots.
+ *
+ * Entities report their changes to the room instead of notifying observers directly. The room marks
+ * the changed entity and the robots around it dirty and notifies each of them once per frame.
  */
 @Slf4j
 public class Room extends GameEntity {
-    
+
+    /**
+     * The default length of the side of a spatial hash cell.
+     */
+    public static final double DEFAULT_CELL_SIZE = 64;
+
+    /**
+     * The default length of the side of an occupancy grid cell.
+     */
+    public static final double DEFAULT_OCCUPANCY_CELL_SIZE = 16;
+
+    /**
+     * The default smallest number of route searches run in one update.
+     */
+    public static final int DEFAULT_ROUTE_SEARCHES_PER_UPDATE = 8;
+
     /**
-     * A set of blocks contained within the room.
+     * The number of updates within which every robot waiting for a route gets it.
+     */
+    public static final int ROUTE_PLANNING_UPDATES = 60;
+
+    /**
+     * A set of blocks contained within the room, in insertion order.
      */
     @NonNull
     private final Set<Block> blocks;
 
     /**
-     * A set of robots contained within the room.
+     * A set of robots contained within the room, in insertion order.
      */
     @NonNull
     private final Set<Robot> robots;
 
+    /**
+     * The packed numeric state of all robots created for the room.
+     * The robots are updated in the order of their slots, that is in the order they were constructed,
+     * so a simulation run is reproducible.
+     */
+    @NonNull
+    private final RobotStore<Robot> robotStore;
+
+    /**
+     * The strategy used to update the robots in one step.
+     */
+    @NonNull
+    private UpdateMode updateMode;
+
+    /**
+     * The pool running the planning phase in {@link UpdateMode#PARALLEL} mode.
+     */
+    @NonNull
+    private ForkJoinPool pool;
+
     /**
      * The dimensions of the room.
      */
     private final double width, height;
 
+    /**
+     * The spatial index of all robots in the room.
+     */
+    @NonNull
+    private final SpatialHash<Robot> robotIndex;
+
+    /**
+     * The static layer of colliders, the hierarchy of all blocks in the room.
+     */
+    @NonNull
+    private BoundingVolumeHierarchy<Block> blockTree;
+
+    /**
+     * A flag indicating whether the blocks changed since the block tree was built.
+     */
+    private boolean blockTreeStale;
+
+    /**
+     * The occupancy grid and distance field of all blocks in the room.
+     */
+    @NonNull
+    private OccupancyGrid<Block> occupancy;
+
+    /**
+     * The blocks added or edited since the occupancy grid was updated.
+     */
+    @NonNull
+    private final Set<Block> occupancyChanges;
+
+    /**
+     * The planner of the routes of robots in GOAL mode over the occupancy grid.
+     */
+    @NonNull
+    private PathPlanner planner;
+
+    /**
+     * The smallest number of route searches run in one update.
+     */
+    private int routeSearchesPerUpdate = DEFAULT_ROUTE_SEARCHES_PER_UPDATE;
+
+    /**
+     * The slot of the robot whose route is checked first in the next update.
+     */
+    private int routeCursor;
+
+    /**
+     * The tracker of entities whose observers have to be notified at the end of the frame.
+     */
+    @NonNull
+    private final ChangeTracker<GameEntity> changes;
+
+    /**
+     * The largest distance at which a robot can sense or touch another entity.
+     * Used to find the robots affected by a change of an entity.
+     */
+    private double maxReach;
+
+    /**
+     * The highest speed a robot of the room has had, bounding how fast any two robots can approach.
+     */
+    private double maxSpeed;
+
+    /**
+     * The version of the robots' schedule. Free times computed for older versions are ignored.
+     */
+    private int scheduleVersion = 1;
+
+    /**
+     * The version of the cached robot statuses, increased once by every update after the robots have moved
+     * and by every change of an entity made outside an update. Statuses computed for older versions are ignored.
+     */
+    private int statusVersion = 1;
+
+    /**
+     * True while the room is being updated, when changes of the robots do not invalidate the statuses one by one.
+     */
+    private boolean updating;
+
     /**
      * Constructs a new Room with specified dimensions.
      *
@@ -49,8 +195,29 @@ public class Room extends GameEntity {
      * @param h The height of the room.
      */
     public Room(double w, double h) {
-        blocks = new HashSet<>();
-        robots = new HashSet<>();
+        this(w, h, DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Constructs a new Room with specified dimensions and spatial hash cell size.
+     * The cell size should be close to the size of the typical robot's detection arc.
+     *
+     * @param w        The width of the room.
+     * @param h        The height of the room.
+     * @param cellSize The length of the side of a spatial hash cell.
+     */
+    public Room(double w, double h, double cellSize) {
+        blocks = new LinkedHashSet<>();
+        robots = new LinkedHashSet<>();
+        robotStore = new RobotStore<>();
+        updateMode = UpdateMode.SEQUENTIAL;
+        pool = ForkJoinPool.commonPool();
+        robotIndex = new SpatialHash<>(cellSize);
+        blockTree = new BoundingVolumeHierarchy<>(new ArrayList<>(), new double[0]);
+        occupancy = new OccupancyGrid<>(w, h, DEFAULT_OCCUPANCY_CELL_SIZE);
+        occupancyChanges = new LinkedHashSet<>();
+        planner = new PathPlanner(occupancy);
+        changes = new ChangeTracker<>();
         this.width = w;
         this.height = h;
     }
@@ -62,18 +229,239 @@ public class Room extends GameEntity {
      */
     @Override
     public void update(long delta) {
-        for (var r : getRobots().stream().toList()) {
-            r.update(delta);// update the state of robots
+        var start = FrameMetrics.start();
+        ensureBlockTree();
+        ensureOccupancyGrid();
+        planRoutes();
+        updating = true;
+        switch (updateMode) {
+            case SEQUENTIAL -> {
+                for (int i = 0, n = robotStore.size(); i < n; i++) {
+                    if (robotStore.hasFlag(i, RobotStore.FLAG_ACTIVE))
+                        robotStore.getHandle(i).update(delta);// update the state of robots
+                }
+            }
+            case TWO_PHASE -> {
+                for (int i = 0, n = robotStore.size(); i < n; i++) {
+                    if (robotStore.hasFlag(i, RobotStore.FLAG_ACTIVE))
+                        robotStore.getHandle(i).planStep(delta);
+                }
+                commitSteps(delta);
+            }
+            case PARALLEL -> {
+                pool.invoke(new RobotTask(robotStore, 0, robotStore.size(), r -> r.planStep(delta)));
+                commitSteps(delta);
+            }
+        }
+        markChangedNeighbours();
+        statusVersion++;
+        refreshStatuses();
+        updating = false;
+        changes.flush();
+        FrameMetrics.ROOM_UPDATE.stop(start);
+    }
+
+    /**
+     * Computes the statuses of all robots for the current version, once the robots have moved.
+     * The views and the planning of the next update only read them. Robots that were not marked dirty
+     * by the update keep the statuses of the previous version.
+     */
+    private void refreshStatuses() {
+        Consumer<Robot> refresh = r -> {
+            if (changes.isDirty(r) || !robotStore.renewStatus(r.getIndex(), statusVersion - 1, statusVersion))
+                r.refreshStatus();
+        };
+        if (updateMode == UpdateMode.PARALLEL) {
+            pool.invoke(new RobotTask(robotStore, 0, robotStore.size(), refresh));
+            return;
+        }
+        for (int i = 0, n = robotStore.size(); i < n; i++) {
+            if (robotStore.hasFlag(i, RobotStore.FLAG_ACTIVE)) refresh.accept(robotStore.getHandle(i));
+        }
+    }
+
+    /**
+     * Searches the missing or outdated routes of robots in GOAL mode, taking the robots in turns from where
+     * the previous update stopped, until the {@link #getRouteBudget() budget} of the update is spent.
+     * The robots are chosen in the order of the slots and each route only depends on its robot, so the routes
+     * do not depend on the update mode; in {@link UpdateMode#PARALLEL} mode the chosen routes are searched
+     * by the pool.
+     */
+    private void planRoutes() {
+        var parallel = updateMode == UpdateMode.PARALLEL;
+        var requested = 0;
+        for (int visited = 0, n = robotStore.size(), budget = getRouteBudget(); visited < n && requested < budget;
+             visited++) {
+            if (routeCursor >= n) routeCursor = 0;
+            var i = routeCursor++;
+            if (!robotStore.hasFlag(i, RobotStore.FLAG_ACTIVE) || !robotStore.getHandle(i).needsRoute()) continue;
+            requested++;
+            if (parallel) robotStore.setFlag(i, RobotStore.FLAG_ROUTE_REQUESTED, true);
+            else robotStore.getHandle(i).planRoute();
+        }
+        if (parallel && requested > 0) {
+            pool.invoke(new RobotTask(robotStore, 0, robotStore.size(), r -> {
+                if (!robotStore.hasFlag(r.getIndex(), RobotStore.FLAG_ROUTE_REQUESTED)) return;
+                robotStore.setFlag(r.getIndex(), RobotStore.FLAG_ROUTE_REQUESTED, false);
+                r.planRoute();
+            }));
+        }
+    }
+
+    /**
+     * Gets the number of route searches run in the next update: the {@link #getRouteSearchesPerUpdate()
+     * smallest number}, or more in a room with many robots, so each robot waits at most
+     * {@link #ROUTE_PLANNING_UPDATES} updates for its route.
+     *
+     * @return The number of searches.
+     */
+    int getRouteBudget() {
+        var n = robotStore.size();
+        return Math.max(routeSearchesPerUpdate, (n + ROUTE_PLANNING_UPDATES - 1) / ROUTE_PLANNING_UPDATES);
+    }
+
+    /**
+     * Commits the planned steps of all robots in update order.
+     *
+     * @param delta The time in nanoseconds since the last update.
+     */
+    private void commitSteps(long delta) {
+        for (int i = 0, n = robotStore.size(); i < n; i++) {
+            if (robotStore.hasFlag(i, RobotStore.FLAG_ACTIVE))
+                robotStore.getHandle(i).commitStep(delta);
+        }
+    }
+
+    /**
+     * Applies an action to a range of robots, splitting the range between the workers of the pool.
+     * The action may only change the state of the robot it is applied to, for example plan its step.
+     * The tasks only live for one update and are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private static final class RobotTask extends RecursiveAction {
+        /**
+         * The number of robots handled by a single task without further splitting.
+         */
+        private static final int THRESHOLD = 256;
+
+        /**
+         * The store of the room's robots.
+         */
+        private final RobotStore<Robot> robots;
+
+        /**
+         * The range of robots handled by this task.
+         */
+        private final int from, to;
+
+        /**
+         * The action applied to every active robot of the range.
+         */
+        private final Consumer<Robot> action;
+
+        /**
+         * Constructs a new RobotTask for a range of robots.
+         *
+         * @param robots The store of the room's robots.
+         * @param from   The index of the first handled slot.
+         * @param to     The index after the last handled slot.
+         * @param action The action applied to every active robot of the range.
+         */
+        private RobotTask(RobotStore<Robot> robots, int from, int to, Consumer<Robot> action) {
+            this.robots = robots;
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        /**
+         * Handles the range directly or splits it into two halves.
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    if (robots.hasFlag(i, RobotStore.FLAG_ACTIVE)) action.accept(robots.getHandle(i));
+                }
+                return;
+            }
+            var mid = (from + to) >>> 1;
+            invokeAll(new RobotTask(robots, from, mid, action), new RobotTask(robots, mid, to, action));
+        }
+    }
+
+    /**
+     * Records that an entity is about to change or has changed its state.
+     * Must be called before the entity mutates, so the robots around its previous position are marked
+     * dirty as well; the robots around its final position are marked when the changes are flushed.
+     * Entities that were not added to the room are ignored. A change made outside an update invalidates
+     * the cached robot statuses, changes made by the update are covered by its refresh of the statuses.
+     *
+     * @param entity The entity that changes.
+     */
+    void markChanged(@NonNull GameEntity entity) {
+        if (!updating) statusVersion++;
+        if (!isContained(entity)) return;
+        if (changes.markChanged(entity)) markNeighbours(entity);
+    }
+
+    /**
+     * Notifies the observers of every entity changed since the last flush and of the robots affected
+     * by those changes. Each entity notifies its observers at most once.
+     */
+    public void flushChanges() {
+        markChangedNeighbours();
+        changes.flush();
+    }
+
+    /**
+     * Marks dirty the robots around the current positions of the entities changed since the last flush.
+     */
+    private void markChangedNeighbours() {
+        for (var e : changes.getChanged()) {
+            markNeighbours(e);
         }
     }
 
+    /**
+     * Marks dirty the robots whose collision or detection state may depend on the specified entity.
+     *
+     * @param entity The entity whose neighbourhood is marked.
+     */
+    private void markNeighbours(@NonNull GameEntity entity) {
+        double minX, minY, maxX, maxY;
+        if (entity instanceof Robot r) {
+            minX = r.getCenterX() - r.getRobotRadius();
+            minY = r.getCenterY() - r.getRobotRadius();
+            maxX = r.getCenterX() + r.getRobotRadius();
+            maxY = r.getCenterY() + r.getRobotRadius();
+        } else if (entity instanceof Block b) {
+            minX = b.getLeftTopX();
+            minY = b.getLeftTopY();
+            maxX = b.getLeftTopX() + b.getWidth();
+            maxY = b.getLeftTopY() + b.getHeight();
+        } else {
+            return;
+        }
+        robotIndex.forEach(minX - maxReach, minY - maxReach, maxX + maxReach, maxY + maxReach, r -> {
+            if (r != entity) changes.markDirty(r);
+        });
+    }
+
     /**
      * Adds a robot to the room.
      *
-     * @param robot The robot to be added to the room.
+     * @param robot The robot to be added to the room. Must have been constructed for this room.
+     * @throws IllegalArgumentException If the robot was constructed for another room.
      */
     public void addRobot(@NonNull Robot robot) {
-        robots.add(robot);
+        if (robot.getRoom() != this) throw new IllegalArgumentException("Robot belongs to another room");
+        if (!robots.add(robot)) return;
+        robot.attach(robotStore);
+        robotStore.setFlag(robot.getIndex(), RobotStore.FLAG_ACTIVE, true);
+        indexRobot(robot);
+        invalidateSchedule();
+        markChanged(robot);
     }
 
     /**
@@ -82,7 +470,188 @@ public class Room extends GameEntity {
      * @param block The block to be added to the room.
      */
     public void addBlock(@NonNull Block block) {
-        blocks.add(block);
+        if (!blocks.add(block)) return;
+        blockTreeStale = true;
+        occupancyChanges.add(block);
+        invalidateSchedule();
+        markChanged(block);
+    }
+
+    /**
+     * Updates the position of a robot in the spatial index after it moved or changed its size.
+     * Robots that were not added to the room are ignored.
+     *
+     * @param robot The robot that changed.
+     */
+    void reindexRobot(@NonNull Robot robot) {
+        if (robotIndex.contains(robot)) indexRobot(robot);
+    }
+
+    /**
+     * Records that a block moved or changed its size, so the block tree is rebuilt and the block
+     * is rasterized again before their next use.
+     * Blocks that were not added to the room are ignored.
+     *
+     * @param block The block that changed.
+     */
+    void reindexBlock(@NonNull Block block) {
+        if (!blocks.contains(block)) return;
+        blockTreeStale = true;
+        occupancyChanges.add(block);
+        invalidateSchedule();
+    }
+
+    /**
+     * Invalidates the free times of all robots, so each of them checks its surroundings in its next step.
+     * Called when an entity changes other than by a simulation step.
+     */
+    void invalidateSchedule() {
+        scheduleVersion++;
+    }
+
+    /**
+     * Records the speed of a robot, invalidating the schedule if robots can now approach faster.
+     *
+     * @param speed The speed of the robot in units per second.
+     */
+    void noteSpeed(double speed) {
+        if (speed <= maxSpeed) return;
+        maxSpeed = speed;
+        invalidateSchedule();
+    }
+
+    /**
+     * Gets the version of the robots' schedule.
+     *
+     * @return The version.
+     */
+    public int getScheduleVersion() {
+        return scheduleVersion;
+    }
+
+    /**
+     * Gets the version of the cached robot statuses.
+     *
+     * @return The version.
+     */
+    int getStatusVersion() {
+        return statusVersion;
+    }
+
+    /**
+     * Gets the highest speed a robot of the room has had.
+     *
+     * @return The speed in units per second.
+     */
+    public double getMaxSpeed() {
+        return maxSpeed;
+    }
+
+    /**
+     * Checks if an entity was added to the room.
+     *
+     * @param entity The entity to check.
+     * @return True if the entity is a robot or block of the room, false otherwise.
+     */
+    private boolean isContained(@NonNull GameEntity entity) {
+        if (entity instanceof Robot r) return robotIndex.contains(r);
+        if (entity instanceof Block b) return blocks.contains(b);
+        return false;
+    }
+
+    /**
+     * Registers the current bounding box of a robot in the spatial index.
+     *
+     * @param robot The robot to index.
+     */
+    private void indexRobot(@NonNull Robot robot) {
+        maxReach = Math.max(maxReach, Math.max(robot.getRobotRadius(), robot.getArcRadius()));
+        var r = robot.getRobotRadius();
+        robotIndex.put(robot,
+                robot.getCenterX() - r, robot.getCenterY() - r,
+                robot.getCenterX() + r, robot.getCenterY() + r);
+    }
+
+    /**
+     * Rebuilds the block tree if a block was added or edited since it was built.
+     */
+    private void ensureBlockTree() {
+        if (!blockTreeStale) return;
+        var list = new ArrayList<Block>(blocks);
+        var bounds = new double[4 * list.size()];
+        for (int i = 0; i < list.size(); i++) {
+            var b = list.get(i);
+            bounds[4 * i] = b.getLeftTopX();
+            bounds[4 * i + 1] = b.getLeftTopY();
+            bounds[4 * i + 2] = b.getLeftTopX() + b.getWidth();
+            bounds[4 * i + 3] = b.getLeftTopY() + b.getHeight();
+        }
+        blockTree = new BoundingVolumeHierarchy<>(list, bounds);
+        blockTreeStale = false;
+    }
+
+    /**
+     * Rasterizes the blocks added or edited since the occupancy grid was updated, and updates
+     * the distance field around them.
+     */
+    private void ensureOccupancyGrid() {
+        if (occupancyChanges.isEmpty() && !occupancy.isStale()) return;
+        for (var b : occupancyChanges) {
+            occupancy.put(b, b.getLeftTopX(), b.getLeftTopY(),
+                    b.getLeftTopX() + b.getWidth(), b.getLeftTopY() + b.getHeight());
+        }
+        occupancyChanges.clear();
+        occupancy.update();
+    }
+
+    /**
+     * Gets a conservative bound of the signed distance from a point to the blocks of the room.
+     * A positive value is a clearance: no block is closer to the point. A negative value means the point
+     * lies inside a block, at least that deep. Zero means the point is close to the edge of a block,
+     * or out of the room, and the blocks have to be tested exactly. The lookup takes constant time.
+     *
+     * @param x The X coordinate of the point.
+     * @param y The Y coordinate of the point.
+     * @return The signed distance bound.
+     */
+    public double getBlockDistance(double x, double y) {
+        ensureOccupancyGrid();
+        return occupancy.getDistance(x, y);
+    }
+
+    /**
+     * Sets the length of the side of an occupancy grid cell and rasterizes all blocks again.
+     * Smaller cells give tighter distance bounds and let planned routes pass through narrower gaps,
+     * at the cost of memory and longer updates; the grid enlarges the cells of very large rooms.
+     *
+     * @param cellSize The length of the side of a cell.
+     * @throws IllegalArgumentException If the cell size is not positive.
+     */
+    public void setOccupancyCellSize(double cellSize) {
+        occupancy = new OccupancyGrid<>(width, height, cellSize);
+        occupancyChanges.addAll(blocks);
+        planner = new PathPlanner(occupancy);
+    }
+
+    /**
+     * Gets the planner of routes around the blocks of the room. Its cached routes stay valid until a block
+     * is added or edited.
+     *
+     * @return The planner over the up-to-date occupancy grid.
+     */
+    public PathPlanner getPathPlanner() {
+        ensureOccupancyGrid();
+        return planner;
+    }
+
+    /**
+     * Gets the occupancy grid of the blocks of the room, for example for planning routes around them.
+     *
+     * @return The up-to-date grid.
+     */
+    public OccupancyGrid<Block> getOccupancyGrid() {
+        ensureOccupancyGrid();
+        return occupancy;
     }
 
     /**
@@ -110,15 +679,211 @@ public class Room extends GameEntity {
     }
 
     /**
-     * Retrieves a list of shapes representing the colliders (blocks and robots) within the room.
+     * Checks if any collider (block or robot) near the specified box satisfies the predicate.
+     * Only blocks whose bounding boxes overlap the box and robots registered in the spatial hash cells
+     * overlapping the box are tested.
+     *
+     * @param minX      The minimal X coordinate of the box.
+     * @param minY      The minimal Y coordinate of the box.
+     * @param maxX      The maximal X coordinate of the box.
+     * @param maxY      The maximal Y coordinate of the box.
+     * @param predicate The predicate tested on the nearby colliders.
+     * @return True if a nearby collider satisfied the predicate, otherwise false.
+     */
+    public boolean anyCollider(double minX, double minY, double maxX, double maxY,
+                               @NonNull Predicate<Collider> predicate) {
+        var start = FrameMetrics.start();
+        if (start != 0) predicate = countedTest(predicate);
+        ensureBlockTree();
+        var found = blockTree.anyMatch(minX, minY, maxX, maxY, predicate)
+                || robotIndex.anyMatch(minX, minY, maxX, maxY, predicate);
+        FrameMetrics.COLLISION_QUERY.stop(start);
+        return found;
+    }
+
+    /**
+     * Passes every collider (block or robot) near the specified box to the consumer, each exactly once.
+     *
+     * @param minX     The minimal X coordinate of the box.
+     * @param minY     The minimal Y coordinate of the box.
+     * @param maxX     The maximal X coordinate of the box.
+     * @param maxY     The maximal Y coordinate of the box.
+     * @param consumer The consumer of the nearby colliders.
+     */
+    public void forEachCollider(double minX, double minY, double maxX, double maxY,
+                                @NonNull Consumer<Collider> consumer) {
+        var start = FrameMetrics.start();
+        if (start != 0) consumer = countedVisit(consumer);
+        ensureBlockTree();
+        blockTree.forEach(minX, minY, maxX, maxY, consumer);
+        robotIndex.forEach(minX, minY, maxX, maxY, consumer);
+        FrameMetrics.COLLISION_QUERY.stop(start);
+    }
+
+    /**
+     * Checks if any robot near the specified box satisfies the predicate, ignoring the blocks.
+     * Used instead of {@link #anyCollider} when the distance field proves no block can satisfy it.
+     *
+     * @param minX      The minimal X coordinate of the box.
+     * @param minY      The minimal Y coordinate of the box.
+     * @param maxX      The maximal X coordinate of the box.
+     * @param maxY      The maximal Y coordinate of the box.
+     * @param predicate The predicate tested on the nearby robots.
+     * @return True if a nearby robot satisfied the predicate, otherwise false.
+     */
+    public boolean anyRobot(double minX, double minY, double maxX, double maxY,
+                            @NonNull Predicate<Collider> predicate) {
+        var start = FrameMetrics.start();
+        if (start != 0) predicate = countedTest(predicate);
+        var found = robotIndex.anyMatch(minX, minY, maxX, maxY, predicate);
+        FrameMetrics.COLLISION_QUERY.stop(start);
+        return found;
+    }
+
+    /**
+     * Passes every robot near the specified box to the consumer, each exactly once, ignoring the blocks.
+     * Used instead of {@link #forEachCollider} when the distance field proves no block is relevant.
+     *
+     * @param minX     The minimal X coordinate of the box.
+     * @param minY     The minimal Y coordinate of the box.
+     * @param maxX     The maximal X coordinate of the box.
+     * @param maxY     The maximal Y coordinate of the box.
+     * @param consumer The consumer of the nearby robots.
+     */
+    public void forEachRobot(double minX, double minY, double maxX, double maxY,
+                             @NonNull Consumer<Collider> consumer) {
+        var start = FrameMetrics.start();
+        if (start != 0) consumer = countedVisit(consumer);
+        robotIndex.forEach(minX, minY, maxX, maxY, consumer);
+        FrameMetrics.COLLISION_QUERY.stop(start);
+    }
+
+    /**
+     * Passes every robot whose frame or detection arc may reach into the specified box to the consumer,
+     * each exactly once. Used to find the robots to draw in a part of the room, so the candidates are not
+     * counted as collision queries.
+     *
+     * @param minX     The minimal X coordinate of the box.
+     * @param minY     The minimal Y coordinate of the box.
+     * @param maxX     The maximal X coordinate of the box.
+     * @param maxY     The maximal Y coordinate of the box.
+     * @param consumer The consumer of the robots.
+     */
+    public void forEachRobotReaching(double minX, double minY, double maxX, double maxY,
+                                     @NonNull Consumer<Robot> consumer) {
+        robotIndex.forEach(minX - maxReach, minY - maxReach, maxX + maxReach, maxY + maxReach, consumer);
+    }
+
+    /**
+     * Passes every block whose bounding box overlaps the specified box to the consumer, each exactly once.
+     *
+     * @param minX     The minimal X coordinate of the box.
+     * @param minY     The minimal Y coordinate of the box.
+     * @param maxX     The maximal X coordinate of the box.
+     * @param maxY     The maximal Y coordinate of the box.
+     * @param consumer The consumer of the blocks.
+     */
+    public void forEachBlockIn(double minX, double minY, double maxX, double maxY,
+                               @NonNull Consumer<Block> consumer) {
+        ensureBlockTree();
+        blockTree.forEach(minX, minY, maxX, maxY, consumer);
+    }
+
+    /**
+     * Wraps a collision test so it counts the tested colliders in the frame metrics.
+     *
+     * @param predicate The collision test.
+     * @return The counting test.
+     */
+    private static Predicate<Collider> countedTest(@NonNull Predicate<Collider> predicate) {
+        return c -> {
+            FrameMetrics.INTERSECTIONS.increment();
+            return predicate.test(c);
+        };
+    }
+
+    /**
+     * Wraps a consumer of colliders so it counts the tested colliders in the frame metrics.
+     *
+     * @param consumer The consumer of colliders.
+     * @return The counting consumer.
+     */
+    private static Consumer<Collider> countedVisit(@NonNull Consumer<Collider> consumer) {
+        return c -> {
+            FrameMetrics.INTERSECTIONS.increment();
+            consumer.accept(c);
+        };
+    }
+
+    /**
+     * Computes the distance along a ray to the nearest wall of the room or collider accepted by the filter.
+     * Blocks are found by walking the block tree along the ray and robots by the spatial hash cells around it,
+     * so the cost depends on the colliders near the ray, not on their total number. A ray shorter than
+     * the clearance of its origin cannot reach a block, so the block tree is not walked at all.
+     *
+     * @param x           The X coordinate of the ray's origin.
+     * @param y           The Y coordinate of the ray's origin.
+     * @param dirX        The X component of the ray's unit direction.
+     * @param dirY        The Y component of the ray's unit direction.
+     * @param maxDistance The length of the ray.
+     * @param filter      The predicate selecting the colliders the ray can hit.
+     * @return The distance to the first hit, or the length of the ray if nothing is hit.
+     */
+    public double castRay(double x, double y, double dirX, double dirY, double maxDistance,
+                          @NonNull Predicate<Collider> filter) {
+        var start = FrameMetrics.start();
+        var hit = new double[]{Math.min(maxDistance, wallDistance(x, y, dirX, dirY))};
+        Consumer<Collider> test = c -> {
+            if (filter.test(c)) hit[0] = Math.min(hit[0], c.castRay(x, y, dirX, dirY));
+        };
+        if (start != 0) test = countedVisit(test);
+        var endX = x + dirX * maxDistance;
+        var endY = y + dirY * maxDistance;
+        if (!(getBlockDistance(x, y) > maxDistance)) {
+            ensureBlockTree();
+            blockTree.forEachOnSegment(x, y, endX, endY, test);
+        }
+        robotIndex.forEach(Math.min(x, endX), Math.min(y, endY), Math.max(x, endX), Math.max(y, endY), test);
+        FrameMetrics.COLLISION_QUERY.stop(start);
+        return hit[0];
+    }
+
+    /**
+     * Computes the distance along a ray from a point inside the room to the wall the ray hits.
      *
-     * @return A list of shapes representing the colliders in the room.
+     * @param x    The X coordinate of the ray's origin.
+     * @param y    The Y coordinate of the ray's origin.
+     * @param dirX The X component of the ray's unit direction.
+     * @param dirY The Y component of the ray's unit direction.
+     * @return The distance, zero if the origin lies out of the room.
      */
-    public List<Shape> getColliders() {
-        return Stream.concat(
-                        getRobots().stream().map(Robot::getRobotFrame),
-                        getBlocks().stream().map(Block::getBlockFrame))
-                .toList();
+    private double wallDistance(double x, double y, double dirX, double dirY) {
+        var t = Double.POSITIVE_INFINITY;
+        if (dirX > 0) t = (width - x) / dirX;
+        else if (dirX < 0) t = -x / dirX;
+        if (dirY > 0) t = Math.min(t, (height - y) / dirY);
+        else if (dirY < 0) t = Math.min(t, -y / dirY);
+        return Math.max(0, t);
+    }
+
+    /**
+     * Computes how far a circle moving along a vector gets before it touches a wall of the room.
+     * A circle that is already out of the room stops immediately, unless it moves back in.
+     *
+     * @param x      The X coordinate of the circle's center at the start of the motion.
+     * @param y      The Y coordinate of the circle's center at the start of the motion.
+     * @param radius The radius of the circle.
+     * @param dx     The X component of the motion.
+     * @param dy     The Y component of the motion.
+     * @return The fraction of the motion in [0, 1] done before the circle touches a wall, 1 if it touches none.
+     */
+    public double wallImpact(double x, double y, double radius, double dx, double dy) {
+        var t = 1.0;
+        if (dx > 0) t = Math.min(t, (width - radius - x) / dx);
+        else if (dx < 0) t = Math.min(t, (radius - x) / dx);
+        if (dy > 0) t = Math.min(t, (height - radius - y) / dy);
+        else if (dy < 0) t = Math.min(t, (radius - y) / dy);
+        return Math.max(0, t);
     }
 
     /**
@@ -139,6 +904,65 @@ public class Room extends GameEntity {
         return robots;
     }
 
+    /**
+     * Gets the packed numeric state of the robots added to the room.
+     *
+     * @return The robot store.
+     */
+    public RobotStore<Robot> getRobotStore() {
+        return robotStore;
+    }
+
+    /**
+     * Gets the strategy used to update the robots in one step.
+     *
+     * @return The update mode.
+     */
+    public UpdateMode getUpdateMode() {
+        return updateMode;
+    }
+
+    /**
+     * Sets the strategy used to update the robots in one step.
+     *
+     * @param updateMode The update mode.
+     */
+    public void setUpdateMode(@NonNull UpdateMode updateMode) {
+        this.updateMode = updateMode;
+    }
+
+    /**
+     * Gets the smallest number of route searches run in one update. Rooms with many robots run more.
+     *
+     * @return The number of searches.
+     */
+    public int getRouteSearchesPerUpdate() {
+        return routeSearchesPerUpdate;
+    }
+
+    /**
+     * Sets the smallest number of route searches run in one update. Rooms with many robots run more, so each
+     * robot gets its route within {@link #ROUTE_PLANNING_UPDATES} updates. Robots waiting for a route keep
+     * following their previous route or stay where they are.
+     *
+     * @param searches The number of searches.
+     * @throws IllegalArgumentException If the number is not positive.
+     */
+    public void setRouteSearchesPerUpdate(int searches) {
+        if (searches <= 0) throw new IllegalArgumentException("Route searches per update must be positive");
+        this.routeSearchesPerUpdate = searches;
+    }
+
+    /**
+     * Sets the pool running the planning phase in {@link UpdateMode#PARALLEL} mode.
+     * The common pool is used by default.
+     *
+     * @param pool The pool.
+     */
+    public void setPool(@NonNull ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
     /**
      * Gets the width of the room.
      *
@@ -159,6 +983,7 @@ public class Room extends GameEntity {
 
     /**
      * Notifies all robots and blocks in the room that their state has changed.
+     * Prefer {@link #flushChanges()}, which only notifies the entities that actually changed.
      */
     @Override
     public void notifyObservers() {
@@ -175,6 +1000,9 @@ public class Room extends GameEntity {
      */
     @Override
     public void resume() {
+        ensureBlockTree();
+        ensureOccupancyGrid();
+        invalidateSchedule();
         for (var r : getRobots()) {
             r.resume();
         }
@@ -0,0 +1,90 @@
+/**
+ * @file ChangeTracker.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.observer;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects observables whose state has changed and notifies their observers in one batch.
+ * Observables are marked dirty while the simulation mutates them and each dirty observable
+ * notifies its observers at most once per flush, no matter how many times it was marked.
+ * The tracker distinguishes observables that changed themselves from observables that are only
+ * affected by changes of others, so the owner can propagate the former to their neighbourhood.
+ *
+ * @param <T> The type of the tracked observables.
+ */
+public class ChangeTracker<T extends Observable> {
+
+    /**
+     * Observables that changed their own state since the last flush.
+     */
+    @NonNull
+    private final Set<T> changed = new LinkedHashSet<>();
+
+    /**
+     * Observables whose observers have to be notified on the next flush.
+     */
+    @NonNull
+    private final Set<T> dirty = new LinkedHashSet<>();
+
+    /**
+     * Marks an observable as changed, which also makes it dirty.
+     *
+     * @param o The observable that changed. Must not be null.
+     * @return True if the observable was not marked as changed since the last flush, false otherwise.
+     */
+    public boolean markChanged(@NonNull T o) {
+        dirty.add(o);
+        return changed.add(o);
+    }
+
+    /**
+     * Marks an observable as dirty without marking it as changed.
+     * Used for observables whose observable state depends on another changed observable.
+     *
+     * @param o The affected observable. Must not be null.
+     */
+    public void markDirty(@NonNull T o) {
+        dirty.add(o);
+    }
+
+    /**
+     * Checks if an observable is waiting for the next flush.
+     *
+     * @param o The observable to check.
+     * @return True if the observable is dirty, false otherwise.
+     */
+    public boolean isDirty(T o) {
+        return dirty.contains(o);
+    }
+
+    /**
+     * Gets a snapshot of the observables that changed since the last flush.
+     *
+     * @return A list of the changed observables in the order they were marked.
+     */
+    public List<T> getChanged() {
+        return new ArrayList<>(changed);
+    }
+
+    /**
+     * Notifies the observers of every dirty observable exactly once and clears all marks.
+     * Observables marked while the observers are being notified are kept for the next flush.
+     */
+    public void flush() {
+        if (dirty.isEmpty()) return;
+        var batch = new ArrayList<>(dirty);
+        changed.clear();
+        dirty.clear();
+        for (var o : batch) {
+            o.notifyObservers();
+        }
+    }
+}
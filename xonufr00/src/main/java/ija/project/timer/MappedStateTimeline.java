@@ -0,0 +1,455 @@
+/**
+ * @file MappedStateTimeline.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.timer;
+
+import ija.project.dto.BlockDTO;
+import ija.project.dto.RobotDTO;
+import ija.project.dto.RoomDTO;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores the saved states of a room in a memory-mapped file instead of on the heap.
+ * The states are encoded like in {@link StateTimeline}: a full keyframe every few seconds or after the
+ * room changed, and the poses of the moved robots in between. The records are appended to segments of
+ * the file mapped into memory, and an index of record offsets, one per second, gives random access to any
+ * second. The heap holds only that index and the last saved state, so it does not grow with the length
+ * of the run; the operating system pages the records in and out as needed.
+ *
+ * Records are little-endian. A keyframe holds the room size, the index of the keyframe storing its blocks,
+ * the block and robot counts, the blocks (only if it stores them itself) and the robots with the properties
+ * of a RobotDTO. A delta holds the number of moved robots followed by their indices and poses.
+ */
+public class MappedStateTimeline implements StateHistory {
+
+    /**
+     * The default size of a mapped segment of the file.
+     */
+    public static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+
+    /**
+     * The kind of a keyframe record.
+     */
+    private static final int KEYFRAME = 0;
+
+    /**
+     * The kind of a delta record.
+     */
+    private static final int DELTA = 1;
+
+    /**
+     * The size of the fixed part of a keyframe record: kind, width, height, blocks keyframe and counts.
+     */
+    private static final int KEYFRAME_HEADER_BYTES = 4 * Integer.BYTES + 2 * Double.BYTES;
+
+    /**
+     * The size of a block in a keyframe record.
+     */
+    private static final int BLOCK_BYTES = 4 * Double.BYTES;
+
+    /**
+     * The size of a robot in a keyframe record.
+     */
+    private static final int ROBOT_BYTES = 9 * Double.BYTES;
+
+    /**
+     * The size of the fixed part of a delta record: kind and count.
+     */
+    private static final int DELTA_HEADER_BYTES = 2 * Integer.BYTES;
+
+    /**
+     * The size of a moved robot in a delta record: its index, X, Y and angle.
+     */
+    private static final int POSE_BYTES = Integer.BYTES + 3 * Double.BYTES;
+
+    /**
+     * The channel of the backing file.
+     */
+    @NonNull
+    private final FileChannel channel;
+
+    /**
+     * The number of seconds between two periodic keyframes.
+     */
+    private final int keyframeInterval;
+
+    /**
+     * The minimal size of a mapped segment.
+     */
+    private final int segmentBytes;
+
+    /**
+     * The mapped segments of the file, in the order of their offsets.
+     */
+    @NonNull
+    private final List<MappedByteBuffer> segments;
+
+    /**
+     * The offsets of the mapped segments in the file.
+     */
+    @NonNull
+    private final List<Long> segmentStarts;
+
+    /**
+     * The location of the record of every second, the segment index in the upper and the position in the
+     * lower 32 bits.
+     */
+    private long[] offsets;
+
+    /**
+     * The index of the nearest keyframe at or before every second.
+     */
+    private int[] keyframes;
+
+    /**
+     * The number of saved seconds.
+     */
+    private int size;
+
+    /**
+     * The index of the segment receiving the next record.
+     */
+    private int writeSegment;
+
+    /**
+     * The position in the segment receiving the next record.
+     */
+    private int writePosition;
+
+    /**
+     * The state of the last saved second, used to compute the next delta.
+     */
+    private RoomDTO last;
+
+    /**
+     * The index of the keyframe storing the blocks of the last saved second.
+     */
+    private int lastBlocksFrame;
+
+    /**
+     * The index of the keyframe whose blocks are held in {@link #cachedBlocks}, or -1.
+     */
+    private int cachedBlocksFrame;
+
+    /**
+     * The blocks decoded most recently, shared by all states rebuilt from the same keyframe blocks.
+     */
+    private List<BlockDTO> cachedBlocks;
+
+    /**
+     * Constructs a new empty MappedStateTimeline backed by a file, replacing its content.
+     *
+     * @param file             The backing file.
+     * @param keyframeInterval The number of seconds between two periodic keyframes. Must be positive.
+     * @throws IOException If the file cannot be opened.
+     */
+    public MappedStateTimeline(@NonNull Path file, int keyframeInterval) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING), keyframeInterval, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Constructs a new empty MappedStateTimeline.
+     *
+     * @param channel          The channel of the backing file, opened for reading and writing.
+     * @param keyframeInterval The number of seconds between two periodic keyframes. Must be positive.
+     * @param segmentBytes     The minimal size of a mapped segment. Must be positive.
+     */
+    MappedStateTimeline(@NonNull FileChannel channel, int keyframeInterval, int segmentBytes) {
+        if (keyframeInterval <= 0)
+            throw new IllegalArgumentException("Keyframe interval must be positive: " + keyframeInterval);
+        if (segmentBytes <= 0)
+            throw new IllegalArgumentException("Segment size must be positive: " + segmentBytes);
+        this.channel = channel;
+        this.keyframeInterval = keyframeInterval;
+        this.segmentBytes = segmentBytes;
+        this.segments = new ArrayList<>();
+        this.segmentStarts = new ArrayList<>();
+        this.offsets = new long[64];
+        this.keyframes = new int[64];
+        this.cachedBlocksFrame = -1;
+    }
+
+    /**
+     * Creates a new empty MappedStateTimeline backed by a temporary file, which is deleted when the
+     * timeline is closed.
+     *
+     * @return The timeline.
+     * @throws IOException If the temporary file cannot be created.
+     */
+    public static MappedStateTimeline createTemporary() throws IOException {
+        var file = Files.createTempFile("room-history", ".bin");
+        var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        return new MappedStateTimeline(channel, StateTimeline.DEFAULT_KEYFRAME_INTERVAL, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Appends the state of the next second.
+     *
+     * @param state The state of the room. Must not be null. Must not be modified afterwards.
+     * @throws UncheckedIOException If the file cannot be extended.
+     */
+    @Override
+    public void add(@NonNull RoomDTO state) {
+        var index = size;
+        var previous = last;
+        last = state;
+
+        if (previous == null || index % keyframeInterval == 0 || !StateTimeline.isSameLayout(previous, state)) {
+            var shared = previous != null && StateTimeline.sameBlocks(previous.getBlocks(), state.getBlocks());
+            if (!shared) lastBlocksFrame = index;
+            appendKeyframe(index, state, !shared);
+            return;
+        }
+
+        var before = previous.getRobots();
+        var after = state.getRobots();
+        var changed = new int[after.size()];
+        var count = 0;
+        for (int i = 0; i < after.size(); i++) {
+            var a = before.get(i);
+            var b = after.get(i);
+            if (a.getRobotCenterX() == b.getRobotCenterX() && a.getRobotCenterY() == b.getRobotCenterY()
+                    && a.getRobotCurrentAngle() == b.getRobotCurrentAngle()) continue;
+            changed[count++] = i;
+        }
+
+        var out = allocate(index, keyframes[index - 1], DELTA_HEADER_BYTES + count * POSE_BYTES);
+        out.putInt(DELTA).putInt(count);
+        for (int j = 0; j < count; j++) {
+            var robot = after.get(changed[j]);
+            out.putInt(changed[j])
+                    .putDouble(robot.getRobotCenterX())
+                    .putDouble(robot.getRobotCenterY())
+                    .putDouble(robot.getRobotCurrentAngle());
+        }
+    }
+
+    /**
+     * Rebuilds the state saved for a second from the nearest keyframe and the following deltas.
+     *
+     * @param sec The second, between zero and {@link #size()} exclusive.
+     * @return The saved state.
+     */
+    @Override
+    @NonNull
+    public RoomDTO get(int sec) {
+        if (sec < 0 || sec >= size) throw new IndexOutOfBoundsException("Second " + sec + " of " + size);
+
+        var keyframe = keyframes[sec];
+        var in = record(keyframe);
+        in.getInt();
+        var width = in.getDouble();
+        var height = in.getDouble();
+        var blocksFrame = in.getInt();
+        var blockCount = in.getInt();
+        var robotCount = in.getInt();
+        if (blocksFrame == keyframe) in.position(in.position() + blockCount * BLOCK_BYTES);
+
+        var robots = new ArrayList<RobotDTO>(robotCount);
+        for (int i = 0; i < robotCount; i++) {
+            robots.add(new RobotDTO(in.getDouble(), in.getDouble(), in.getDouble(), in.getDouble(), in.getDouble(),
+                    in.getDouble(), in.getDouble(), in.getDouble(), in.getDouble()));
+        }
+
+        for (int f = keyframe + 1; f <= sec; f++) {
+            var delta = record(f);
+            delta.getInt();
+            var count = delta.getInt();
+            for (int j = 0; j < count; j++) {
+                var i = delta.getInt();
+                robots.set(i, new RobotDTO(robots.get(i), delta.getDouble(), delta.getDouble(), delta.getDouble()));
+            }
+        }
+        return new RoomDTO(width, height, blocks(blocksFrame), robots);
+    }
+
+    /**
+     * Removes all seconds from the specified one onwards.
+     * The space of the removed records is reused by the following seconds.
+     *
+     * @param size The number of seconds to keep.
+     */
+    @Override
+    public void truncate(int size) {
+        if (size >= this.size) return;
+        size = Math.max(size, 0);
+
+        var offset = offsets[size];
+        writeSegment = (int) (offset >>> 32);
+        writePosition = (int) offset;
+        segments.subList(writeSegment + 1, segments.size()).clear();
+        segmentStarts.subList(writeSegment + 1, segmentStarts.size()).clear();
+        this.size = size;
+        if (cachedBlocksFrame >= size) cachedBlocksFrame = -1;
+
+        if (size == 0) {
+            last = null;
+            return;
+        }
+        last = get(size - 1);
+        var in = record(keyframes[size - 1]);
+        in.position(Integer.BYTES + 2 * Double.BYTES);
+        lastBlocksFrame = in.getInt();
+    }
+
+    /**
+     * Gets the number of saved seconds.
+     *
+     * @return The number of seconds.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of bytes of the backing file used by the saved seconds.
+     *
+     * @return The number of bytes.
+     */
+    public long getStoredBytes() {
+        return segments.isEmpty() ? 0 : segmentStarts.get(writeSegment) + writePosition;
+    }
+
+    /**
+     * Closes the backing file. The mapped segments are released once they are no longer referenced.
+     */
+    @Override
+    public void close() {
+        segments.clear();
+        segmentStarts.clear();
+        size = 0;
+        last = null;
+        cachedBlocks = null;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends a keyframe record.
+     *
+     * @param index      The index of the second.
+     * @param state      The state of the room.
+     * @param withBlocks True to store the blocks in the record, false if the previous keyframe stores them.
+     */
+    private void appendKeyframe(int index, RoomDTO state, boolean withBlocks) {
+        var blocks = state.getBlocks();
+        var robots = state.getRobots();
+        var bytes = KEYFRAME_HEADER_BYTES + (withBlocks ? blocks.size() * BLOCK_BYTES : 0)
+                + robots.size() * ROBOT_BYTES;
+
+        var out = allocate(index, index, bytes);
+        out.putInt(KEYFRAME)
+                .putDouble(state.getWidth()).putDouble(state.getHeight())
+                .putInt(lastBlocksFrame).putInt(blocks.size()).putInt(robots.size());
+        if (withBlocks) {
+            for (var block : blocks) {
+                out.putDouble(block.getX()).putDouble(block.getY())
+                        .putDouble(block.getWidth()).putDouble(block.getHeight());
+            }
+        }
+        for (var robot : robots) {
+            out.putDouble(robot.getRobotCenterX())
+                    .putDouble(robot.getRobotCenterY())
+                    .putDouble(robot.getRobotRadius())
+                    .putDouble(robot.getSpeedPerSecond())
+                    .putDouble(robot.getRotationSpeedPerSecInDegrees())
+                    .putDouble(robot.getRotationDegreeSample())
+                    .putDouble(robot.getRobotCurrentAngle())
+                    .putDouble(robot.getDetectionArcRadius())
+                    .putDouble(robot.getDetectionArcExtent());
+        }
+    }
+
+    /**
+     * Reserves space for the record of the next second and registers it in the index.
+     * A new segment is mapped at the end of the file if the current one cannot hold the record.
+     *
+     * @param index    The index of the second.
+     * @param keyframe The index of the nearest keyframe at or before the second.
+     * @param bytes    The size of the record.
+     * @return A little-endian buffer covering exactly the reserved space.
+     * @throws UncheckedIOException If the file cannot be extended.
+     */
+    private ByteBuffer allocate(int index, int keyframe, int bytes) {
+        if (segments.isEmpty() || segments.get(writeSegment).capacity() - writePosition < bytes) {
+            var start = segments.isEmpty() ? 0
+                    : segmentStarts.get(writeSegment) + segments.get(writeSegment).capacity();
+            try {
+                var segment = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.max(segmentBytes, bytes));
+                writeSegment = segments.isEmpty() ? 0 : writeSegment + 1;
+                segments.add(segment);
+                segmentStarts.add(start);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not extend the state history", e);
+            }
+            writePosition = 0;
+        }
+
+        if (index == offsets.length) {
+            offsets = Arrays.copyOf(offsets, index * 2);
+            keyframes = Arrays.copyOf(keyframes, index * 2);
+        }
+        offsets[index] = (long) writeSegment << 32 | writePosition;
+        keyframes[index] = keyframe;
+        size = index + 1;
+
+        var out = segments.get(writeSegment).slice(writePosition, bytes).order(ByteOrder.LITTLE_ENDIAN);
+        writePosition += bytes;
+        return out;
+    }
+
+    /**
+     * Gets a buffer positioned at the start of the record of a second.
+     *
+     * @param sec The second.
+     * @return A little-endian buffer starting at the record.
+     */
+    private ByteBuffer record(int sec) {
+        var offset = offsets[sec];
+        var segment = segments.get((int) (offset >>> 32));
+        var position = (int) offset;
+        return segment.slice(position, segment.capacity() - position).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Gets the blocks stored in a keyframe, decoding them only if they are not cached.
+     *
+     * @param frame The index of the keyframe storing the blocks.
+     * @return The blocks.
+     */
+    private List<BlockDTO> blocks(int frame) {
+        if (frame == cachedBlocksFrame) return cachedBlocks;
+
+        var in = record(frame);
+        in.position(Integer.BYTES + 2 * Double.BYTES + Integer.BYTES);
+        var count = in.getInt();
+        in.position(KEYFRAME_HEADER_BYTES);
+        var blocks = new ArrayList<BlockDTO>(count);
+        for (int i = 0; i < count; i++) {
+            blocks.add(new BlockDTO(in.getDouble(), in.getDouble(), in.getDouble(), in.getDouble()));
+        }
+        cachedBlocksFrame = frame;
+        cachedBlocks = blocks;
+        return blocks;
+    }
+}
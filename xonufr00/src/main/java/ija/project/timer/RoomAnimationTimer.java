@@ -5,6 +5,12 @@
 package ija.project.timer;
 
 import ija.project.dto.RoomDTO;
+import ija.project.engine.FixedStepper;
+import ija.project.engine.Simulation;
+import ija.project.journal.InputJournal;
+import ija.project.journal.JournalCommand;
+import ija.project.metrics.FrameMetrics;
+import ija.project.model.GameEntity;
 import ija.project.model.PausableEntity;
 import ija.project.model.impl.Room;
 import ija.project.ui.controller.AppViewController;
@@ -16,19 +22,34 @@ import javafx.beans.property.StringProperty;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Manages the animation and timing for a Room entity in a simulation environment.
  * This class extends the JavaFX AnimationTimer, providing a way to update and render
  * a simulation room at a consistent rate. It also implements the PausableEntity interface,
  * allowing the simulation to be paused and resumed.
+ *
+ * By default the room is advanced in fixed ticks through a {@link FixedStepper}, so the simulation
+ * does not depend on the frame rate and a run is reproducible. The fixed-step mode can be switched off
+ * to pass the raw frame delta to the room instead.
+ *
+ * Every input changing the room between the ticks must be performed through {@link #execute}, which records
+ * it into an {@link InputJournal} before applying it. The inputs are only recorded if the
+ * {@value #JOURNAL_DIRECTORY_PROPERTY} system property names the directory of the journals. The journal is
+ * started again from a snapshot whenever the fixed-step mode is enabled. A rewind ends the journal; the timer
+ * that takes over the rebuilt room starts the next one.
  */
 public class RoomAnimationTimer extends AnimationTimer implements PausableEntity {
     private static final org.slf4j.Logger log
             = org.slf4j.LoggerFactory.getLogger(RoomAnimationTimer.class);
 
+    /**
+     * The system property naming the directory of the input journals; the inputs are not recorded without it.
+     */
+    public static final String JOURNAL_DIRECTORY_PROPERTY = "ija.journal.dir";
+
     /**
      * Indicates whether the simulation is currently paused.
      */
@@ -58,10 +79,42 @@ public class RoomAnimationTimer extends AnimationTimer implements PausableEntity
     private Room room;
 
     /**
-     * A list of saved states of the Room entity at different points in time.
+     * The headless simulation that advances the state of the room.
+     */
+    @NonNull
+    private Simulation simulation;
+
+    /**
+     * The stepper advancing the simulation in fixed ticks.
      */
     @NonNull
-    private final List<RoomDTO> states;
+    private FixedStepper stepper;
+
+    /**
+     * Indicates whether the simulation is advanced in fixed ticks or by the raw frame delta.
+     */
+    private boolean fixedStep;
+
+    /**
+     * The number of fixed ticks per simulated second.
+     */
+    private double ticksPerSecond;
+
+    /**
+     * The maximal number of fixed ticks performed in one frame.
+     */
+    private int maxCatchUpSteps;
+
+    /**
+     * The saved states of the Room entity, one per simulated second.
+     */
+    @NonNull
+    private final StateHistory states;
+
+    /**
+     * The journal recording the inputs of the session, or null if they are not recorded.
+     */
+    private InputJournal journal;
 
     /**
      * Constructs a new RoomAnimationTimer for a specified Room entity.
@@ -73,11 +126,119 @@ public class RoomAnimationTimer extends AnimationTimer implements PausableEntity
         this.gameTimeSecs = new SimpleStringProperty();
         this.lastTimeNanos = -1;
         this.room = room;
+        this.fixedStep = true;
+        this.ticksPerSecond = FixedStepper.DEFAULT_TICKS_PER_SECOND;
+        this.maxCatchUpSteps = FixedStepper.DEFAULT_MAX_CATCH_UP_STEPS;
+        this.simulation = new Simulation(room);
+        this.stepper = new FixedStepper(simulation, ticksPerSecond, maxCatchUpSteps);
         this.paused = true;
-        this.states = new ArrayList<>();
+        this.states = createHistory();
+        this.journal = createJournal();
         setGameTimeNanos(0);
     }
 
+    /**
+     * Creates the history of the saved states. The states are kept in a memory-mapped temporary file,
+     * so the heap use does not grow with the length of the run; if the file cannot be created, they are
+     * kept on the heap.
+     *
+     * @return The history.
+     */
+    private static StateHistory createHistory() {
+        try {
+            return MappedStateTimeline.createTemporary();
+        } catch (IOException e) {
+            log.warn("Could not create the state history file, keeping states in memory: {}", e.getMessage());
+            return new StateTimeline();
+        }
+    }
+
+    /**
+     * Creates the journal of the inputs applied to the current room, starting with a snapshot of the room.
+     *
+     * @return The journal, or null if no journal directory is set or the file cannot be created.
+     */
+    private InputJournal createJournal() {
+        var directory = System.getProperty(JOURNAL_DIRECTORY_PROPERTY);
+        if (directory == null || directory.isBlank()) return null;
+        try {
+            var created = InputJournal.createIn(Path.of(directory), room, stepper.getTickNanos());
+            log.info("Recording the inputs into {}", created.getPath());
+            return created;
+        } catch (IOException e) {
+            log.warn("Could not create the input journal, inputs are not recorded: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Ends the journal of the current room with the digest of its state and stops recording.
+     */
+    private void closeJournal() {
+        if (journal == null) return;
+        try {
+            journal.close(simulation.getSteps());
+            log.info("Recorded {} inputs into {}", journal.getCommandCount(), journal.getPath());
+        } catch (IOException e) {
+            log.warn("Could not close the input journal {}: {}", journal.getPath(), e.getMessage());
+        }
+        journal = null;
+    }
+
+    /**
+     * Records an input into the journal. If the journal cannot be written, the recording stops.
+     *
+     * @param command The command.
+     * @param entity  The targeted robot or block, or null if the command targets the room.
+     * @param values  The values of the command.
+     */
+    private void record(JournalCommand command, GameEntity entity, double... values) {
+        if (journal == null) return;
+        try {
+            journal.record(simulation.getSteps(), command, entity, values);
+        } catch (IOException e) {
+            log.warn("Could not write the input journal, inputs are not recorded anymore: {}", e.getMessage());
+            try {
+                journal.close();
+            } catch (IOException ignored) {
+            }
+            journal = null;
+        }
+    }
+
+    /**
+     * Applies an input to the room and records it into the journal, so the session can be replayed.
+     *
+     * @param command The command.
+     * @param entity  The targeted robot or block of the room, or null if the command targets the room.
+     * @param values  The values of the command.
+     * @return The targeted entity, the added entity for commands adding one, or the room.
+     * @throws IllegalArgumentException If the entity or the values do not match the command.
+     */
+    public GameEntity execute(@NonNull JournalCommand command, GameEntity entity, @NonNull double... values) {
+        record(command, entity, values);
+        return command.apply(room, entity, values);
+    }
+
+    /**
+     * Gets the path of the journal recording the inputs of the current room.
+     *
+     * @return The path, or null if the inputs are not recorded.
+     */
+    public Path getJournalPath() {
+        return journal != null ? journal.getPath() : null;
+    }
+
+    /**
+     * Stops the timer, ends the input journal and releases the saved states.
+     * The timer must not be used afterwards.
+     */
+    public void dispose() {
+        stop();
+        closeJournal();
+        states.close();
+    }
+
     /**
      * Checks whether the simulation is currently paused.
      *
@@ -92,7 +253,7 @@ public class RoomAnimationTimer extends AnimationTimer implements PausableEntity
      */
     public void pause() {
         paused = true;
-        this.room.pause();
+        execute(JournalCommand.PAUSE, null);
     }
 
     /**
@@ -100,7 +261,7 @@ public class RoomAnimationTimer extends AnimationTimer implements PausableEntity
      */
     public void resume() {
         paused = false;
-        this.room.resume();
+        execute(JournalCommand.RESUME, null);
     }
 
     /**
@@ -110,8 +271,10 @@ public class RoomAnimationTimer extends AnimationTimer implements PausableEntity
     public void saveState() {
         var sec = getGameTimeNanos() / 1e9;
         if (states.size() < sec) {
+            var start = FrameMetrics.start();
             var roomDto = new RoomDTO(this.room);
             states.add(roomDto);
+            FrameMetrics.SAVE_STATE.stop(start);
             log.info("State saved on {}", sec);
         }
 
@@ -120,6 +283,8 @@ public class RoomAnimationTimer extends AnimationTimer implements PausableEntity
     /**
      * Sets the simulation state to a specified point in time.
      * The simulation will be set to the state saved at the specified time, if available.
+     * The state is rebuilt from the nearest preceding keyframe of the timeline. The input journal is ended
+     * and no new one is started, as the owner of the rebuilt room runs it with a timer of its own.
      *
      * @param sec The time in seconds to which the simulation should be set.
      */
@@ -134,11 +299,12 @@ public class RoomAnimationTimer extends AnimationTimer implements PausableEntity
         }
 
         var newState = states.get(realSec);
-        while (states.size() > realSec) {
-            states.remove(states.size() - 1);
-        }
+        states.truncate(realSec);
 
+        closeJournal();
         this.room = newState.buildEntity();
+        this.simulation = new Simulation(this.room);
+        this.stepper = new FixedStepper(simulation, ticksPerSecond, maxCatchUpSteps);
         setGameTimeNanos((long) (realSec * 1e9));
     }
 
@@ -155,17 +321,84 @@ public class RoomAnimationTimer extends AnimationTimer implements PausableEntity
             return;
         }
 
+        var start = FrameMetrics.start();
         long deltaNanos = now - lastTimeNanos;
+        long simulatedNanos;
 
-
-        room.update(deltaNanos);
+        if (fixedStep) {
+            simulatedNanos = stepper.advance(deltaNanos) * stepper.getTickNanos();
+        } else {
+            simulation.step(deltaNanos);
+            simulatedNanos = deltaNanos;
+        }
 
         if (!isPaused()) {
-            setGameTimeNanos(getGameTimeNanos() + deltaNanos);
+            setGameTimeNanos(getGameTimeNanos() + simulatedNanos);
             saveState();
         }
 
         this.lastTimeNanos = now;
+        FrameMetrics.FRAME.stop(start);
+        FrameMetrics.endFrame();
+    }
+
+    /**
+     * Checks whether the simulation is advanced in fixed ticks.
+     *
+     * @return True if the fixed-step mode is enabled, false otherwise.
+     */
+    public boolean isFixedStep() {
+        return fixedStep;
+    }
+
+    /**
+     * Enables or disables the fixed-step mode.
+     * When disabled, the raw frame delta is passed to the room on every frame; such a run cannot be
+     * replayed, so the input journal is ended. When enabled again, a new journal is started from a snapshot
+     * of the current room, counting the ticks from zero.
+     *
+     * @param fixedStep True to advance the simulation in fixed ticks.
+     */
+    public void setFixedStep(boolean fixedStep) {
+        if (!fixedStep) closeJournal();
+        if (fixedStep && !this.fixedStep) {
+            this.simulation = new Simulation(room);
+            this.stepper = new FixedStepper(simulation, ticksPerSecond, maxCatchUpSteps);
+            this.journal = createJournal();
+        }
+        this.fixedStep = fixedStep;
+        this.stepper.reset();
+    }
+
+    /**
+     * Configures the fixed-step mode.
+     *
+     * @param ticksPerSecond  The number of ticks per simulated second. Must be positive.
+     * @param maxCatchUpSteps The maximal number of ticks performed in one frame. Must be positive.
+     */
+    public void setTickRate(double ticksPerSecond, int maxCatchUpSteps) {
+        this.stepper = new FixedStepper(simulation, ticksPerSecond, maxCatchUpSteps);
+        this.ticksPerSecond = ticksPerSecond;
+        record(JournalCommand.SET_TICK_NANOS, null, stepper.getTickNanos());
+        this.maxCatchUpSteps = maxCatchUpSteps;
+    }
+
+    /**
+     * Gets the number of fixed ticks per simulated second.
+     *
+     * @return The tick rate.
+     */
+    public double getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    /**
+     * Gets the maximal number of fixed ticks performed in one frame.
+     *
+     * @return The catch-up cap.
+     */
+    public int getMaxCatchUpSteps() {
+        return maxCatchUpSteps;
     }
 
     /**
@@ -0,0 +1,51 @@
+/**
+ * @file StateHistory.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.timer;
+
+import ija.project.dto.RoomDTO;
+import lombok.NonNull;
+
+/**
+ * Stores the saved states of a room, one per simulated second, for rewinding.
+ */
+public interface StateHistory extends AutoCloseable {
+
+    /**
+     * Appends the state of the next second.
+     *
+     * @param state The state of the room. Must not be null. Must not be modified afterwards.
+     */
+    void add(@NonNull RoomDTO state);
+
+    /**
+     * Gets the state saved for a second.
+     *
+     * @param sec The second, between zero and {@link #size()} exclusive.
+     * @return The saved state.
+     */
+    @NonNull
+    RoomDTO get(int sec);
+
+    /**
+     * Removes all seconds from the specified one onwards.
+     *
+     * @param size The number of seconds to keep.
+     */
+    void truncate(int size);
+
+    /**
+     * Gets the number of saved seconds.
+     *
+     * @return The number of seconds.
+     */
+    int size();
+
+    /**
+     * Releases the resources held by the history. The history must not be used afterwards.
+     */
+    @Override
+    default void close() {
+    }
+}
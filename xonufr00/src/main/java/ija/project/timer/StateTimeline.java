@@ -0,0 +1,255 @@
+/**
+ * @file StateTimeline.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.timer;
+
+import ija.project.dto.BlockDTO;
+import ija.project.dto.RobotDTO;
+import ija.project.dto.RoomDTO;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores the saved states of a room, one per simulated second, for rewinding.
+ * Instead of keeping a complete RoomDTO for every second, the timeline keeps a full keyframe every
+ * few seconds and, between them, only the poses of the robots that moved since the previous second.
+ * A keyframe is also stored whenever the blocks or the robots themselves change, for example after
+ * the room was edited. Keyframes share the list of blocks with the previous keyframe when the blocks
+ * did not change, so blocks cost memory only once per edit.
+ */
+public class StateTimeline implements StateHistory {
+
+    /**
+     * The default number of seconds between two keyframes.
+     */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 30;
+
+    /**
+     * The number of values stored for each changed robot in a delta: X, Y and angle.
+     */
+    private static final int POSE_SIZE = 3;
+
+    /**
+     * The number of seconds between two periodic keyframes.
+     */
+    private final int keyframeInterval;
+
+    /**
+     * The saved seconds in chronological order.
+     */
+    @NonNull
+    private final List<Frame> frames;
+
+    /**
+     * The state of the last saved second, used to compute the next delta.
+     */
+    private RoomDTO last;
+
+    /**
+     * A saved second, either a complete keyframe or the robot poses changed since the previous second.
+     */
+    private static final class Frame {
+        /**
+         * The complete state, or null if the frame is a delta.
+         */
+        private final RoomDTO keyframe;
+
+        /**
+         * The index of the nearest keyframe at or before this frame.
+         */
+        private final int keyframeIndex;
+
+        /**
+         * The indices of the robots changed since the previous second.
+         */
+        private final int[] robots;
+
+        /**
+         * The new poses of the changed robots, {@link #POSE_SIZE} values per robot.
+         */
+        private final double[] poses;
+
+        /**
+         * Constructs a new Frame.
+         *
+         * @param keyframe      The complete state, or null for a delta.
+         * @param keyframeIndex The index of the nearest keyframe at or before this frame.
+         * @param robots        The indices of the changed robots.
+         * @param poses         The new poses of the changed robots.
+         */
+        private Frame(RoomDTO keyframe, int keyframeIndex, int[] robots, double[] poses) {
+            this.keyframe = keyframe;
+            this.keyframeIndex = keyframeIndex;
+            this.robots = robots;
+            this.poses = poses;
+        }
+    }
+
+    /**
+     * Constructs a new empty StateTimeline with the default keyframe interval.
+     */
+    public StateTimeline() {
+        this(DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * Constructs a new empty StateTimeline.
+     *
+     * @param keyframeInterval The number of seconds between two periodic keyframes. Must be positive.
+     */
+    public StateTimeline(int keyframeInterval) {
+        if (keyframeInterval <= 0)
+            throw new IllegalArgumentException("Keyframe interval must be positive: " + keyframeInterval);
+        this.keyframeInterval = keyframeInterval;
+        this.frames = new ArrayList<>();
+    }
+
+    /**
+     * Appends the state of the next second.
+     *
+     * @param state The state of the room. Must not be null. Must not be modified afterwards.
+     */
+    @Override
+    public void add(@NonNull RoomDTO state) {
+        var index = frames.size();
+        var previous = last;
+        last = state;
+
+        if (previous == null || index % keyframeInterval == 0 || !isSameLayout(previous, state)) {
+            var blocks = previous != null && sameBlocks(previous.getBlocks(), state.getBlocks())
+                    ? previous.getBlocks() : state.getBlocks();
+            last = new RoomDTO(state.getWidth(), state.getHeight(), blocks, state.getRobots());
+            frames.add(new Frame(last, index, null, null));
+            return;
+        }
+
+        var before = previous.getRobots();
+        var after = state.getRobots();
+        var changed = new int[after.size()];
+        var poses = new double[after.size() * POSE_SIZE];
+        var count = 0;
+        for (int i = 0; i < after.size(); i++) {
+            var a = before.get(i);
+            var b = after.get(i);
+            if (a.getRobotCenterX() == b.getRobotCenterX() && a.getRobotCenterY() == b.getRobotCenterY()
+                    && a.getRobotCurrentAngle() == b.getRobotCurrentAngle()) continue;
+            changed[count] = i;
+            poses[count * POSE_SIZE] = b.getRobotCenterX();
+            poses[count * POSE_SIZE + 1] = b.getRobotCenterY();
+            poses[count * POSE_SIZE + 2] = b.getRobotCurrentAngle();
+            count++;
+        }
+        var keyframeIndex = frames.get(index - 1).keyframeIndex;
+        frames.add(new Frame(null, keyframeIndex,
+                Arrays.copyOf(changed, count), Arrays.copyOf(poses, count * POSE_SIZE)));
+    }
+
+    /**
+     * Rebuilds the state saved for a second from the nearest keyframe and the following deltas.
+     *
+     * @param sec The second, between zero and {@link #size()} exclusive.
+     * @return The saved state.
+     */
+    @Override
+    @NonNull
+    public RoomDTO get(int sec) {
+        var frame = frames.get(sec);
+        if (frame.keyframe != null) return frame.keyframe;
+
+        var keyframe = frames.get(frame.keyframeIndex).keyframe;
+        var robots = new ArrayList<>(keyframe.getRobots());
+        for (int f = frame.keyframeIndex + 1; f <= sec; f++) {
+            var delta = frames.get(f);
+            for (int j = 0; j < delta.robots.length; j++) {
+                var i = delta.robots[j];
+                robots.set(i, new RobotDTO(robots.get(i),
+                        delta.poses[j * POSE_SIZE], delta.poses[j * POSE_SIZE + 1], delta.poses[j * POSE_SIZE + 2]));
+            }
+        }
+        return new RoomDTO(keyframe.getWidth(), keyframe.getHeight(), keyframe.getBlocks(), robots);
+    }
+
+    /**
+     * Removes all seconds from the specified one onwards.
+     *
+     * @param size The number of seconds to keep.
+     */
+    @Override
+    public void truncate(int size) {
+        if (size >= frames.size()) return;
+        frames.subList(Math.max(size, 0), frames.size()).clear();
+        last = frames.isEmpty() ? null : get(frames.size() - 1);
+    }
+
+    /**
+     * Gets the number of saved seconds.
+     *
+     * @return The number of seconds.
+     */
+    @Override
+    public int size() {
+        return frames.size();
+    }
+
+    /**
+     * Gets the number of stored keyframes.
+     *
+     * @return The number of keyframes.
+     */
+    public int getKeyframeCount() {
+        var count = 0;
+        for (var f : frames) {
+            if (f.keyframe != null) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Checks if two states contain the same blocks and robots that differ at most in their poses.
+     *
+     * @param a The first state.
+     * @param b The second state.
+     * @return True if the second state can be stored as a delta of the first one, false otherwise.
+     */
+    static boolean isSameLayout(@NonNull RoomDTO a, @NonNull RoomDTO b) {
+        if (a.getWidth() != b.getWidth() || a.getHeight() != b.getHeight()) return false;
+        if (!sameBlocks(a.getBlocks(), b.getBlocks())) return false;
+        var before = a.getRobots();
+        var after = b.getRobots();
+        if (before.size() != after.size()) return false;
+        for (int i = 0; i < before.size(); i++) {
+            var x = before.get(i);
+            var y = after.get(i);
+            if (x.getRobotRadius() != y.getRobotRadius()
+                    || x.getSpeedPerSecond() != y.getSpeedPerSecond()
+                    || x.getRotationSpeedPerSecInDegrees() != y.getRotationSpeedPerSecInDegrees()
+                    || x.getRotationDegreeSample() != y.getRotationDegreeSample()
+                    || x.getDetectionArcRadius() != y.getDetectionArcRadius()
+                    || x.getDetectionArcExtent() != y.getDetectionArcExtent()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if two lists describe the same blocks in the same order.
+     *
+     * @param a The first list.
+     * @param b The second list.
+     * @return True if the blocks are equal, false otherwise.
+     */
+    static boolean sameBlocks(@NonNull List<BlockDTO> a, @NonNull List<BlockDTO> b) {
+        if (a == b) return true;
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            var x = a.get(i);
+            var y = b.get(i);
+            if (x.getX() != y.getX() || x.getY() != y.getY()
+                    || x.getWidth() != y.getWidth() || x.getHeight() != y.getHeight()) return false;
+        }
+        return true;
+    }
+}
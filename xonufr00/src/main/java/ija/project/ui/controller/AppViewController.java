@@ -5,27 +5,39 @@
 package ija.project.ui.controller;
 
 import ija.project.dto.RoomDTO;
+import ija.project.journal.JournalCommand;
+import ija.project.model.GameEntity;
 import ija.project.model.PausableEntity;
+import ija.project.model.enums.RobotMode;
 import ija.project.timer.RoomAnimationTimer;
 import ija.project.model.impl.Block;
 import ija.project.model.impl.Robot;
 import ija.project.model.impl.Room;
+import ija.project.observer.Observer;
 import ija.project.ui.view.View;
 import ija.project.ui.view.impl.BlockView;
 import ija.project.ui.view.impl.RobotView;
+import ija.project.ui.view.impl.RoomCanvasView;
+import ija.project.ui.view.impl.RoomViewport;
 import ija.project.util.json.JsonSerializer;
 import ija.project.util.json.RoomDTOSerializer;
+import ija.project.util.binary.RoomBinaryFormat;
+import ija.project.util.json.RoomJsonWriter;
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
+import javafx.scene.Node;
+import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Pane;
-import javafx.scene.transform.Scale;
 import javafx.stage.FileChooser;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -34,6 +46,10 @@ import java.io.*;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.function.UnaryOperator;
 
@@ -46,6 +62,27 @@ import java.util.function.UnaryOperator;
 public class AppViewController implements Initializable, PausableEntity {
     private static final org.slf4j.Logger log
             = org.slf4j.LoggerFactory.getLogger(AppViewController.class);
+
+    /**
+     * The description of the file chooser filter for JSON room files.
+     */
+    private static final String JSON_FILTER_NAME = "Json file";
+
+    /**
+     * The description of the file chooser filter for binary scene files.
+     */
+    private static final String SCENE_FILTER_NAME = "Binary scene";
+
+    /**
+     * The factor the zoom changes by with one step of the mouse wheel.
+     */
+    private static final double ZOOM_STEP = 1.25;
+
+    /**
+     * The part of the visible window added around it when culling the views, so the views of entities
+     * moving along the border of the pane are not repeatedly removed and created.
+     */
+    private static final double CULLING_MARGIN = 0.1;
     /**
      * The text field for the game time in seconds.
      */
@@ -109,6 +146,44 @@ public class AppViewController implements Initializable, PausableEntity {
      */
     private Room room;
 
+    /**
+     * Indicates whether the room is drawn onto a single canvas instead of per-entity nodes.
+     */
+    private boolean canvasRendering;
+
+    /**
+     * The canvas view drawing the room, or null when the room is drawn with per-entity nodes.
+     */
+    private RoomCanvasView canvasView;
+
+    /**
+     * The per-entity views currently shown in the pane, registered as observers of their entities.
+     */
+    @NonNull
+    private final Map<GameEntity, Observer> paneViews = new HashMap<>();
+
+    /**
+     * The part of the room shown in the pane.
+     */
+    @NonNull
+    private final RoomViewport viewport = new RoomViewport();
+
+    /**
+     * The timer culling the per-entity views on every frame, so only the visible entities have nodes.
+     */
+    @NonNull
+    private final AnimationTimer cullingTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            cullPaneViews();
+        }
+    };
+
+    /**
+     * The room coordinates of the point grabbed when moving the visible window by dragging.
+     */
+    private double grabX, grabY;
+
     /**
      * The pause button for the simulation.
      */
@@ -116,6 +191,18 @@ public class AppViewController implements Initializable, PausableEntity {
     @NonNull
     private Button pauseButton;
 
+    /**
+     * The progress bar shown while the room is being saved.
+     */
+    @FXML
+    @NonNull
+    private ProgressBar saveProgress;
+
+    /**
+     * The task saving the room in the background, or null if no save is running.
+     */
+    private Task<Void> saveTask;
+
     /**
      * Closes the application.
      *
@@ -126,11 +213,14 @@ public class AppViewController implements Initializable, PausableEntity {
     }
 
     /**
-     * Saves the current state of the room to a JSON file.
+     * Saves the current state of the room to a JSON or binary scene file, chosen in the dialog.
+     * The room is streamed to the file by a background task; the simulation stays paused and the room
+     * cannot be edited until the task finishes.
      *
      * @param actionEvent The event that triggered the method call.
      */
     public void saveStateToJson(ActionEvent actionEvent) {
+        if (isSaving()) return;
         pause();
         if (scene == null || scene.getWindow() == null) {
             log.error("Could not save file, no scene set");
@@ -141,46 +231,95 @@ public class AppViewController implements Initializable, PausableEntity {
             return;
         }
 
-        var filter = new FileChooser.ExtensionFilter("Json file", "*.json");
-        var fileChooser = new FileChooser();
-        fileChooser.setTitle("Save robot json file");
-        fileChooser.getExtensionFilters().add(filter);
+        var fileChooser = createRoomFileChooser("Save robot room file");
         var selectedFile = fileChooser.showSaveDialog(scene.getWindow());
 
         if (selectedFile != null) {
             log.info("File path: {}", selectedFile.getAbsolutePath());
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(selectedFile.getAbsolutePath()))) {
-                JsonSerializer<RoomDTO> serializer = new RoomDTOSerializer();
-                writer.write(serializer.serializeObject(new RoomDTO(this.room)));
-            } catch (IOException e) {
-                log.error("Failed to save file {}", e.getMessage());
-            }
+            var savedRoom = this.room;
+            var path = selectedFile.toPath();
+            var binary = isBinarySelected(fileChooser, path);
+            saveTask = new Task<>() {
+                @Override
+                protected Void call() throws IOException {
+                    if (binary) {
+                        RoomBinaryFormat.write(savedRoom, path, this::updateProgress);
+                    } else {
+                        new RoomJsonWriter().write(savedRoom, path, this::updateProgress);
+                    }
+                    return null;
+                }
+            };
+            saveTask.setOnSucceeded(e -> {
+                log.info("Room successfully saved");
+                setSaving(null);
+            });
+            saveTask.setOnFailed(e -> {
+                log.error("Failed to save file {}", saveTask.getException().getMessage());
+                setSaving(null);
+            });
+            setSaving(saveTask);
+
+            var thread = new Thread(saveTask, "room-save");
+            thread.setDaemon(true);
+            thread.start();
         }
     }
 
     /**
-     * Loads the state of the room from a JSON file.
+     * Checks if the room is being saved.
+     *
+     * @return True if a save is running, false otherwise.
+     */
+    public boolean isSaving() {
+        return saveTask != null;
+    }
+
+    /**
+     * Sets the running save task, locking the controls that could change the room while it runs.
+     *
+     * @param task The running task, or null when the save finished.
+     */
+    private void setSaving(Task<Void> task) {
+        saveTask = task;
+        var saving = task != null;
+        pauseButton.setDisable(saving);
+        gameTime.setDisable(saving);
+        scrollPane.setDisable(saving);
+        var infoPanel = borderPane.getRight();
+        if (infoPanel != null) infoPanel.setDisable(saving);
+        saveProgress.progressProperty().unbind();
+        if (saving) saveProgress.progressProperty().bind(task.progressProperty());
+        saveProgress.setVisible(saving);
+        saveProgress.setManaged(saving);
+    }
+
+    /**
+     * Loads the state of the room from a JSON or binary scene file, chosen in the dialog.
      *
      * @param actionEvent The event that triggered the method call.
      */
     public void loadStateFromJson(ActionEvent actionEvent) {
+        if (isSaving()) return;
         pause();
         if (scene == null || scene.getWindow() == null) {
             log.error("Could not load file, no scene set");
             return;
         }
 
-        var filter = new FileChooser.ExtensionFilter("Json file", "*.json");
-        var fileChooser = new FileChooser();
-        fileChooser.setTitle("Load robot json file");
-        fileChooser.getExtensionFilters().add(filter);
+        var fileChooser = createRoomFileChooser("Load robot room file");
         var selectedFile = fileChooser.showOpenDialog(scene.getWindow());
 
         if (selectedFile != null) {
             try {
-                var content = Files.readString(Path.of(selectedFile.getAbsolutePath()));
-                JsonSerializer<RoomDTO> serializer = new RoomDTOSerializer();
-                setRoom(serializer.deserilizeObject(content).buildEntity());
+                var path = selectedFile.toPath();
+                if (isBinarySelected(fileChooser, path)) {
+                    setRoom(RoomBinaryFormat.read(path));
+                } else {
+                    var content = Files.readString(path);
+                    JsonSerializer<RoomDTO> serializer = new RoomDTOSerializer();
+                    setRoom(serializer.deserilizeObject(content).buildEntity());
+                }
                 log.info("Room successfully loaded");
             } catch (IOException e) {
                 log.error("Error happened: {}", e.getMessage());
@@ -188,6 +327,68 @@ public class AppViewController implements Initializable, PausableEntity {
         }
     }
 
+    /**
+     * Creates a file chooser offering the JSON and the binary scene format.
+     *
+     * @param title The title of the dialog.
+     * @return The file chooser.
+     */
+    private static FileChooser createRoomFileChooser(String title) {
+        var fileChooser = new FileChooser();
+        fileChooser.setTitle(title);
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter(JSON_FILTER_NAME, "*.json"),
+                new FileChooser.ExtensionFilter(SCENE_FILTER_NAME, "*" + RoomBinaryFormat.EXTENSION));
+        return fileChooser;
+    }
+
+    /**
+     * Decides whether a file chosen in a room file chooser uses the binary scene format.
+     * The extension of the file takes precedence over the filter selected in the dialog.
+     *
+     * @param fileChooser The file chooser the file was chosen in.
+     * @param path        The chosen file.
+     * @return True if the file should be read or written as a binary scene, false for JSON.
+     */
+    private static boolean isBinarySelected(FileChooser fileChooser, Path path) {
+        if (RoomBinaryFormat.isSceneFile(path)) return true;
+        if (path.getFileName().toString().toLowerCase().endsWith(".json")) return false;
+        var filter = fileChooser.getSelectedExtensionFilter();
+        return filter != null && SCENE_FILTER_NAME.equals(filter.getDescription());
+    }
+
+    /**
+     * Switches between drawing the room onto a single canvas and drawing it with per-entity nodes.
+     *
+     * @param actionEvent The event that triggered the method call.
+     */
+    public void toggleCanvasRenderer(ActionEvent actionEvent) {
+        setCanvasRendering(!canvasRendering);
+    }
+
+    /**
+     * Checks if the room is drawn onto a single canvas.
+     *
+     * @return True if the canvas renderer is used, false if the room is drawn with per-entity nodes.
+     */
+    public boolean isCanvasRendering() {
+        return canvasRendering;
+    }
+
+    /**
+     * Selects how the room is drawn. The canvas renderer scales to rooms with thousands of robots,
+     * the node renderer creates JavaFX nodes for every entity.
+     *
+     * @param canvasRendering True to draw the room onto a single canvas.
+     */
+    public void setCanvasRendering(boolean canvasRendering) {
+        if (this.canvasRendering == canvasRendering) return;
+        this.canvasRendering = canvasRendering;
+        resetActiveView();
+        showRoom();
+        log.info("Canvas rendering {}", canvasRendering ? "enabled" : "disabled");
+    }
+
     /**
      * Shows help information.
      *
@@ -259,14 +460,13 @@ public class AppViewController implements Initializable, PausableEntity {
      * @param mouseEvent The event that triggered the method call.
      */
     public void addDefaultRobot(MouseEvent mouseEvent) {
+        if (isSaving()) return;
         pause();
         var magicValue = (getRoom().getWidth() + getRoom().getHeight()) / 2;
-        var robot = new Robot(room,
+        var robot = (Robot) execute(JournalCommand.ADD_ROBOT, null,
                 getRoom().getWidth() / 2, getRoom().getHeight() / 2,
-                magicValue * 0.05, 0,
-                magicValue * 0.08, 60, 12,
-                magicValue / 10, 180);
-        room.addRobot(robot);
+                magicValue * 0.05, magicValue / 10, 180, 12, 0,
+                magicValue * 0.08, 60);
         addRobotToPane(robot);
     }
 
@@ -276,15 +476,43 @@ public class AppViewController implements Initializable, PausableEntity {
      * @param mouseEvent The event that triggered the method call.
      */
     public void addDefaultBlock(MouseEvent mouseEvent) {
+        if (isSaving()) return;
         pause();
         var magicValue = (getRoom().getWidth() + getRoom().getHeight()) / 2;
-        var block = new Block(room,
+        var block = (Block) execute(JournalCommand.ADD_BLOCK, null,
                 getRoom().getWidth() / 2, getRoom().getHeight() / 2,
                 magicValue * 0.05, magicValue * 0.05);
-        room.addBlock(block);
         addBlockToPane(block);
     }
 
+    /**
+     * Applies an input to the room through the animation timer, which records it into the input journal.
+     * Every change of the room made by the user must go through this method, so the session can be replayed.
+     * Inputs are ignored while the room is being saved, so the saved state is not changed under the writer.
+     *
+     * @param command The command.
+     * @param entity  The targeted robot or block of the room, or null if the command targets the room.
+     * @param values  The values of the command.
+     * @return The targeted entity, the added entity for commands adding one, or the room.
+     *         The targeted entity if the input was ignored.
+     */
+    public GameEntity execute(@NonNull JournalCommand command, GameEntity entity, @NonNull double... values) {
+        if (isSaving()) {
+            log.warn("Ignoring {} while the room is being saved", command);
+            return entity;
+        }
+        return roomAnimationTimer.execute(command, entity, values);
+    }
+
+    /**
+     * Stops the animation of the room and ends its input journal. Called when the application exits.
+     */
+    public void dispose() {
+        cullingTimer.stop();
+        if (roomAnimationTimer != null) roomAnimationTimer.dispose();
+        roomAnimationTimer = null;
+    }
+
     /**
      * Initializes the controller.
      *
@@ -316,14 +544,152 @@ public class AppViewController implements Initializable, PausableEntity {
 
         scrollPane.viewportBoundsProperty().addListener(
                 (obs, oldVal, newVal) -> {
-                    if (room == null) return;
-                    pane.getTransforms().setAll(new Scale(
-                            newVal.getWidth() / room.getWidth(),
-                            newVal.getHeight() / room.getHeight()
-                    ));
+                    viewport.setPaneSize(newVal.getWidth(), newVal.getHeight());
+                    applyViewport();
                 }
         );
+        configureViewportNavigation();
+        configureGoalSelection();
+        cullingTimer.start();
+
+    }
+
+    /**
+     * Configures zooming into the room with the mouse wheel and moving the visible window by dragging
+     * with the secondary or middle mouse button. The scroll bars are not used, the window is kept inside the room.
+     */
+    private void configureViewportNavigation() {
+        scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
+        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
+        scrollPane.setPannable(false);
+
+        scrollPane.addEventFilter(ScrollEvent.SCROLL, e -> {
+            if (room == null || e.getDeltaY() == 0) return;
+            var pivot = pane.sceneToLocal(e.getSceneX(), e.getSceneY());
+            viewport.zoomAt(e.getDeltaY() > 0 ? ZOOM_STEP : 1 / ZOOM_STEP, pivot.getX(), pivot.getY());
+            applyViewport();
+            e.consume();
+        });
+        scrollPane.addEventFilter(MouseEvent.MOUSE_PRESSED, e -> {
+            if (!isPanButton(e.getButton())) return;
+            var grabbed = pane.sceneToLocal(e.getSceneX(), e.getSceneY());
+            grabX = grabbed.getX();
+            grabY = grabbed.getY();
+            e.consume();
+        });
+        scrollPane.addEventFilter(MouseEvent.MOUSE_DRAGGED, e -> {
+            if (!isPanButton(e.getButton())) return;
+            var current = pane.sceneToLocal(e.getSceneX(), e.getSceneY());
+            viewport.moveBy(grabX - current.getX(), grabY - current.getY());
+            applyViewport();
+            e.consume();
+        });
+    }
+
+    /**
+     * Configures setting the goal of the active robot by clicking into the room with the primary button
+     * while holding SHIFT. The robot is switched to GOAL mode and plans its route on the next step.
+     */
+    private void configureGoalSelection() {
+        scrollPane.addEventFilter(MouseEvent.MOUSE_CLICKED, e -> {
+            if (room == null || activeRobot == null || !e.isShiftDown() || e.getButton() != MouseButton.PRIMARY)
+                return;
+            var goal = pane.sceneToLocal(e.getSceneX(), e.getSceneY());
+            var robot = activeRobot.getEntity();
+            execute(JournalCommand.SET_GOAL, robot, goal.getX(), goal.getY());
+            execute(JournalCommand.SET_MODE, robot, RobotMode.GOAL.ordinal());
+            e.consume();
+        });
+    }
+
+    /**
+     * Checks whether a mouse button moves the visible window.
+     *
+     * @param button The mouse button.
+     * @return True for the secondary and middle buttons.
+     */
+    private static boolean isPanButton(MouseButton button) {
+        return button == MouseButton.SECONDARY || button == MouseButton.MIDDLE;
+    }
+
+    /**
+     * Maps the visible window of the room onto the pane.
+     */
+    private void applyViewport() {
+        pane.getTransforms().setAll(viewport.createTransforms());
+    }
 
+    /**
+     * Gets the part of the room shown in the pane.
+     *
+     * @return The viewport.
+     */
+    public RoomViewport getViewport() {
+        return viewport;
+    }
+
+    /**
+     * Keeps per-entity views only for the entities in the visible window, with a margin around it.
+     * Views of entities that left the window are removed from the pane and unregistered from their entities,
+     * views of entities that entered it are created. The views of the active robot and block are kept,
+     * so the selection survives moving the window. The entities are simulated regardless of their views.
+     */
+    private void cullPaneViews() {
+        if (room == null || canvasView != null) return;
+        var marginX = viewport.getWidth() * CULLING_MARGIN;
+        var marginY = viewport.getHeight() * CULLING_MARGIN;
+        var minX = viewport.getMinX() - marginX;
+        var minY = viewport.getMinY() - marginY;
+        var maxX = viewport.getMaxX() + marginX;
+        var maxY = viewport.getMaxY() + marginY;
+
+        var removed = new HashSet<Node>();
+        var iterator = paneViews.entrySet().iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            var view = entry.getValue();
+            if (view == activeRobot || view == activeBlock || isInside(entry.getKey(), minX, minY, maxX, maxY))
+                continue;
+            entry.getKey().removeObserver(view);
+            removed.addAll(((View) view).getDrawableShapes());
+            iterator.remove();
+        }
+        if (!removed.isEmpty()) pane.getChildren().removeAll(removed);
+
+        var entered = new ArrayList<GameEntity>();
+        room.forEachBlockIn(minX, minY, maxX, maxY, b -> {
+            if (!paneViews.containsKey(b)) entered.add(b);
+        });
+        room.forEachRobotReaching(minX, minY, maxX, maxY, r -> {
+            if (!paneViews.containsKey(r) && isInside(r, minX, minY, maxX, maxY)) entered.add(r);
+        });
+        for (var entity : entered) {
+            if (entity instanceof Block b) addBlockToPane(b);
+            else addRobotToPane((Robot) entity);
+        }
+    }
+
+    /**
+     * Checks whether the drawn shapes of an entity intersect a box of the room.
+     *
+     * @param entity The robot or block.
+     * @param minX   The minimal X coordinate of the box.
+     * @param minY   The minimal Y coordinate of the box.
+     * @param maxX   The maximal X coordinate of the box.
+     * @param maxY   The maximal Y coordinate of the box.
+     * @return True if the entity may be visible in the box.
+     */
+    private static boolean isInside(GameEntity entity, double minX, double minY, double maxX, double maxY) {
+        if (entity instanceof Robot r) {
+            var reach = Math.max(r.getRobotRadius(), r.getArcRadius());
+            return r.getCenterX() + reach >= minX && r.getCenterX() - reach <= maxX
+                    && r.getCenterY() + reach >= minY && r.getCenterY() - reach <= maxY;
+        }
+        if (entity instanceof Block b) {
+            return b.getLeftTopX() + b.getWidth() >= minX && b.getLeftTopX() <= maxX
+                    && b.getLeftTopY() + b.getHeight() >= minY && b.getLeftTopY() <= maxY;
+        }
+        return false;
     }
 
     /**
@@ -403,9 +769,11 @@ public class AppViewController implements Initializable, PausableEntity {
 
             this.activeBlockInfoViewController = loader.getController();
             this.activeBlockInfoViewController.setBlock((Block)activeBlock.getEntity());
+            this.activeBlockInfoViewController.setAppViewController(this);
             activeBlock.getEntity().addObserver(this.activeBlockInfoViewController);
             this.activeBlockInfoViewController.update(null);
 
+            pane.setDisable(isSaving());
             this.borderPane.setRight(pane);
         } catch (Exception e) {
             log.error("Failed to load more info for block... {}", e.getMessage());
@@ -432,9 +800,11 @@ public class AppViewController implements Initializable, PausableEntity {
 
             this.activeRobotInfoViewController = loader.getController();
             this.activeRobotInfoViewController.setRobot((Robot)activeRobot.getEntity());
+            this.activeRobotInfoViewController.setAppViewController(this);
             activeRobot.getEntity().addObserver(this.activeRobotInfoViewController);
             this.activeRobotInfoViewController.update(null);
 
+            pane.setDisable(isSaving());
             this.borderPane.setRight(pane);
         } catch (Exception e) {
             log.error("Failed to load more info for robot... {}", e.getMessage());
@@ -448,15 +818,48 @@ public class AppViewController implements Initializable, PausableEntity {
      */
     public void setRoom(Room room) {
         this.room = room;
-        if (roomAnimationTimer != null) roomAnimationTimer.stop();
-        pane.getChildren().clear();
+        if (roomAnimationTimer != null) roomAnimationTimer.dispose();
 
-        if (room == null) return;
+        if (room == null) {
+            clearPane();
+            return;
+        }
 
         roomAnimationTimer = new RoomAnimationTimer(room);
         roomAnimationTimer.start();
 
-        addRoomToPane(room);
+        viewport.setRoom(room);
+        applyViewport();
+        showRoom();
+    }
+
+    /**
+     * Replaces the content of the pane with the current room, drawn by the selected renderer.
+     */
+    private void showRoom() {
+        clearPane();
+        if (room == null) return;
+
+        if (canvasRendering) {
+            canvasView = new RoomCanvasView(this, room);
+            pane.getChildren().add(canvasView.getCanvas());
+            canvasView.start();
+        } else {
+            cullPaneViews();
+        }
+    }
+
+    /**
+     * Removes all views from the pane and unregisters them from their entities.
+     */
+    private void clearPane() {
+        if (canvasView != null) {
+            canvasView.stop();
+            canvasView = null;
+        }
+        paneViews.forEach(GameEntity::removeObserver);
+        paneViews.clear();
+        pane.getChildren().clear();
     }
 
     /**
@@ -492,9 +895,11 @@ public class AppViewController implements Initializable, PausableEntity {
      * @return The scroll pane for the simulation environment.
      */
     private void addRobotToPane(@NonNull Robot robot) {
+        if (canvasView != null) return;
         var robotView = new RobotView(this, robot);
         this.pane.getChildren().addAll(robotView.getDrawableShapes());
         robot.addObserver(robotView);
+        paneViews.put(robot, robotView);
     }
 
     /**
@@ -503,24 +908,11 @@ public class AppViewController implements Initializable, PausableEntity {
      * @param block The block entity to be added.
      */
     private void addBlockToPane(@NonNull Block block) {
+        if (canvasView != null) return;
         var blockView = new BlockView(this, block);
-        this.pane.getChildren().addAll(blockView.getDrawableShapes());
+        this.pane.getChildren().addAll(0, blockView.getDrawableShapes());
         block.addObserver(blockView);
-    }
-
-    /**
-     * Adds a room entity to the simulation environment.
-     *
-     * @param room The room entity to be added.
-     */
-    private void addRoomToPane(@NonNull Room room) {
-        for (var r : room.getRobots()) {
-            addRobotToPane(r);
-        }
-
-        for (var b : room.getBlocks()) {
-            addBlockToPane(b);
-        }
+        paneViews.put(block, blockView);
     }
 
     /**
@@ -4,6 +4,7 @@
  */
 package ija.project.ui.controller;
 
+import ija.project.journal.JournalCommand;
 import ija.project.model.GameEntity;
 import ija.project.model.impl.Block;
 import ija.project.observer.Observable;
@@ -64,6 +65,11 @@ public class BlockInfoViewController implements Observer {
      */
     private Block block;
 
+    /**
+     * The application view controller the changes of the block are applied through.
+     */
+    private AppViewController appViewController;
+
     /**
      * Handles changes to the X coordinate of the block's top-left corner.
      * Attempts to parse the input and update the block's position.
@@ -72,7 +78,7 @@ public class BlockInfoViewController implements Observer {
      */
     public void onCoordinateXChnage(ActionEvent inputMethodEvent) {
         try {
-            block.setLeftTopX(Double.parseDouble(leftTopX.getText()));
+            appViewController.execute(JournalCommand.SET_LEFT_TOP_X, block, Double.parseDouble(leftTopX.getText()));
         } catch (Exception e) {
             log.error("Failed to set left top X", e);
         }
@@ -86,7 +92,7 @@ public class BlockInfoViewController implements Observer {
      */
     public void onCoordinateYChnage(ActionEvent inputMethodEvent) {
         try {
-            block.setLeftTopY(Double.parseDouble(leftTopY.getText()));
+            appViewController.execute(JournalCommand.SET_LEFT_TOP_Y, block, Double.parseDouble(leftTopY.getText()));
         } catch (Exception e) {
             log.error("Failed to set left top Y", e);
         }
@@ -100,7 +106,7 @@ public class BlockInfoViewController implements Observer {
      */
     public void onWidthChange(ActionEvent inputMethodEvent) {
         try {
-            block.setWidth(Double.parseDouble(width.getText()));
+            appViewController.execute(JournalCommand.SET_WIDTH, block, Double.parseDouble(width.getText()));
         } catch (Exception e) {
             log.error("Failed to set width", e);
         }
@@ -114,7 +120,7 @@ public class BlockInfoViewController implements Observer {
      */
     public void onHeightChange(ActionEvent inputMethodEvent) {
         try {
-            block.setHeight(Double.parseDouble(height.getText()));
+            appViewController.execute(JournalCommand.SET_HEIGHT, block, Double.parseDouble(height.getText()));
         } catch (Exception e) {
             log.error("Failed to set height", e);
         }
@@ -149,6 +155,15 @@ public class BlockInfoViewController implements Observer {
         this.block = block;
     }
 
+    /**
+     * Sets the application view controller the changes of the block are applied through.
+     *
+     * @param appViewController The application view controller.
+     */
+    public void setAppViewController(AppViewController appViewController) {
+        this.appViewController = appViewController;
+    }
+
     /**
      * Gets the block currently managed by this controller.
      *
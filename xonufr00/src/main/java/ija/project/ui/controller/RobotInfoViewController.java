@@ -4,6 +4,7 @@
  */
 package ija.project.ui.controller;
 
+import ija.project.journal.JournalCommand;
 import ija.project.model.impl.Robot;
 import ija.project.observer.Observable;
 import ija.project.observer.Observer;
@@ -90,6 +91,11 @@ public class RobotInfoViewController implements Observer {
      */
     private Robot robot;
 
+    /**
+     * The application view controller the changes of the robot are applied through.
+     */
+    private AppViewController appViewController;
+
     /**
      * Handles changes to the robot's center X coordinate.
      * Attempts to parse the input and update the robot's position.
@@ -98,7 +104,7 @@ public class RobotInfoViewController implements Observer {
      */
     public void onCoordinateXChange(ActionEvent actionEvent) {
         try {
-            robot.setCenterX(Double.parseDouble(centerX.getText()));
+            appViewController.execute(JournalCommand.SET_CENTER_X, robot, Double.parseDouble(centerX.getText()));
         } catch (Exception e) {
             log.error("Failed to set center X", e);
         }
@@ -112,7 +118,7 @@ public class RobotInfoViewController implements Observer {
      */
     public void onCoordinateYChange(ActionEvent actionEvent) {
         try {
-            robot.setCenterY(Double.parseDouble(centerY.getText()));
+            appViewController.execute(JournalCommand.SET_CENTER_Y, robot, Double.parseDouble(centerY.getText()));
         } catch (Exception e) {
             log.error("Failed to set center Y", e);
         }
@@ -126,7 +132,7 @@ public class RobotInfoViewController implements Observer {
      */
     public void onRobotRadiusChange(ActionEvent actionEvent) {
         try {
-            robot.setRobotRadius(Double.parseDouble(radius.getText()));
+            appViewController.execute(JournalCommand.SET_ROBOT_RADIUS, robot, Double.parseDouble(radius.getText()));
         } catch (Exception e) {
             log.error("Failed to set radius", e);
         }
@@ -140,7 +146,7 @@ public class RobotInfoViewController implements Observer {
      */
     public void onMovementSpeedChange(ActionEvent inputMethodEvent) {
         try {
-            robot.setSpeedPerSecond(Double.parseDouble(movementSpeed.getText()));
+            appViewController.execute(JournalCommand.SET_SPEED, robot, Double.parseDouble(movementSpeed.getText()));
         } catch (Exception e) {
             log.error("Failed to set movement speed", e);
         }
@@ -154,7 +160,7 @@ public class RobotInfoViewController implements Observer {
      */
     public void onRotationSpeedChange(ActionEvent actionEvent) {
         try {
-            robot.setRotationSpeedPerSecInDegrees(
+            appViewController.execute(JournalCommand.SET_ROTATION_SPEED, robot,
                     Double.parseDouble(rotationSpeed.getText()));
         } catch (Exception e) {
             log.error("Failed to set rotation speed", e);
@@ -169,7 +175,8 @@ public class RobotInfoViewController implements Observer {
      */
     public void onRotationSampleChange(ActionEvent actionEvent) {
         try {
-            robot.setRotationDegreeSample(Double.parseDouble(rotationSample.getText()));
+            appViewController.execute(JournalCommand.SET_ROTATION_SAMPLE, robot,
+                    Double.parseDouble(rotationSample.getText()));
         } catch (Exception e) {
             log.error("Failed to set rotation", e);
         }
@@ -183,7 +190,7 @@ public class RobotInfoViewController implements Observer {
      */
     public void onCurrentAngleChange(ActionEvent actionEvent) {
         try {
-            robot.setRobotCurrentAngle(Double.parseDouble(angle.getText()));
+            appViewController.execute(JournalCommand.SET_ROBOT_ANGLE, robot, Double.parseDouble(angle.getText()));
         } catch (Exception e) {
             log.error("Failed to set current angle", e);
         }
@@ -197,7 +204,7 @@ public class RobotInfoViewController implements Observer {
      */
     public void onArcLengthChange(ActionEvent actionEvent) {
         try {
-            robot.setArcExtent(Double.parseDouble(arcLength.getText()));
+            appViewController.execute(JournalCommand.SET_ARC_EXTENT, robot, Double.parseDouble(arcLength.getText()));
         } catch (Exception e) {
             log.error("Failed to set arc length", e);
         }
@@ -211,7 +218,7 @@ public class RobotInfoViewController implements Observer {
      */
     public void onArcRadiusChange(ActionEvent actionEvent) {
         try {
-            robot.setArcRadius(Double.parseDouble(arcRadius.getText()));
+            appViewController.execute(JournalCommand.SET_ARC_RADIUS, robot, Double.parseDouble(arcRadius.getText()));
         } catch (Exception e) {
             log.error("Failed to set arc radius", e);
         }
@@ -259,4 +266,13 @@ public class RobotInfoViewController implements Observer {
     public void setRobot(Robot robot) {
         this.robot = robot;
     }
+
+    /**
+     * Sets the application view controller the changes of the robot are applied through.
+     *
+     * @param appViewController The application view controller.
+     */
+    public void setAppViewController(AppViewController appViewController) {
+        this.appViewController = appViewController;
+    }
 }
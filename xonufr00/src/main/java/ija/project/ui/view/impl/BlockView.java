@@ -4,6 +4,7 @@
  */
 package ija.project.ui.view.impl;
 
+import ija.project.journal.JournalCommand;
 import ija.project.model.GameEntity;
 import ija.project.model.impl.Block;
 import ija.project.observer.Observable;
@@ -12,9 +13,11 @@ import ija.project.ui.controller.AppViewController;
 import ija.project.ui.controller.BlockInfoViewController;
 import ija.project.ui.view.ActivatingView;
 import ija.project.ui.view.View;
+import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
 import javafx.scene.shape.Shape;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +29,7 @@ import java.util.List;
  * This class is responsible for managing the visual representation of a block entity
  * within the application's graphical user interface. It allows users to view and edit
  * the properties of a selected block, such as its dimensions and position.
+ * The view owns the JavaFX node of the block and copies the model's numeric state into it on every update.
  */
 public class BlockView implements Observer, ActivatingView {
     private static final org.slf4j.Logger log
@@ -47,6 +51,12 @@ public class BlockView implements Observer, ActivatingView {
     @NonNull
     private final Block block;
 
+    /**
+     * The graphical representation of the block.
+     */
+    @NonNull
+    private final Rectangle blockFrame;
+
     /**
      * Constructs a new BlockView with the specified application view controller and block entity.
      *
@@ -58,6 +68,7 @@ public class BlockView implements Observer, ActivatingView {
             @NonNull Block block) {
         this.appViewController = appViewController;
         this.block = block;
+        this.blockFrame = new Rectangle();
 
         configureMouseListener();
         configureKeyboardListener();
@@ -75,7 +86,20 @@ public class BlockView implements Observer, ActivatingView {
      */
     @Override
     public void update(Observable o) {
-        this.block.getBlockFrame().setFill(BLOCK_COLOR);
+        this.blockFrame.setX(block.getLeftTopX());
+        this.blockFrame.setY(block.getLeftTopY());
+        this.blockFrame.setWidth(block.getWidth());
+        this.blockFrame.setHeight(block.getHeight());
+        this.blockFrame.setFill(BLOCK_COLOR);
+    }
+
+    /**
+     * Gets the fill color of blocks.
+     *
+     * @return The color of the block.
+     */
+    static Color getBlockColor() {
+        return BLOCK_COLOR;
     }
 
     /**
@@ -84,7 +108,7 @@ public class BlockView implements Observer, ActivatingView {
     public void activateView() {
         this.appViewController.setActiveBlock(this);
         highlight();
-        this.block.getBlockFrame().requestFocus();
+        this.blockFrame.requestFocus();
     }
 
     /**
@@ -108,73 +132,91 @@ public class BlockView implements Observer, ActivatingView {
      * Highlights the block, making it more visible in the application.
      */
     public void highlight() {
-        this.block.getBlockFrame().setStroke(Color.RED);
+        this.blockFrame.setStroke(Color.RED);
     }
 
     /**
      * Lowers the block's visibility, making it less prominent in the application.
      */
     public void lowlight() {
-        this.block.getBlockFrame().setStroke(Color.BLACK);
+        this.blockFrame.setStroke(Color.BLACK);
     }
 
     /**
      * Configures the mouse listener for the block entity.
      */
     private void configureMouseListener() {
-        block.getBlockFrame().addEventHandler(
-                MouseEvent.MOUSE_CLICKED, e -> {
-                    if (e.getClickCount() > 0) {
-                        if (isActivatedView()) deactivateView(); else activateView();
-                    }
-                    log.info("Clicked the block time = {}", e.getClickCount());
-                }
-        );
+        blockFrame.addEventHandler(MouseEvent.MOUSE_CLICKED, e -> handleClick(e.getClickCount()));
+    }
+
+    /**
+     * Handles a mouse click on the block by toggling the activation state of the view.
+     *
+     * @param clickCount The number of consecutive clicks.
+     */
+    public void handleClick(int clickCount) {
+        if (clickCount > 0) {
+            if (isActivatedView()) deactivateView(); else activateView();
+        }
+        log.info("Clicked the block time = {}", clickCount);
+    }
+
+    /**
+     * Handles dragging of the block by centering it on the mouse position.
+     *
+     * @param x The X coordinate of the mouse in room coordinates.
+     * @param y The Y coordinate of the mouse in room coordinates.
+     */
+    public void handleDrag(double x, double y) {
+        appViewController.execute(JournalCommand.SET_LEFT_TOP_Y, block, y - block.getHeight() / 2);
+        appViewController.execute(JournalCommand.SET_LEFT_TOP_X, block, x - block.getWidth() / 2);
     }
 
     /**
      * Makes the block draggable within the application.
      */
     private void makeDraggable() {
-        block.getBlockFrame().setOnMouseDragged(mouseEvent -> {
-            block.setLeftTopY(mouseEvent.getY() - block.getHeight() / 2);
-            block.setLeftTopX(mouseEvent.getX() - block.getWidth() / 2);
-        });
+        blockFrame.setOnMouseDragged(mouseEvent -> handleDrag(mouseEvent.getX(), mouseEvent.getY()));
     }
 
     /**
      * Configures the keyboard listener for the block entity.
      */
     private void configureKeyboardListener() {
-        block.getBlockFrame().addEventHandler(
-                KeyEvent.KEY_PRESSED, e -> {
-                    log.info("Pressed key edit for the block frame: {}", e.getCode());
-                    log.info("Test block {} {}", this.block.isPaused(), isActivatedView());
-                    if (!this.block.isPaused() || !isActivatedView()) return;;
-                    switch (e.getCode()) {
-                        case LEFT:
-                            block.setWidth(
-                                    block.getWidth() * 0.95
-                            );
-                            break;
-                        case RIGHT:
-                            block.setWidth(
-                                    block.getWidth() * 1.05
-                            );
-                            break;
-                        case UP:
-                            block.setHeight(
-                                    block.getHeight() * 1.05
-                            );
-                            break;
-                        case DOWN:
-                            block.setHeight(
-                                    block.getHeight() * 0.95
-                            );
-                            break;
-                    }
-                }
-        );
+        blockFrame.addEventHandler(KeyEvent.KEY_PRESSED, e -> handleKeyPressed(e.getCode()));
+    }
+
+    /**
+     * Handles a key editing the block's dimensions in edit mode.
+     *
+     * @param code The code of the pressed key.
+     */
+    public void handleKeyPressed(@NonNull KeyCode code) {
+        log.info("Pressed key edit for the block frame: {}", code);
+        log.info("Test block {} {}", this.block.isPaused(), isActivatedView());
+        if (!this.block.isPaused() || !isActivatedView()) return;;
+        switch (code) {
+            case LEFT:
+                appViewController.execute(JournalCommand.SET_WIDTH, block,
+                        block.getWidth() * 0.95
+                );
+                break;
+            case RIGHT:
+                appViewController.execute(JournalCommand.SET_WIDTH, block,
+                        block.getWidth() * 1.05
+                );
+                break;
+            case UP:
+                appViewController.execute(JournalCommand.SET_HEIGHT, block,
+                        block.getHeight() * 1.05
+                );
+                break;
+            case DOWN:
+                appViewController.execute(JournalCommand.SET_HEIGHT, block,
+                        block.getHeight() * 0.95
+                );
+                break;
+        }
     }
 
     /**
@@ -194,6 +236,6 @@ public class BlockView implements Observer, ActivatingView {
      */
     @Override
     public List<Shape> getDrawableShapes() {
-        return this.block.getDrawableShapes();
+        return List.of(blockFrame);
     }
 }
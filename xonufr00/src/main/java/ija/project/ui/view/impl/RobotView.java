@@ -4,6 +4,7 @@
  */
 package ija.project.ui.view.impl;
 
+import ija.project.journal.JournalCommand;
 import ija.project.model.GameEntity;
 import ija.project.model.enums.RobotMode;
 import ija.project.model.impl.Robot;
@@ -12,10 +13,14 @@ import ija.project.observer.Observer;
 import ija.project.ui.controller.AppViewController;
 import ija.project.ui.view.ActivatingView;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.Arc;
+import javafx.scene.shape.ArcType;
+import javafx.scene.shape.Ellipse;
 import javafx.scene.shape.Shape;
 import lombok.NonNull;
 import org.slf4j.Logger;
@@ -28,6 +33,7 @@ import java.util.List;
  * This class is responsible for managing the visual representation of a robot entity
  * within the application's graphical user interface. It allows users to view and edit
  * the properties of a selected robot, such as its dimensions and position.
+ * The view owns the JavaFX nodes of the robot and copies the model's numeric state into them on every update.
  */
 public class RobotView implements Observer, ActivatingView {
 
@@ -61,6 +67,11 @@ public class RobotView implements Observer, ActivatingView {
      */
     private static final Color USER_ROBOT_FRAME_COLOR = Color.GREEN;
 
+    /**
+     * The color of the robot frame when it is in goal-seeking mode.
+     */
+    private static final Color GOAL_ROBOT_FRAME_COLOR = Color.ORANGE;
+
     /**
      * The application view controller.
      */
@@ -72,6 +83,18 @@ public class RobotView implements Observer, ActivatingView {
     @NonNull
     private final Robot robot;
 
+    /**
+     * The graphical representation of the robot.
+     */
+    @NonNull
+    private final Ellipse robotFrame;
+
+    /**
+     * The graphical representation of the robot's detection arc.
+     */
+    @NonNull
+    private final Arc detectionArc;
+
     /**
      * Constructs a new RobotView with the specified application view controller and robot entity.
      *
@@ -82,6 +105,10 @@ public class RobotView implements Observer, ActivatingView {
         this.appViewController = controller;
         this.robot = robot;
 
+        this.robotFrame = new Ellipse();
+        this.detectionArc = new Arc();
+        this.detectionArc.setType(ArcType.ROUND);
+
         configureMouseListener();
         configureKeyboardListenerForEditMode();
         configureKeyboardListenerForUserMode();
@@ -98,23 +125,52 @@ public class RobotView implements Observer, ActivatingView {
      */
     @Override
     public void update(Observable o) {
-        var robotFrameColor = robot.getMode() == RobotMode.USER ? USER_ROBOT_FRAME_COLOR : ROBOT_FRAME_COLOR;
-        var arcColor = ARC_COLOR;
+        syncShapes();
+        this.robotFrame.setFill(getFrameColor(robot));
+        this.detectionArc.setFill(getArcColor(robot));
+    }
 
-        if (robot.hasDetected()) {
-            arcColor = DETECTED_OR_COLLIDING_COLOR;
-        }
+    /**
+     * Gets the color of a robot's frame, reflecting its mode and state.
+     *
+     * @param robot The robot entity.
+     * @return The fill color of the robot's frame.
+     */
+    static Color getFrameColor(@NonNull Robot robot) {
+        if (robot.isColliding() || robot.isOutOfRoom()) return DETECTED_OR_COLLIDING_COLOR;
+        if (robot.isRotating()) return ROTATING_COLOR;
+        return switch (robot.getMode()) {
+            case USER -> USER_ROBOT_FRAME_COLOR;
+            case GOAL -> GOAL_ROBOT_FRAME_COLOR;
+            case AI -> ROBOT_FRAME_COLOR;
+        };
+    }
 
-        if (robot.isRotating()) {
-            robotFrameColor = ROTATING_COLOR;
-        }
+    /**
+     * Gets the color of a robot's detection arc, reflecting whether it detects an obstacle.
+     *
+     * @param robot The robot entity.
+     * @return The fill color of the detection arc.
+     */
+    static Color getArcColor(@NonNull Robot robot) {
+        return robot.hasDetected() ? DETECTED_OR_COLLIDING_COLOR : ARC_COLOR;
+    }
 
-        if (robot.isColliding() || robot.isOutOfRoom()) {
-            robotFrameColor = DETECTED_OR_COLLIDING_COLOR;
-        }
+    /**
+     * Copies the geometry of the robot entity into its JavaFX nodes.
+     */
+    private void syncShapes() {
+        this.robotFrame.setCenterX(robot.getCenterX());
+        this.robotFrame.setCenterY(robot.getCenterY());
+        this.robotFrame.setRadiusX(robot.getRobotRadius());
+        this.robotFrame.setRadiusY(robot.getRobotRadius());
 
-        this.robot.getRobotFrame().setFill(robotFrameColor);
-        this.robot.getDetectionArc().setFill(arcColor);
+        this.detectionArc.setCenterX(robot.getCenterX());
+        this.detectionArc.setCenterY(robot.getCenterY());
+        this.detectionArc.setRadiusX(robot.getArcRadius());
+        this.detectionArc.setRadiusY(robot.getArcRadius());
+        this.detectionArc.setStartAngle(robot.getArcStartAngle());
+        this.detectionArc.setLength(robot.getArcExtent());
     }
 
     /**
@@ -123,7 +179,7 @@ public class RobotView implements Observer, ActivatingView {
     public void activateView() {
         this.appViewController.setActiveRobot(this);
         highlight();
-        this.robot.getRobotFrame().requestFocus();
+        this.robotFrame.requestFocus();
     }
 
     /**
@@ -147,14 +203,14 @@ public class RobotView implements Observer, ActivatingView {
      * Highlights the robot, making it more visible in the application.
      */
     public void highlight() {
-        this.robot.getRobotFrame().setStroke(Color.RED);
+        this.robotFrame.setStroke(Color.RED);
     }
 
     /**
      * Lowers the visibility of the robot in the application.
      */
     public void lowlight() {
-        this.robot.getRobotFrame().setStroke(Color.BLACK);
+        this.robotFrame.setStroke(Color.BLACK);
     }
 
     /**
@@ -174,7 +230,7 @@ public class RobotView implements Observer, ActivatingView {
      */
     @Override
     public List<Shape> getDrawableShapes() {
-        return robot.getDrawableShapes();
+        return List.of(robotFrame, detectionArc);
     }
 
     /**
@@ -185,23 +241,54 @@ public class RobotView implements Observer, ActivatingView {
      * It also requests focus for the robot frame upon a click event.
      */
     private void configureMouseListener() {
-        this.robot.getRobotFrame().addEventHandler(
+        this.robotFrame.addEventHandler(
                 MouseEvent.MOUSE_CLICKED, e -> {
-                    if (e.getClickCount() > 0) {
-                        if (isActivatedView()) deactivateView(); else activateView();
-                        this.robot.getRobotFrame().requestFocus();
-                    }
-                    if (e.getClickCount() >= 2) {
-                        if (this.robot.getMode() == RobotMode.AI) {
-                            this.robot.setMode(RobotMode.USER);
-                        } else {
-                            this.robot.setMode(RobotMode.AI);
-                        }
-                    }
-                    log.info("Clicked the robot time = {}", e.getClickCount());
+                    handleClick(e.getClickCount());
+                    if (e.getClickCount() > 0) this.robotFrame.requestFocus();
                 }
         );
     }
+
+    /**
+     * Handles a mouse click on the robot.
+     * A single click toggles the activation state of the view, a double click also toggles
+     * the robot's mode between AI and USER.
+     *
+     * @param clickCount The number of consecutive clicks.
+     */
+    public void handleClick(int clickCount) {
+        if (clickCount > 0) {
+            if (isActivatedView()) deactivateView(); else activateView();
+        }
+        if (clickCount >= 2) {
+            var mode = this.robot.getMode() == RobotMode.AI ? RobotMode.USER : RobotMode.AI;
+            appViewController.execute(JournalCommand.SET_MODE, robot, mode.ordinal());
+        }
+        log.info("Clicked the robot time = {}", clickCount);
+    }
+
+    /**
+     * Handles a key pressed while the robot has the focus, both in edit mode and in USER mode.
+     *
+     * @param code The code of the pressed key.
+     */
+    public void handleKeyPressed(@NonNull KeyCode code) {
+        handleEditKey(code);
+        handleArcEditKey(code);
+        handleUserKey(code);
+    }
+
+    /**
+     * Handles dragging of the robot by moving its center to the mouse position.
+     *
+     * @param x The X coordinate of the mouse in room coordinates.
+     * @param y The Y coordinate of the mouse in room coordinates.
+     */
+    public void handleDrag(double x, double y) {
+        appViewController.execute(JournalCommand.SET_CENTER_Y, robot, y);
+        appViewController.execute(JournalCommand.SET_CENTER_X, robot, x);
+    }
+
     /**
      * Configures the keyboard listener for controlling the robot in USER mode.
      * This method sets up handling for key press events when the robot is in USER mode and not paused,
@@ -212,29 +299,34 @@ public class RobotView implements Observer, ActivatingView {
      * It logs the pressed key and any unimplemented keyboard events.
      */
     private void configureKeyboardListenerForUserMode() {
-        this.robot.getRobotFrame().addEventHandler(
-                KeyEvent.KEY_PRESSED, e -> {
-                    log.info("Pressed key for the robot control: {}", e.getCode());
-
-                    if (this.robot.isPaused() || this.robot.getMode() != RobotMode.USER)
-                        return;
-
-                    switch (e.getCode()) {
-                        case LEFT:
-                            this.robot.turn(false);
-                            break;
-                        case RIGHT:
-                            this.robot.turn(true);
-                            break;
-                        case SPACE:
-                            this.robot.toggleMovement();
-                            break;
-                        default:
-                            log.info("Not implemented keyboard event: {} ", e.getCode());
-                            break;
-                    }
-                }
-        );
+        this.robotFrame.addEventHandler(KeyEvent.KEY_PRESSED, e -> handleUserKey(e.getCode()));
+    }
+
+    /**
+     * Handles a key controlling the robot in USER mode.
+     *
+     * @param code The code of the pressed key.
+     */
+    private void handleUserKey(@NonNull KeyCode code) {
+        log.info("Pressed key for the robot control: {}", code);
+
+        if (this.robot.isPaused() || this.robot.getMode() != RobotMode.USER)
+            return;
+
+        switch (code) {
+            case LEFT:
+                appViewController.execute(JournalCommand.TURN, robot, 0);
+                break;
+            case RIGHT:
+                appViewController.execute(JournalCommand.TURN, robot, 1);
+                break;
+            case SPACE:
+                appViewController.execute(JournalCommand.TOGGLE_MOVEMENT, robot);
+                break;
+            default:
+                log.info("Not implemented keyboard event: {} ", code);
+                break;
+        }
     }
     
     /**
@@ -246,73 +338,80 @@ public class RobotView implements Observer, ActivatingView {
      * It logs the pressed key for editing the robot frame and arc.
      */
     private void configureKeyboardListenerForEditMode() {
-        this.robot.getRobotFrame().addEventHandler(
-                KeyEvent.KEY_PRESSED, e -> {
-                    if (!this.robot.isPaused() || !isActivatedView()) return;
-                    log.info("Pressed key edit for the robot frame: {}", e.getCode());
-                    switch (e.getCode()) {
-                        case LEFT:
-                            this.robot.setRobotCurrentAngle(
-                                    this.robot.getRobotCurrentAngle() + 5
-                            );
-                            break;
-                        case RIGHT:
-                            this.robot.setRobotCurrentAngle(
-                                    this.robot.getRobotCurrentAngle() - 5
-                            );
-                            break;
-                        case UP:
-                            this.robot.setRobotRadius(
-                                    this.robot.getRobotRadius() * 1.05
-                            );
-                            break;
-                        case DOWN:
-                            this.robot.setRobotRadius(
-                                    this.robot.getRobotRadius() * 0.95
-                            );
-                            break;
-                    }
-                }
-        );
+        this.robotFrame.addEventHandler(KeyEvent.KEY_PRESSED, e -> handleEditKey(e.getCode()));
+        this.robotFrame.addEventHandler(KeyEvent.KEY_PRESSED, e -> handleArcEditKey(e.getCode()));
+    }
 
-        this.robot.getRobotFrame().addEventHandler(
-                KeyEvent.KEY_PRESSED, e -> {
-                    log.info("Pressed key edit for the robot arc: {}", e.getCode());
-                    switch (e.getCode()) {
-                        case A:
-                            this.robot.setArcExtent(
-                                    this.robot.getArcExtent() - 5
-                            );
-                            break;
-                        case D:
-                            this.robot.setArcExtent(
-                                    this.robot.getArcExtent() + 5
-                            );
-                            break;
-                        case W:
-                            this.robot.setArcRadius(
-                                    this.robot.getArcRadius() * 1.05
-                            );
-                            break;
-                        case S:
-                            this.robot.setArcRadius(
-                                    this.robot.getArcRadius() * 0.95
-                            );
-                            break;
-                    }
-                }
-        );
+    /**
+     * Handles a key editing the robot's frame in edit mode.
+     *
+     * @param code The code of the pressed key.
+     */
+    private void handleEditKey(@NonNull KeyCode code) {
+        if (!this.robot.isPaused() || !isActivatedView()) return;
+        log.info("Pressed key edit for the robot frame: {}", code);
+        switch (code) {
+            case LEFT:
+                appViewController.execute(JournalCommand.SET_ROBOT_ANGLE, robot,
+                        this.robot.getRobotCurrentAngle() + 5
+                );
+                break;
+            case RIGHT:
+                appViewController.execute(JournalCommand.SET_ROBOT_ANGLE, robot,
+                        this.robot.getRobotCurrentAngle() - 5
+                );
+                break;
+            case UP:
+                appViewController.execute(JournalCommand.SET_ROBOT_RADIUS, robot,
+                        this.robot.getRobotRadius() * 1.05
+                );
+                break;
+            case DOWN:
+                appViewController.execute(JournalCommand.SET_ROBOT_RADIUS, robot,
+                        this.robot.getRobotRadius() * 0.95
+                );
+                break;
+        }
+    }
+
+    /**
+     * Handles a key editing the robot's detection arc.
+     *
+     * @param code The code of the pressed key.
+     */
+    private void handleArcEditKey(@NonNull KeyCode code) {
+        log.info("Pressed key edit for the robot arc: {}", code);
+        switch (code) {
+            case A:
+                appViewController.execute(JournalCommand.SET_ARC_EXTENT, robot,
+                        this.robot.getArcExtent() - 5
+                );
+                break;
+            case D:
+                appViewController.execute(JournalCommand.SET_ARC_EXTENT, robot,
+                        this.robot.getArcExtent() + 5
+                );
+                break;
+            case W:
+                appViewController.execute(JournalCommand.SET_ARC_RADIUS, robot,
+                        this.robot.getArcRadius() * 1.05
+                );
+                break;
+            case S:
+                appViewController.execute(JournalCommand.SET_ARC_RADIUS, robot,
+                        this.robot.getArcRadius() * 0.95
+                );
+                break;
+        }
     }
+
     /**
      * Makes the robot view draggable.
      * This method allows the user to change the robot's position by dragging its frame with the mouse,
      * setting the robot's center X and Y coordinates to the mouse's position during the drag event.
      */
     private void makeViewDraggable() {
-        robot.getRobotFrame().setOnMouseDragged(mouseEvent -> {
-            robot.setCenterY(mouseEvent.getY());
-            robot.setCenterX(mouseEvent.getX());
-        });
+        robotFrame.setOnMouseDragged(mouseEvent -> handleDrag(mouseEvent.getX(), mouseEvent.getY()));
     }
 
     /**
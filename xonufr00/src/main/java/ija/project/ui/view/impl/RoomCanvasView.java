@@ -0,0 +1,333 @@
+/**
+ * @file RoomCanvasView.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.ui.view.impl;
+
+import ija.project.metrics.FrameMetrics;
+import ija.project.model.GameEntity;
+import ija.project.model.impl.Block;
+import ija.project.model.impl.Robot;
+import ija.project.model.impl.Room;
+import ija.project.ui.controller.AppViewController;
+import ija.project.ui.view.View;
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.ArcType;
+import javafx.scene.shape.Shape;
+import javafx.scene.transform.Scale;
+import javafx.scene.transform.Translate;
+import lombok.NonNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Draws a whole Room entity onto a single Canvas instead of creating JavaFX nodes for every entity.
+ * The canvas is redrawn on every frame directly from the model's numeric state, so the cost of a frame
+ * does not include scene-graph layout, CSS or picking of thousands of nodes. Only the entities reaching into
+ * the visible window of the {@link RoomViewport} are drawn, found through the spatial indexes of the room,
+ * so the cost of a frame depends on the visible part of the room rather than on its size.
+ *
+ * The canvas has the size of the pane in pixels, whatever the size of the room, and is placed over the visible
+ * window. The viewport transform is applied to the graphics context, so the entities are drawn in room
+ * coordinates.
+ *
+ * Mouse and keyboard input received by the canvas is routed to {@link RobotView} and {@link BlockView}
+ * instances, so selection, dragging and keyboard control behave as with the node-based views.
+ * The views are created on the first interaction with an entity and are not registered as observers.
+ */
+public class RoomCanvasView implements View {
+    private static final org.slf4j.Logger log
+            = org.slf4j.LoggerFactory.getLogger(RoomCanvasView.class);
+
+    /**
+     * The outline color of an entity that is not selected.
+     */
+    private static final Color OUTLINE_COLOR = Color.BLACK;
+
+    /**
+     * The outline color of the selected entity.
+     */
+    private static final Color SELECTED_OUTLINE_COLOR = Color.RED;
+
+    /**
+     * The application view controller.
+     */
+    @NonNull
+    private final AppViewController appViewController;
+
+    /**
+     * The Room entity drawn by this view.
+     */
+    @NonNull
+    private final Room room;
+
+    /**
+     * The canvas the room is drawn on, sized to the pane.
+     */
+    @NonNull
+    private final Canvas canvas;
+
+    /**
+     * The offset placing the canvas at the top left corner of the visible window, in room coordinates.
+     */
+    @NonNull
+    private final Translate canvasOffset = new Translate();
+
+    /**
+     * The scale mapping the pixels of the canvas to room units, undoing the scale of the pane.
+     */
+    @NonNull
+    private final Scale canvasScale = new Scale();
+
+    /**
+     * The timer redrawing the canvas on every frame.
+     */
+    @NonNull
+    private final AnimationTimer redrawTimer;
+
+    /**
+     * The views handling the input for robots the user interacted with.
+     */
+    @NonNull
+    private final Map<Robot, RobotView> robotViews;
+
+    /**
+     * The views handling the input for blocks the user interacted with.
+     */
+    @NonNull
+    private final Map<Block, BlockView> blockViews;
+
+    /**
+     * The entity under the mouse when the current drag started, or null.
+     */
+    private GameEntity dragged;
+
+    /**
+     * Constructs a new RoomCanvasView for the specified room.
+     *
+     * @param controller The application view controller. Must not be null.
+     * @param room       The Room entity to draw. Must not be null.
+     */
+    public RoomCanvasView(@NonNull AppViewController controller, @NonNull Room room) {
+        this.appViewController = controller;
+        this.room = room;
+        this.canvas = new Canvas();
+        this.canvas.setFocusTraversable(true);
+        this.canvas.getTransforms().setAll(canvasOffset, canvasScale);
+        this.robotViews = new HashMap<>();
+        this.blockViews = new HashMap<>();
+        this.redrawTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                render();
+            }
+        };
+
+        configureMouseListener();
+        configureKeyboardListener();
+    }
+
+    /**
+     * Starts redrawing the canvas on every frame.
+     */
+    public void start() {
+        redrawTimer.start();
+    }
+
+    /**
+     * Stops redrawing the canvas.
+     */
+    public void stop() {
+        redrawTimer.stop();
+    }
+
+    /**
+     * Draws the current state of the visible window of the room onto the canvas.
+     * Blocks are drawn first, robots on top of them.
+     */
+    public void render() {
+        var start = FrameMetrics.start();
+        var viewport = appViewController.getViewport();
+        var minX = viewport.getMinX();
+        var minY = viewport.getMinY();
+        var maxX = viewport.getMaxX();
+        var maxY = viewport.getMaxY();
+        var scaleX = viewport.getScaleX();
+        var scaleY = viewport.getScaleY();
+        fitToViewport(viewport);
+        var gc = canvas.getGraphicsContext2D();
+        gc.setTransform(1, 0, 0, 1, 0, 0);
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        if (scaleX <= 0 || scaleY <= 0) {
+            FrameMetrics.RENDER.stop(start);
+            return;
+        }
+        gc.setTransform(scaleX, 0, 0, scaleY, -minX * scaleX, -minY * scaleY);
+        gc.setLineWidth(1);
+
+        var activeBlock = appViewController.getActiveBlock();
+        var selectedBlock = activeBlock == null ? null : activeBlock.getEntity();
+        gc.setFill(BlockView.getBlockColor());
+        room.forEachBlockIn(minX, minY, maxX, maxY, b -> {
+            gc.fillRect(b.getLeftTopX(), b.getLeftTopY(), b.getWidth(), b.getHeight());
+            gc.setStroke(b == selectedBlock ? SELECTED_OUTLINE_COLOR : OUTLINE_COLOR);
+            gc.strokeRect(b.getLeftTopX(), b.getLeftTopY(), b.getWidth(), b.getHeight());
+        });
+
+        var activeRobot = appViewController.getActiveRobot();
+        var selectedRobot = activeRobot == null ? null : activeRobot.getEntity();
+        room.forEachRobotReaching(minX, minY, maxX, maxY, r -> drawRobot(gc, r, r == selectedRobot));
+        FrameMetrics.RENDER.stop(start);
+    }
+
+    /**
+     * Resizes the canvas to the pane and places it over the visible window of the room.
+     *
+     * @param viewport The part of the room shown in the pane.
+     */
+    private void fitToViewport(@NonNull RoomViewport viewport) {
+        if (canvas.getWidth() != viewport.getPaneWidth()) canvas.setWidth(viewport.getPaneWidth());
+        if (canvas.getHeight() != viewport.getPaneHeight()) canvas.setHeight(viewport.getPaneHeight());
+        canvasOffset.setX(viewport.getMinX());
+        canvasOffset.setY(viewport.getMinY());
+        if (viewport.getScaleX() > 0) canvasScale.setX(1 / viewport.getScaleX());
+        if (viewport.getScaleY() > 0) canvasScale.setY(1 / viewport.getScaleY());
+    }
+
+    /**
+     * Draws a robot's frame and detection arc.
+     *
+     * @param gc       The graphics context of the canvas.
+     * @param robot    The robot to draw.
+     * @param selected True if the robot is the selected one.
+     */
+    private void drawRobot(@NonNull GraphicsContext gc, @NonNull Robot robot, boolean selected) {
+        var x = robot.getCenterX();
+        var y = robot.getCenterY();
+        var r = robot.getRobotRadius();
+        gc.setFill(RobotView.getFrameColor(robot));
+        gc.fillOval(x - r, y - r, 2 * r, 2 * r);
+        gc.setStroke(selected ? SELECTED_OUTLINE_COLOR : OUTLINE_COLOR);
+        gc.strokeOval(x - r, y - r, 2 * r, 2 * r);
+
+        var a = robot.getArcRadius();
+        gc.setFill(RobotView.getArcColor(robot));
+        gc.fillArc(x - a, y - a, 2 * a, 2 * a, robot.getArcStartAngle(), robot.getArcExtent(), ArcType.ROUND);
+    }
+
+    /**
+     * Finds the entity drawn at the specified point. Robots are drawn on top, so they are preferred.
+     *
+     * @param x The X coordinate of the point in room coordinates.
+     * @param y The Y coordinate of the point in room coordinates.
+     * @return The entity at the point, or null if there is none.
+     */
+    private GameEntity pick(double x, double y) {
+        var found = new GameEntity[1];
+        room.forEachRobotReaching(x, y, x, y, r -> {
+            var dx = x - r.getCenterX();
+            var dy = y - r.getCenterY();
+            if (dx * dx + dy * dy <= r.getRobotRadius() * r.getRobotRadius()) found[0] = r;
+        });
+        if (found[0] != null) return found[0];
+        room.forEachBlockIn(x, y, x, y, b -> {
+            if (x >= b.getLeftTopX() && x <= b.getLeftTopX() + b.getWidth()
+                    && y >= b.getLeftTopY() && y <= b.getLeftTopY() + b.getHeight()) found[0] = b;
+        });
+        return found[0];
+    }
+
+    /**
+     * Configures the mouse listeners selecting and dragging the entities drawn on the canvas.
+     * The points of the events are mapped from the pixels of the canvas to room coordinates.
+     */
+    private void configureMouseListener() {
+        canvas.addEventHandler(MouseEvent.MOUSE_PRESSED, e -> {
+            var point = canvas.localToParent(e.getX(), e.getY());
+            dragged = pick(point.getX(), point.getY());
+        });
+        canvas.addEventHandler(MouseEvent.MOUSE_RELEASED, e -> dragged = null);
+        canvas.addEventHandler(MouseEvent.MOUSE_DRAGGED, e -> {
+            var point = canvas.localToParent(e.getX(), e.getY());
+            if (dragged instanceof Robot r) getRobotView(r).handleDrag(point.getX(), point.getY());
+            else if (dragged instanceof Block b) getBlockView(b).handleDrag(point.getX(), point.getY());
+        });
+        canvas.addEventHandler(MouseEvent.MOUSE_CLICKED, e -> {
+            var point = canvas.localToParent(e.getX(), e.getY());
+            var entity = pick(point.getX(), point.getY());
+            if (entity instanceof Robot r) getRobotView(r).handleClick(e.getClickCount());
+            else if (entity instanceof Block b) getBlockView(b).handleClick(e.getClickCount());
+            canvas.requestFocus();
+        });
+    }
+
+    /**
+     * Configures the keyboard listener forwarding the pressed keys to the selected entity.
+     */
+    private void configureKeyboardListener() {
+        canvas.addEventHandler(KeyEvent.KEY_PRESSED, e -> {
+            var activeRobot = appViewController.getActiveRobot();
+            var activeBlock = appViewController.getActiveBlock();
+            if (activeRobot != null) activeRobot.handleKeyPressed(e.getCode());
+            else if (activeBlock != null) activeBlock.handleKeyPressed(e.getCode());
+            else log.debug("No entity selected for key {}", e.getCode());
+            e.consume();
+        });
+    }
+
+    /**
+     * Gets the view handling the input for a robot, creating it on first use.
+     *
+     * @param robot The robot entity.
+     * @return The view of the robot.
+     */
+    private RobotView getRobotView(@NonNull Robot robot) {
+        return robotViews.computeIfAbsent(robot, r -> new RobotView(appViewController, r));
+    }
+
+    /**
+     * Gets the view handling the input for a block, creating it on first use.
+     *
+     * @param block The block entity.
+     * @return The view of the block.
+     */
+    private BlockView getBlockView(@NonNull Block block) {
+        return blockViews.computeIfAbsent(block, b -> new BlockView(appViewController, b));
+    }
+
+    /**
+     * Gets the canvas the room is drawn on.
+     *
+     * @return The canvas.
+     */
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    /**
+     * Returns the Room entity drawn by this view.
+     *
+     * @return The Room entity.
+     */
+    @Override
+    public GameEntity getEntity() {
+        return room;
+    }
+
+    /**
+     * Returns no shapes, the room is drawn onto {@link #getCanvas()} instead.
+     *
+     * @return An empty list.
+     */
+    @Override
+    public List<Shape> getDrawableShapes() {
+        return List.of();
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * @file RoomViewport.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.ui.view.impl;
+
+import ija.project.model.impl.Room;
+import javafx.scene.transform.Scale;
+import javafx.scene.transform.Transform;
+import javafx.scene.transform.Translate;
+import lombok.NonNull;
+
+import java.util.List;
+
+/**
+ * Describes which part of a room is shown in the simulation pane.
+ *
+ * At zoom 1 the whole room is scaled to fit the pane, as before; zooming in shows a smaller window of the room,
+ * which can be moved around. The renderers use {@link #getMinX()} to {@link #getMaxY()} to cull the entities
+ * outside the window, so the cost of a frame depends on the visible part of the room, not on its size.
+ */
+public class RoomViewport {
+
+    /**
+     * The highest zoom factor.
+     */
+    public static final double MAX_ZOOM = 1024;
+
+    /**
+     * The dimensions of the room.
+     */
+    private double roomWidth, roomHeight;
+
+    /**
+     * The dimensions of the pane the room is shown in, in pixels.
+     */
+    private double paneWidth, paneHeight;
+
+    /**
+     * The zoom factor; 1 shows the whole room.
+     */
+    private double zoom = 1;
+
+    /**
+     * The room coordinates of the top-left corner of the visible window.
+     */
+    private double x, y;
+
+    /**
+     * Sets the room shown in the pane. If its dimensions differ from the previous room, for example after
+     * loading another room, the whole room is shown; otherwise, for example after a rewind, the window is kept.
+     *
+     * @param room The room.
+     */
+    public void setRoom(@NonNull Room room) {
+        if (room.getWidth() == roomWidth && room.getHeight() == roomHeight) return;
+        this.roomWidth = room.getWidth();
+        this.roomHeight = room.getHeight();
+        this.zoom = 1;
+        this.x = 0;
+        this.y = 0;
+    }
+
+    /**
+     * Sets the dimensions of the pane the room is shown in.
+     *
+     * @param width  The width in pixels.
+     * @param height The height in pixels.
+     */
+    public void setPaneSize(double width, double height) {
+        this.paneWidth = width;
+        this.paneHeight = height;
+    }
+
+    /**
+     * Changes the zoom while keeping a point of the room at the same place of the pane.
+     *
+     * @param factor The factor the zoom is multiplied by; the result is kept between 1 and {@link #MAX_ZOOM}.
+     * @param pivotX The X coordinate of the fixed point in room coordinates.
+     * @param pivotY The Y coordinate of the fixed point in room coordinates.
+     */
+    public void zoomAt(double factor, double pivotX, double pivotY) {
+        var newZoom = Math.max(1, Math.min(MAX_ZOOM, zoom * factor));
+        x = pivotX - (pivotX - x) * zoom / newZoom;
+        y = pivotY - (pivotY - y) * zoom / newZoom;
+        zoom = newZoom;
+        clamp();
+    }
+
+    /**
+     * Moves the visible window, keeping it inside the room.
+     *
+     * @param dx The shift along the X axis in room coordinates.
+     * @param dy The shift along the Y axis in room coordinates.
+     */
+    public void moveBy(double dx, double dy) {
+        x += dx;
+        y += dy;
+        clamp();
+    }
+
+    /**
+     * Keeps the visible window inside the room.
+     */
+    private void clamp() {
+        x = Math.max(0, Math.min(x, roomWidth - getWidth()));
+        y = Math.max(0, Math.min(y, roomHeight - getHeight()));
+    }
+
+    /**
+     * Creates the transforms mapping room coordinates to the coordinates of the pane.
+     *
+     * @return The scale and the translation to apply to the content of the pane, in this order.
+     */
+    public List<Transform> createTransforms() {
+        if (roomWidth <= 0 || roomHeight <= 0) return List.of();
+        return List.of(new Scale(getScaleX(), getScaleY()), new Translate(-x, -y));
+    }
+
+    /**
+     * Gets the number of pixels of the pane per unit of the room along the X axis.
+     *
+     * @return The scale, zero if there is no room.
+     */
+    public double getScaleX() {
+        return roomWidth > 0 ? paneWidth / roomWidth * zoom : 0;
+    }
+
+    /**
+     * Gets the number of pixels of the pane per unit of the room along the Y axis.
+     *
+     * @return The scale, zero if there is no room.
+     */
+    public double getScaleY() {
+        return roomHeight > 0 ? paneHeight / roomHeight * zoom : 0;
+    }
+
+    /**
+     * Gets the width of the pane the room is shown in.
+     *
+     * @return The width in pixels.
+     */
+    public double getPaneWidth() {
+        return paneWidth;
+    }
+
+    /**
+     * Gets the height of the pane the room is shown in.
+     *
+     * @return The height in pixels.
+     */
+    public double getPaneHeight() {
+        return paneHeight;
+    }
+
+    /**
+     * Gets the zoom factor.
+     *
+     * @return The zoom factor; 1 shows the whole room.
+     */
+    public double getZoom() {
+        return zoom;
+    }
+
+    /**
+     * Gets the width of the visible window in room coordinates.
+     *
+     * @return The width.
+     */
+    public double getWidth() {
+        return roomWidth / zoom;
+    }
+
+    /**
+     * Gets the height of the visible window in room coordinates.
+     *
+     * @return The height.
+     */
+    public double getHeight() {
+        return roomHeight / zoom;
+    }
+
+    /**
+     * Gets the minimal visible X coordinate of the room.
+     *
+     * @return The coordinate.
+     */
+    public double getMinX() {
+        return x;
+    }
+
+    /**
+     * Gets the minimal visible Y coordinate of the room.
+     *
+     * @return The coordinate.
+     */
+    public double getMinY() {
+        return y;
+    }
+
+    /**
+     * Gets the maximal visible X coordinate of the room.
+     *
+     * @return The coordinate.
+     */
+    public double getMaxX() {
+        return x + getWidth();
+    }
+
+    /**
+     * Gets the maximal visible Y coordinate of the room.
+     *
+     * @return The coordinate.
+     */
+    public double getMaxY() {
+        return y + getHeight();
+    }
+}
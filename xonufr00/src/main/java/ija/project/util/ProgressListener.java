@@ -0,0 +1,19 @@
+/**
+ * @file ProgressListener.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.util;
+
+/**
+ * Receives the progress of writing or reading a room.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+    /**
+     * Called after a batch of entities has been processed.
+     *
+     * @param done  The number of blocks and robots processed so far.
+     * @param total The total number of blocks and robots in the room.
+     */
+    void onProgress(long done, long total);
+}
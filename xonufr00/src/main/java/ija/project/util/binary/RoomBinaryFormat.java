@@ -0,0 +1,260 @@
+/**
+ * @file RoomBinaryFormat.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.util.binary;
+
+import ija.project.model.impl.Block;
+import ija.project.model.impl.Robot;
+import ija.project.model.impl.Room;
+import ija.project.util.ProgressListener;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes the state of a Room in a compact binary scene format.
+ *
+ * A scene file is little-endian and consists of a header followed by fixed-width records:
+ * <ul>
+ *     <li>header: magic {@code "IJAS"}, format version, room width and height, block count and robot count;</li>
+ *     <li>one record of 4 doubles per block, holding the properties of a BlockDTO;</li>
+ *     <li>one record of 9 doubles per robot, holding the properties of a RobotDTO in the order of its JSON form.</li>
+ * </ul>
+ * Because every record has the same size, the file can be validated from its header alone and read
+ * without any parsing. Loading maps the file into memory and builds the Room directly from the mapped buffer.
+ */
+public final class RoomBinaryFormat {
+
+    /**
+     * The extension of scene files.
+     */
+    public static final String EXTENSION = ".scene";
+
+    /**
+     * The first four bytes of every scene file, {@code "IJAS"} in ASCII.
+     */
+    public static final int MAGIC = 0x53414A49;
+
+    /**
+     * The version of the format written by this class.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The size of the header in bytes.
+     */
+    static final int HEADER_BYTES = 2 * Integer.BYTES + 2 * Double.BYTES + 2 * Integer.BYTES;
+
+    /**
+     * The size of a block record in bytes.
+     */
+    static final int BLOCK_BYTES = 4 * Double.BYTES;
+
+    /**
+     * The size of a robot record in bytes.
+     */
+    static final int ROBOT_BYTES = 9 * Double.BYTES;
+
+    /**
+     * The size of the buffer used when writing a file.
+     */
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+    /**
+     * The number of entities processed between two progress reports.
+     */
+    private static final int PROGRESS_STEP = 1024;
+
+    /**
+     * Prevents instantiation of the utility class.
+     */
+    private RoomBinaryFormat() {
+    }
+
+    /**
+     * Writes a room to a file, replacing its content.
+     * The room must not be modified while it is written.
+     *
+     * @param room     The room to write.
+     * @param path     The path of the file.
+     * @param progress The listener notified of the progress.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(@NonNull Room room, @NonNull Path path, @NonNull ProgressListener progress)
+            throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(room, channel, progress);
+        }
+    }
+
+    /**
+     * Writes a room to a channel, starting at its current position. The channel is not closed.
+     * The room must not be modified while it is written.
+     *
+     * @param room     The room to write.
+     * @param channel  The channel receiving the scene.
+     * @param progress The listener notified of the progress.
+     * @throws IOException If the channel cannot be written.
+     */
+    public static void write(@NonNull Room room, @NonNull WritableByteChannel channel,
+                             @NonNull ProgressListener progress) throws IOException {
+        var blocks = room.getBlocks();
+        var robots = room.getRobots();
+        long total = blocks.size() + robots.size();
+        long written = 0;
+
+        var buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION)
+                .putDouble(room.getWidth()).putDouble(room.getHeight())
+                .putInt(blocks.size()).putInt(robots.size());
+
+        for (var block : blocks) {
+            if (buffer.remaining() < BLOCK_BYTES) drain(channel, buffer);
+            putBlock(buffer, block);
+            if (++written % PROGRESS_STEP == 0) progress.onProgress(written, total);
+        }
+        for (var robot : robots) {
+            if (buffer.remaining() < ROBOT_BYTES) drain(channel, buffer);
+            putRobot(buffer, robot);
+            if (++written % PROGRESS_STEP == 0) progress.onProgress(written, total);
+        }
+        drain(channel, buffer);
+        progress.onProgress(written, total);
+    }
+
+    /**
+     * Reads a room from a file by mapping it into memory.
+     *
+     * @param path The path of the file.
+     * @return A new Room with the blocks and robots stored in the file.
+     * @throws IOException If the file cannot be read or is not a valid scene file.
+     */
+    public static Room read(@NonNull Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("Scene file is too large to be mapped: " + size);
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * Reads a room from a buffer holding a scene file, starting at its current position.
+     * The byte order of the buffer is changed to little-endian and its position is left just after the scene.
+     *
+     * @param buffer The buffer to read.
+     * @return A new Room with the blocks and robots stored in the buffer.
+     * @throws IOException If the buffer does not hold a valid scene file.
+     */
+    public static Room read(@NonNull ByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (buffer.getInt() != MAGIC) throw new IOException("Not a scene file");
+            int version = buffer.getInt();
+            if (version != VERSION) throw new IOException("Unsupported scene file version: " + version);
+
+            var room = new Room(buffer.getDouble(), buffer.getDouble());
+            int blockCount = buffer.getInt();
+            int robotCount = buffer.getInt();
+            if (blockCount < 0 || robotCount < 0
+                    || buffer.remaining() < (long) blockCount * BLOCK_BYTES + (long) robotCount * ROBOT_BYTES) {
+                throw new IOException("Scene file is truncated");
+            }
+
+            for (int i = 0; i < blockCount; i++) {
+                room.addBlock(new Block(room,
+                        buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble()));
+            }
+            for (int i = 0; i < robotCount; i++) {
+                room.addRobot(getRobot(buffer, room));
+            }
+            return room;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Scene file is truncated", e);
+        }
+    }
+
+    /**
+     * Checks whether a path has the extension of scene files.
+     *
+     * @param path The path to check.
+     * @return True if the file name ends with {@link #EXTENSION}, false otherwise.
+     */
+    public static boolean isSceneFile(@NonNull Path path) {
+        var name = path.getFileName();
+        return name != null && name.toString().toLowerCase().endsWith(EXTENSION);
+    }
+
+    /**
+     * Writes a block record.
+     *
+     * @param buffer The buffer receiving the record.
+     * @param block  The block to write.
+     */
+    private static void putBlock(ByteBuffer buffer, Block block) {
+        buffer.putDouble(block.getLeftTopX())
+                .putDouble(block.getLeftTopY())
+                .putDouble(block.getWidth())
+                .putDouble(block.getHeight());
+    }
+
+    /**
+     * Writes a robot record.
+     *
+     * @param buffer The buffer receiving the record.
+     * @param robot  The robot to write.
+     */
+    private static void putRobot(ByteBuffer buffer, Robot robot) {
+        buffer.putDouble(robot.getCenterX())
+                .putDouble(robot.getCenterY())
+                .putDouble(robot.getRobotRadius())
+                .putDouble(robot.getSpeedPerSecond())
+                .putDouble(robot.getRotationSpeedPerSecInDegrees())
+                .putDouble(robot.getRotationDegreeSample())
+                .putDouble(robot.getRobotCurrentAngle())
+                .putDouble(robot.getArcRadius())
+                .putDouble(robot.getArcExtent());
+    }
+
+    /**
+     * Reads a robot record.
+     *
+     * @param buffer The buffer holding the record.
+     * @param room   The room the robot belongs to.
+     * @return A new Robot with the properties stored in the record.
+     */
+    private static Robot getRobot(ByteBuffer buffer, Room room) {
+        double centerX = buffer.getDouble();
+        double centerY = buffer.getDouble();
+        double radius = buffer.getDouble();
+        double speed = buffer.getDouble();
+        double rotationSpeed = buffer.getDouble();
+        double rotationSample = buffer.getDouble();
+        double angle = buffer.getDouble();
+        double arcRadius = buffer.getDouble();
+        double arcExtent = buffer.getDouble();
+        return new Robot(room, centerX, centerY, radius, angle, arcRadius, arcExtent,
+                rotationSample, speed, rotationSpeed);
+    }
+
+    /**
+     * Writes the content of the buffer to the channel and clears the buffer.
+     *
+     * @param channel The channel to write to.
+     * @param buffer  The buffer to drain.
+     * @throws IOException If the channel cannot be written.
+     */
+    private static void drain(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+}
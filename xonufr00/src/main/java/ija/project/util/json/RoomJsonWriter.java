@@ -0,0 +1,135 @@
+/**
+ * @file RoomJsonWriter.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.util.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import ija.project.model.impl.Block;
+import ija.project.model.impl.Robot;
+import ija.project.model.impl.Room;
+import ija.project.util.ProgressListener;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the state of a Room as JSON directly to a stream or file.
+ * Unlike {@link RoomDTOSerializer}, the writer does not build RoomDTO objects nor the JSON text in memory;
+ * every block and robot is passed straight to a Jackson generator, which encodes it into a small buffer
+ * flushed to the output as it fills. The produced document has the same structure and formatting as the
+ * one produced by {@link RoomDTOSerializer}, so it can be loaded by it.
+ *
+ * The room must not be modified while it is written.
+ */
+public class RoomJsonWriter {
+
+    /**
+     * The number of entities written between two progress reports.
+     */
+    private static final int PROGRESS_STEP = 1024;
+
+    /**
+     * The factory of the JSON generators.
+     */
+    private final JsonFactory factory = new JsonFactory();
+
+    /**
+     * Writes a room to a file, replacing its content.
+     *
+     * @param room     The room to write.
+     * @param path     The path of the file.
+     * @param progress The listener notified of the progress.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(@NonNull Room room, @NonNull Path path, @NonNull ProgressListener progress) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(room, Channels.newOutputStream(channel), progress);
+        }
+    }
+
+    /**
+     * Writes a room to a stream. The stream is flushed but not closed.
+     *
+     * @param room     The room to write.
+     * @param out      The stream receiving the JSON document.
+     * @param progress The listener notified of the progress.
+     * @throws IOException If the stream cannot be written.
+     */
+    public void write(@NonNull Room room, @NonNull OutputStream out, @NonNull ProgressListener progress)
+            throws IOException {
+        long total = room.getBlocks().size() + room.getRobots().size();
+        long written = 0;
+
+        try (var generator = factory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.useDefaultPrettyPrinter();
+
+            generator.writeStartObject();
+            generator.writeNumberField("width", room.getWidth());
+            generator.writeNumberField("height", room.getHeight());
+
+            generator.writeArrayFieldStart("blocks");
+            for (var block : room.getBlocks()) {
+                writeBlock(generator, block);
+                if (++written % PROGRESS_STEP == 0) progress.onProgress(written, total);
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("robots");
+            for (var robot : room.getRobots()) {
+                writeRobot(generator, robot);
+                if (++written % PROGRESS_STEP == 0) progress.onProgress(written, total);
+            }
+            generator.writeEndArray();
+
+            generator.writeEndObject();
+        }
+        progress.onProgress(written, total);
+    }
+
+    /**
+     * Writes a block with the properties of a BlockDTO.
+     *
+     * @param generator The generator.
+     * @param block     The block to write.
+     * @throws IOException If the output cannot be written.
+     */
+    private static void writeBlock(JsonGenerator generator, Block block) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("x", block.getLeftTopX());
+        generator.writeNumberField("y", block.getLeftTopY());
+        generator.writeNumberField("width", block.getWidth());
+        generator.writeNumberField("height", block.getHeight());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes a robot with the properties of a RobotDTO.
+     *
+     * @param generator The generator.
+     * @param robot     The robot to write.
+     * @throws IOException If the output cannot be written.
+     */
+    private static void writeRobot(JsonGenerator generator, Robot robot) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("robotCenterX", robot.getCenterX());
+        generator.writeNumberField("robotCenterY", robot.getCenterY());
+        generator.writeNumberField("robotRadius", robot.getRobotRadius());
+        generator.writeNumberField("speedPerSecond", robot.getSpeedPerSecond());
+        generator.writeNumberField("rotationSpeedPerSecInDegrees", robot.getRotationSpeedPerSecInDegrees());
+        generator.writeNumberField("rotationDegreeSample", robot.getRotationDegreeSample());
+        generator.writeNumberField("robotCurrentAngle", robot.getRobotCurrentAngle());
+        generator.writeNumberField("detectionArcRadius", robot.getArcRadius());
+        generator.writeNumberField("detectionArcExtent", robot.getArcExtent());
+        generator.writeEndObject();
+    }
+}
@@ -13,6 +13,7 @@ module ija.project {
     requires javafx.fxml;
     requires static lombok;
     requires java.desktop;
+    requires java.management;
     requires org.slf4j;
     requires com.fasterxml.jackson.databind;
 
@@ -27,6 +28,9 @@ module ija.project {
     exports ija.project.model.impl;
     exports ija.project.model.enums;
 
+    exports ija.project.engine;
+    exports ija.project.journal;
+
     exports ija.project.ui.view;
     exports ija.project.ui.view.impl;
 
@@ -34,4 +38,6 @@ module ija.project {
     exports ija.project.timer;
 
     exports ija.project.dto;
+
+    exports ija.project.metrics;
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+/**
+ * @file IntersectionsTest.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.engine;
+
+import javafx.scene.shape.Arc;
+import javafx.scene.shape.ArcType;
+import javafx.scene.shape.Ellipse;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.Shape;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the closed-form intersection tests against the JavaFX {@code Shape.intersect} path they replaced.
+ *
+ * {@code Shape.intersect} works on Bézier approximations of circles and arcs, which differ from the exact
+ * curves by a few ten-thousandths of the radius, so the two may only disagree on pairs that lie within
+ * {@link #TOLERANCE} of touching. Shapes that exactly touch never intersect in {@link Intersections}.
+ */
+class IntersectionsTest {
+
+    /**
+     * The number of random pairs tested for each kind of shape pair.
+     */
+    private static final int PAIRS = 20_000;
+
+    /**
+     * The distance from touching within which the approximation of {@code Shape.intersect} may decide
+     * differently from the exact test.
+     */
+    private static final double TOLERANCE = 0.02;
+
+    /**
+     * Makes JavaFX use the software pipeline, as the tests may run without a display.
+     */
+    @BeforeAll
+    static void useSoftwarePipeline() {
+        System.setProperty("prism.order", "sw");
+    }
+
+    @Test
+    void circleCircleMatchesShapeIntersect() {
+        var random = new Random(1);
+        for (int i = 0; i < PAIRS; i++) {
+            double ax = coordinate(random), ay = coordinate(random), ar = size(random);
+            double bx = coordinate(random), by = coordinate(random), br = size(random);
+            var expected = fxIntersects(new Ellipse(ax, ay, ar, ar), new Ellipse(bx, by, br, br));
+            if (Intersections.circleCircle(ax, ay, ar, bx, by, br) == expected) continue;
+            assertEquals(expected, Intersections.circleCircle(ax, ay, ar, bx, by, br + tolerance(expected)),
+                    () -> "circle " + ax + " " + ay + " " + ar + " and circle " + bx + " " + by + " " + br);
+        }
+    }
+
+    @Test
+    void circleRectMatchesShapeIntersect() {
+        var random = new Random(2);
+        for (int i = 0; i < PAIRS; i++) {
+            double cx = coordinate(random), cy = coordinate(random), r = size(random);
+            double x = coordinate(random), y = coordinate(random), w = 2 * size(random), h = 2 * size(random);
+            var expected = fxIntersects(new Ellipse(cx, cy, r, r), new Rectangle(x, y, w, h));
+            if (Intersections.circleRect(cx, cy, r, x, y, w, h) == expected) continue;
+            var d = tolerance(expected);
+            assertEquals(expected, Intersections.circleRect(cx, cy, r, x - d, y - d, w + 2 * d, h + 2 * d),
+                    () -> "circle " + cx + " " + cy + " " + r + " and rectangle " + x + " " + y + " " + w + " " + h);
+        }
+    }
+
+    @Test
+    void sectorCircleMatchesShapeIntersect() {
+        var random = new Random(3);
+        for (int i = 0; i < PAIRS; i++) {
+            double sx = coordinate(random), sy = coordinate(random), sr = 2 * size(random);
+            double start = angle(random), extent = extent(random);
+            double cx = coordinate(random), cy = coordinate(random), cr = size(random);
+            var expected = fxIntersects(arc(sx, sy, sr, start, extent), new Ellipse(cx, cy, cr, cr));
+            if (Intersections.sectorCircle(sx, sy, sr, start, extent, cx, cy, cr) == expected) continue;
+            assertEquals(expected,
+                    Intersections.sectorCircle(sx, sy, sr, start, extent, cx, cy, cr + tolerance(expected)),
+                    () -> "sector " + sx + " " + sy + " " + sr + " " + start + " " + extent
+                            + " and circle " + cx + " " + cy + " " + cr);
+        }
+    }
+
+    @Test
+    void sectorRectMatchesShapeIntersect() {
+        var random = new Random(4);
+        for (int i = 0; i < PAIRS; i++) {
+            double sx = coordinate(random), sy = coordinate(random), sr = 2 * size(random);
+            double start = angle(random), extent = extent(random);
+            double x = coordinate(random), y = coordinate(random), w = 2 * size(random), h = 2 * size(random);
+            var expected = fxIntersects(arc(sx, sy, sr, start, extent), new Rectangle(x, y, w, h));
+            if (Intersections.sectorRect(sx, sy, sr, start, extent, x, y, w, h) == expected) continue;
+            var d = tolerance(expected);
+            assertEquals(expected,
+                    Intersections.sectorRect(sx, sy, sr, start, extent, x - d, y - d, w + 2 * d, h + 2 * d),
+                    () -> "sector " + sx + " " + sy + " " + sr + " " + start + " " + extent
+                            + " and rectangle " + x + " " + y + " " + w + " " + h);
+        }
+    }
+
+    @Test
+    void touchingShapesDoNotIntersect() {
+        assertFalse(Intersections.circleCircle(0, 0, 5, 10, 0, 5));
+        assertFalse(Intersections.circleCircle(0, 0, 5, 6, 8, 5));
+        assertTrue(Intersections.circleCircle(0, 0, 5, 9.999, 0, 5));
+
+        assertFalse(Intersections.circleRect(0, 0, 5, 5, -5, 10, 10));
+        assertFalse(Intersections.circleRect(0, 0, 5, 3, 4, 10, 10));
+        assertTrue(Intersections.circleRect(0, 0, 5, 2.999, 4, 10, 10));
+
+        assertFalse(Intersections.sectorCircle(0, 0, 10, 0, 90, 0, -15, 5));
+        assertFalse(Intersections.sectorCircle(0, 0, 10, 0, 90, 5, 5, 5));
+        assertTrue(Intersections.sectorCircle(0, 0, 10, 0, 90, 5, 4.999, 5));
+
+        assertFalse(Intersections.sectorRect(0, 0, 10, 0, 90, -1, -13, 2, 3));
+        assertFalse(Intersections.sectorRect(0, 0, 10, 0, 90, 2, 0, 5, 5));
+        assertTrue(Intersections.sectorRect(0, 0, 10, 0, 90, 2, -0.001, 5, 5));
+    }
+
+    @Test
+    void degenerateShapesDoNotIntersect() {
+        assertFalse(Intersections.circleCircle(0, 0, 0, 0, 0, 5));
+        assertFalse(Intersections.circleRect(0, 0, 5, 0, 0, 0, 10));
+        assertFalse(Intersections.sectorCircle(0, 0, 10, 0, 0, 0, 0, 5));
+        assertFalse(Intersections.sectorRect(0, 0, 10, 0, 90, -5, -5, 10, 0));
+    }
+
+    /**
+     * Reproduces the intersection check robots performed before the closed-form tests.
+     *
+     * @param a The first shape.
+     * @param b The second shape.
+     * @return True if the shapes intersect, false otherwise.
+     */
+    private static boolean fxIntersects(Shape a, Shape b) {
+        return !((Path) Shape.intersect(a, b)).getElements().isEmpty();
+    }
+
+    /**
+     * Creates a closed sector shape, as drawn for the detection arc of a robot.
+     *
+     * @param x      The X coordinate of the center.
+     * @param y      The Y coordinate of the center.
+     * @param r      The radius.
+     * @param start  The start angle in degrees.
+     * @param extent The angular extent in degrees.
+     * @return The sector.
+     */
+    private static Arc arc(double x, double y, double r, double start, double extent) {
+        var arc = new Arc(x, y, r, r, start, extent);
+        arc.setType(ArcType.ROUND);
+        return arc;
+    }
+
+    /**
+     * Gets the change of the second shape that must make the exact test agree with {@code Shape.intersect}
+     * on a pair within {@link #TOLERANCE} of touching.
+     *
+     * @param expected The result of {@code Shape.intersect}.
+     * @return The growth of the second shape, negative to shrink it.
+     */
+    private static double tolerance(boolean expected) {
+        return expected ? TOLERANCE : -TOLERANCE;
+    }
+
+    private static double coordinate(Random random) {
+        return random.nextDouble() * 100;
+    }
+
+    private static double size(Random random) {
+        return 1 + random.nextDouble() * 10;
+    }
+
+    private static double angle(Random random) {
+        return random.nextDouble() * 720 - 360;
+    }
+
+    private static double extent(Random random) {
+        return random.nextDouble() * 400 - 20;
+    }
+}
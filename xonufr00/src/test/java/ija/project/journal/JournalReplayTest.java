@@ -0,0 +1,174 @@
+/**
+ * @file JournalReplayTest.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.journal;
+
+import ija.project.engine.Simulation;
+import ija.project.generator.ScenarioGenerator;
+import ija.project.generator.ScenarioLayout;
+import ija.project.model.GameEntity;
+import ija.project.model.enums.RobotMode;
+import ija.project.model.enums.UpdateMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a replayed journal reproduces the recorded session bit-exactly.
+ */
+class JournalReplayTest {
+
+    /**
+     * The length of a tick in nanoseconds at the start of the session.
+     */
+    private static final long TICK = 16_666_667;
+
+    /**
+     * The number of ticks of the recorded session.
+     */
+    private static final int TICKS = 240;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replayMatchesRecordedDigest() throws IOException {
+        var session = record(UpdateMode.TWO_PHASE);
+        var replay = JournalReplay.open(session.path());
+        replay.run();
+
+        assertTrue(replay.isComplete());
+        assertTrue(replay.matchesRecording());
+        assertEquals(TICKS, replay.getEndTick());
+        assertEquals(session.commands(), replay.getAppliedCommands());
+        assertEquals(session.digest(), InputJournal.digest(replay.getRoom()));
+    }
+
+    @Test
+    void replayKeepsUpdateMode() throws IOException {
+        var session = record(UpdateMode.SEQUENTIAL);
+        var replay = JournalReplay.open(session.path());
+        replay.run();
+
+        assertEquals(UpdateMode.SEQUENTIAL, replay.getRoom().getUpdateMode());
+        assertTrue(replay.matchesRecording());
+        assertEquals(session.digest(), InputJournal.digest(replay.getRoom()));
+    }
+
+    @Test
+    void interruptedJournalIsReplayedUpToLastCommand() throws IOException {
+        var room = new ScenarioGenerator(50, 10, ScenarioLayout.RANDOM, 3).nextRoom();
+        var simulation = new Simulation(room);
+        var path = directory.resolve("interrupted" + InputJournal.EXTENSION);
+        try (var journal = InputJournal.create(path, room, TICK)) {
+            apply(journal, simulation, JournalCommand.RESUME, null);
+            simulation.run(30 * TICK, TICK);
+            apply(journal, simulation, JournalCommand.PAUSE, null);
+        }
+
+        var replay = JournalReplay.open(path);
+        replay.run();
+        assertFalse(replay.isComplete());
+        assertFalse(replay.matchesRecording());
+        assertEquals(30, replay.getEndTick());
+        assertEquals(2, replay.getAppliedCommands());
+        assertEquals(InputJournal.digest(room), InputJournal.digest(replay.getRoom()));
+    }
+
+    /**
+     * Records a session on a generated room, applying every kind of command between the ticks
+     * as the animation timer does.
+     *
+     * @param mode The update mode of the room.
+     * @return The recorded session.
+     * @throws IOException If the journal cannot be written.
+     */
+    private Session record(UpdateMode mode) throws IOException {
+        var room = new ScenarioGenerator(300, 40, ScenarioLayout.RANDOM, 5).nextRoom();
+        room.setUpdateMode(mode);
+        var robots = new ArrayList<>(room.getRobots());
+        var blocks = new ArrayList<>(room.getBlocks());
+        var simulation = new Simulation(room);
+        var path = directory.resolve(mode + InputJournal.EXTENSION);
+        var tick = TICK;
+        long commands = 0;
+        try (var journal = InputJournal.create(path, room, tick)) {
+            for (int i = 0; i < TICKS; i++) {
+                switch (i) {
+                    case 0 -> commands += apply(journal, simulation, JournalCommand.RESUME, null);
+                    case 20 -> {
+                        var robot = robots.get(0);
+                        commands += apply(journal, simulation, JournalCommand.SET_MODE, robot,
+                                RobotMode.GOAL.ordinal());
+                        commands += apply(journal, simulation, JournalCommand.SET_GOAL, robot,
+                                room.getWidth() / 3, room.getHeight() / 3);
+                    }
+                    case 40 -> {
+                        commands += apply(journal, simulation, JournalCommand.TURN, robots.get(1), 1);
+                        commands += apply(journal, simulation, JournalCommand.TOGGLE_MOVEMENT, robots.get(2));
+                        commands += apply(journal, simulation, JournalCommand.SET_SPEED, robots.get(3), 75);
+                        commands += apply(journal, simulation, JournalCommand.SET_CENTER_X, robots.get(4),
+                                robots.get(4).getCenterX() + 3);
+                    }
+                    case 60 -> {
+                        commands += apply(journal, simulation, JournalCommand.SET_WIDTH, blocks.get(0),
+                                blocks.get(0).getWidth() * 1.2);
+                        commands += apply(journal, simulation, JournalCommand.SET_LEFT_TOP_Y, blocks.get(1),
+                                blocks.get(1).getLeftTopY() - 4);
+                    }
+                    case 80 -> {
+                        commands += apply(journal, simulation, JournalCommand.ADD_BLOCK, null,
+                                10, 10, 20, 15);
+                        commands += apply(journal, simulation, JournalCommand.ADD_ROBOT, null,
+                                room.getWidth() / 2, room.getHeight() / 2, 8, 40, 180, 12, 0, 50, 60);
+                    }
+                    case 120 -> {
+                        tick = 10_000_000;
+                        commands += apply(journal, simulation, JournalCommand.SET_TICK_NANOS, null, tick);
+                    }
+                    case 150 -> commands += apply(journal, simulation, JournalCommand.PAUSE, null);
+                    case 170 -> commands += apply(journal, simulation, JournalCommand.RESUME, null);
+                    default -> {
+                    }
+                }
+                simulation.step(tick);
+            }
+            journal.close(simulation.getSteps());
+        }
+        return new Session(path, commands, InputJournal.digest(room));
+    }
+
+    /**
+     * Records a command into the journal and applies it to the room of the simulation.
+     *
+     * @param journal    The journal.
+     * @param simulation The simulation advancing the room.
+     * @param command    The command.
+     * @param entity     The targeted robot or block, or null if the command targets the room.
+     * @param values     The values of the command.
+     * @return The number of recorded commands, one.
+     * @throws IOException If the journal cannot be written.
+     */
+    private static int apply(InputJournal journal, Simulation simulation, JournalCommand command,
+                             GameEntity entity, double... values) throws IOException {
+        journal.record(simulation.getSteps(), command, entity, values);
+        command.apply(simulation.getRoom(), entity, values);
+        return 1;
+    }
+
+    /**
+     * A recorded session.
+     *
+     * @param path     The path of the journal.
+     * @param commands The number of recorded commands.
+     * @param digest   The digest of the final state of the room.
+     */
+    private record Session(Path path, long commands, long digest) {
+    }
+}
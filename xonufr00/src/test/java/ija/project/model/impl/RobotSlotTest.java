@@ -0,0 +1,46 @@
+/**
+ * @file RobotSlotTest.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.model.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that robots only take slots of their room's store once they are added to the room.
+ */
+class RobotSlotTest {
+
+    @Test
+    void robotsNotAddedTakeNoSlots() {
+        var room = new Room(500, 500);
+        for (int i = 0; i < 100; i++) new Robot(room, 50, 50, 5, 0, 15, 60, 12, 40, 180);
+        assertEquals(0, room.getRobotStore().size());
+
+        var robot = new Robot(room, 100, 200, 5, 30, 15, 60, 12, 40, 180);
+        room.addRobot(robot);
+        assertEquals(1, room.getRobotStore().size());
+        assertSame(robot, room.getRobotStore().getHandle(robot.getIndex()));
+    }
+
+    @Test
+    void addedRobotKeepsItsState() {
+        var room = new Room(500, 500);
+        var robot = new Robot(room, 100, 200, 7, 30, 15, 60, 12, 40, 180);
+        robot.setGoal(300, 400);
+        room.addRobot(robot);
+        room.addRobot(robot);
+
+        assertEquals(1, room.getRobotStore().size());
+        assertEquals(100, robot.getCenterX());
+        assertEquals(200, robot.getCenterY());
+        assertEquals(7, robot.getRobotRadius());
+        assertEquals(30, robot.getRobotCurrentAngle());
+        assertEquals(40, robot.getSpeedPerSecond());
+        assertEquals(300, robot.getGoalX());
+        assertEquals(400, robot.getGoalY());
+        assertTrue(robot.isPaused());
+    }
+}
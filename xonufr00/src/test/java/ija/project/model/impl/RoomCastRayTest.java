@@ -0,0 +1,77 @@
+/**
+ * @file RoomCastRayTest.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.model.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the distances measured by rays cast in a room and by the sensor of a robot.
+ */
+class RoomCastRayTest {
+
+    /**
+     * The largest difference between a measured and an expected distance.
+     */
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * The room with a block to the right of the robot and another robot below it.
+     */
+    private Room room;
+
+    /**
+     * The robot casting the rays, heading right.
+     */
+    private Robot robot;
+
+    @BeforeEach
+    void setUp() {
+        room = new Room(500, 500);
+        robot = new Robot(room, 100, 100, 5, 0, 300, 60, 12, 40, 180);
+        room.addRobot(robot);
+        room.addRobot(new Robot(room, 100, 300, 10, 0, 15, 60, 12, 40, 180));
+        room.addBlock(new Block(room, 200, 80, 20, 40));
+    }
+
+    @Test
+    void rayStopsAtWall() {
+        assertEquals(60, room.castRay(60, 200, -1, 0, 1000, c -> true), EPSILON);
+        assertEquals(100, robot.senseDistance(180), EPSILON);
+    }
+
+    @Test
+    void rayStopsAtBlock() {
+        assertEquals(70, room.castRay(130, 100, 1, 0, 1000, c -> true), EPSILON);
+        assertEquals(100, robot.senseDistance(0), EPSILON);
+    }
+
+    @Test
+    void rayStopsAtRobot() {
+        assertEquals(150, room.castRay(100, 140, 0, 1, 1000, c -> true), EPSILON);
+        assertEquals(190, robot.senseDistance(-90), EPSILON);
+    }
+
+    @Test
+    void rayIsCutAtItsLength() {
+        assertEquals(50, room.castRay(300, 300, 1, 0, 50, c -> true), EPSILON);
+        assertEquals(300, robot.senseDistance(-45), EPSILON);
+    }
+
+    @Test
+    void sensorExcludesCaster() {
+        assertEquals(0, room.castRay(100, 100, -1, 0, 1000, c -> true), EPSILON);
+        assertEquals(100, room.castRay(100, 100, -1, 0, 1000, c -> c != robot), EPSILON);
+    }
+
+    @Test
+    void clearestHeadingAvoidsBlock() {
+        assertTrue(Double.isNaN(new Robot(room, 190, 100, 5, 0, 300, 60, 12, 40, 180).findClearestHeading(7)));
+        var heading = robot.findClearestHeading(7);
+        assertTrue(Math.abs(heading) > 0 && Math.abs(heading) <= 30);
+    }
+}
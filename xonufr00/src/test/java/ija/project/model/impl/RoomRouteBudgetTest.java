@@ -0,0 +1,95 @@
+/**
+ * @file RoomRouteBudgetTest.java
+ * @author Ivan Burlustkyi
+ */
+package ija.project.model.impl;
+
+import ija.project.generator.ScenarioGenerator;
+import ija.project.generator.ScenarioLayout;
+import ija.project.model.enums.RobotMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the room spreads the route searches of robots in GOAL mode over several updates.
+ */
+class RoomRouteBudgetTest {
+
+    /**
+     * The length of a tick in nanoseconds.
+     */
+    private static final long TICK = 16_666_667;
+
+    @Test
+    void searchesPerUpdateAreBounded() {
+        var room = new ScenarioGenerator(300, 40, ScenarioLayout.MAZE, 9).nextRoom();
+        room.resume();
+        var random = new Random(9);
+        for (var robot : room.getRobots()) {
+            robot.setMode(RobotMode.GOAL);
+            robot.setGoal(random.nextDouble() * room.getWidth(), random.nextDouble() * room.getHeight());
+        }
+
+        var planner = room.getPathPlanner();
+        for (int tick = 0; tick < 20; tick++) {
+            var searches = planner.getSearchCount();
+            room.update(TICK);
+            assertTrue(planner.getSearchCount() - searches <= room.getRouteBudget());
+        }
+        assertTrue(planner.getSearchCount() > 0);
+    }
+
+    @Test
+    void everyRobotOfLargeRoomGetsRouteInBoundedUpdates() {
+        var room = new ScenarioGenerator(1000, 300, ScenarioLayout.MAZE, 1).nextRoom();
+        room.resume();
+        var random = new Random(1);
+        for (var robot : room.getRobots()) {
+            robot.setMode(RobotMode.GOAL);
+            robot.setGoal(random.nextDouble() * room.getWidth(), random.nextDouble() * room.getHeight());
+        }
+        assertTrue(room.getRouteBudget() > room.getRouteSearchesPerUpdate());
+
+        var routed = new HashSet<Robot>();
+        for (int tick = 0; tick < Room.ROUTE_PLANNING_UPDATES; tick++) {
+            room.update(TICK);
+            for (var robot : room.getRobots()) {
+                if (!robot.needsRoute()) routed.add(robot);
+            }
+        }
+        assertEquals(room.getRobots().size(), routed.size());
+    }
+
+    @Test
+    void robotWaitingForRouteStaysInPlace() {
+        var room = new Room(500, 500);
+        room.setRouteSearchesPerUpdate(1);
+        var first = new Robot(room, 100, 100, 5, 0, 15, 60, 12, 40, 180);
+        var second = new Robot(room, 100, 300, 5, 0, 15, 60, 12, 40, 180);
+        room.addRobot(first);
+        room.addRobot(second);
+        for (var robot : room.getRobots()) {
+            robot.setMode(RobotMode.GOAL);
+            robot.setGoal(400, robot.getCenterY());
+        }
+        room.resume();
+
+        room.update(TICK);
+        assertTrue(second.hasRoute());
+        assertEquals(100, second.getCenterX());
+        assertEquals(300, second.getCenterY());
+
+        for (int tick = 0; tick < 120; tick++) room.update(TICK);
+        assertTrue(first.getCenterX() > 100);
+        assertTrue(second.getCenterX() > 100);
+    }
+
+    @Test
+    void budgetMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new Room(100, 100).setRouteSearchesPerUpdate(0));
+    }
+}
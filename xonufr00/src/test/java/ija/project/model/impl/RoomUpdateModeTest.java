@@ -0,0 +1,109 @@
+/**
+ * @file RoomUpdateModeTest.java
+ * @author Ivan Onufriienko
+ */
+package ija.project.model.impl;
+
+import ija.project.engine.Simulation;
+import ija.project.generator.ScenarioGenerator;
+import ija.project.generator.ScenarioLayout;
+import ija.project.journal.InputJournal;
+import ija.project.model.enums.RobotMode;
+import ija.project.model.enums.UpdateMode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the parallel update mode gives the same results as the two-phase mode it parallelizes,
+ * however the planning is split between the workers.
+ */
+class RoomUpdateModeTest {
+
+    /**
+     * The number of robots of a generated room, enough to split the planning into several tasks.
+     */
+    private static final int ROBOTS = 1200;
+
+    /**
+     * The number of blocks of a generated room; the corridors layout fits fewer of them.
+     */
+    private static final int BLOCKS = 200, CORRIDOR_BLOCKS = 30;
+
+    /**
+     * The number of simulated ticks.
+     */
+    private static final int TICKS = 240;
+
+    /**
+     * The length of a tick in nanoseconds.
+     */
+    private static final long TICK = 16_666_667;
+
+    /**
+     * The pool running the parallel planning, with several workers even on a single processor.
+     */
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void createPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @ParameterizedTest
+    @EnumSource(ScenarioLayout.class)
+    void parallelMatchesTwoPhase(ScenarioLayout layout) {
+        assertEquals(simulate(layout, UpdateMode.TWO_PHASE, false), simulate(layout, UpdateMode.PARALLEL, false));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ScenarioLayout.class)
+    void parallelMatchesTwoPhaseWithGoals(ScenarioLayout layout) {
+        assertEquals(simulate(layout, UpdateMode.TWO_PHASE, true), simulate(layout, UpdateMode.PARALLEL, true));
+    }
+
+    /**
+     * Simulates a generated room, editing a block halfway through.
+     *
+     * @param layout The layout of the room.
+     * @param mode   The update mode.
+     * @param goals  If true, the robots seek random goals in GOAL mode.
+     * @return The digest of the final state of the room.
+     */
+    private static long simulate(ScenarioLayout layout, UpdateMode mode, boolean goals) {
+        var room = new ScenarioGenerator(ROBOTS, layout == ScenarioLayout.CORRIDORS ? CORRIDOR_BLOCKS : BLOCKS,
+                layout, 7).nextRoom();
+        room.setUpdateMode(mode);
+        room.setPool(pool);
+        room.resume();
+        if (goals) {
+            var random = new Random(7);
+            for (var robot : room.getRobots()) {
+                robot.setMode(RobotMode.GOAL);
+                robot.setGoal(random.nextDouble() * room.getWidth(), random.nextDouble() * room.getHeight());
+            }
+        }
+        var simulation = new Simulation(room);
+        for (int tick = 0; tick < TICKS; tick++) {
+            simulation.step(TICK);
+            if (tick == TICKS / 2) {
+                var block = room.getBlocks().iterator().next();
+                block.setLeftTopX(block.getLeftTopX() + 7);
+                block.setWidth(block.getWidth() * 1.3);
+            }
+        }
+        assertTrue(room.isInValidState());
+        return InputJournal.digest(room);
+    }
+}